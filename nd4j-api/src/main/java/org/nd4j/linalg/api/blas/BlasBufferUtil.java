@@ -5,6 +5,9 @@ import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.NDArrayFactory;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
 /**
  * Blas buffer util for interopping with the underlying buffers
  * and the given ndarrays
@@ -342,4 +345,107 @@ public class BlasBufferUtil {
     }
 
 
+    /**
+     * Returns the double data of the buffer behind this ndarray
+     * indexed the same way as the buffer: with the array's
+     * offset and strides, so views can be handed to blas as is.
+     * Heap buffers return their array.
+     * Direct buffers are bulk copied up to the last element of the array.
+     * @param arr the ndarray to get the data for
+     * @return the data, indexed like the buffer
+     */
+    public static double[] getBackingDoubleData(INDArray arr) {
+        DataBuffer buf = arr.data();
+        if(buf.dataType() != DataBuffer.Type.DOUBLE)
+            throw new IllegalArgumentException("Double data must be obtained from a double buffer");
+        if(buf.allocationMode() == DataBuffer.AllocationMode.HEAP)
+            return buf.asDouble();
+        double[] ret = new double[end(arr)];
+        buf.asNio().asDoubleBuffer().get(ret);
+        return ret;
+    }
+
+    /**
+     * Returns the float data of the buffer behind this ndarray
+     * indexed the same way as the buffer: with the array's
+     * offset and strides, so views can be handed to blas as is.
+     * Heap buffers return their array.
+     * Direct buffers are bulk copied up to the last element of the array.
+     * @param arr the ndarray to get the data for
+     * @return the data, indexed like the buffer
+     */
+    public static float[] getBackingFloatData(INDArray arr) {
+        DataBuffer buf = arr.data();
+        if(buf.dataType() != DataBuffer.Type.FLOAT)
+            throw new IllegalArgumentException("Float data must be obtained from a float buffer");
+        if(buf.allocationMode() == DataBuffer.AllocationMode.HEAP)
+            return buf.asFloat();
+        float[] ret = new float[end(arr)];
+        buf.asNio().asFloatBuffer().get(ret);
+        return ret;
+    }
+
+    /**
+     * Write the elements of the given matrix back from data obtained with
+     * {@link #getBackingDoubleData(INDArray)}.
+     * Heap buffers were written in place and are left alone,
+     * only the elements of the matrix are written to a direct buffer.
+     * @param data the data, indexed like the buffer
+     * @param toSet the matrix to write
+     */
+    public static void setBackingData(double[] data,INDArray toSet) {
+        DataBuffer buf = toSet.data();
+        if(buf.allocationMode() == DataBuffer.AllocationMode.HEAP)
+            return;
+        DoubleBuffer nio = buf.asNio().asDoubleBuffer();
+        int offset = toSet.offset();
+        if(isContiguous(toSet)) {
+            nio.position(offset);
+            nio.put(data, offset, toSet.length());
+            return;
+        }
+        for(int j = 0; j < toSet.columns(); j++)
+            for(int i = 0; i < toSet.rows(); i++) {
+                int index = offset + i * toSet.stride(0) + j * toSet.stride(1);
+                nio.put(index, data[index]);
+            }
+    }
+
+    /**
+     * Write the elements of the given matrix back from data obtained with
+     * {@link #getBackingFloatData(INDArray)}.
+     * Heap buffers were written in place and are left alone,
+     * only the elements of the matrix are written to a direct buffer.
+     * @param data the data, indexed like the buffer
+     * @param toSet the matrix to write
+     */
+    public static void setBackingData(float[] data,INDArray toSet) {
+        DataBuffer buf = toSet.data();
+        if(buf.allocationMode() == DataBuffer.AllocationMode.HEAP)
+            return;
+        FloatBuffer nio = buf.asNio().asFloatBuffer();
+        int offset = toSet.offset();
+        if(isContiguous(toSet)) {
+            nio.position(offset);
+            nio.put(data, offset, toSet.length());
+            return;
+        }
+        for(int j = 0; j < toSet.columns(); j++)
+            for(int i = 0; i < toSet.rows(); i++) {
+                int index = offset + i * toSet.stride(0) + j * toSet.stride(1);
+                nio.put(index, data[index]);
+            }
+    }
+
+    //one past the buffer index of the last element of the array
+    private static int end(INDArray arr) {
+        int ret = arr.offset() + 1;
+        for(int i = 0; i < arr.rank(); i++)
+            ret += (arr.size(i) - 1) * arr.stride(i);
+        return ret;
+    }
+
+    private static boolean isContiguous(INDArray arr) {
+        return end(arr) - arr.offset() == arr.length();
+    }
 }
@@ -45,6 +45,25 @@ public interface Level3 {
           INDArray B,
           double beta, INDArray C);
 
+    /**
+     * gemm for each matrix of a stack of matrices:
+     c[i] := alpha*op(a[i])*op(b[i]) + beta*c[i],
+     where a, b and c are rank 3 with the matrices along the first dimension
+     * @param Order
+     * @param TransA
+     * @param TransB
+     * @param alpha
+     * @param A
+     * @param B
+     * @param beta
+     * @param C
+     */
+    void batchedGemm(char Order, char TransA,
+                     char TransB,
+                     double alpha, INDArray A,
+                     INDArray B,
+                     double beta, INDArray C);
+
 
 
     /**
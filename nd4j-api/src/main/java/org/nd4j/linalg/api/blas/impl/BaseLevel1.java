@@ -7,7 +7,9 @@ import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.instrumentation.OpTimer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
 
 /**
  * Base class for level 1 functions, abstract headers pulled from:
@@ -27,9 +29,15 @@ public abstract  class BaseLevel1 extends BaseLevel implements Level1 {
      */
     @Override
     public double dot(int n, double alpha, INDArray X, INDArray Y) {
+        OpTimer timer = Nd4j.getOpMetrics().start();
+        double ret;
         if(X.data().dataType() == DataBuffer.Type.DOUBLE)
-            return ddot(n,X,BlasBufferUtil.getBlasStride(X),Y,BlasBufferUtil.getBlasStride(X));
-        return sdot(n,X,BlasBufferUtil.getBlasStride(X),Y,BlasBufferUtil.getBlasStride(X));
+            ret = ddot(n,X,BlasBufferUtil.getBlasStride(X),Y,BlasBufferUtil.getBlasStride(X));
+        else
+            ret = sdot(n,X,BlasBufferUtil.getBlasStride(X),Y,BlasBufferUtil.getBlasStride(X));
+        if(timer != null)
+            timer.stop("dot", n, true);
+        return ret;
     }
 
     /**
@@ -214,10 +222,13 @@ public abstract  class BaseLevel1 extends BaseLevel implements Level1 {
      */
     @Override
     public void axpy(int n, double alpha, INDArray x, INDArray y) {
+        OpTimer timer = Nd4j.getOpMetrics().start();
         if(x.data().dataType() == DataBuffer.Type.DOUBLE)
             daxpy(n,alpha,x,BlasBufferUtil.getBlasStride(x),y,BlasBufferUtil.getBlasStride(y));
         else
             saxpy(n, (float) alpha, x, BlasBufferUtil.getBlasStride(x), y, BlasBufferUtil.getBlasStride(y));
+        if(timer != null)
+            timer.stop("axpy", n, true);
     }
 
     /**
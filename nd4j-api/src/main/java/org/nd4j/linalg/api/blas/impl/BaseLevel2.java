@@ -8,7 +8,9 @@ import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.instrumentation.OpTimer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
 
 /**
  * Base class for level 2 functions, abstract headers pulled from:
@@ -34,6 +36,7 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
      */
     @Override
     public void gemv(char order, char transA, double alpha, INDArray A, INDArray X, double beta, INDArray Y) {
+        OpTimer timer = Nd4j.getOpMetrics().start();
         GemvParameters parameters = new GemvParameters(A,X,Y);
         if(A.data().dataType() == DataBuffer.Type.DOUBLE)
             dgemv(order
@@ -63,6 +66,8 @@ public abstract class BaseLevel2 extends BaseLevel implements Level2 {
                     , Y
                     , parameters.getIncy());
 
+        if(timer != null)
+            timer.stop("gemv", Y.length(), true);
     }
 
     /**
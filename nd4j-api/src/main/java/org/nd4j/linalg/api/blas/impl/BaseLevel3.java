@@ -7,7 +7,10 @@ import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.instrumentation.OpTimer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.Loop;
+import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.NDArrayFactory;
 
 /**
@@ -34,39 +37,114 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
      */
     @Override
     public void gemm(char Order, char TransA, char TransB, double alpha, INDArray A, INDArray B, double beta, INDArray C) {
-        GemmParams params = new GemmParams(A,B,C);
+        OpTimer timer = Nd4j.getOpMetrics().start();
+        //results blas can not write in place are computed in a copy
+        INDArray result = C;
+        if(supportsStridedViews()) {
+            if(!GemmParams.isBlasCompatible(C))
+                result = C.dup();
+        }
+        else {
+            A = isWholeBuffer(A) ? A : A.dup();
+            B = isWholeBuffer(B) ? B : B.dup();
+            result = isWholeBuffer(C) ? C : C.dup();
+        }
+        GemmParams params = new GemmParams(A,B,result,TransA,TransB);
 
         if(A.data().dataType() == DataBuffer.Type.DOUBLE)
             dgemm(Order
-                    ,TransA
-                    ,TransB
+                    ,params.getTransA()
+                    ,params.getTransB()
                     ,params.getM()
                     ,params.getN()
                     ,params.getK()
-                    ,1.0
+                    ,alpha
                     ,params.getA()
                     ,params.getLda()
                     ,params.getB()
                     ,params.getLdb()
-                    ,0
-                    ,C
+                    ,beta
+                    ,result
                     ,params.getLdc());
         else
             sgemm(Order
-                    , TransA
-                    , TransB
+                    , params.getTransA()
+                    , params.getTransB()
                     , params.getM()
                     , params.getN()
                     , params.getK()
-                    , 1.0f
+                    , (float) alpha
                     , params.getA()
                     , params.getLda()
                     , params.getB()
                     , params.getLdb()
-                    , 0
-                    , C
+                    , (float) beta
+                    , result
                     , params.getLdc());
 
+        if(result != C)
+            C.assign(result);
+        if(timer != null)
+            timer.stop("gemm", C.length(), true);
+    }
+
+    /**
+     * gemm for each matrix of a stack of matrices:
+     * c[i] := alpha*op(a[i])*op(b[i]) + beta*c[i]
+     * where a, b and c are rank 3 with the matrices along the first dimension.
+     * The products are computed on views of the stacks
+     * and spread across cores when the batch is large enough.
+     * @param Order
+     * @param TransA
+     * @param TransB
+     * @param alpha
+     * @param A
+     * @param B
+     * @param beta
+     * @param C
+     */
+    @Override
+    public void batchedGemm(final char Order, final char TransA, final char TransB, final double alpha, final INDArray A, final INDArray B, final double beta, final INDArray C) {
+        if(A.rank() != 3 || B.rank() != 3 || C.rank() != 3)
+            throw new IllegalArgumentException("Batched gemm requires rank 3 operands");
+        final int batch = C.size(0);
+        if(A.size(0) != batch || B.size(0) != batch)
+            throw new IllegalArgumentException("A, B and C must have the same number of matrices");
+
+        Loop.Each product = new Loop.Each() {
+            @Override
+            public void run(int i) {
+                gemm(Order, TransA, TransB, alpha, A.slice(i), B.slice(i), beta, C.slice(i));
+            }
+        };
+        int k = isTranspose(TransA) ? A.size(1) : A.size(2);
+        if(batch > 1 && (long) C.length() * k >= Nd4j.parallelThreshold)
+            Loop.withIndex(0, batch, product);
+        else
+            for(int i = 0; i < batch; i++)
+                product.run(i);
+    }
+
+    private static boolean isTranspose(char trans) {
+        return trans != 'N' && trans != 'n';
+    }
+
+    //whether the matrix is all of its buffer, rows or columns after each other
+    private static boolean isWholeBuffer(INDArray arr) {
+        return arr.offset() == 0 && arr.length() == arr.data().length()
+                && (GemmParams.leadingDimension(arr, true) == Math.max(1, arr.rows())
+                || GemmParams.leadingDimension(arr, false) == Math.max(1, arr.columns()));
+    }
+
+    /**
+     * Whether the backend reads gemm operands in place
+     * through their offset and leading dimension.
+     * Backends that copy views before calling blas return false
+     * and are only handed matrices that span their whole buffer.
+     * @return true if strided views can be passed to the backend
+     */
+    protected boolean supportsStridedViews() {
+        return true;
     }
 
 
@@ -14,19 +14,53 @@ import org.nd4j.linalg.factory.NDArrayFactory;
 public @Data class GemmParams {
     private int lda,ldb,ldc,m,n,k;
     private INDArray a,b,c;
+    private char transA = 'N',transB = 'N';
 
     public GemmParams(INDArray a,INDArray b,INDArray c) {
-        if(b.columns() != c.columns())
+        this(a,b,c,'N','N');
+    }
+
+    /**
+     * Parameters for c = op(a) * op(b)
+     * as a column major blas call.
+     * Operands are addressed in place through their offset and strides
+     * with the leading dimension of the buffer they view:
+     * row major operands are read as their transpose,
+     * a row major result is computed as c' = op(b)' * op(a)'.
+     * Only operands blas can not address are copied.
+     * The result must be addressable, see {@link #isBlasCompatible(INDArray)}
+     * @param a the first operand
+     * @param b the second operand
+     * @param c the result
+     * @param transA 'N' for a, 'T' for its transpose
+     * @param transB 'N' for b, 'T' for its transpose
+     */
+    public GemmParams(INDArray a,INDArray b,INDArray c,char transA,char transB) {
+        boolean aTransposed = isTranspose(transA);
+        boolean bTransposed = isTranspose(transB);
+        int aRows = aTransposed ? a.columns() : a.rows();
+        int aColumns = aTransposed ? a.rows() : a.columns();
+        int bRows = bTransposed ? b.columns() : b.rows();
+        int bColumns = bTransposed ? b.rows() : b.columns();
+        if(bColumns != c.columns())
             throw new IllegalArgumentException("B columns must match c columns");
-        if(a.rows() != c.rows())
+        if(aRows != c.rows())
             throw new IllegalArgumentException("A rows must equal c rows");
+        if(aColumns != bRows)
+            throw new IllegalArgumentException("A columns must equal B rows");
+        if(!isBlasCompatible(c))
+            throw new IllegalArgumentException("C must be addressable by blas");
+        if(!isBlasCompatible(a))
+            a = a.dup();
+        if(!isBlasCompatible(b))
+            b = b.dup();
         this.a = a;
         this.b = b;
         this.c = c;
-        this.m = a.rows();
-        this.n = b.columns();
-        this.k = a.columns();
-        if(a.ordering() == NDArrayFactory.C) {
+        this.m = aRows;
+        this.n = bColumns;
+        this.k = aColumns;
+        if(!isColumnMajor(c)) {
             int oldN = n;
             int oldM = m;
             this.m = oldN;
@@ -34,16 +68,74 @@ public @Data class GemmParams {
             //invert the operation
             this.a = b;
             this.b = a;
+            boolean oldATransposed = aTransposed;
+            aTransposed = !bTransposed;
+            bTransposed = !oldATransposed;
         }
 
-        this.lda = Math.max(1, m);
-        this.ldb = Math.max(1, k);
-        this.ldc = Math.max(1, m);
+        this.transA = trans(this.a,aTransposed);
+        this.transB = trans(this.b,bTransposed);
+        this.lda = ld(this.a);
+        this.ldb = ld(this.b);
+        this.ldc = ld(c);
 
 
         validate();
     }
 
+    private static boolean isTranspose(char trans) {
+        return trans != 'N' && trans != 'n';
+    }
+
+    //a row major array read as column major is already transposed
+    private static char trans(INDArray arr,boolean transposed) {
+        return isColumnMajor(arr) != transposed ? 'N' : 'T';
+    }
+
+    private static int ld(INDArray arr) {
+        return leadingDimension(arr, isColumnMajor(arr));
+    }
+
+    //column major when possible for f ordered arrays, row major when possible otherwise
+    private static boolean isColumnMajor(INDArray arr) {
+        boolean columnMajor = leadingDimension(arr, true) > 0;
+        boolean rowMajor = leadingDimension(arr, false) > 0;
+        return columnMajor && (!rowMajor || arr.ordering() == NDArrayFactory.FORTRAN);
+    }
+
+    /**
+     * Whether blas can address the matrix in place:
+     * its rows or its columns are contiguous
+     * and lie a leading dimension apart
+     * @param arr the matrix
+     * @return true if the matrix can be handed to blas without a copy
+     */
+    public static boolean isBlasCompatible(INDArray arr) {
+        return leadingDimension(arr, true) > 0 || leadingDimension(arr, false) > 0;
+    }
+
+    /**
+     * The leading dimension of the matrix when read in the given layout
+     * @param arr the matrix
+     * @param columnMajor whether to read it column major (fortran) or row major (c)
+     * @return the leading dimension or -1 if blas can not read the matrix in that layout
+     */
+    public static int leadingDimension(INDArray arr,boolean columnMajor) {
+        if(arr.rank() != 2) {
+            //anything else is assumed to be laid out by its ordering
+            if((arr.ordering() == NDArrayFactory.FORTRAN) != columnMajor)
+                return -1;
+            return Math.max(1, columnMajor ? arr.rows() : arr.columns());
+        }
+        int rows = arr.size(0), columns = arr.size(1);
+        int contiguous = columnMajor ? 0 : 1;
+        int extent = columnMajor ? rows : columns;
+        int other = columnMajor ? columns : rows;
+        if(extent > 1 && arr.stride(contiguous) != 1)
+            return -1;
+        int ld = other > 1 ? arr.stride(1 - contiguous) : Math.max(1, extent);
+        return ld >= Math.max(1, extent) ? ld : -1;
+    }
 
     private void validate() {
 
@@ -21,6 +21,7 @@ package org.nd4j.linalg.api.buffer;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import org.nd4j.linalg.api.buffer.allocation.PooledDirectMemoryStrategy;
 import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNumber;
@@ -42,6 +43,9 @@ import java.util.*;
  */
 public abstract class BaseDataBuffer implements DataBuffer {
 
+    //bytes staged per bulk transfer when serializing
+    private static final int TRANSFER_SIZE = 1 << 16;
+
     protected int length;
     protected int elementSize;
     protected transient ByteBuf dataBuffer;
@@ -59,7 +63,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
      * @param length
      */
     protected BaseDataBuffer(ByteBuf buf,int length) {
-        allocationMode = Nd4j.alloc;
+        //the data lives in the byte buffer rather than a java array
+        allocationMode = AllocationMode.DIRECT;
         this.dataBuffer = buf;
         this.length = length;
     }
@@ -80,7 +85,12 @@ public abstract class BaseDataBuffer implements DataBuffer {
             }
         }
         else {
-            dataBuffer = Unpooled.copyFloat(data).order(ByteOrder.nativeOrder());
+            allocateDirect(data.length);
+            if(dataType() == Type.FLOAT)
+                dataBuffer.nioBuffer(0, dataBuffer.capacity()).order(ByteOrder.nativeOrder()).asFloatBuffer().put(data);
+            else
+                for(int i = 0; i < data.length; i++)
+                    put(i, data[i]);
         }
         length = data.length;
 
@@ -102,7 +112,12 @@ public abstract class BaseDataBuffer implements DataBuffer {
             }
         }
         else {
-            dataBuffer = Unpooled.copyDouble(data).order(ByteOrder.nativeOrder());
+            allocateDirect(data.length);
+            if(dataType() == Type.DOUBLE)
+                dataBuffer.nioBuffer(0, dataBuffer.capacity()).order(ByteOrder.nativeOrder()).asDoubleBuffer().put(data);
+            else
+                for(int i = 0; i < data.length; i++)
+                    put(i, data[i]);
         }
         length = data.length;
 
@@ -123,8 +138,14 @@ public abstract class BaseDataBuffer implements DataBuffer {
                 this.intData = data;
 
         }
-        else
-            dataBuffer = Unpooled.copyInt(data).order(ByteOrder.nativeOrder());
+        else {
+            allocateDirect(data.length);
+            if(dataType() == Type.INT)
+                dataBuffer.nioBuffer(0, dataBuffer.capacity()).order(ByteOrder.nativeOrder()).asIntBuffer().put(data);
+            else
+                for(int i = 0; i < data.length; i++)
+                    put(i, (double) data[i]);
+        }
 
         length = data.length;
     }
@@ -186,18 +207,17 @@ public abstract class BaseDataBuffer implements DataBuffer {
         this.length = length;
         allocationMode = Nd4j.alloc;
 
-        ref = new WeakReference<DataBuffer>(this,Nd4j.bufferRefQueue());
         if(allocationMode == AllocationMode.HEAP) {
+            ref = new WeakReference<DataBuffer>(this,Nd4j.bufferRefQueue());
             if(dataType() == Type.DOUBLE)
                 doubleData = new double[length];
             else if(dataType() == Type.FLOAT)
                 floatData = new float[length];
+            else if(dataType() == Type.INT)
+                intData = new int[length];
         }
-        else {
-            dataBuffer = allocationMode == AllocationMode.DIRECT ?
-                    Unpooled.buffer(length * getElementSize()).order(ByteOrder.nativeOrder())
-                    : Unpooled.buffer(length * getElementSize()).order(ByteOrder.nativeOrder());
-        }
+        else
+            allocateDirect(length);
 
     }
 
@@ -302,6 +322,38 @@ public abstract class BaseDataBuffer implements DataBuffer {
         return length;
     }
 
+    @Override
+    public long lengthLong() {
+        return length;
+    }
+
+    @Override
+    public double getDouble(long i) {
+        return getDouble(index(i));
+    }
+
+    @Override
+    public float getFloat(long i) {
+        return getFloat(index(i));
+    }
+
+    @Override
+    public void put(long i, double element) {
+        put(index(i), element);
+    }
+
+    @Override
+    public void put(long i, float element) {
+        put(index(i), element);
+    }
+
+    //a buffer holds at most Integer.MAX_VALUE elements so any long index beyond that is out of bounds
+    private int index(long i) {
+        if(i < 0 || i >= length)
+            throw new IndexOutOfBoundsException("Index " + i + " is out of bounds for length " + length);
+        return (int) i;
+    }
+
     @Override
     public void assign(Number value) {
         for(int i = 0; i < length(); i++)
@@ -547,6 +599,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
         if(dataType() == Type.FLOAT)
             return dataBuffer.getFloat(i * getElementSize());
+        if(dataType() == Type.INT)
+            return dataBuffer.getInt(i * getElementSize());
 
         return dataBuffer.getDouble(i * getElementSize());
     }
@@ -564,6 +618,8 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
         if(dataType() == Type.DOUBLE)
             return (float) dataBuffer.getDouble(i * getElementSize());
+        if(dataType() == Type.INT)
+            return dataBuffer.getInt(i * getElementSize());
 
         return dataBuffer.getFloat(i * getElementSize());
     }
@@ -592,6 +648,10 @@ public abstract class BaseDataBuffer implements DataBuffer {
                 ensureWritable(i, 8);
                 dataBuffer.setDouble(i * 8, (double) element);
             }
+            else if (dataType() == Type.INT) {
+                ensureWritable(i, 4);
+                dataBuffer.setInt(i * 4, (int) element);
+            }
             else {
                 ensureWritable(i, 4);
                 dataBuffer.setFloat(i * 4, element);
@@ -618,6 +678,11 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
             }
 
+            else if(dataType() == Type.INT) {
+                ensureWritable(i, 4);
+                dataBuffer.setInt(i * 4, (int) element);
+            }
+
             else
                 put(i,(float) element);
 
@@ -661,7 +726,15 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     @Override
     public void put(int i, int element) {
-        put(i,(double) element);
+        //ints above 2^24 are not exact as floats
+        if(intData != null)
+            intData[i] = element;
+        else if(doubleData == null && floatData == null && dataType() == Type.INT) {
+            ensureWritable(i, 4);
+            dataBuffer.setInt(i * 4, element);
+        }
+        else
+            put(i,(double) element);
     }
 
     @Override
@@ -710,6 +783,10 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     @Override
     public int getInt(int ix) {
+        if(intData != null)
+            return intData[ix];
+        if(doubleData == null && floatData == null && dataType() == Type.INT)
+            return dataBuffer.getInt(ix * 4);
         return (int) getDouble(ix);
     }
 
@@ -743,10 +820,28 @@ public abstract class BaseDataBuffer implements DataBuffer {
     }
 
 
+    /**
+     * Allocate zeroed off heap memory for the given number of elements
+     * from the pooled memory strategy. The memory is returned to the pool
+     * on {@link #destroy()} or once this buffer is garbage collected.
+     *
+     * @param length the number of elements to allocate
+     */
+    protected void allocateDirect(int length) {
+        dataBuffer = PooledDirectMemoryStrategy.getInstance().allocate(length * getElementSize());
+        ref = new DirectBufferReference(this, dataBuffer, Nd4j.bufferRefQueue());
+        BufferReaper.startReaping();
+    }
+
     @Override
     public void destroy() {
-        this.dataBuffer.clear();
+        //only the first destroy releases the memory: pooled memory may already belong to another buffer
+        if(ref instanceof DirectBufferReference)
+            ((DirectBufferReference) ref).release();
         this.dataBuffer = null;
+        this.doubleData = null;
+        this.floatData = null;
+        this.intData = null;
     }
 
     @Override
@@ -792,39 +887,43 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     protected void read(DataInputStream s) {
         try {
-            ref = new WeakReference<DataBuffer>(this,Nd4j.bufferRefQueue());
             referencing = Collections.synchronizedSet(new HashSet<String>());
 
             allocationMode = AllocationMode.valueOf(s.readUTF());
             length = s.readInt();
+            if(allocationMode == AllocationMode.HEAP)
+                ref = new WeakReference<DataBuffer>(this,Nd4j.bufferRefQueue());
             Type t = Type.valueOf(s.readUTF());
-            if(t == Type.DOUBLE) {
-                if(allocationMode == AllocationMode.HEAP) {
-                    floatData = new float[(int) length()];
-                    for(int i = 0; i < length(); i++) {
-                        put(i,s.readDouble());
-                    }
-                }
-                else {
-                    dataBuffer = Unpooled.buffer((int) length() * getElementSize()).order(ByteOrder.nativeOrder());
-                    for(int i = 0; i < length(); i++) {
-                        put(i,s.readDouble());
-                    }
-                }
+            if(allocationMode == AllocationMode.HEAP) {
+                if(t == Type.DOUBLE)
+                    doubleData = new double[length];
+                else
+                    floatData = new float[length];
             }
-            else {
-                if(allocationMode == AllocationMode.HEAP) {
-                    doubleData = new double[(int) length()];
-                    for(int i = 0; i < length(); i++) {
-                        put(i,s.readFloat());
-                    }
-                }
-                else {
-                    dataBuffer = Unpooled.buffer((int) length() * getElementSize()).order(ByteOrder.nativeOrder());
-                    for(int i = 0; i < length(); i++) {
-                        put(i,s.readFloat());
-                    }
-                }
+            else
+                allocateDirect(length);
+
+            //elements are big endian as written by write(DataOutputStream): read them in bulk
+            int elementSize = t == Type.DOUBLE ? 8 : 4;
+            byte[] staging = new byte[Math.min(TRANSFER_SIZE, Math.max(length, 1) * elementSize)];
+            ByteBuffer transfer = ByteBuffer.wrap(staging);
+            int perTransfer = staging.length / elementSize;
+            for(int i = 0; i < length; i += perTransfer) {
+                int n = Math.min(perTransfer, length - i);
+                s.readFully(staging, 0, n * elementSize);
+                transfer.clear();
+                transfer.limit(n * elementSize);
+                if(doubleData != null)
+                    transfer.asDoubleBuffer().get(doubleData, i, n);
+                else if(floatData != null)
+                    transfer.asFloatBuffer().get(floatData, i, n);
+                else if(t == Type.DOUBLE)
+                    region(i, n, elementSize).asDoubleBuffer().put(transfer.asDoubleBuffer());
+                else if(t == Type.FLOAT)
+                    region(i, n, elementSize).asFloatBuffer().put(transfer.asFloatBuffer());
+                else
+                    for(int j = 0; j < n; j++)
+                        put(i + j, transfer.getFloat(j * 4));
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -838,17 +937,45 @@ public abstract class BaseDataBuffer implements DataBuffer {
         out.writeUTF(allocationMode.name());
         out.writeInt(length());
         out.writeUTF(dataType().name());
-        if(dataType() == Type.DOUBLE) {
-            for(int i = 0; i < length(); i++)
-                out.writeDouble(getDouble(i));
-        }
-        else {
-            for(int i = 0; i < length(); i++)
-                out.writeFloat(getFloat(i));
+
+        //same bytes as DataOutputStream.writeDouble/writeFloat per element, staged in bulk
+        int elementSize = dataType() == Type.DOUBLE ? 8 : 4;
+        byte[] staging = new byte[Math.min(TRANSFER_SIZE, Math.max(length(), 1) * elementSize)];
+        ByteBuffer transfer = ByteBuffer.wrap(staging);
+        int perTransfer = staging.length / elementSize;
+        for(int i = 0; i < length(); i += perTransfer) {
+            int n = Math.min(perTransfer, length() - i);
+            transfer.clear();
+            if(dataType() == Type.DOUBLE) {
+                DoubleBuffer view = transfer.asDoubleBuffer();
+                if(doubleData != null)
+                    view.put(doubleData, i, n);
+                else if(dataBuffer != null)
+                    view.put(region(i, n, elementSize).asDoubleBuffer());
+                else
+                    for(int j = 0; j < n; j++)
+                        view.put(getDouble(i + j));
+            }
+            else {
+                FloatBuffer view = transfer.asFloatBuffer();
+                if(floatData != null)
+                    view.put(floatData, i, n);
+                else if(dataBuffer != null && dataType() == Type.FLOAT)
+                    view.put(region(i, n, elementSize).asFloatBuffer());
+                else
+                    for(int j = 0; j < n; j++)
+                        view.put(getFloat(i + j));
+            }
+            out.write(staging, 0, n * elementSize);
         }
 
     }
 
+    //a native order view of n elements of the byte buffer starting at element i
+    private ByteBuffer region(int i, int n, int elementSize) {
+        ByteBuffer region = dataBuffer.nioBuffer(i * elementSize, n * elementSize);
+        return region.order(ByteOrder.nativeOrder());
+    }
 
 
 
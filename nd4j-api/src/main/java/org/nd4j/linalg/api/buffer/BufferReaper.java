@@ -46,6 +46,10 @@ import java.util.concurrent.atomic.AtomicLong;
  * tricked in to thinking that the object is still being used when in reality its a circular reference.
  * This id mechanism allows tracking while still allowing the GC to properly mark items
  * for collection.
+ * <p/>
+ * Direct buffers register a {@link DirectBufferReference}
+ * with the buffer queue. Once the buffer is collected
+ * the reaper releases its off heap memory back to the pool.
  *
  * @author Adam Gibson
  */
@@ -53,6 +57,7 @@ public class BufferReaper extends Thread {
     private ReferenceQueue<INDArray> queue;
     private ReferenceQueue<DataBuffer> buffer;
     private AtomicLong ranFinals;
+    private static volatile BufferReaper reaper;
 
     public BufferReaper(ReferenceQueue<INDArray> queue, ReferenceQueue<DataBuffer> buffer) {
         this.queue = queue;
@@ -125,12 +130,30 @@ public class BufferReaper extends Thread {
     }
 
     /**
-     * Frees data used by the given ndarrays
+     * Start the shared reaper if it isn't already running.
+     * Called when direct memory is first allocated
+     */
+    public static void startReaping() {
+        if(reaper != null)
+            return;
+        synchronized (BufferReaper.class) {
+            if(reaper == null) {
+                BufferReaper start = new BufferReaper(Nd4j.refQueue(), Nd4j.bufferRefQueue());
+                start.start();
+                reaper = start;
+            }
+        }
+    }
+
+    /**
+     * Frees data used by the given ndarrays.
+     * Direct memory is returned to the pool immediately;
+     * the arrays (and any views of them) must not be used afterwards.
      * @param arrs the arrays to free
      */
     public static  void destroy(INDArray...arrs) {
-//        for(INDArray arr : arrs)
-//            arr.data().destroy();
+        for(INDArray arr : arrs)
+            arr.data().destroy();
     }
 
 
@@ -139,25 +162,29 @@ public class BufferReaper extends Thread {
     @Override
     public void run() {
 
-        while (Nd4j.resourceManagerOn) {
-            Reference<INDArray> queue2 = (Reference<INDArray>) queue.poll();
-            while(queue2 != null) {
-                queue2.get().cleanup();
-                queue2 = (Reference<INDArray>) queue.poll();
+        while (true) {
+            if(Nd4j.resourceManagerOn) {
+                Reference<INDArray> queue2 = (Reference<INDArray>) queue.poll();
+                while(queue2 != null) {
+                    INDArray arr = queue2.get();
+                    if(arr != null)
+                        arr.cleanup();
+                    queue2 = (Reference<INDArray>) queue.poll();
+                }
             }
 
-            Reference<DataBuffer> bufferQueue = (Reference<DataBuffer>) buffer.poll();
-            while(bufferQueue != null) {
-                //bufferQueue.get().destroy();
-                bufferQueue = (Reference<DataBuffer>) buffer.poll();
-            }
-
-            //Nd4j.getResourceManager().purge();
-            
             try {
-				Thread.sleep(1000);
-			} catch (InterruptedException e) {
-			}
+                //block until a buffer is collected rather than polling on a fixed interval
+                Reference<? extends DataBuffer> bufferQueue = buffer.remove(1000);
+                while(bufferQueue != null) {
+                    if(bufferQueue instanceof DirectBufferReference)
+                        ((DirectBufferReference) bufferQueue).release();
+                    bufferQueue = buffer.poll();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
         }
     }
 }
@@ -0,0 +1,537 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.buffer;
+
+import io.netty.buffer.ByteBuf;
+import org.nd4j.linalg.api.complex.IComplexDouble;
+import org.nd4j.linalg.api.complex.IComplexFloat;
+import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+
+/**
+ * A long indexed buffer for data with more than
+ * {@link Integer#MAX_VALUE} elements.
+ *
+ * The elements are stored in fixed size chunks, each of which is
+ * a normal {@link DataBuffer} (off heap when {@link Nd4j#alloc} is direct).
+ * Element i lives in chunk i / chunkLength at i % chunkLength.
+ *
+ * Use {@link #lengthLong()} and the long indexed accessors to reach
+ * every element: {@link #length()} and the int indexed accessors
+ * only work while the buffer holds fewer than {@link Integer#MAX_VALUE} elements.
+ * There is no single backing array, so {@link #array()} and the nio views are not supported.
+ *
+ * Ndarrays may be created over this buffer directly; the strided and parallel
+ * executors walk it with long offsets. Ndarray lengths are still ints,
+ * so an ndarray views at most {@link Integer#MAX_VALUE} elements of the buffer.
+ * {@link #vector(long, int)} returns a view of a single chunk where possible,
+ * which keeps the primitive array loops for heap chunks.
+ *
+ * @author Adam Gibson
+ */
+public class ChunkedDataBuffer implements DataBuffer {
+
+    private DataBuffer.Type type;
+    private long length;
+    private int chunkLength;
+    private DataBuffer[] chunks;
+    private AllocationMode allocationMode;
+    private boolean isPersist = false;
+    private Collection<String> referencing = Collections.synchronizedSet(new HashSet<String>());
+
+    /**
+     * Create a zeroed buffer
+     * @param type the type of the buffer (float or double)
+     * @param length the number of elements
+     * @param chunkLength the number of elements per chunk
+     */
+    public ChunkedDataBuffer(DataBuffer.Type type, long length, int chunkLength) {
+        if(type == DataBuffer.Type.INT)
+            throw new IllegalArgumentException("Only float and double buffers may be chunked");
+        if(length < 0 || chunkLength < 1)
+            throw new IllegalArgumentException("Length must be >= 0 and chunk length must be >= 1");
+        long numChunks = (length + chunkLength - 1) / chunkLength;
+        if(numChunks > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Chunk length " + chunkLength + " is too small for length " + length);
+
+        this.type = type;
+        this.length = length;
+        this.chunkLength = chunkLength;
+        this.allocationMode = Nd4j.alloc;
+        this.chunks = new DataBuffer[(int) numChunks];
+        for(int i = 0; i < chunks.length; i++) {
+            int size = (int) Math.min(chunkLength, length - (long) i * chunkLength);
+            chunks[i] = type == DataBuffer.Type.DOUBLE ? new DoubleBuffer(size) : new FloatBuffer(size);
+        }
+    }
+
+    /**
+     * The number of elements.
+     * Buffers longer than {@link Integer#MAX_VALUE}
+     * have to use {@link #lengthLong()}
+     *
+     * @return the length of the buffer
+     * @throws IllegalStateException if the length does not fit in an int
+     */
+    @Override
+    public int length() {
+        if(length > Integer.MAX_VALUE)
+            throw new IllegalStateException("Buffer of length " + length + " does not fit in an int; use lengthLong()");
+        return (int) length;
+    }
+
+    @Override
+    public long lengthLong() {
+        return length;
+    }
+
+    @Override
+    public DataBuffer.Type dataType() {
+        return type;
+    }
+
+    /**
+     * The number of elements per chunk
+     * @return the chunk length
+     */
+    public int chunkLength() {
+        return chunkLength;
+    }
+
+    /**
+     * The number of chunks
+     * @return the number of chunks
+     */
+    public int numChunks() {
+        return chunks.length;
+    }
+
+    /**
+     * The chunk at the given index
+     * @param i the index of the chunk
+     * @return the chunk
+     */
+    public DataBuffer chunk(int i) {
+        return chunks[i];
+    }
+
+    /**
+     * The chunk holding the given element
+     * @param i the element
+     * @return the index of the chunk containing the element
+     */
+    public int chunkIndex(long i) {
+        return (int) (i / chunkLength);
+    }
+
+    /**
+     * The offset of the given element
+     * within its chunk
+     * @param i the element
+     * @return the offset within the chunk
+     */
+    public int chunkOffset(long i) {
+        return (int) (i % chunkLength);
+    }
+
+    @Override
+    public double getDouble(long i) {
+        checkIndex(i);
+        return chunks[chunkIndex(i)].getDouble(chunkOffset(i));
+    }
+
+    @Override
+    public float getFloat(long i) {
+        checkIndex(i);
+        return chunks[chunkIndex(i)].getFloat(chunkOffset(i));
+    }
+
+    @Override
+    public void put(long i, double element) {
+        checkIndex(i);
+        chunks[chunkIndex(i)].put(chunkOffset(i), element);
+    }
+
+    @Override
+    public void put(long i, float element) {
+        checkIndex(i);
+        chunks[chunkIndex(i)].put(chunkOffset(i), element);
+    }
+
+    @Override
+    public double getDouble(int i) {
+        return getDouble((long) i);
+    }
+
+    @Override
+    public float getFloat(int i) {
+        return getFloat((long) i);
+    }
+
+    @Override
+    public Number getNumber(int i) {
+        if(type == Type.DOUBLE)
+            return getDouble(i);
+        return getFloat(i);
+    }
+
+    @Override
+    public int getInt(int ix) {
+        return (int) getDouble((long) ix);
+    }
+
+    @Override
+    public void put(int i, float element) {
+        put((long) i, element);
+    }
+
+    @Override
+    public void put(int i, double element) {
+        put((long) i, element);
+    }
+
+    @Override
+    public void put(int i, int element) {
+        put((long) i, (double) element);
+    }
+
+    @Override
+    public IComplexFloat getComplexFloat(int i) {
+        return Nd4j.createFloat(getFloat(i), getFloat(i + 1));
+    }
+
+    @Override
+    public IComplexDouble getComplexDouble(int i) {
+        return Nd4j.createDouble(getDouble(i), getDouble(i + 1));
+    }
+
+    @Override
+    public IComplexNumber getComplex(int i) {
+        return type == Type.FLOAT ? getComplexFloat(i) : getComplexDouble(i);
+    }
+
+    @Override
+    public void put(int i, IComplexNumber result) {
+        put(i, result.realComponent().doubleValue());
+        put(i + 1, result.imaginaryComponent().doubleValue());
+    }
+
+    /**
+     * A row vector viewing the given range of elements.
+     * Changes to the view are reflected in this buffer.
+     * A range within one chunk is a view of that chunk,
+     * otherwise the view is backed by this buffer.
+     *
+     * @param offset the first element
+     * @param length the number of elements
+     * @return a row vector viewing the range
+     */
+    public INDArray vector(long offset, int length) {
+        checkIndex(offset);
+        if(length < 1 || offset + length > this.length)
+            throw new IllegalArgumentException("Range " + offset + " + " + length + " is out of bounds for length " + this.length);
+        int chunk = chunkIndex(offset);
+        if(chunkIndex(offset + length - 1) == chunk)
+            return Nd4j.create(chunks[chunk], new int[]{1, length}, chunkOffset(offset));
+        if(offset + length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Range " + offset + " + " + length + " straddles two chunks beyond an int offset; use a chunk length that is a multiple of the vector length");
+        return Nd4j.create(this, new int[]{1, length}, (int) offset);
+    }
+
+    @Override
+    public Object array() {
+        throw new UnsupportedOperationException("Chunked buffers are not backed by a single array");
+    }
+
+    @Override
+    public java.nio.DoubleBuffer asNioDouble() {
+        throw new UnsupportedOperationException("Chunked buffers are not backed by a single buffer");
+    }
+
+    @Override
+    public java.nio.FloatBuffer asNioFloat() {
+        throw new UnsupportedOperationException("Chunked buffers are not backed by a single buffer");
+    }
+
+    @Override
+    public ByteBuffer asNio() {
+        throw new UnsupportedOperationException("Chunked buffers are not backed by a single buffer");
+    }
+
+    /**
+     * Like a heap buffer, there is no single netty buffer
+     * @return null
+     */
+    @Override
+    public ByteBuf asNetty() {
+        return null;
+    }
+
+    @Override
+    public AllocationMode allocationMode() {
+        return allocationMode;
+    }
+
+    @Override
+    public void persist() {
+        isPersist = true;
+    }
+
+    @Override
+    public boolean isPersist() {
+        return isPersist;
+    }
+
+    @Override
+    public void unPersist() {
+        isPersist = false;
+    }
+
+    @Override
+    public int getElementSize() {
+        return type == Type.DOUBLE ? 8 : 4;
+    }
+
+    @Override
+    public void removeReferencing(String id) {
+        referencing.remove(id);
+    }
+
+    @Override
+    public Collection<String> references() {
+        return referencing;
+    }
+
+    @Override
+    public void addReferencing(String id) {
+        referencing.add(id);
+    }
+
+    @Override
+    public void assign(int[] indices, float[] data, boolean contiguous, int inc) {
+        if (indices.length != data.length)
+            throw new IllegalArgumentException("Indices and data length must be the same");
+        for (int i = 0; i < indices.length; i += inc)
+            put(indices[i], data[i]);
+    }
+
+    @Override
+    public void assign(int[] indices, double[] data, boolean contiguous, int inc) {
+        if (indices.length != data.length)
+            throw new IllegalArgumentException("Indices and data length must be the same");
+        for (int i = 0; i < indices.length; i += inc)
+            put(indices[i], data[i]);
+    }
+
+    @Override
+    public void assign(int[] indices, float[] data, boolean contiguous) {
+        assign(indices, data, contiguous, 1);
+    }
+
+    @Override
+    public void assign(int[] indices, double[] data, boolean contiguous) {
+        assign(indices, data, contiguous, 1);
+    }
+
+    @Override
+    public double[] getDoublesAt(int offset, int length) {
+        return getDoublesAt(offset, 1, length);
+    }
+
+    @Override
+    public float[] getFloatsAt(int offset, int length) {
+        return getFloatsAt(offset, 1, length);
+    }
+
+    @Override
+    public double[] getDoublesAt(int offset, int inc, int length) {
+        double[] ret = new double[length];
+        for (int i = 0; i < length; i++)
+            ret[i] = getDouble(offset + (long) i * inc);
+        return ret;
+    }
+
+    @Override
+    public float[] getFloatsAt(int offset, int inc, int length) {
+        float[] ret = new float[length];
+        for (int i = 0; i < length; i++)
+            ret[i] = getFloat(offset + (long) i * inc);
+        return ret;
+    }
+
+    @Override
+    public void assign(Number value) {
+        for(DataBuffer chunk : chunks)
+            chunk.assign(value);
+    }
+
+    @Override
+    public void assign(Number value, int offset) {
+        put(offset, value.doubleValue());
+    }
+
+    @Override
+    public void setData(int[] data) {
+        for(int i = 0; i < data.length; i++)
+            put(i, data[i]);
+    }
+
+    @Override
+    public void setData(float[] data) {
+        for(int i = 0; i < data.length; i++)
+            put(i, data[i]);
+    }
+
+    @Override
+    public void setData(double[] data) {
+        for(int i = 0; i < data.length; i++)
+            put(i, data[i]);
+    }
+
+    @Override
+    public byte[] asBytes() {
+        if(length * getElementSize() > Integer.MAX_VALUE)
+            throw new IllegalStateException("Buffer of length " + length + " does not fit in a byte array");
+        ByteArrayOutputStream bos = new ByteArrayOutputStream((int) length * getElementSize());
+        for(DataBuffer chunk : chunks) {
+            byte[] bytes = chunk.asBytes();
+            bos.write(bytes, 0, bytes.length);
+        }
+        return bos.toByteArray();
+    }
+
+    @Override
+    public float[] asFloat() {
+        float[] ret = new float[length()];
+        for(int i = 0; i < chunks.length; i++)
+            System.arraycopy(chunks[i].asFloat(), 0, ret, i * chunkLength, chunks[i].length());
+        return ret;
+    }
+
+    @Override
+    public double[] asDouble() {
+        double[] ret = new double[length()];
+        for(int i = 0; i < chunks.length; i++)
+            System.arraycopy(chunks[i].asDouble(), 0, ret, i * chunkLength, chunks[i].length());
+        return ret;
+    }
+
+    @Override
+    public int[] asInt() {
+        int[] ret = new int[length()];
+        for(int i = 0; i < ret.length; i++)
+            ret[i] = getInt(i);
+        return ret;
+    }
+
+    @Override
+    public DataBuffer dup() {
+        ChunkedDataBuffer ret = new ChunkedDataBuffer(type, 0, chunkLength);
+        ret.length = length;
+        ret.allocationMode = allocationMode;
+        ret.chunks = new DataBuffer[chunks.length];
+        for(int i = 0; i < chunks.length; i++)
+            ret.chunks[i] = chunks[i].dup();
+        return ret;
+    }
+
+    @Override
+    public void flush() {
+        for(DataBuffer chunk : chunks)
+            chunk.flush();
+    }
+
+    @Override
+    public void assign(DataBuffer data) {
+        if (data.lengthLong() != length)
+            throw new IllegalArgumentException("Unable to assign buffer of length " + data.lengthLong() + " to this buffer of length " + length);
+        for (long i = 0; i < length; i++)
+            put(i, data.getDouble(i));
+    }
+
+    @Override
+    public void assign(int[] offsets, int[] strides, long n, DataBuffer... buffers) {
+        if (offsets.length != strides.length || strides.length != buffers.length)
+            throw new IllegalArgumentException("Unable to assign buffers, please specify equal lengths strides, offsets, and buffers");
+        long count = 0;
+        for (int i = 0; i < buffers.length; i++) {
+            for (long j = offsets[i]; j < buffers[i].lengthLong(); j += strides[i])
+                put(count++, buffers[i].getDouble(j));
+        }
+
+        if (count != n)
+            throw new IllegalArgumentException("Strides and offsets didn't match up to length " + n);
+    }
+
+    @Override
+    public void assign(DataBuffer... buffers) {
+        int[] offsets = new int[buffers.length];
+        int[] strides = new int[buffers.length];
+        for (int i = 0; i < strides.length; i++)
+            strides[i] = 1;
+        assign(offsets, strides, buffers);
+    }
+
+    @Override
+    public void assign(int[] offsets, int[] strides, DataBuffer... buffers) {
+        assign(offsets, strides, length, buffers);
+    }
+
+    /**
+     * Release the memory held by the chunks
+     */
+    @Override
+    public void destroy() {
+        for(DataBuffer chunk : chunks)
+            chunk.destroy();
+    }
+
+    /**
+     * Chunked buffers do not have a stream format;
+     * they are written with java serialization
+     */
+    @Override
+    public void write(OutputStream dos) {
+        throw new UnsupportedOperationException("Chunked buffers are written with java serialization");
+    }
+
+    /**
+     * Chunked buffers do not have a stream format;
+     * they are read with java serialization
+     */
+    @Override
+    public void read(InputStream is) {
+        throw new UnsupportedOperationException("Chunked buffers are read with java serialization");
+    }
+
+    private void checkIndex(long i) {
+        if(i < 0 || i >= length)
+            throw new IndexOutOfBoundsException("Index " + i + " is out of bounds for length " + length);
+    }
+}
@@ -394,6 +394,47 @@ public interface DataBuffer extends Serializable {
      */
     int length();
 
+    /**
+     * Returns the length of the buffer as a long.
+     * Unlike {@link #length()} this is valid for buffers
+     * with more than {@link Integer#MAX_VALUE} elements
+     *
+     * @return the length of the buffer
+     */
+    long lengthLong();
+
+    /**
+     * Get element i in the buffer as a double
+     *
+     * @param i the element to get
+     * @return the element at this index
+     */
+    double getDouble(long i);
+
+    /**
+     * Get element i in the buffer as a float
+     *
+     * @param i the element to get
+     * @return the element at this index
+     */
+    float getFloat(long i);
+
+    /**
+     * Assign an element in the buffer to the specified index
+     *
+     * @param i       the index
+     * @param element the element to assign
+     */
+    void put(long i, double element);
+
+    /**
+     * Assign an element in the buffer to the specified index
+     *
+     * @param i       the index
+     * @param element the element to assign
+     */
+    void put(long i, float element);
+
     /**
      * Get the int at the specified index
      *
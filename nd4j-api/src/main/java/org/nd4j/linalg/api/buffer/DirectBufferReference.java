@@ -0,0 +1,68 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.buffer;
+
+import io.netty.buffer.ByteBuf;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Weak reference to a direct data buffer
+ * that holds on to the buffer's off heap memory.
+ *
+ * Once the data buffer is garbage collected the reference
+ * is enqueued and the {@link BufferReaper} releases the memory
+ * back to the pool. An explicit {@link DataBuffer#destroy()}
+ * releases it early; the memory is only ever released once.
+ *
+ * @author Adam Gibson
+ */
+public class DirectBufferReference extends WeakReference<DataBuffer> {
+    private volatile ByteBuf memory;
+    private AtomicBoolean released = new AtomicBoolean(false);
+
+    public DirectBufferReference(DataBuffer referent, ByteBuf memory, ReferenceQueue<? super DataBuffer> q) {
+        super(referent, q);
+        this.memory = memory;
+    }
+
+    /**
+     * Release the memory back to the pool.
+     * Calls after the first are no ops
+     * @return true if this call released the memory
+     */
+    public boolean release() {
+        if(!released.compareAndSet(false, true))
+            return false;
+        ByteBuf buf = memory;
+        memory = null;
+        return buf.release();
+    }
+
+    /**
+     * Whether the memory has been released
+     * @return true if the memory was released
+     */
+    public boolean isReleased() {
+        return released.get();
+    }
+}
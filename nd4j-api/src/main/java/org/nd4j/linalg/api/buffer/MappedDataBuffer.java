@@ -0,0 +1,105 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.buffer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+
+/**
+ * A data buffer over a memory mapped region of a file.
+ *
+ * Elements are read from and written to the page cache directly,
+ * nothing is copied on to the heap. Depending on how the region was mapped
+ * the buffer is read only (puts throw {@link java.nio.ReadOnlyBufferException}),
+ * copy on write, or writes through to the file.
+ *
+ * The region holds little endian elements as written by
+ * {@link org.nd4j.linalg.util.BinarySerde}.
+ *
+ * @author Adam Gibson
+ */
+public class MappedDataBuffer extends BaseDataBuffer {
+
+    private Type type;
+    private transient MappedByteBuffer mapped;
+
+    /**
+     *
+     * @param mapped the mapped region holding the elements
+     * @param type the type of the elements (float or double)
+     * @param length the number of elements
+     */
+    public MappedDataBuffer(MappedByteBuffer mapped, Type type, int length) {
+        super(Unpooled.wrappedBuffer(mapped).order(ByteOrder.LITTLE_ENDIAN), length);
+        if(type == Type.INT)
+            throw new IllegalArgumentException("Only float and double buffers may be mapped");
+        this.type = type;
+        this.mapped = mapped;
+        this.elementSize = getElementSize();
+    }
+
+    @Override
+    public Type dataType() {
+        return type;
+    }
+
+    @Override
+    public int getElementSize() {
+        return type == Type.DOUBLE ? 8 : 4;
+    }
+
+    /**
+     * Write changes made through a read write
+     * mapping back to the file
+     */
+    @Override
+    public void flush() {
+        if(mapped != null && !mapped.isReadOnly())
+            mapped.force();
+    }
+
+    @Override
+    public DataBuffer create(ByteBuf buf, int length) {
+        return type == Type.DOUBLE ? new DoubleBuffer(buf, length) : new FloatBuffer(buf, length);
+    }
+
+    @Override
+    public DataBuffer create(double[] data) {
+        return type == Type.DOUBLE ? new DoubleBuffer(data) : new FloatBuffer(data);
+    }
+
+    @Override
+    public DataBuffer create(float[] data) {
+        return type == Type.DOUBLE ? new DoubleBuffer(data) : new FloatBuffer(data);
+    }
+
+    @Override
+    public DataBuffer create(int[] data) {
+        return type == Type.DOUBLE ? new DoubleBuffer(data) : new FloatBuffer(data);
+    }
+
+    @Override
+    protected DataBuffer create(int length) {
+        return type == Type.DOUBLE ? new DoubleBuffer(length) : new FloatBuffer(length);
+    }
+}
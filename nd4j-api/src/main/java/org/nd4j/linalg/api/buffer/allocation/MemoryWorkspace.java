@@ -0,0 +1,281 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.buffer.allocation;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.DoubleBuffer;
+import org.nd4j.linalg.api.buffer.FloatBuffer;
+import org.nd4j.linalg.api.buffer.IntBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.nio.ByteOrder;
+
+/**
+ * A scoped memory workspace.
+ *
+ * While a workspace is entered, buffers created by the
+ * {@link org.nd4j.linalg.api.buffer.factory.DefaultDataBufferFactory}
+ * on the entering thread are bump allocated from one preallocated slab
+ * instead of the heap. Closing the scope resets the slab in constant time,
+ * so the temporaries of a training iteration produce no garbage:
+ *
+ * <pre>
+ * MemoryWorkspace workspace = new MemoryWorkspace(64 * 1024 * 1024);
+ * for(int i = 0; i < iterations; i++) {
+ *     try(MemoryWorkspace scope = workspace.enter()) {
+ *         INDArray update = updater.getGradient(gradient, i);
+ *         params = MemoryWorkspace.detach(params.sub(update));
+ *     }
+ * }
+ * workspace.destroy();
+ * </pre>
+ *
+ * Arrays created in the scope must not be used after it is closed;
+ * use {@link #detach(INDArray)} for arrays that need to outlive it.
+ * Allocations that don't fit in the slab fall back to normal allocation
+ * and the slab grows by that amount when the scope is closed.
+ *
+ * A workspace is owned by one thread at a time. Workspaces may be nested;
+ * closing the inner scope re enters the outer one.
+ *
+ * @author Adam Gibson
+ */
+public class MemoryWorkspace implements AutoCloseable {
+
+    //keep every allocation 8 byte aligned
+    private static final int ALIGNMENT = 8;
+
+    private static ThreadLocal<MemoryWorkspace> current = new ThreadLocal<>();
+
+    private ByteBuf slab;
+    private int capacity;
+    private int position;
+    private int spilled;
+    private MemoryWorkspace parent;
+    private boolean entered;
+
+    /**
+     * Create a workspace with the given slab size.
+     * The slab is off heap when {@link Nd4j#alloc} is direct
+     * @param bytes the size of the slab in bytes
+     */
+    public MemoryWorkspace(int bytes) {
+        allocateSlab(bytes);
+    }
+
+    /**
+     * The workspace entered on the calling thread
+     * @return the current workspace or null if none was entered
+     */
+    public static MemoryWorkspace getCurrent() {
+        return current.get();
+    }
+
+    /**
+     * Copy an array out of the current workspace
+     * so it can be used after the scope is closed.
+     * If no workspace is entered the array is returned as is.
+     *
+     * @param arr the array to detach
+     * @return a copy of the array allocated outside of any workspace
+     */
+    public static INDArray detach(INDArray arr) {
+        MemoryWorkspace workspace = current.get();
+        if(workspace == null)
+            return arr;
+        current.remove();
+        try {
+            return arr.dup();
+        }
+        finally {
+            current.set(workspace);
+        }
+    }
+
+    /**
+     * Enter the workspace on the calling thread.
+     * Use with try with resources so the scope is always closed
+     * @return this workspace
+     */
+    public MemoryWorkspace enter() {
+        if(entered)
+            throw new IllegalStateException("Workspace already entered");
+        if(slab == null)
+            throw new IllegalStateException("Workspace was destroyed");
+        parent = current.get();
+        current.set(this);
+        entered = true;
+        return this;
+    }
+
+    /**
+     * Closes the scope: everything allocated
+     * in the scope is discarded at once
+     */
+    @Override
+    public void close() {
+        if(!entered)
+            return;
+        if(current.get() != this)
+            throw new IllegalStateException("Workspaces must be closed in the order they were entered");
+        if(parent != null)
+            current.set(parent);
+        else
+            current.remove();
+        parent = null;
+        entered = false;
+        position = 0;
+
+        //grow so the next iteration fits entirely in the slab
+        if(spilled > 0) {
+            int grown = capacity + spilled;
+            spilled = 0;
+            slab.release();
+            allocateSlab(grown);
+        }
+    }
+
+    /**
+     * Release the slab.
+     * The workspace can't be entered afterwards
+     */
+    public void destroy() {
+        close();
+        if(slab != null) {
+            slab.release();
+            slab = null;
+        }
+    }
+
+    /**
+     * Allocate a zeroed buffer from the slab
+     * @param type the type of buffer to allocate
+     * @param length the number of elements
+     * @return the buffer or null if it doesn't fit in the slab
+     */
+    public DataBuffer allocate(DataBuffer.Type type, int length) {
+        ByteBuf memory = reserve(length * elementSize(type));
+        if(memory == null)
+            return null;
+        memory.setZero(0, memory.capacity());
+        return wrap(type, memory, length);
+    }
+
+    /**
+     * Copy the given data in to the slab
+     * @param data the data to copy
+     * @return a double buffer or null if it doesn't fit in the slab
+     */
+    public DataBuffer copyOf(double[] data) {
+        ByteBuf memory = reserve(data.length * 8);
+        if(memory == null)
+            return null;
+        memory.nioBuffer(0, memory.capacity()).order(ByteOrder.nativeOrder()).asDoubleBuffer().put(data);
+        return wrap(DataBuffer.Type.DOUBLE, memory, data.length);
+    }
+
+    /**
+     * Copy the given data in to the slab
+     * @param data the data to copy
+     * @return a float buffer or null if it doesn't fit in the slab
+     */
+    public DataBuffer copyOf(float[] data) {
+        ByteBuf memory = reserve(data.length * 4);
+        if(memory == null)
+            return null;
+        memory.nioBuffer(0, memory.capacity()).order(ByteOrder.nativeOrder()).asFloatBuffer().put(data);
+        return wrap(DataBuffer.Type.FLOAT, memory, data.length);
+    }
+
+    /**
+     * Copy the given data in to the slab
+     * @param data the data to copy
+     * @return an int buffer or null if it doesn't fit in the slab
+     */
+    public DataBuffer copyOf(int[] data) {
+        ByteBuf memory = reserve(data.length * 4);
+        if(memory == null)
+            return null;
+        memory.nioBuffer(0, memory.capacity()).order(ByteOrder.nativeOrder()).asIntBuffer().put(data);
+        return wrap(DataBuffer.Type.INT, memory, data.length);
+    }
+
+    /**
+     * The size of the slab in bytes
+     * @return the capacity of the slab
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * The number of bytes allocated in the current scope
+     * @return the bytes used in the slab
+     */
+    public int usedBytes() {
+        return position;
+    }
+
+    /**
+     * The number of bytes in the current scope
+     * that didn't fit in the slab
+     * @return the bytes allocated outside the slab
+     */
+    public int spilledBytes() {
+        return spilled;
+    }
+
+    private ByteBuf reserve(int bytes) {
+        int aligned = (bytes + ALIGNMENT - 1) & ~(ALIGNMENT - 1);
+        if(aligned > capacity - position) {
+            spilled += aligned;
+            return null;
+        }
+        ByteBuf memory = slab.slice(position, bytes).order(ByteOrder.nativeOrder());
+        position += aligned;
+        return memory;
+    }
+
+    private void allocateSlab(int bytes) {
+        capacity = (bytes + ALIGNMENT - 1) & ~(ALIGNMENT - 1);
+        if(Nd4j.alloc == DataBuffer.AllocationMode.DIRECT)
+            slab = PooledDirectMemoryStrategy.getInstance().allocate(capacity);
+        else
+            slab = Unpooled.buffer(capacity, capacity).order(ByteOrder.nativeOrder());
+    }
+
+    private static int elementSize(DataBuffer.Type type) {
+        return type == DataBuffer.Type.DOUBLE ? 8 : 4;
+    }
+
+    private static DataBuffer wrap(DataBuffer.Type type, ByteBuf memory, int length) {
+        switch(type) {
+            case DOUBLE:
+                return new DoubleBuffer(memory, length);
+            case FLOAT:
+                return new FloatBuffer(memory, length);
+            default:
+                return new IntBuffer(memory, length);
+        }
+    }
+}
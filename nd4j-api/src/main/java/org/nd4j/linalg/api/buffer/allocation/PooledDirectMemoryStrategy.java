@@ -0,0 +1,85 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.buffer.allocation;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+
+import java.nio.ByteOrder;
+
+/**
+ * Off heap memory strategy backed by netty's
+ * pooled allocator.
+ *
+ * Memory is carved out of per thread arenas
+ * in size classes, so buffers returned with {@link #free(DataBuffer, int, int)}
+ * (or {@link DataBuffer#destroy()}) are reused by later allocations
+ * of a similar size rather than being left to the garbage collector.
+ *
+ * @author Adam Gibson
+ */
+public class PooledDirectMemoryStrategy implements MemoryStrategy {
+
+    private static final PooledDirectMemoryStrategy INSTANCE = new PooledDirectMemoryStrategy();
+
+    private final PooledByteBufAllocator allocator = new PooledByteBufAllocator(true);
+
+    /**
+     * The shared strategy used by direct data buffers
+     * @return the shared pooled direct memory strategy
+     */
+    public static PooledDirectMemoryStrategy getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Allocate a zeroed, fixed size block of off heap memory
+     * in native byte order.
+     * The writer index is positioned at the end
+     * so puts never grow the buffer.
+     *
+     * @param bytes the number of bytes to allocate
+     * @return the allocated buffer
+     */
+    public ByteBuf allocate(int bytes) {
+        ByteBuf buf = allocator.directBuffer(bytes, bytes);
+        //pooled memory is recycled and may hold data from a previous buffer
+        buf.setZero(0, bytes);
+        buf.writerIndex(bytes);
+        return buf.order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    public Object copyToHost(DataBuffer copy, int offset) {
+        //direct memory is already host memory
+        return copy.asNio();
+    }
+
+    @Override
+    public Object alloc(DataBuffer buffer, int stride, int offset, int length) {
+        return allocate(length * buffer.getElementSize());
+    }
+
+    @Override
+    public void free(DataBuffer buffer, int offset, int length) {
+        buffer.destroy();
+    }
+}
@@ -23,28 +23,34 @@ import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.buffer.DoubleBuffer;
 import org.nd4j.linalg.api.buffer.FloatBuffer;
 import org.nd4j.linalg.api.buffer.IntBuffer;
+import org.nd4j.linalg.api.buffer.allocation.MemoryWorkspace;
 import org.nd4j.linalg.util.ArrayUtil;
 import sun.misc.Unsafe;
 
 /**
- * Normal data buffer creation
+ * Normal data buffer creation.
+ * Buffers are allocated from the thread's
+ * {@link MemoryWorkspace} when one is entered.
  *
  * @author Adam Gibson
  */
 public class DefaultDataBufferFactory implements DataBufferFactory {
     @Override
     public DataBuffer createDouble(int length) {
-        return new DoubleBuffer(length);
+        DataBuffer ret = fromWorkspace(DataBuffer.Type.DOUBLE, length);
+        return ret != null ? ret : new DoubleBuffer(length);
     }
 
     @Override
     public DataBuffer createFloat(int length) {
-        return new FloatBuffer(length);
+        DataBuffer ret = fromWorkspace(DataBuffer.Type.FLOAT, length);
+        return ret != null ? ret : new FloatBuffer(length);
     }
 
     @Override
     public DataBuffer createInt(int length) {
-        return new IntBuffer(length);
+        DataBuffer ret = fromWorkspace(DataBuffer.Type.INT, length);
+        return ret != null ? ret : new IntBuffer(length);
     }
 
     @Override
@@ -94,47 +100,80 @@ public class DefaultDataBufferFactory implements DataBufferFactory {
 
     @Override
     public DataBuffer createDouble(int[] data, boolean copy) {
-
-        return new DoubleBuffer(ArrayUtil.toDoubles(data), copy);
+        double[] converted = ArrayUtil.toDoubles(data);
+        DataBuffer ret = copy ? fromWorkspace(converted) : null;
+        return ret != null ? ret : new DoubleBuffer(converted, copy);
     }
 
     @Override
     public DataBuffer createFloat(int[] data, boolean copy) {
-        return new FloatBuffer(ArrayUtil.toFloats(data), copy);
+        float[] converted = ArrayUtil.toFloats(data);
+        DataBuffer ret = copy ? fromWorkspace(converted) : null;
+        return ret != null ? ret : new FloatBuffer(converted, copy);
     }
 
     @Override
     public DataBuffer createInt(int[] data, boolean copy) {
-        return new IntBuffer(data, copy);
+        DataBuffer ret = copy ? fromWorkspace(data) : null;
+        return ret != null ? ret : new IntBuffer(data, copy);
     }
 
     @Override
     public DataBuffer createDouble(double[] data, boolean copy) {
-        return new DoubleBuffer(data, copy);
+        DataBuffer ret = copy ? fromWorkspace(data) : null;
+        return ret != null ? ret : new DoubleBuffer(data, copy);
     }
 
     @Override
     public DataBuffer createFloat(double[] data, boolean copy) {
-        return new FloatBuffer(ArrayUtil.toFloats(data), copy);
+        float[] converted = ArrayUtil.toFloats(data);
+        DataBuffer ret = copy ? fromWorkspace(converted) : null;
+        return ret != null ? ret : new FloatBuffer(converted, copy);
     }
 
     @Override
     public DataBuffer createInt(double[] data, boolean copy) {
-        return new IntBuffer(ArrayUtil.toInts(data), copy);
+        int[] converted = ArrayUtil.toInts(data);
+        DataBuffer ret = copy ? fromWorkspace(converted) : null;
+        return ret != null ? ret : new IntBuffer(converted, copy);
     }
 
     @Override
     public DataBuffer createDouble(float[] data, boolean copy) {
-        return new FloatBuffer(data, copy);
+        DataBuffer ret = copy ? fromWorkspace(data) : null;
+        return ret != null ? ret : new FloatBuffer(data, copy);
     }
 
     @Override
     public DataBuffer createFloat(float[] data, boolean copy) {
-        return new FloatBuffer(data, copy);
+        DataBuffer ret = copy ? fromWorkspace(data) : null;
+        return ret != null ? ret : new FloatBuffer(data, copy);
     }
 
     @Override
     public DataBuffer createInt(float[] data, boolean copy) {
-        return new IntBuffer(ArrayUtil.toInts(data), copy);
+        int[] converted = ArrayUtil.toInts(data);
+        DataBuffer ret = copy ? fromWorkspace(converted) : null;
+        return ret != null ? ret : new IntBuffer(converted, copy);
+    }
+
+    private static DataBuffer fromWorkspace(DataBuffer.Type type, int length) {
+        MemoryWorkspace workspace = MemoryWorkspace.getCurrent();
+        return workspace != null ? workspace.allocate(type, length) : null;
+    }
+
+    private static DataBuffer fromWorkspace(double[] data) {
+        MemoryWorkspace workspace = MemoryWorkspace.getCurrent();
+        return workspace != null ? workspace.copyOf(data) : null;
+    }
+
+    private static DataBuffer fromWorkspace(float[] data) {
+        MemoryWorkspace workspace = MemoryWorkspace.getCurrent();
+        return workspace != null ? workspace.copyOf(data) : null;
+    }
+
+    private static DataBuffer fromWorkspace(int[] data) {
+        MemoryWorkspace workspace = MemoryWorkspace.getCurrent();
+        return workspace != null ? workspace.copyOf(data) : null;
     }
 }
@@ -25,6 +25,7 @@ import org.nd4j.linalg.api.blas.BlasBufferUtil;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.BaseNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.ComplexKernelExecutor;
 import org.nd4j.linalg.factory.NDArrayFactory;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.Indices;
@@ -1141,6 +1142,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNumber normmaxComplex() {
+        if(ComplexKernelExecutor.canExecute(this))
+            return Nd4j.createComplexNumber(ComplexKernelExecutor.normMax(this), 0);
         return normmax(Integer.MAX_VALUE).getComplex(0);
     }
 
@@ -1216,6 +1219,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNumber sumComplex() {
+        if(ComplexKernelExecutor.canExecute(this)) {
+            double[] sum = ComplexKernelExecutor.sum(this);
+            return Nd4j.createComplexNumber(sum[0], sum[1]);
+        }
         return sum(Integer.MAX_VALUE).getComplex(0);
     }
 
@@ -1246,6 +1253,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNumber norm1Complex() {
+        if(ComplexKernelExecutor.canExecute(this))
+            return Nd4j.createComplexNumber(ComplexKernelExecutor.norm1(this), 0);
         return norm1(Integer.MAX_VALUE).getComplex(0);
     }
 
@@ -1276,6 +1285,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNumber norm2Complex() {
+        if(ComplexKernelExecutor.canExecute(this))
+            return Nd4j.createComplexNumber(ComplexKernelExecutor.norm2(this), 0);
         return norm2(Integer.MAX_VALUE).getComplex(0);
     }
 
@@ -1350,6 +1361,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray conji() {
+        if(ComplexKernelExecutor.canExecute(this)) {
+            ComplexKernelExecutor.conj(this, this);
+            return this;
+        }
         IComplexNDArray reshaped = linearView();
         IComplexDouble c = Nd4j.createDouble(0.0, 0);
         for (int i = 0; i < length; i++) {
@@ -1362,6 +1377,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray hermitian() {
+        if(isMatrix() && ComplexKernelExecutor.canExecute(this)) {
+            IComplexNDArray result = Nd4j.createComplex(new int[]{columns(), rows()});
+            ComplexKernelExecutor.conj(transposedView(), result);
+            return result;
+        }
         IComplexNDArray result = Nd4j.createComplex(shape());
 
         IComplexDouble c = Nd4j.createDouble(0, 0);
@@ -1711,6 +1731,10 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
     public IComplexNDArray assign(IComplexNDArray arr) {
         if (!arr.isScalar())
             LinAlgExceptions.assertSameShape(this, arr);
+        if(ComplexKernelExecutor.canExecute(this, arr)) {
+            ComplexKernelExecutor.copy(arr, this);
+            return this;
+        }
         IComplexNDArray linear = linearView();
         IComplexNDArray otherLinear = arr.linearView();
         for (int i = 0; i < linear.length(); i++) {
@@ -2560,6 +2584,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray divi(INDArray other, INDArray result) {
+        if(pairwiseKernel(ComplexKernelExecutor.DIV, other, result))
+            return (IComplexNDArray) result;
         IComplexNDArray cOther = (IComplexNDArray) other;
         IComplexNDArray cResult = (IComplexNDArray) result;
 
@@ -2599,6 +2625,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray muli(INDArray other, INDArray result) {
+        if(pairwiseKernel(ComplexKernelExecutor.MUL, other, result))
+            return (IComplexNDArray) result;
         IComplexNDArray cOther = (IComplexNDArray) other;
         IComplexNDArray cResult = (IComplexNDArray) result;
 
@@ -2638,6 +2666,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray subi(INDArray other, INDArray result) {
+        if(pairwiseKernel(ComplexKernelExecutor.SUB, other, result))
+            return (IComplexNDArray) result;
         IComplexNDArray cOther = (IComplexNDArray) other;
         IComplexNDArray cResult = (IComplexNDArray) result;
 
@@ -2683,6 +2713,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray addi(INDArray other, INDArray result) {
+        if(pairwiseKernel(ComplexKernelExecutor.ADD, other, result))
+            return (IComplexNDArray) result;
         IComplexNDArray cOther = (IComplexNDArray) other;
         IComplexNDArray cResult = (IComplexNDArray) result;
 
@@ -2720,6 +2752,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rdivi(IComplexNumber n, INDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.RDIV, n, result))
+            return (IComplexNDArray) result;
         IComplexNDArray cResult = (IComplexNDArray) result;
         IComplexNDArray cResultLinear = cResult.linearView();
         for (int i = 0; i < length; i++)
@@ -2734,6 +2768,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rsubi(IComplexNumber n, INDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.RSUB, n, result))
+            return (IComplexNDArray) result;
         IComplexNDArray cResult = (IComplexNDArray) result;
         IComplexNDArray cResultLinear = cResult.linearView();
         IComplexNDArray thiLinear = linearView();
@@ -2750,6 +2786,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray divi(IComplexNumber n, INDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.DIV, n, result))
+            return (IComplexNDArray) result;
         IComplexNDArray cResult = (IComplexNDArray) result;
         IComplexNDArray cResultLinear = cResult.linearView();
         IComplexNDArray thisLinear = linearView();
@@ -2765,6 +2803,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray muli(IComplexNumber n, INDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.MUL, n, result))
+            return (IComplexNDArray) result;
         IComplexNDArray cResult = (IComplexNDArray) result;
         IComplexNDArray cResultLinear = cResult.linearView();
         IComplexNDArray thiLinear = linearView();
@@ -2780,6 +2820,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray subi(IComplexNumber n, INDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.SUB, n, result))
+            return (IComplexNDArray) result;
         IComplexNDArray cResult = (IComplexNDArray) result;
         IComplexNDArray cResultLinear = cResult.linearView();
 
@@ -2796,6 +2838,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray addi(IComplexNumber n, INDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.ADD, n, result))
+            return (IComplexNDArray) result;
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = (IComplexNDArray) result.linearView();
 
@@ -2972,6 +3016,11 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
      */
     @Override
     public IComplexNDArray transposei() {
+        if(shape().length == 2 && ComplexKernelExecutor.canExecute(this)) {
+            IComplexNDArray ret = create(new int[]{columns(), rows()});
+            ComplexKernelExecutor.copy(transposedView(), ret);
+            return ret;
+        }
         return Nd4j.createComplex(super.transposei());
     }
 
@@ -2985,6 +3034,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray addi(IComplexNumber n, IComplexNDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.ADD, n, result))
+            return result;
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -2998,6 +3049,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray subi(IComplexNumber n, IComplexNDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.SUB, n, result))
+            return result;
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -3011,6 +3064,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray muli(IComplexNumber n, IComplexNDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.MUL, n, result))
+            return result;
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -3025,6 +3080,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray divi(IComplexNumber n, IComplexNDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.DIV, n, result))
+            return result;
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -3038,6 +3095,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rsubi(IComplexNumber n, IComplexNDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.RSUB, n, result))
+            return result;
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -3050,6 +3109,8 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
 
     @Override
     public IComplexNDArray rdivi(IComplexNumber n, IComplexNDArray result) {
+        if(scalarKernel(ComplexKernelExecutor.RDIV, n, result))
+            return result;
         IComplexNDArray linear = linearView();
         IComplexNDArray cResult = result.linearView();
         for (int i = 0; i < length(); i++) {
@@ -3061,6 +3122,27 @@ public abstract class BaseComplexNDArray extends BaseNDArray implements IComplex
     }
 
 
+    //run the scalar op over the interleaved buffers when both arrays can be addressed directly
+    private boolean scalarKernel(int op, IComplexNumber n, INDArray result) {
+        if(!ComplexKernelExecutor.canExecute(this, result))
+            return false;
+        ComplexKernelExecutor.scalar(op, this, n.realComponent().doubleValue(), n.imaginaryComponent().doubleValue(), (IComplexNDArray) result);
+        return true;
+    }
+
+    //run the pairwise op over the interleaved buffers when all three arrays can be addressed directly
+    private boolean pairwiseKernel(int op, INDArray other, INDArray result) {
+        if(!ComplexKernelExecutor.canExecute(this, other, result))
+            return false;
+        ComplexKernelExecutor.pairwise(op, this, (IComplexNDArray) other, (IComplexNDArray) result);
+        return true;
+    }
+
+    //a view of this matrix with its dimensions swapped, sharing the buffer
+    private IComplexNDArray transposedView() {
+        return Nd4j.createComplex(data, new int[]{columns(), rows()}, new int[]{stride(1), stride(0)}, offset(), ordering());
+    }
+
     /**
      * Reshape the ndarray in to the specified dimensions,
      * possible errors being thrown for invalid shapes
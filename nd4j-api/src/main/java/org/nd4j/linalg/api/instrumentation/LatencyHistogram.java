@@ -0,0 +1,129 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock free histogram of non negative values such as latencies in nanoseconds.
+ *
+ * Like HdrHistogram, values are counted in log linear buckets:
+ * values below 32 are exact and every power of 2 above that
+ * is split in to 16 buckets, so any recorded value is known
+ * to within about 6% using a fixed 8kb of counts.
+ *
+ * @author Adam Gibson
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = LINEAR + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final StripedCounter count = new StripedCounter();
+    private final StripedCounter total = new StripedCounter();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a value
+     * @param value the value to record, negative values are recorded as 0
+     */
+    public void record(long value) {
+        if(value < 0)
+            value = 0;
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        total.add(value);
+        long current;
+        while(value > (current = max.get()) && !max.compareAndSet(current, value));
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return the sum of the recorded values
+     */
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * @return the largest recorded value
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the recorded values, 0 if there are none
+     */
+    public double mean() {
+        long n = count();
+        return n == 0 ? 0 : total() / (double) n;
+    }
+
+    /**
+     * The smallest value that at least the given percentage
+     * of the recorded values are less than or equal to,
+     * up to the precision of the buckets
+     * @param percentile the percentile, between 0 and 100
+     * @return the value at the percentile, 0 if nothing was recorded
+     */
+    public long valueAtPercentile(double percentile) {
+        long[] snapshot = new long[BUCKETS];
+        long n = 0;
+        for(int i = 0; i < BUCKETS; i++)
+            n += snapshot[i] = counts.get(i);
+        if(n == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100.0 * n));
+        long seen = 0;
+        for(int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if(seen >= rank)
+                return Math.min(highestInBucket(i), max());
+        }
+        return max();
+    }
+
+    //the bucket of a value
+    static int bucket(long value) {
+        if(value < LINEAR)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    //the largest value in a bucket
+    static long highestInBucket(int bucket) {
+        if(bucket < LINEAR)
+            return bucket;
+        int shift = (bucket - LINEAR) / SUB_BUCKETS + 1;
+        long sub = (bucket - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.instrumentation;
+
+/**
+ * Execution metrics of one op on one backend:
+ * invocations, elements processed, bytes allocated,
+ * time spent in blas or in java loops and a latency histogram.
+ * Recording never blocks.
+ *
+ * @author Adam Gibson
+ */
+public class OpMetrics {
+    private final String op;
+    private final String backend;
+    private final StripedCounter invocations = new StripedCounter();
+    private final StripedCounter elements = new StripedCounter();
+    private final StripedCounter bytesAllocated = new StripedCounter();
+    private final StripedCounter blasNanos = new StripedCounter();
+    private final StripedCounter loopNanos = new StripedCounter();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    public OpMetrics(String op, String backend) {
+        this.op = op;
+        this.backend = backend;
+    }
+
+    /**
+     * Record an invocation
+     * @param elements the number of elements processed
+     * @param nanos the time the invocation took
+     * @param bytes the bytes allocated by the invocation, negative if unknown
+     * @param blas whether the time was spent in blas rather than java loops
+     */
+    public void record(long elements, long nanos, long bytes, boolean blas) {
+        invocations.increment();
+        this.elements.add(elements);
+        if(bytes > 0)
+            bytesAllocated.add(bytes);
+        if(blas)
+            blasNanos.add(nanos);
+        else
+            loopNanos.add(nanos);
+        latency.record(nanos);
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    public long getElements() {
+        return elements.sum();
+    }
+
+    public long getBytesAllocated() {
+        return bytesAllocated.sum();
+    }
+
+    public long getBlasNanos() {
+        return blasNanos.sum();
+    }
+
+    public long getLoopNanos() {
+        return loopNanos.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.instrumentation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Op level telemetry: {@link OpMetrics} per op name and backend.
+ *
+ * Recording is off by default. When on, callers time an op with
+ * <pre>
+ * OpTimer timer = Nd4j.getOpMetrics().start();
+ * ...
+ * if(timer != null)
+ *     timer.stop(name, elements, blas);
+ * </pre>
+ * Bytes allocated are measured with the per thread allocation counter
+ * of the jvm where one is available.
+ *
+ * @author Adam Gibson
+ */
+public class OpMetricsRegistry {
+    private final ConcurrentMap<String, ConcurrentMap<String, OpMetrics>> metrics = new ConcurrentHashMap<>();
+    private volatile boolean enabled = false;
+    private volatile String backend = "unknown";
+
+    /**
+     * Start timing an op
+     * @return a timer for the op, null if recording is off
+     */
+    public OpTimer start() {
+        return enabled ? new OpTimer(this) : null;
+    }
+
+    /**
+     * The metrics of an op on the current backend
+     * @param op the name of the op
+     * @return the metrics of the op, created if needed
+     */
+    public OpMetrics metrics(String op) {
+        String backend = this.backend;
+        ConcurrentMap<String, OpMetrics> ops = metrics.get(backend);
+        if(ops == null) {
+            ConcurrentMap<String, OpMetrics> created = new ConcurrentHashMap<>();
+            ops = metrics.putIfAbsent(backend, created);
+            if(ops == null)
+                ops = created;
+        }
+        OpMetrics ret = ops.get(op);
+        if(ret == null) {
+            OpMetrics created = new OpMetrics(op, backend);
+            ret = ops.putIfAbsent(op, created);
+            if(ret == null)
+                ret = created;
+        }
+        return ret;
+    }
+
+    /**
+     * The metrics of every op recorded so far
+     * @return the metrics of each op and backend
+     */
+    public List<OpMetrics> all() {
+        List<OpMetrics> ret = new ArrayList<>();
+        for(ConcurrentMap<String, OpMetrics> ops : metrics.values())
+            ret.addAll(ops.values());
+        return ret;
+    }
+
+    /**
+     * Drop all recorded metrics
+     */
+    public void clear() {
+        metrics.clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turn recording on or off.
+     * Ops run through the executioner are only recorded when
+     * {@link org.nd4j.linalg.factory.Nd4j#OP_METRICS} was set when the backend was initialized
+     * @param enabled whether to record
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    /**
+     * Set the backend new metrics are recorded under
+     * @param backend the name of the backend
+     */
+    public void setBackend(String backend) {
+        this.backend = backend;
+    }
+
+    //bytes allocated so far by the current thread, -1 if the jvm can not tell
+    static long allocatedBytes() {
+        try {
+            return Allocations.BEAN != null ? Allocations.BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+        } catch (LinkageError e) {
+            return -1;
+        }
+    }
+
+    //the hotspot allocation counter, loaded lazily as it is not available on every jvm
+    private static class Allocations {
+        private static final com.sun.management.ThreadMXBean BEAN = load();
+
+        private static com.sun.management.ThreadMXBean load() {
+            try {
+                ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+                if(bean instanceof com.sun.management.ThreadMXBean) {
+                    com.sun.management.ThreadMXBean ret = (com.sun.management.ThreadMXBean) bean;
+                    if(ret.isThreadAllocatedMemorySupported()) {
+                        ret.setThreadAllocatedMemoryEnabled(true);
+                        return ret;
+                    }
+                }
+            } catch (Throwable t) {
+                //not a hotspot jvm
+            }
+            return null;
+        }
+    }
+}
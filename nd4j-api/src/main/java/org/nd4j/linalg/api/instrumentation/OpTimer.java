@@ -0,0 +1,51 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.instrumentation;
+
+/**
+ * Times one invocation of an op.
+ * Obtained from {@link OpMetricsRegistry#start()}
+ * and finished with {@link #stop(String, long, boolean)}
+ *
+ * @author Adam Gibson
+ */
+public class OpTimer {
+    private final OpMetricsRegistry registry;
+    private final long startNanos;
+    private final long startBytes;
+
+    OpTimer(OpMetricsRegistry registry) {
+        this.registry = registry;
+        this.startBytes = OpMetricsRegistry.allocatedBytes();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Record the invocation
+     * @param op the name of the op
+     * @param elements the number of elements processed
+     * @param blas whether the op ran in blas rather than java loops
+     */
+    public void stop(String op, long elements, boolean blas) {
+        long nanos = System.nanoTime() - startNanos;
+        long bytes = startBytes < 0 ? -1 : OpMetricsRegistry.allocatedBytes() - startBytes;
+        registry.metrics(op).record(elements, nanos, bytes, blas);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter spread over several cells so that threads
+ * adding to it at the same time rarely touch the same cache line.
+ * Adding never blocks; the value is the sum of the cells.
+ *
+ * @author Adam Gibson
+ */
+public class StripedCounter {
+    //longs per cache line, so that neighbouring cells do not share one
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    /**
+     * A counter with a cell per available processor
+     */
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param stripes the minimum number of cells
+     */
+    public StripedCounter(int stripes) {
+        int n = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        mask = n - 1;
+        cells = new AtomicLongArray(n * PADDING);
+    }
+
+    /**
+     * Add to the counter
+     * @param x the amount to add
+     */
+    public void add(long x) {
+        cells.getAndAdd(index(), x);
+    }
+
+    /**
+     * Add one to the counter
+     */
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * The current value of the counter.
+     * Concurrent additions may or may not be included
+     * @return the sum of all additions
+     */
+    public long sum() {
+        long ret = 0;
+        for(int i = 0; i < cells.length(); i += PADDING)
+            ret += cells.get(i);
+        return ret;
+    }
+
+    //the cell of the current thread
+    private int index() {
+        long id = Thread.currentThread().getId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & mask) * PADDING;
+    }
+}
@@ -114,7 +114,7 @@ public abstract class BaseNDArray implements INDArray {
 
     public BaseNDArray(DataBuffer buffer, int[] shape, int[] stride, int offset, char ordering) {
         this.data = buffer;
-        if (ArrayUtil.prod(shape) > buffer.length())
+        if (ArrayUtil.prod(shape) > buffer.lengthLong())
             throw new IllegalArgumentException("Shape must be <= buffer length");
         this.stride = stride;
         this.offset = offset;
@@ -193,7 +193,7 @@ public abstract class BaseNDArray implements INDArray {
      * @param ordering the ordering of the ndarray
      */
     public BaseNDArray(int[] shape, int[] stride, int offset, char ordering) {
-        this(Nd4j.createBuffer(ArrayUtil.prod(shape)), shape, stride, offset, ordering);
+        this(Nd4j.createBuffer(ArrayUtil.lengthOf(shape)), shape, stride, offset, ordering);
     }
 
 
@@ -1035,7 +1035,7 @@ public abstract class BaseNDArray implements INDArray {
             ix += indexes[i] * stride[i];
         }
 
-        if (ix >= data.length())
+        if (ix >= data.lengthLong())
             throw new IllegalArgumentException("Illegal indices " + Arrays.toString(indexes));
         data.put(ix, value);
 
@@ -1447,7 +1447,7 @@ public abstract class BaseNDArray implements INDArray {
             int ix = offset;
             for (int i = 1; i < indices.length; i++)
                 ix += indices[i] * stride[i];
-            if (ix >= data.length())
+            if (ix >= data.lengthLong())
                 throw new IllegalArgumentException("Illegal indices " + Arrays.toString(indices));
             data.put(ix, element.getDouble(0));
         }
@@ -1455,7 +1455,7 @@ public abstract class BaseNDArray implements INDArray {
             int ix = offset;
             for (int i = 0; i < indices.length; i++)
                 ix += indices[i] * stride[i];
-            if (ix >= data.length())
+            if (ix >= data.lengthLong())
                 throw new IllegalArgumentException("Illegal indices " + Arrays.toString(indices));
             data.put(ix, element.getDouble(0));
         }
@@ -1975,7 +1975,7 @@ public abstract class BaseNDArray implements INDArray {
         if (!isVector() && !isScalar())
             throw new IllegalArgumentException("Unable to do linear indexing with dimensions greater than 1");
         int idx = linearIndex(i);
-        if (idx >= data.length())
+        if (idx >= data.lengthLong())
             throw new IllegalArgumentException("Illegal indices " + i);
         return createScalarForIndex(idx, false);
     }
@@ -2298,7 +2298,7 @@ public abstract class BaseNDArray implements INDArray {
         assert element.isScalar() : "Unable to insert non scalar element";
 
         int idx = linearIndex(i);
-        if (idx >= data.length())
+        if (idx >= data.lengthLong())
             throw new IllegalArgumentException("Illegal indices " + i);
         data.put(idx, element.getDouble(0));
         return this;
@@ -2630,6 +2630,23 @@ public abstract class BaseNDArray implements INDArray {
         INDArray resultArray = result;
 
         if (other.shape().length > 2) {
+            //stacks of matrices are multiplied in one batched call
+            if (rank() == 3 && other.rank() == 3 && result.rank() == 3 && !(this instanceof IComplexNDArray)) {
+                INDArray target = result == this || result == other ? Nd4j.create(result.shape(), result.ordering()) : result;
+                Nd4j.getBlasWrapper().level3().batchedGemm(
+                        BlasBufferUtil.getCharForTranspose(this)
+                        ,BlasBufferUtil.getCharForTranspose(other)
+                        ,BlasBufferUtil.getCharForTranspose(target)
+                        ,1.0
+                        ,this
+                        ,other
+                        ,0.0
+                        ,target);
+                if (target != result)
+                    result.assign(target);
+                return result;
+            }
+
             for (int i = 0; i < other.slices(); i++) {
                 result.putSlice(i, slice(i).mmul(other.slice(i)));
             }
@@ -3170,7 +3187,7 @@ public abstract class BaseNDArray implements INDArray {
             ix += indexes[i] * stride[i];
         }
 
-        if (ix >= data.length())
+        if (ix >= data.lengthLong())
             throw new IllegalArgumentException("Illegal index " + Arrays.toString(indexes));
 
         return createScalarForIndex(ix, false);
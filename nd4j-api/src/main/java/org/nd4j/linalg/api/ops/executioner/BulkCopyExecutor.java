@@ -0,0 +1,221 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+package org.nd4j.linalg.api.ops.executioner;
+
+import io.netty.buffer.ByteBuf;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.complex.LinearViewComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ndarray.LinearViewNDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Copies ndarrays in to ndarrays of the same shape
+ * straight through their data buffers.
+ *
+ * The operands are walked with the strided geometry of the
+ * {@link StridedKernelExecutor}: runs that are contiguous in both
+ * operands are moved with {@link System#arraycopy} for heap buffers
+ * or a single byte copy for direct buffers, anything else
+ * with a tight loop over the strides.
+ * Complex ndarrays are copied as interleaved pairs.
+ *
+ * Several copies in to disjoint destinations (the pieces of a concatenation,
+ * the parameters being flattened) are split in to chunks of
+ * {@link ParallelOpExecutor#CHUNK_SIZE} elements and filled across cores
+ * once their total length reaches {@link Nd4j#parallelThreshold}.
+ *
+ * @author Adam Gibson
+ */
+public class BulkCopyExecutor {
+
+    private BulkCopyExecutor() {
+    }
+
+    /**
+     * Whether src can be copied in to dest by this executor:
+     * both are real or both are complex, neither is a linear view
+     * and they have the same shape
+     * @param src the source
+     * @param dest the destination
+     * @return true if the copy can be run by this executor
+     */
+    public static boolean canCopy(INDArray src, INDArray dest) {
+        return isSupported(src) && isSupported(dest)
+                && (src instanceof IComplexNDArray) == (dest instanceof IComplexNDArray)
+                && Arrays.equals(src.shape(), dest.shape());
+    }
+
+    /**
+     * Copy src in to dest element by element
+     * @param src the source
+     * @param dest the destination, of the same shape as the source
+     */
+    public static void copy(INDArray src, INDArray dest) {
+        copy(new INDArray[]{src}, new INDArray[]{dest});
+    }
+
+    /**
+     * Copy each source in to the destination at the same index.
+     * The destinations must not overlap each other or any of the sources.
+     * @param srcs the sources
+     * @param dests the destinations, each of the same shape as its source
+     */
+    public static void copy(INDArray[] srcs, INDArray[] dests) {
+        if(srcs.length != dests.length)
+            throw new IllegalArgumentException("Number of sources " + srcs.length + " does not match number of destinations " + dests.length);
+        StridedKernelExecutor.Geometry[] geometries = new StridedKernelExecutor.Geometry[srcs.length];
+        //the first chunk of each copy, with the total number of chunks at the end
+        int[] firstChunk = new int[srcs.length + 1];
+        long total = 0;
+        for(int i = 0; i < srcs.length; i++) {
+            if(!canCopy(srcs[i], dests[i]))
+                throw new IllegalArgumentException("Unable to copy array of shape " + Arrays.toString(srcs[i].shape())
+                        + " in to array of shape " + Arrays.toString(dests[i].shape()));
+            geometries[i] = new StridedKernelExecutor.Geometry(new INDArray[]{srcs[i], dests[i]}, true);
+            int length = srcs[i].length();
+            total += length;
+            firstChunk[i + 1] = firstChunk[i] + (length + ParallelOpExecutor.CHUNK_SIZE - 1) / ParallelOpExecutor.CHUNK_SIZE;
+        }
+
+        if(total < Nd4j.parallelThreshold || firstChunk[srcs.length] <= 1) {
+            for(int i = 0; i < srcs.length; i++)
+                run(srcs[i], dests[i], geometries[i], 0, srcs[i].length());
+            return;
+        }
+
+        ParallelOpExecutor.pool().invoke(new Task(srcs, dests, geometries, firstChunk, 0, firstChunk[srcs.length]));
+    }
+
+    private static boolean isSupported(INDArray arr) {
+        return arr != null
+                && !(arr instanceof LinearViewNDArray)
+                && !(arr instanceof LinearViewComplexNDArray)
+                && arr.stride().length == arr.shape().length;
+    }
+
+    //copy the elements start (inclusive) to end (exclusive) of src in to dest
+    private static void run(INDArray src, INDArray dest, StridedKernelExecutor.Geometry geometry, int start, int end) {
+        if(start >= end)
+            return;
+        //a complex element is a pair of primitives: a unit stride is 2
+        int width = src instanceof IComplexNDArray ? 2 : 1;
+        DataBuffer srcBuffer = src.data();
+        DataBuffer destBuffer = dest.data();
+        Object[] arrays = StridedKernelExecutor.backingArrays(new INDArray[]{src, dest});
+        boolean direct = arrays == null && isDirect(srcBuffer) && isDirect(destBuffer)
+                && srcBuffer.dataType() == destBuffer.dataType()
+                && srcBuffer.asNetty().order() == destBuffer.asNetty().order();
+        int srcStride = geometry.strides[0][0];
+        int destStride = geometry.strides[1][0];
+        boolean contiguous = srcStride == width && destStride == width;
+
+        StridedKernelExecutor.Cursor cursor = new StridedKernelExecutor.Cursor(geometry, start, end);
+        int n;
+        while((n = cursor.next()) > 0) {
+            //heap arrays and netty buffers are int indexed; other buffers may be chunked past an int offset
+            long si = cursor.offsets[0];
+            long di = cursor.offsets[1];
+            if(arrays != null) {
+                if(contiguous)
+                    System.arraycopy(arrays[0], (int) si, arrays[1], (int) di, n * width);
+                else if(arrays[0] instanceof double[])
+                    copy((double[]) arrays[0], (int) si, srcStride, (double[]) arrays[1], (int) di, destStride, width, n);
+                else
+                    copy((float[]) arrays[0], (int) si, srcStride, (float[]) arrays[1], (int) di, destStride, width, n);
+            }
+            else if(direct && contiguous) {
+                int elementSize = srcBuffer.getElementSize();
+                ByteBuf from = srcBuffer.asNetty();
+                destBuffer.asNetty().setBytes((int) di * elementSize, from, (int) si * elementSize, n * width * elementSize);
+            }
+            else {
+                for(int i = 0; i < n; i++, si += srcStride, di += destStride)
+                    for(int k = 0; k < width; k++)
+                        destBuffer.put(di + k, srcBuffer.getDouble(si + k));
+            }
+        }
+    }
+
+    private static boolean isDirect(DataBuffer buffer) {
+        return buffer.allocationMode() == DataBuffer.AllocationMode.DIRECT && buffer.asNetty() != null;
+    }
+
+    private static void copy(double[] src, int si, int srcStride, double[] dest, int di, int destStride, int width, int n) {
+        if(width == 1)
+            for(int i = 0; i < n; i++, si += srcStride, di += destStride)
+                dest[di] = src[si];
+        else
+            for(int i = 0; i < n; i++, si += srcStride, di += destStride) {
+                dest[di] = src[si];
+                dest[di + 1] = src[si + 1];
+            }
+    }
+
+    private static void copy(float[] src, int si, int srcStride, float[] dest, int di, int destStride, int width, int n) {
+        if(width == 1)
+            for(int i = 0; i < n; i++, si += srcStride, di += destStride)
+                dest[di] = src[si];
+        else
+            for(int i = 0; i < n; i++, si += srcStride, di += destStride) {
+                dest[di] = src[si];
+                dest[di + 1] = src[si + 1];
+            }
+    }
+
+    private static class Task extends RecursiveAction {
+        private INDArray[] srcs, dests;
+        private StridedKernelExecutor.Geometry[] geometries;
+        private int[] firstChunk;
+        private int from, to;
+
+        Task(INDArray[] srcs, INDArray[] dests, StridedKernelExecutor.Geometry[] geometries, int[] firstChunk, int from, int to) {
+            this.srcs = srcs;
+            this.dests = dests;
+            this.geometries = geometries;
+            this.firstChunk = firstChunk;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Task(srcs, dests, geometries, firstChunk, from, mid),
+                        new Task(srcs, dests, geometries, firstChunk, mid, to));
+                return;
+            }
+            //the copy owning this chunk: the last one starting at or before it
+            int copy = Arrays.binarySearch(firstChunk, from);
+            if(copy < 0)
+                copy = -copy - 2;
+            else
+                while(copy + 1 < srcs.length && firstChunk[copy + 1] == from)
+                    copy++;
+            int start = (from - firstChunk[copy]) * ParallelOpExecutor.CHUNK_SIZE;
+            int end = Math.min(start + ParallelOpExecutor.CHUNK_SIZE, srcs[copy].length());
+            run(srcs[copy], dests[copy], geometries[copy], start, end);
+        }
+    }
+}
@@ -0,0 +1,540 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.complex.LinearViewComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.Accumulation;
+import org.nd4j.linalg.api.ops.ScalarOp;
+import org.nd4j.linalg.api.ops.TransformOp;
+import org.nd4j.linalg.api.ops.impl.accum.Norm1;
+import org.nd4j.linalg.api.ops.impl.accum.Norm2;
+import org.nd4j.linalg.api.ops.impl.accum.NormMax;
+import org.nd4j.linalg.api.ops.impl.accum.Sum;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarAdd;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarDivision;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarMultiplication;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarSubtraction;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.AddOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.CopyOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.DivOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.MulOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.RDivOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.RSubOp;
+import org.nd4j.linalg.api.ops.impl.transforms.arithmetic.SubOp;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Arithmetic on complex ndarrays directly against
+ * their interleaved real/imaginary buffers.
+ *
+ * Each element is a pair of primitives at offset + sum(index * stride)
+ * so complex operands share the strided geometry of the
+ * {@link StridedKernelExecutor}: the real and imaginary parts
+ * are read in to locals and no {@link IComplexNumber} is created per element.
+ * Heap double buffers are addressed in place, anything else
+ * is read and written in small blocks of scratch pairs.
+ * Operands with at least {@link Nd4j#parallelThreshold} elements
+ * are split in to chunks of {@link ParallelOpExecutor#CHUNK_SIZE}
+ * elements which are processed across cores.
+ *
+ * @author Adam Gibson
+ */
+public class ComplexKernelExecutor {
+
+    public static final int ADD = 0;
+    public static final int SUB = 1;
+    public static final int MUL = 2;
+    public static final int DIV = 3;
+    public static final int RSUB = 4;
+    public static final int RDIV = 5;
+
+    private static final int COPY = 6;
+    private static final int CONJ = 7;
+    private static final int SUM = 8;
+    private static final int NORM1 = 9;
+    private static final int NORM2 = 10;
+    private static final int NORM_MAX = 11;
+
+    private static final int BLOCK_SIZE = 256;
+
+    private ComplexKernelExecutor() {
+    }
+
+    /**
+     * Whether the kernels can address the given array
+     * @param arr the array to test
+     * @return true for complex ndarrays other than linear views
+     */
+    public static boolean isSupported(INDArray arr) {
+        return arr instanceof IComplexNDArray
+                && !(arr instanceof LinearViewComplexNDArray)
+                && arr.data().dataType() != DataBuffer.Type.INT
+                && arr.stride().length == arr.shape().length;
+    }
+
+    /**
+     * Whether all of the operands are supported and of the same shape
+     * @param operands the operands to test
+     * @return true if the kernels can be run over the operands
+     */
+    public static boolean canExecute(INDArray...operands) {
+        for(INDArray operand : operands)
+            if(!isSupported(operand) || !Arrays.equals(operands[0].shape(), operand.shape()))
+                return false;
+        return true;
+    }
+
+    /**
+     * Whether the given op is a complex op with a kernel:
+     * scalar and pairwise arithmetic, copies, sums and norms
+     * @param op the op to test
+     * @return true if the op can be run by this executor
+     */
+    public static boolean canExecute(Op op) {
+        if(op.isPassThrough() || !isSupported(op.x()) || op.n() != op.x().length())
+            return false;
+        if(op instanceof ScalarOp)
+            return scalarOpCode(op) >= 0 && ((ScalarOp) op).complexScalar() != null && canExecute(op.x(), op.z());
+        if(op instanceof TransformOp)
+            return pairwiseOpCode(op) >= 0 && op.y() != null && canExecute(op.x(), op.y(), op.z());
+        return reductionOpCode(op) >= 0 && op.y() == null;
+    }
+
+    /**
+     * Execute an op accepted by {@link #canExecute(Op)}
+     * @param op the op to execute
+     */
+    public static void exec(Op op) {
+        if(!canExecute(op))
+            throw new IllegalArgumentException("Unable to execute op " + op.name() + " with complex kernels");
+        IComplexNDArray x = (IComplexNDArray) op.x();
+        if(op instanceof ScalarOp) {
+            IComplexNumber scalar = ((ScalarOp) op).complexScalar();
+            scalar(scalarOpCode(op), x, scalar.realComponent().doubleValue(), scalar.imaginaryComponent().doubleValue(), (IComplexNDArray) op.z());
+        }
+        else if(op instanceof TransformOp) {
+            int code = pairwiseOpCode(op);
+            if(code == COPY)
+                copy(x, (IComplexNDArray) op.z());
+            else
+                pairwise(code, x, (IComplexNDArray) op.y(), (IComplexNDArray) op.z());
+        }
+        else {
+            int code = reductionOpCode(op);
+            double[] result;
+            if(code == SUM)
+                result = sum(x);
+            else if(code == NORM1)
+                result = new double[]{norm1(x), 0};
+            else if(code == NORM2)
+                result = new double[]{norm2(x), 0};
+            else
+                result = new double[]{normMax(x), 0};
+            ((Accumulation) op).setCurrentResultComplex(Nd4j.createComplexNumber(result[0], result[1]));
+        }
+    }
+
+    /**
+     * z = x op y element wise
+     * @param op one of {@link #ADD}, {@link #SUB}, {@link #MUL}, {@link #DIV}, {@link #RSUB} or {@link #RDIV}
+     * @param x the first operand
+     * @param y the second operand
+     * @param z the result, may be x or y
+     */
+    public static void pairwise(int op, IComplexNDArray x, IComplexNDArray y, IComplexNDArray z) {
+        checkArithmetic(op);
+        run(op, new INDArray[]{x, y, z}, null);
+    }
+
+    /**
+     * z = x op (real + imag i) element wise
+     * @param op one of {@link #ADD}, {@link #SUB}, {@link #MUL}, {@link #DIV}, {@link #RSUB} or {@link #RDIV}
+     * @param x the operand
+     * @param real the real part of the scalar
+     * @param imag the imaginary part of the scalar
+     * @param z the result, may be x
+     */
+    public static void scalar(int op, IComplexNDArray x, double real, double imag, IComplexNDArray z) {
+        checkArithmetic(op);
+        run(op, new INDArray[]{x, z}, new double[]{real, imag});
+    }
+
+    /**
+     * Copy x in to z
+     * @param x the source
+     * @param z the destination
+     */
+    public static void copy(IComplexNDArray x, IComplexNDArray z) {
+        run(COPY, new INDArray[]{x, z}, null);
+    }
+
+    /**
+     * Write the complex conjugate of x in to z
+     * @param x the source
+     * @param z the destination, may be x
+     */
+    public static void conj(IComplexNDArray x, IComplexNDArray z) {
+        run(CONJ, new INDArray[]{x, z}, null);
+    }
+
+    /**
+     * The sum of the elements of x
+     * @param x the array to sum
+     * @return the real and imaginary parts of the sum
+     */
+    public static double[] sum(IComplexNDArray x) {
+        return run(SUM, new INDArray[]{x}, null);
+    }
+
+    /**
+     * The sum of the absolute values of the elements of x
+     * @param x the array to reduce
+     * @return the sum of the moduli
+     */
+    public static double norm1(IComplexNDArray x) {
+        return run(NORM1, new INDArray[]{x}, null)[0];
+    }
+
+    /**
+     * The euclidean norm of x: the square root
+     * of the sum of the squared moduli
+     * @param x the array to reduce
+     * @return the norm of x
+     */
+    public static double norm2(IComplexNDArray x) {
+        return Math.sqrt(run(NORM2, new INDArray[]{x}, null)[0]);
+    }
+
+    /**
+     * The largest absolute value of the elements of x
+     * @param x the array to reduce
+     * @return the largest modulus
+     */
+    public static double normMax(IComplexNDArray x) {
+        return Math.sqrt(run(NORM_MAX, new INDArray[]{x}, null)[0]);
+    }
+
+    private static void checkArithmetic(int op) {
+        if(op < ADD || op > RDIV)
+            throw new IllegalArgumentException("Illegal arithmetic op " + op);
+    }
+
+    private static int scalarOpCode(Op op) {
+        if(op instanceof ScalarAdd)
+            return ADD;
+        if(op instanceof ScalarSubtraction)
+            return SUB;
+        if(op instanceof ScalarMultiplication)
+            return MUL;
+        if(op instanceof ScalarDivision)
+            return DIV;
+        return -1;
+    }
+
+    private static int pairwiseOpCode(Op op) {
+        if(op instanceof AddOp)
+            return ADD;
+        if(op instanceof SubOp)
+            return SUB;
+        if(op instanceof MulOp)
+            return MUL;
+        if(op instanceof DivOp)
+            return DIV;
+        if(op instanceof RSubOp)
+            return RSUB;
+        if(op instanceof RDivOp)
+            return RDIV;
+        if(op instanceof CopyOp)
+            return COPY;
+        return -1;
+    }
+
+    private static int reductionOpCode(Op op) {
+        if(op instanceof Sum)
+            return SUM;
+        if(op instanceof Norm1)
+            return NORM1;
+        if(op instanceof Norm2)
+            return NORM2;
+        if(op instanceof NormMax)
+            return NORM_MAX;
+        return -1;
+    }
+
+    private static boolean isReduction(int op) {
+        return op >= SUM;
+    }
+
+    //operands are x, then y unless a scalar is given, then z unless the op is a reduction
+    private static double[] run(int op, INDArray[] operands, double[] scalar) {
+        if(!canExecute(operands))
+            throw new IllegalArgumentException("Operands must be complex ndarrays of the same shape");
+        StridedKernelExecutor.Geometry geometry = new StridedKernelExecutor.Geometry(operands, true);
+        int length = operands[0].length();
+        if(length < Nd4j.parallelThreshold || length <= ParallelOpExecutor.CHUNK_SIZE) {
+            double[] ret = new double[2];
+            run(op, operands, scalar, geometry, 0, length, ret);
+            return ret;
+        }
+
+        int chunks = (length + ParallelOpExecutor.CHUNK_SIZE - 1) / ParallelOpExecutor.CHUNK_SIZE;
+        double[][] partials = new double[chunks][2];
+        ParallelOpExecutor.pool().invoke(new Task(op, operands, scalar, geometry, partials, 0, chunks));
+        //combine the partials in chunk order so the result does not depend on scheduling
+        double[] ret = new double[2];
+        for(double[] partial : partials) {
+            if(op == NORM_MAX)
+                ret[0] = Math.max(ret[0], partial[0]);
+            else {
+                ret[0] += partial[0];
+                ret[1] += partial[1];
+            }
+        }
+        return ret;
+    }
+
+    //apply the op to the elements start (inclusive) to end (exclusive), accumulating in to acc
+    private static void run(int op, INDArray[] operands, double[] scalar, StridedKernelExecutor.Geometry geometry,
+                            int start, int end, double[] acc) {
+        int count = operands.length;
+        DataBuffer[] buffers = new DataBuffer[count];
+        Object[] arrays = new Object[count];
+        double[][] scratch = new double[count][];
+        for(int j = 0; j < count; j++) {
+            buffers[j] = operands[j].data();
+            Object[] backing = StridedKernelExecutor.backingArrays(new INDArray[]{operands[j]});
+            arrays[j] = backing != null ? backing[0] : null;
+            if(!(arrays[j] instanceof double[]))
+                scratch[j] = new double[BLOCK_SIZE * 2];
+        }
+
+        int y = scalar == null && count > 2 ? 1 : -1;
+        int z = isReduction(op) ? -1 : count - 1;
+        double[][] data = new double[3][];
+        int[] offsets = new int[3];
+        int[] strides = new int[3];
+        StridedKernelExecutor.Cursor cursor = new StridedKernelExecutor.Cursor(geometry, start, end);
+        int n;
+        while((n = cursor.next()) > 0) {
+            for(int done = 0; done < n; done += BLOCK_SIZE) {
+                int len = Math.min(BLOCK_SIZE, n - done);
+                //x, y and z in turn: heap doubles in place, everything else through scratch
+                for(int role = 0; role < 3; role++) {
+                    int j = role == 0 ? 0 : role == 1 ? y : z;
+                    if(j < 0) {
+                        //a scalar is read as a second operand that never moves
+                        data[role] = role == 1 ? scalar : null;
+                        offsets[role] = 0;
+                        strides[role] = 0;
+                        continue;
+                    }
+                    int stride = geometry.strides[j][0];
+                    long offset = cursor.offsets[j] + (long) done * stride;
+                    if(scratch[j] == null) {
+                        data[role] = (double[]) arrays[j];
+                        offsets[role] = (int) offset;
+                        strides[role] = stride;
+                    }
+                    else {
+                        if(role < 2)
+                            read(buffers[j], arrays[j], offset, stride, scratch[j], len);
+                        data[role] = scratch[j];
+                        offsets[role] = 0;
+                        strides[role] = 2;
+                    }
+                }
+
+                kernel(op, data[0], offsets[0], strides[0], data[1], offsets[1], strides[1], data[2], offsets[2], strides[2], len, acc);
+
+                if(z >= 0 && scratch[z] != null) {
+                    int stride = geometry.strides[z][0];
+                    write(buffers[z], arrays[z], cursor.offsets[z] + (long) done * stride, stride, scratch[z], len);
+                }
+            }
+        }
+    }
+
+    private static void kernel(int op, double[] x, int xi, int xs, double[] y, int yi, int ys, double[] z, int zi, int zs, int n, double[] acc) {
+        switch(op) {
+            case ADD:
+                for(int i = 0; i < n; i++, xi += xs, yi += ys, zi += zs) {
+                    double re = x[xi] + y[yi], im = x[xi + 1] + y[yi + 1];
+                    z[zi] = re;
+                    z[zi + 1] = im;
+                }
+                break;
+            case SUB:
+                for(int i = 0; i < n; i++, xi += xs, yi += ys, zi += zs) {
+                    double re = x[xi] - y[yi], im = x[xi + 1] - y[yi + 1];
+                    z[zi] = re;
+                    z[zi + 1] = im;
+                }
+                break;
+            case RSUB:
+                for(int i = 0; i < n; i++, xi += xs, yi += ys, zi += zs) {
+                    double re = y[yi] - x[xi], im = y[yi + 1] - x[xi + 1];
+                    z[zi] = re;
+                    z[zi + 1] = im;
+                }
+                break;
+            case MUL:
+                for(int i = 0; i < n; i++, xi += xs, yi += ys, zi += zs) {
+                    double a = x[xi], b = x[xi + 1], c = y[yi], d = y[yi + 1];
+                    z[zi] = a * c - b * d;
+                    z[zi + 1] = a * d + b * c;
+                }
+                break;
+            case DIV:
+                for(int i = 0; i < n; i++, xi += xs, yi += ys, zi += zs) {
+                    double a = x[xi], b = x[xi + 1], c = y[yi], d = y[yi + 1];
+                    double denom = c * c + d * d;
+                    z[zi] = (a * c + b * d) / denom;
+                    z[zi + 1] = (b * c - a * d) / denom;
+                }
+                break;
+            case RDIV:
+                for(int i = 0; i < n; i++, xi += xs, yi += ys, zi += zs) {
+                    double a = y[yi], b = y[yi + 1], c = x[xi], d = x[xi + 1];
+                    double denom = c * c + d * d;
+                    z[zi] = (a * c + b * d) / denom;
+                    z[zi + 1] = (b * c - a * d) / denom;
+                }
+                break;
+            case COPY:
+                for(int i = 0; i < n; i++, xi += xs, zi += zs) {
+                    z[zi] = x[xi];
+                    z[zi + 1] = x[xi + 1];
+                }
+                break;
+            case CONJ:
+                for(int i = 0; i < n; i++, xi += xs, zi += zs) {
+                    z[zi] = x[xi];
+                    z[zi + 1] = -x[xi + 1];
+                }
+                break;
+            case SUM: {
+                double re = 0, im = 0;
+                for(int i = 0; i < n; i++, xi += xs) {
+                    re += x[xi];
+                    im += x[xi + 1];
+                }
+                acc[0] += re;
+                acc[1] += im;
+                break;
+            }
+            case NORM1: {
+                double sum = 0;
+                for(int i = 0; i < n; i++, xi += xs)
+                    sum += Math.sqrt(x[xi] * x[xi] + x[xi + 1] * x[xi + 1]);
+                acc[0] += sum;
+                break;
+            }
+            case NORM2: {
+                double sum = 0;
+                for(int i = 0; i < n; i++, xi += xs)
+                    sum += x[xi] * x[xi] + x[xi + 1] * x[xi + 1];
+                acc[0] += sum;
+                break;
+            }
+            default: {
+                //squared moduli are compared, the root is taken once by the caller
+                double max = acc[0];
+                for(int i = 0; i < n; i++, xi += xs)
+                    max = Math.max(max, x[xi] * x[xi] + x[xi + 1] * x[xi + 1]);
+                acc[0] = max;
+                break;
+            }
+        }
+    }
+
+    //read n complex elements starting at offset in to interleaved pairs
+    //heap arrays are int indexed; buffers without one may be chunked past an int offset
+    private static void read(DataBuffer buffer, Object array, long offset, int stride, double[] dest, int n) {
+        if(array instanceof float[]) {
+            float[] data = (float[]) array;
+            int idx = (int) offset;
+            for(int i = 0; i < n; i++, idx += stride) {
+                dest[2 * i] = data[idx];
+                dest[2 * i + 1] = data[idx + 1];
+            }
+        }
+        else
+            for(int i = 0; i < n; i++, offset += stride) {
+                dest[2 * i] = buffer.getDouble(offset);
+                dest[2 * i + 1] = buffer.getDouble(offset + 1);
+            }
+    }
+
+    private static void write(DataBuffer buffer, Object array, long offset, int stride, double[] src, int n) {
+        if(array instanceof float[]) {
+            float[] data = (float[]) array;
+            int idx = (int) offset;
+            for(int i = 0; i < n; i++, idx += stride) {
+                data[idx] = (float) src[2 * i];
+                data[idx + 1] = (float) src[2 * i + 1];
+            }
+        }
+        else
+            for(int i = 0; i < n; i++, offset += stride) {
+                buffer.put(offset, src[2 * i]);
+                buffer.put(offset + 1, src[2 * i + 1]);
+            }
+    }
+
+    private static class Task extends RecursiveAction {
+        private int op;
+        private INDArray[] operands;
+        private double[] scalar;
+        private StridedKernelExecutor.Geometry geometry;
+        private double[][] partials;
+        private int from, to;
+
+        Task(int op, INDArray[] operands, double[] scalar, StridedKernelExecutor.Geometry geometry,
+             double[][] partials, int from, int to) {
+            this.op = op;
+            this.operands = operands;
+            this.scalar = scalar;
+            this.geometry = geometry;
+            this.partials = partials;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Task(op, operands, scalar, geometry, partials, from, mid),
+                        new Task(op, operands, scalar, geometry, partials, mid, to));
+                return;
+            }
+            int start = from * ParallelOpExecutor.CHUNK_SIZE;
+            int end = Math.min(start + ParallelOpExecutor.CHUNK_SIZE, operands[0].length());
+            run(op, operands, scalar, geometry, start, end, partials[from]);
+        }
+    }
+}
@@ -55,6 +55,24 @@ public class DefaultOpExecutioner implements OpExecutioner {
             //make assumption x and z are same type
             if (!op.x().getClass().equals(t.z().getClass()) && !(op.x() instanceof LinearViewNDArray) && !(t.z() instanceof LinearViewNDArray))
                 throw new IllegalArgumentException("Illegal operation. Origin and output ndarray must be same types. op.x was " + op.x().getClass().getName() + " while t.z was " + t.z().getClass().getName());
+        }
+
+        //walk the raw buffers rather than going through the linear view element by element
+        if((executionMode() == ExecutionMode.STRIDED || executionMode() == ExecutionMode.PARALLEL) && StridedKernelExecutor.canExecute(op)) {
+            if(executionMode() == ExecutionMode.PARALLEL)
+                ParallelOpExecutor.exec(op);
+            else
+                StridedKernelExecutor.exec(op);
+            return op;
+        }
+        //complex arithmetic over the interleaved buffers without boxing each element
+        if((executionMode() == ExecutionMode.STRIDED || executionMode() == ExecutionMode.PARALLEL) && ComplexKernelExecutor.canExecute(op)) {
+            ComplexKernelExecutor.exec(op);
+            return op;
+        }
+
+        if (op instanceof TransformOp) {
+            TransformOp t = (TransformOp) op;
             for (int c = 0; c < op.n(); c++) {
                 apply(t, c);
             }
@@ -303,6 +321,10 @@ public class DefaultOpExecutioner implements OpExecutioner {
                 return Nd4j.scalar(execAndReturn(op).currentResultComplex());
             return Nd4j.scalar(execAndReturn(op).currentResult().doubleValue());
         }
+        //reduce straight in to the result rather than running an op per tensor
+        if((executionMode() == ExecutionMode.STRIDED || executionMode() == ExecutionMode.PARALLEL) && DimensionReductionExecutor.canExecute(op, dimension))
+            return DimensionReductionExecutor.exec(op, executionMode() == ExecutionMode.PARALLEL, dimension);
+
         int[] retShape = ArrayUtil.removeIndex(op.x().shape(),dimension);
         //ensure vector is proper shape
         if(retShape.length == 1)
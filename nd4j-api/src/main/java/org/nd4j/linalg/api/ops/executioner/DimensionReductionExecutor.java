@@ -0,0 +1,361 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Accumulation;
+import org.nd4j.linalg.api.ops.impl.accum.*;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ArrayUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reduces an ndarray along one or more dimensions
+ * without creating an op or a view per output element.
+ *
+ * The input is walked once in memory order together with
+ * a second, virtual operand: the array of per output accumulators,
+ * which has a stride of 0 along the reduced dimensions.
+ * Each element is folded in to its accumulator with a primitive
+ * loop and the accumulators are written straight in to the result.
+ *
+ * In parallel mode the outputs are split in to blocks along the largest
+ * kept dimension, each block being reduced by its own task.
+ *
+ * @author Adam Gibson
+ */
+public class DimensionReductionExecutor {
+
+    private static final int SUM = 0;
+    private static final int MEAN = 1;
+    private static final int PROD = 2;
+    private static final int NORM1 = 3;
+    private static final int NORM2 = 4;
+    private static final int NORM_MAX = 5;
+    private static final int MAX = 6;
+    private static final int MIN = 7;
+    private static final int VARIANCE = 8;
+    private static final int STANDARD_DEVIATION = 9;
+
+    private DimensionReductionExecutor() {
+    }
+
+    /**
+     * Whether the accumulation along the given dimensions
+     * can be run by this executor
+     *
+     * @param op the accumulation
+     * @param dimension the dimensions to reduce along
+     * @return true if this executor can run the reduction
+     */
+    public static boolean canExecute(Accumulation op, int... dimension) {
+        if(op.isPassThrough() || op.y() != null || reductionOf(op) < 0)
+            return false;
+        INDArray x = op.x();
+        if(!StridedKernelExecutor.isSupported(x))
+            return false;
+        int[] dims = normalize(dimension, x.rank());
+        //reducing along every dimension is a plain accumulation
+        return dims != null && dims.length < x.rank();
+    }
+
+    /**
+     * Reduce along the given dimensions
+     *
+     * @param op the accumulation to run
+     * @param parallel whether to split the output across threads
+     * @param dimension the dimensions to reduce along
+     * @return the reduced ndarray
+     */
+    public static INDArray exec(Accumulation op, boolean parallel, int... dimension) {
+        if(!canExecute(op, dimension))
+            throw new IllegalArgumentException("Unable to reduce op " + op.name() + " along dimensions " + Arrays.toString(dimension));
+
+        INDArray x = op.x();
+        int[] shape = x.shape();
+        int[] dims = normalize(dimension, x.rank());
+        int reduction = reductionOf(op);
+
+        int[] retShape = ArrayUtil.removeIndex(shape, dims);
+        //ensure vector is proper shape
+        if(retShape.length == 1)
+            retShape = new int[]{1, retShape[0]};
+        int outputs = ArrayUtil.prod(retShape);
+        int n = x.length() / outputs;
+
+        //accumulators are laid out in column major order over the kept dimensions
+        int[] accStride = new int[shape.length];
+        int[] kept = new int[shape.length - dims.length];
+        int count = 0;
+        int s = 1;
+        for(int i = 0; i < shape.length; i++) {
+            if(Arrays.binarySearch(dims, i) >= 0)
+                continue;
+            kept[count++] = i;
+            accStride[i] = s;
+            s *= shape[i];
+        }
+
+        double[] acc = new double[outputs];
+        if(reduction == VARIANCE || reduction == STANDARD_DEVIATION) {
+            //two passes: the mean of every output, then the squared deviations from it
+            reduce(x, kept, accStride, SUM, acc, null, null, parallel);
+            double[] mean = acc;
+            for(int i = 0; i < outputs; i++)
+                mean[i] /= n;
+            double[] bias = new double[outputs];
+            acc = new double[outputs];
+            reduce(x, kept, accStride, VARIANCE, acc, bias, mean, parallel);
+            boolean biasCorrected = ((Variance) op).isBiasCorrected();
+            for(int i = 0; i < outputs; i++) {
+                double var = biasCorrected ? (acc[i] - (bias[i] * bias[i]) / n) / (n - 1.0) : acc[i] / n;
+                acc[i] = reduction == STANDARD_DEVIATION ? Math.sqrt(var) : var;
+            }
+        }
+        else {
+            Arrays.fill(acc, initial(reduction));
+            reduce(x, kept, accStride, reduction, acc, null, null, parallel);
+            for(int i = 0; i < outputs; i++) {
+                if(reduction == MEAN)
+                    acc[i] /= n;
+                else if(reduction == NORM2)
+                    acc[i] = Math.sqrt(acc[i]);
+            }
+        }
+
+        INDArray ret = Nd4j.create(retShape);
+        write(ret, acc, kept, shape);
+        return ret;
+    }
+
+    private static int reductionOf(Accumulation op) {
+        if(op instanceof StandardDeviation)
+            return STANDARD_DEVIATION;
+        if(op instanceof Variance)
+            return VARIANCE;
+        if(op instanceof Mean)
+            return MEAN;
+        if(op instanceof Sum)
+            return SUM;
+        if(op instanceof Prod)
+            return PROD;
+        if(op instanceof Norm1)
+            return NORM1;
+        if(op instanceof Norm2)
+            return NORM2;
+        if(op instanceof NormMax)
+            return NORM_MAX;
+        if(op instanceof Max)
+            return MAX;
+        if(op instanceof Min)
+            return MIN;
+        return -1;
+    }
+
+    private static double initial(int reduction) {
+        switch(reduction) {
+            case PROD: return 1.0;
+            case MAX: return Double.NEGATIVE_INFINITY;
+            case MIN: return Double.POSITIVE_INFINITY;
+            default: return 0.0;
+        }
+    }
+
+    //sorted, non negative and unique dimensions or null if any are out of range
+    private static int[] normalize(int[] dimension, int rank) {
+        if(dimension == null || dimension.length == 0)
+            return null;
+        int[] ret = new int[dimension.length];
+        for(int i = 0; i < dimension.length; i++) {
+            ret[i] = dimension[i] < 0 ? dimension[i] + rank : dimension[i];
+            if(ret[i] < 0 || ret[i] >= rank)
+                return null;
+        }
+        Arrays.sort(ret);
+        for(int i = 1; i < ret.length; i++)
+            if(ret[i] == ret[i - 1])
+                return null;
+        return ret;
+    }
+
+    private static void reduce(INDArray x, int[] kept, int[] accStride, int reduction, double[] acc, double[] bias, double[] mean, boolean parallel) {
+        int[] shape = x.shape();
+        int[] stride = x.stride();
+        int split = kept[0];
+        for(int i = 1; i < kept.length; i++)
+            if(shape[kept[i]] > shape[split])
+                split = kept[i];
+
+        int blocks = 1;
+        if(parallel && x.length() >= Nd4j.parallelThreshold)
+            blocks = Math.min(shape[split], ParallelOpExecutor.pool().getParallelism() * 4);
+
+        if(blocks <= 1) {
+            new ReduceTask(x, shape, stride, accStride, split, 0, shape[split], reduction, acc, bias, mean).compute();
+            return;
+        }
+
+        final List<ReduceTask> tasks = new ArrayList<>();
+        int blockSize = (shape[split] + blocks - 1) / blocks;
+        for(int lo = 0; lo < shape[split]; lo += blockSize)
+            tasks.add(new ReduceTask(x, shape, stride, accStride, split, lo, Math.min(lo + blockSize, shape[split]), reduction, acc, bias, mean));
+        ParallelOpExecutor.pool().invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(tasks);
+            }
+        });
+    }
+
+    private static void write(INDArray ret, double[] acc, int[] kept, int[] shape) {
+        DataBuffer data = ret.data();
+        int[] retStride = ret.stride();
+        int retOffset = ret.offset();
+        //a single kept dimension was padded to a row vector
+        int first = kept.length == 1 ? 1 : 0;
+        for(int i = 0; i < acc.length; i++) {
+            int offset = retOffset;
+            int index = i;
+            for(int k = 0; k < kept.length; k++) {
+                int size = shape[kept[k]];
+                offset += (index % size) * retStride[first + k];
+                index /= size;
+            }
+            data.put(offset, acc[i]);
+        }
+    }
+
+
+    /**
+     * Reduces the block [lo, hi) of the split dimension
+     * in to the accumulators of that block
+     */
+    private static class ReduceTask extends RecursiveAction {
+        private INDArray x;
+        private int[] shape, stride, accStride;
+        private int split, lo, hi;
+        private int reduction;
+        private double[] acc, bias, mean;
+
+        ReduceTask(INDArray x, int[] shape, int[] stride, int[] accStride, int split, int lo, int hi, int reduction, double[] acc, double[] bias, double[] mean) {
+            this.x = x;
+            this.shape = shape;
+            this.stride = stride;
+            this.accStride = accStride;
+            this.split = split;
+            this.lo = lo;
+            this.hi = hi;
+            this.reduction = reduction;
+            this.acc = acc;
+            this.bias = bias;
+            this.mean = mean;
+        }
+
+        @Override
+        protected void compute() {
+            int[] blockShape = shape.clone();
+            blockShape[split] = hi - lo;
+            long[] offsets = {x.offset() + (long) lo * stride[split], (long) lo * accStride[split]};
+            StridedKernelExecutor.Geometry geometry = new StridedKernelExecutor.Geometry(blockShape, new int[][]{stride, accStride}, offsets, true);
+            StridedKernelExecutor.Cursor cursor = new StridedKernelExecutor.Cursor(geometry, 0, ArrayUtil.prod(blockShape));
+
+            DataBuffer buffer = x.data();
+            Object[] arrays = StridedKernelExecutor.backingArrays(new INDArray[]{x});
+            double[] doubles = arrays != null && arrays[0] instanceof double[] ? (double[]) arrays[0] : null;
+            float[] floats = arrays != null && arrays[0] instanceof float[] ? (float[]) arrays[0] : null;
+            double[] scratch = doubles == null ? new double[Math.min(geometry.shape[0], ParallelOpExecutor.CHUNK_SIZE)] : null;
+            int xs = geometry.strides[0][0];
+            int as = geometry.strides[1][0];
+            int n;
+            while((n = cursor.next()) > 0) {
+                //the accumulator and heap arrays are int indexed; other buffers may be chunked past an int offset
+                long xi = cursor.offsets[0];
+                int ai = (int) cursor.offsets[1];
+                if(doubles != null) {
+                    accumulate(doubles, (int) xi, xs, ai, as, n);
+                    continue;
+                }
+                //copy other storage in to a scratch buffer a piece at a time
+                for(int done = 0; done < n; done += scratch.length) {
+                    int len = Math.min(scratch.length, n - done);
+                    long idx = xi + (long) done * xs;
+                    if(floats != null)
+                        for(int i = 0; i < len; i++, idx += xs)
+                            scratch[i] = floats[(int) idx];
+                    else
+                        for(int i = 0; i < len; i++, idx += xs)
+                            scratch[i] = buffer.getDouble(idx);
+                    accumulate(scratch, 0, 1, ai + done * as, as, len);
+                }
+            }
+        }
+
+        private void accumulate(double[] x, int xi, int xs, int ai, int as, int n) {
+            switch(reduction) {
+                case SUM:
+                case MEAN:
+                    for(int i = 0; i < n; i++, xi += xs, ai += as)
+                        acc[ai] += x[xi];
+                    break;
+                case PROD:
+                    for(int i = 0; i < n; i++, xi += xs, ai += as)
+                        acc[ai] *= x[xi];
+                    break;
+                case NORM1:
+                    for(int i = 0; i < n; i++, xi += xs, ai += as)
+                        acc[ai] += Math.abs(x[xi]);
+                    break;
+                case NORM2:
+                    for(int i = 0; i < n; i++, xi += xs, ai += as)
+                        acc[ai] += x[xi] * x[xi];
+                    break;
+                case NORM_MAX:
+                    for(int i = 0; i < n; i++, xi += xs, ai += as) {
+                        double abs = Math.abs(x[xi]);
+                        if(abs > acc[ai])
+                            acc[ai] = abs;
+                    }
+                    break;
+                case MAX:
+                    for(int i = 0; i < n; i++, xi += xs, ai += as)
+                        if(x[xi] > acc[ai])
+                            acc[ai] = x[xi];
+                    break;
+                case MIN:
+                    for(int i = 0; i < n; i++, xi += xs, ai += as)
+                        if(x[xi] < acc[ai])
+                            acc[ai] = x[xi];
+                    break;
+                default:
+                    for(int i = 0; i < n; i++, xi += xs, ai += as) {
+                        double dev = x[xi] - mean[ai];
+                        bias[ai] += dev;
+                        acc[ai] += dev * dev;
+                    }
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+/**
+ * An element wise computation over several operands
+ * of the same shape, such as an updater that advances
+ * its state and produces an update in one pass.
+ * Run by {@link FusedKernelExecutor}.
+ *
+ * @author Adam Gibson
+ */
+public interface FusedKernel {
+
+    /**
+     * Process a block of elements.
+     * Element i of operand j is operands[j][i]; the values
+     * left in every operand are written back to it.
+     *
+     * @param operands the values of each operand for the block
+     * @param n the number of elements in the block
+     */
+    void apply(double[][] operands, int n);
+}
@@ -0,0 +1,218 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs a {@link FusedKernel} or {@link FusedReduction} over operands
+ * of the same shape in a single pass over their buffers.
+ *
+ * The operands are walked with the strided geometry of the
+ * {@link StridedKernelExecutor} in blocks small enough to stay in the l1 cache:
+ * each block is read in to scratch arrays, handed to the kernel
+ * and the results written back before the next block is read.
+ * Operands with at least {@link Nd4j#parallelThreshold} elements
+ * are split in to chunks of {@link ParallelOpExecutor#CHUNK_SIZE}
+ * elements which are processed across cores.
+ *
+ * @author Adam Gibson
+ */
+public class FusedKernelExecutor {
+
+    private static final int BLOCK_SIZE = 512;
+
+    private FusedKernelExecutor() {
+    }
+
+    /**
+     * Apply the kernel to every element of the operands.
+     * Every operand is read and written.
+     *
+     * @param kernel the kernel to apply
+     * @param operands the operands, all of the same shape
+     */
+    public static void exec(final FusedKernel kernel, INDArray...operands) {
+        reduce(new FusedReduction() {
+            @Override
+            public double apply(double[][] operands, int n) {
+                kernel.apply(operands, n);
+                return 0;
+            }
+        }, operands, operands.length, 0);
+    }
+
+    /**
+     * Apply the reduction to every element of the operands
+     * and sum the values it returns.
+     * The inputs are only read and the outputs are only written,
+     * so neither is read twice or written back unchanged.
+     * Partial sums are combined in the same order
+     * whether or not the work is split across cores.
+     *
+     * @param reduction the reduction to apply
+     * @param inputs the operands to read
+     * @param outputs the operands to write, of the same shape as the inputs
+     * @return the sum of the values returned by the reduction
+     */
+    public static double sum(FusedReduction reduction, INDArray[] inputs, INDArray...outputs) {
+        INDArray[] operands = new INDArray[inputs.length + outputs.length];
+        System.arraycopy(inputs, 0, operands, 0, inputs.length);
+        System.arraycopy(outputs, 0, operands, inputs.length, outputs.length);
+        return reduce(reduction, operands, inputs.length, inputs.length);
+    }
+
+    //operands before readEnd are read, operands from writeStart on are written
+    private static double reduce(FusedReduction reduction, INDArray[] operands, int readEnd, int writeStart) {
+        for(int i = 0; i < operands.length; i++) {
+            if(!StridedKernelExecutor.isSupported(operands[i]))
+                throw new IllegalArgumentException("Operand " + i + " is not supported by fused kernels");
+            if(!Arrays.equals(operands[0].shape(), operands[i].shape()))
+                throw new IllegalArgumentException("Operand " + i + " has shape " + Arrays.toString(operands[i].shape())
+                        + " rather than " + Arrays.toString(operands[0].shape()));
+        }
+
+        StridedKernelExecutor.Geometry geometry = new StridedKernelExecutor.Geometry(operands, true);
+        int length = operands[0].length();
+        if(length < Nd4j.parallelThreshold || length <= ParallelOpExecutor.CHUNK_SIZE)
+            return run(reduction, operands, readEnd, writeStart, geometry, 0, length);
+
+        int chunks = (length + ParallelOpExecutor.CHUNK_SIZE - 1) / ParallelOpExecutor.CHUNK_SIZE;
+        double[] partials = new double[chunks];
+        ParallelOpExecutor.pool().invoke(new Task(reduction, operands, readEnd, writeStart, geometry, partials, 0, chunks));
+        double ret = 0;
+        for(double partial : partials)
+            ret += partial;
+        return ret;
+    }
+
+    //apply the reduction to the elements start (inclusive) to end (exclusive)
+    private static double run(FusedReduction reduction, INDArray[] operands, int readEnd, int writeStart,
+                              StridedKernelExecutor.Geometry geometry, int start, int end) {
+        DataBuffer[] buffers = new DataBuffer[operands.length];
+        Object[] arrays = new Object[operands.length];
+        for(int j = 0; j < operands.length; j++) {
+            buffers[j] = operands[j].data();
+            Object[] backing = StridedKernelExecutor.backingArrays(new INDArray[]{operands[j]});
+            arrays[j] = backing != null ? backing[0] : null;
+        }
+        double[][] block = new double[operands.length][BLOCK_SIZE];
+        StridedKernelExecutor.Cursor cursor = new StridedKernelExecutor.Cursor(geometry, start, end);
+        double ret = 0;
+        int n;
+        while((n = cursor.next()) > 0) {
+            for(int done = 0; done < n; done += BLOCK_SIZE) {
+                int len = Math.min(BLOCK_SIZE, n - done);
+                for(int j = 0; j < readEnd; j++) {
+                    int stride = geometry.strides[j][0];
+                    read(buffers[j], arrays[j], cursor.offsets[j] + (long) done * stride, stride, block[j], len);
+                }
+                ret += reduction.apply(block, len);
+                for(int j = writeStart; j < operands.length; j++) {
+                    int stride = geometry.strides[j][0];
+                    write(buffers[j], arrays[j], cursor.offsets[j] + (long) done * stride, stride, block[j], len);
+                }
+            }
+        }
+        return ret;
+    }
+
+    //heap arrays are int indexed; buffers without one may be chunked past an int offset
+    private static void read(DataBuffer buffer, Object array, long offset, int stride, double[] dest, int n) {
+        if(array instanceof double[]) {
+            double[] data = (double[]) array;
+            int idx = (int) offset;
+            if(stride == 1)
+                System.arraycopy(data, idx, dest, 0, n);
+            else
+                for(int i = 0; i < n; i++, idx += stride)
+                    dest[i] = data[idx];
+        }
+        else if(array instanceof float[]) {
+            float[] data = (float[]) array;
+            int idx = (int) offset;
+            for(int i = 0; i < n; i++, idx += stride)
+                dest[i] = data[idx];
+        }
+        else
+            for(int i = 0; i < n; i++, offset += stride)
+                dest[i] = buffer.getDouble(offset);
+    }
+
+    private static void write(DataBuffer buffer, Object array, long offset, int stride, double[] src, int n) {
+        if(array instanceof double[]) {
+            double[] data = (double[]) array;
+            int idx = (int) offset;
+            if(stride == 1)
+                System.arraycopy(src, 0, data, idx, n);
+            else
+                for(int i = 0; i < n; i++, idx += stride)
+                    data[idx] = src[i];
+        }
+        else if(array instanceof float[]) {
+            float[] data = (float[]) array;
+            int idx = (int) offset;
+            for(int i = 0; i < n; i++, idx += stride)
+                data[idx] = (float) src[i];
+        }
+        else
+            for(int i = 0; i < n; i++, offset += stride)
+                buffer.put(offset, src[i]);
+    }
+
+    private static class Task extends RecursiveAction {
+        private FusedReduction reduction;
+        private INDArray[] operands;
+        private int readEnd, writeStart;
+        private StridedKernelExecutor.Geometry geometry;
+        private double[] partials;
+        private int from, to;
+
+        Task(FusedReduction reduction, INDArray[] operands, int readEnd, int writeStart,
+             StridedKernelExecutor.Geometry geometry, double[] partials, int from, int to) {
+            this.reduction = reduction;
+            this.operands = operands;
+            this.readEnd = readEnd;
+            this.writeStart = writeStart;
+            this.geometry = geometry;
+            this.partials = partials;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Task(reduction, operands, readEnd, writeStart, geometry, partials, from, mid),
+                        new Task(reduction, operands, readEnd, writeStart, geometry, partials, mid, to));
+                return;
+            }
+            int start = from * ParallelOpExecutor.CHUNK_SIZE;
+            int end = Math.min(start + ParallelOpExecutor.CHUNK_SIZE, operands[0].length());
+            partials[from] = run(reduction, operands, readEnd, writeStart, geometry, start, end);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+/**
+ * An element wise computation over several operands
+ * of the same shape that sums a value over all elements,
+ * such as the score of a loss function, and may write
+ * per element results, such as its gradient, in the same pass.
+ * Run by {@link FusedKernelExecutor#sum(FusedReduction, INDArray[], INDArray...)}.
+ *
+ * @author Adam Gibson
+ */
+public interface FusedReduction {
+
+    /**
+     * Process a block of elements.
+     * Element i of operand j is operands[j][i]: the inputs come first,
+     * followed by the outputs, whose values are written back.
+     *
+     * @param operands the values of each input and scratch space for each output
+     * @param n the number of elements in the block
+     * @return the contribution of the block to the sum
+     */
+    double apply(double[][] operands, int n);
+}
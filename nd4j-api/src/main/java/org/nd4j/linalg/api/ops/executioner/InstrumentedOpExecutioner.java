@@ -0,0 +1,184 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.instrumentation.OpMetricsRegistry;
+import org.nd4j.linalg.api.instrumentation.OpTimer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Accumulation;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.ScalarOp;
+import org.nd4j.linalg.api.ops.TransformOp;
+
+/**
+ * Records every op run through another executioner
+ * in an {@link OpMetricsRegistry}: the op name, elements processed,
+ * latency and bytes allocated, counted as time spent in loops.
+ *
+ * Calls the wrapped executioner makes on itself
+ * are part of the recorded call rather than recorded separately.
+ *
+ * @author Adam Gibson
+ */
+public class InstrumentedOpExecutioner implements OpExecutioner {
+    private final OpExecutioner executioner;
+    private final OpMetricsRegistry registry;
+
+    /**
+     * @param executioner the executioner to run the ops
+     * @param registry where to record the ops
+     */
+    public InstrumentedOpExecutioner(OpExecutioner executioner, OpMetricsRegistry registry) {
+        this.executioner = executioner;
+        this.registry = registry;
+    }
+
+    /**
+     * @return the executioner running the ops
+     */
+    public OpExecutioner getExecutioner() {
+        return executioner;
+    }
+
+    @Override
+    public Op exec(Op op) {
+        OpTimer timer = registry.start();
+        try {
+            return executioner.exec(op);
+        } finally {
+            stop(timer, op);
+        }
+    }
+
+    @Override
+    public void iterateOverAllRows(Op op) {
+        OpTimer timer = registry.start();
+        try {
+            executioner.iterateOverAllRows(op);
+        } finally {
+            stop(timer, op);
+        }
+    }
+
+    @Override
+    public void iterateOverAllColumns(Op op) {
+        OpTimer timer = registry.start();
+        try {
+            executioner.iterateOverAllColumns(op);
+        } finally {
+            stop(timer, op);
+        }
+    }
+
+    @Override
+    public INDArray execAndReturn(TransformOp op) {
+        OpTimer timer = registry.start();
+        try {
+            return executioner.execAndReturn(op);
+        } finally {
+            stop(timer, op);
+        }
+    }
+
+    @Override
+    public Accumulation execAndReturn(Accumulation op) {
+        OpTimer timer = registry.start();
+        try {
+            return executioner.execAndReturn(op);
+        } finally {
+            stop(timer, op);
+        }
+    }
+
+    @Override
+    public INDArray execAndReturn(ScalarOp op) {
+        OpTimer timer = registry.start();
+        try {
+            return executioner.execAndReturn(op);
+        } finally {
+            stop(timer, op);
+        }
+    }
+
+    @Override
+    public Op exec(Op op, int... dimension) {
+        OpTimer timer = registry.start();
+        try {
+            return executioner.exec(op, dimension);
+        } finally {
+            stop(timer, op);
+        }
+    }
+
+    @Override
+    public INDArray exec(Accumulation accumulation, int... dimension) {
+        OpTimer timer = registry.start();
+        try {
+            return executioner.exec(accumulation, dimension);
+        } finally {
+            stop(timer, accumulation);
+        }
+    }
+
+    @Override
+    public INDArray execAndReturn(TransformOp op, int... dimension) {
+        OpTimer timer = registry.start();
+        try {
+            return executioner.execAndReturn(op, dimension);
+        } finally {
+            stop(timer, op);
+        }
+    }
+
+    @Override
+    public INDArray execAndReturn(Op op) {
+        OpTimer timer = registry.start();
+        try {
+            return executioner.execAndReturn(op);
+        } finally {
+            stop(timer, op);
+        }
+    }
+
+    @Override
+    public INDArray execAndReturn(ScalarOp op, int... dimension) {
+        OpTimer timer = registry.start();
+        try {
+            return executioner.execAndReturn(op, dimension);
+        } finally {
+            stop(timer, op);
+        }
+    }
+
+    @Override
+    public ExecutionMode executionMode() {
+        return executioner.executionMode();
+    }
+
+    @Override
+    public void setExecutionMode(ExecutionMode executionMode) {
+        executioner.setExecutionMode(executionMode);
+    }
+
+    private static void stop(OpTimer timer, Op op) {
+        if(timer != null)
+            timer.stop(op.name(), op.x() != null ? op.x().length() : op.n(), false);
+    }
+}
@@ -4,6 +4,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Loop {
     public interface Each {
@@ -20,23 +21,55 @@ public class Loop {
         }
     });
 
+    /**
+     * Run the body for every index from start (inclusive)
+     * to stop (exclusive). The range is split in to
+     * one contiguous block per cpu and this call blocks until all blocks are done.
+     * The first exception thrown by the body is rethrown on the calling thread
+     * once every block has finished.
+     *
+     * @param start the first index
+     * @param stop the end of the range
+     * @param body the body to run for each index
+     */
     public static void withIndex(int start, int stop, final Each body) {
-        final CountDownLatch latch = new CountDownLatch(CPUs);
-        for (int i = start; i < stop; ) {
+        int n = stop - start;
+        if(n <= 0)
+            return;
+        int chunk = (n + CPUs - 1) / CPUs;
+        int tasks = (n + chunk - 1) / chunk;
+        final CountDownLatch latch = new CountDownLatch(tasks);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        for (int i = start; i < stop; i += chunk) {
             final int lo = i;
-            i ++;
-            final int hi = (i < stop) ? i : stop;
+            final int hi = Math.min(i + chunk, stop);
             executor.submit(new Runnable() {
                 public void run() {
-                    for (int i = lo; i < hi; i++)
-                        body.run(i);
-                    latch.countDown();
+                    try {
+                        //stop early once any block has failed
+                        for (int i = lo; i < hi && failure.get() == null; i++)
+                            body.run(i);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        latch.countDown();
+                    }
                 }
             });
         }
         try {
             latch.await();
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the loop to finish", e);
         }
+
+        Throwable t = failure.get();
+        if(t instanceof RuntimeException)
+            throw (RuntimeException) t;
+        if(t instanceof Error)
+            throw (Error) t;
+        if(t != null)
+            throw new RuntimeException(t);
     }
-}
\ No newline at end of file
+}
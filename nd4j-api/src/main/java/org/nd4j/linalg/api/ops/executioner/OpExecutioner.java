@@ -33,8 +33,15 @@ import org.nd4j.linalg.api.ops.TransformOp;
  */
 public interface OpExecutioner {
 
+    /**
+     * JAVA iterates element wise over the linear view,
+     * STRIDED walks the underlying buffers directly
+     * using the shape and stride of each operand,
+     * PARALLEL splits the strided kernels across cores,
+     * NATIVE delegates to a native implementation where one exists
+     */
     enum ExecutionMode {
-        JAVA,NATIVE
+        JAVA,NATIVE,STRIDED,PARALLEL
     }
 
     /**
@@ -0,0 +1,259 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.ops.Accumulation;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.impl.accum.*;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs transforms, scalar ops and accumulations
+ * across cores on a fork join pool.
+ *
+ * The elements of an op are split in to fixed size chunks
+ * which are executed with the {@link StridedKernelExecutor}.
+ * Sum, Norm2, Dot, Variance, StandardDeviation and IAMax
+ * compute a partial result per chunk which are combined in chunk order,
+ * so the result does not depend on how the chunks were scheduled.
+ * Other accumulations run on the calling thread.
+ *
+ * Ops with fewer elements than {@link Nd4j#parallelThreshold}
+ * are executed on the calling thread.
+ *
+ * @author Adam Gibson
+ */
+public class ParallelOpExecutor {
+
+    //number of elements per chunk: 8192 doubles (64k) keeps a chunk in the l2 cache
+    public final static int CHUNK_SIZE = 8192;
+
+    private static final int SUM = 0;
+    private static final int SUM_OF_SQUARES = 1;
+    private static final int DOT = 2;
+    private static final int SQUARED_DEVIATION = 3;
+    private static final int MAX_INDEX = 4;
+
+    private static ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private static ThreadLocal<double[][]> scratch = new ThreadLocal<double[][]>() {
+        @Override
+        protected double[][] initialValue() {
+            return new double[2][CHUNK_SIZE];
+        }
+    };
+
+    private ParallelOpExecutor() {
+    }
+
+    /**
+     * The pool parallel ops are executed on
+     * @return the fork join pool for parallel execution
+     */
+    public static ForkJoinPool pool() {
+        return pool;
+    }
+
+    /**
+     * Execute the given op. The op must be
+     * executable by the {@link StridedKernelExecutor}
+     *
+     * @param op the op to execute
+     */
+    public static void exec(Op op) {
+        if(!StridedKernelExecutor.canExecute(op))
+            throw new IllegalArgumentException("Unable to execute op " + op.name() + " in parallel");
+
+        int length = op.x().length();
+        if(length < Nd4j.parallelThreshold || length <= CHUNK_SIZE || StridedKernelExecutor.isOrderDependent(op) && !(op instanceof IAMax)) {
+            StridedKernelExecutor.exec(op);
+            return;
+        }
+
+        StridedKernelExecutor.Geometry geometry = StridedKernelExecutor.geometry(op);
+        int chunks = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        if(op instanceof Accumulation) {
+            int reduction = reductionOf(op);
+            if(reduction < 0) {
+                StridedKernelExecutor.exec(op);
+                return;
+            }
+
+            double[] partials = new double[chunks];
+            int[] indices = new int[chunks];
+            pool.invoke(new ReduceTask(op, geometry, reduction, partials, indices, 0, chunks));
+            combine((Accumulation) op, reduction, partials, indices);
+        }
+        else
+            pool.invoke(new TransformTask(op, geometry, 0, chunks));
+    }
+
+    private static int reductionOf(Op op) {
+        if(op instanceof IAMax)
+            return MAX_INDEX;
+        if(op instanceof Variance)
+            return SQUARED_DEVIATION;
+        if(op instanceof Dot)
+            return op.y() != null ? DOT : SUM;
+        if(op instanceof Norm2)
+            return SUM_OF_SQUARES;
+        if(op instanceof Sum)
+            return SUM;
+        return -1;
+    }
+
+    //combine the partials in chunk order and write the final result back to the op
+    private static void combine(Accumulation op, int reduction, double[] partials, int[] indices) {
+        if(reduction == MAX_INDEX) {
+            int best = 0;
+            for(int i = 1; i < partials.length; i++)
+                if(partials[i] > partials[best])
+                    best = i;
+            op.setCurrentResult(indices[best]);
+            return;
+        }
+
+        double result = 0.0;
+        for(int i = 0; i < partials.length; i++)
+            result += partials[i];
+
+        int n = op.n();
+        switch(reduction) {
+            case SUM_OF_SQUARES:
+                result = Math.sqrt(result);
+                break;
+            case SQUARED_DEVIATION:
+                Variance variance = (Variance) op;
+                if(variance.isBiasCorrected()) {
+                    double bias = ((Number) op.extraArgs()[1]).doubleValue();
+                    result = (result - (bias * bias) / n) / (n - 1.0);
+                }
+                else
+                    result /= (double) n;
+                if(op instanceof StandardDeviation)
+                    result = Math.sqrt(result);
+                break;
+            default:
+                break;
+        }
+        op.setCurrentResult(result);
+    }
+
+    private static class TransformTask extends RecursiveAction {
+        private Op op;
+        private StridedKernelExecutor.Geometry geometry;
+        private int from, to;
+
+        TransformTask(Op op, StridedKernelExecutor.Geometry geometry, int from, int to) {
+            this.op = op;
+            this.geometry = geometry;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TransformTask(op, geometry, from, mid), new TransformTask(op, geometry, mid, to));
+                return;
+            }
+            int start = from * CHUNK_SIZE;
+            int end = Math.min(start + CHUNK_SIZE, op.x().length());
+            StridedKernelExecutor.exec(op, geometry, start, end);
+        }
+    }
+
+    private static class ReduceTask extends RecursiveAction {
+        private Op op;
+        private StridedKernelExecutor.Geometry geometry;
+        private int reduction;
+        private double[] partials;
+        private int[] indices;
+        private int from, to;
+
+        ReduceTask(Op op, StridedKernelExecutor.Geometry geometry, int reduction, double[] partials, int[] indices, int from, int to) {
+            this.op = op;
+            this.geometry = geometry;
+            this.reduction = reduction;
+            this.partials = partials;
+            this.indices = indices;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ReduceTask(op, geometry, reduction, partials, indices, from, mid),
+                        new ReduceTask(op, geometry, reduction, partials, indices, mid, to));
+                return;
+            }
+
+            int start = from * CHUNK_SIZE;
+            int end = Math.min(start + CHUNK_SIZE, op.x().length());
+            int n = end - start;
+            double[][] buffers = scratch.get();
+            double[] x = buffers[0];
+            StridedKernelExecutor.gather(op, geometry, 0, start, end, x);
+            double result = 0.0;
+            switch(reduction) {
+                case SUM:
+                    for(int i = 0; i < n; i++)
+                        result += x[i];
+                    break;
+                case SUM_OF_SQUARES:
+                    for(int i = 0; i < n; i++)
+                        result += x[i] * x[i];
+                    break;
+                case DOT:
+                    double[] y = buffers[1];
+                    StridedKernelExecutor.gather(op, geometry, 1, start, end, y);
+                    for(int i = 0; i < n; i++)
+                        result += x[i] * y[i];
+                    break;
+                case SQUARED_DEVIATION:
+                    double mean = ((Number) op.extraArgs()[2]).doubleValue();
+                    for(int i = 0; i < n; i++) {
+                        double dev = x[i] - mean;
+                        result += dev * dev;
+                    }
+                    break;
+                default:
+                    int index = 0;
+                    result = Math.abs(x[0]);
+                    for(int i = 1; i < n; i++) {
+                        double abs = Math.abs(x[i]);
+                        if(abs > result) {
+                            result = abs;
+                            index = i;
+                        }
+                    }
+                    indices[from] = start + index;
+                    break;
+            }
+            partials[from] = result;
+        }
+    }
+}
@@ -0,0 +1,467 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.ops.executioner;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ndarray.LinearViewNDArray;
+import org.nd4j.linalg.api.ops.Accumulation;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.api.ops.ScalarOp;
+import org.nd4j.linalg.api.ops.TransformOp;
+import org.nd4j.linalg.api.ops.impl.accum.IAMax;
+import org.nd4j.linalg.api.ops.impl.transforms.LinearIndex;
+
+import java.util.Arrays;
+
+/**
+ * Executes transform, scalar and accumulation ops
+ * directly against the data buffers of the operands.
+ *
+ * The offset, shape and stride of every operand are read once
+ * and the buffers are then walked with primitive loops:
+ * contiguous operands collapse in to a single loop while
+ * arbitrary strided views use nested loops with
+ * an incremental offset per operand.
+ *
+ * Elements are visited in the same linear order as
+ * {@link INDArray#linearView()} unless the op
+ * does not depend on the order, in which case memory order is used.
+ *
+ * Offsets in to the buffers are tracked as longs and buffers without a heap array
+ * are read through the long indexed accessors of {@link DataBuffer},
+ * so views of a {@link org.nd4j.linalg.api.buffer.ChunkedDataBuffer}
+ * may address elements past {@link Integer#MAX_VALUE}.
+ *
+ * @author Adam Gibson
+ */
+public class StridedKernelExecutor {
+
+    private static final int TRANSFORM = 0;
+    private static final int PAIRWISE_TRANSFORM = 1;
+    private static final int ACCUMULATION = 2;
+    private static final int PAIRWISE_ACCUMULATION = 3;
+
+    private StridedKernelExecutor() {
+    }
+
+    /**
+     * Whether the given op can be run
+     * by this executor. Complex ndarrays, linear views,
+     * int buffers and operands of differing shapes are not supported.
+     *
+     * @param op the op to test
+     * @return true if the op can be run by this executor
+     */
+    public static boolean canExecute(Op op) {
+        if(op.isPassThrough())
+            return false;
+        if(!(op instanceof TransformOp) && !(op instanceof ScalarOp) && !(op instanceof Accumulation))
+            return false;
+        INDArray x = op.x();
+        if(!isSupported(x) || op.n() != x.length())
+            return false;
+        if(op.y() != null && (!isSupported(op.y()) || !Arrays.equals(x.shape(), op.y().shape())))
+            return false;
+        if(!(op instanceof Accumulation) && (op.z() == null || !isSupported(op.z()) || !Arrays.equals(x.shape(),op.z().shape())))
+            return false;
+        return true;
+    }
+
+    /**
+     * Execute the given op over all of its elements
+     *
+     * @param op the op to execute
+     */
+    public static void exec(Op op) {
+        if(!canExecute(op))
+            throw new IllegalArgumentException("Unable to execute op " + op.name() + " with strided kernels");
+        exec(op, geometry(op), 0, op.x().length());
+    }
+
+    /**
+     * The iteration geometry of the operands of the given op
+     *
+     * @param op the op to compute the geometry for
+     * @return the geometry for the op
+     */
+    static Geometry geometry(Op op) {
+        return new Geometry(operands(op, kindOf(op)), !isOrderDependent(op));
+    }
+
+    /**
+     * Execute the op over the elements start (inclusive)
+     * to end (exclusive) in the iteration order of the given geometry.
+     * Disjoint ranges of a transform may be run concurrently.
+     *
+     * @param op the op to execute
+     * @param geometry the geometry of the op's operands
+     * @param start the first element to process
+     * @param end the end of the range
+     */
+    static void exec(Op op, Geometry geometry, int start, int end) {
+        int kind = kindOf(op);
+        INDArray[] operands = operands(op, kind);
+        Object[] arrays = backingArrays(operands);
+        Cursor cursor = new Cursor(geometry, start, end);
+        int n;
+        while((n = cursor.next()) > 0)
+            run(op, kind, operands, arrays, geometry, cursor.offsets, n);
+    }
+
+    /**
+     * Copy the elements start (inclusive) to end (exclusive) of x
+     * in the iteration order of the given geometry in to dest
+     *
+     * @param op the op whose x to read
+     * @param geometry the geometry of the op's operands
+     * @param operand the operand to read: 0 for x, 1 for y
+     * @param start the first element to copy
+     * @param end the end of the range
+     * @param dest the destination array
+     */
+    static void gather(Op op, Geometry geometry, int operand, int start, int end, double[] dest) {
+        DataBuffer buffer = (operand == 0 ? op.x() : op.y()).data();
+        Object array = backingArrays(new INDArray[]{operand == 0 ? op.x() : op.y()}) != null ? buffer.array() : null;
+        int stride = geometry.strides[operand][0];
+        Cursor cursor = new Cursor(geometry, start, end);
+        int n;
+        int count = 0;
+        while((n = cursor.next()) > 0) {
+            if(array instanceof double[]) {
+                double[] data = (double[]) array;
+                int idx = (int) cursor.offsets[operand];
+                for(int i = 0; i < n; i++, idx += stride)
+                    dest[count++] = data[idx];
+            }
+            else if(array instanceof float[]) {
+                float[] data = (float[]) array;
+                int idx = (int) cursor.offsets[operand];
+                for(int i = 0; i < n; i++, idx += stride)
+                    dest[count++] = data[idx];
+            }
+            else {
+                long idx = cursor.offsets[operand];
+                for(int i = 0; i < n; i++, idx += stride)
+                    dest[count++] = buffer.getDouble(idx);
+            }
+        }
+    }
+
+
+    static boolean isSupported(INDArray arr) {
+        return arr != null
+                && !(arr instanceof IComplexNDArray)
+                && !(arr instanceof LinearViewNDArray)
+                && arr.data().dataType() != DataBuffer.Type.INT
+                && arr.stride().length == arr.shape().length;
+    }
+
+    /**
+     * Ops that rely on the position of the element
+     * being processed (such as the index of the maximum)
+     * have to see the elements in linear order
+     */
+    static boolean isOrderDependent(Op op) {
+        return op instanceof IAMax || op instanceof LinearIndex;
+    }
+
+    private static int kindOf(Op op) {
+        if(op instanceof Accumulation)
+            return op.y() != null ? PAIRWISE_ACCUMULATION : ACCUMULATION;
+        if(op instanceof TransformOp && op.y() != null)
+            return PAIRWISE_TRANSFORM;
+        return TRANSFORM;
+    }
+
+    //operands are always ordered x, y, z with y and z omitted when not read or written
+    private static INDArray[] operands(Op op, int kind) {
+        switch(kind) {
+            case PAIRWISE_TRANSFORM: return new INDArray[]{op.x(), op.y(), op.z()};
+            case ACCUMULATION: return new INDArray[]{op.x()};
+            case PAIRWISE_ACCUMULATION: return new INDArray[]{op.x(), op.y()};
+            default: return new INDArray[]{op.x(), op.z()};
+        }
+    }
+
+    /**
+     * The heap arrays backing each operand.
+     * If any operand is not backed by a heap array
+     * or the operands differ in type, null is returned
+     * and the generic buffer path is used.
+     *
+     * @param operands the arrays to get the heap arrays for
+     * @return the double[] or float[] backing each operand, or null
+     */
+    public static Object[] backingArrays(INDArray[] operands) {
+        Object[] ret = new Object[operands.length];
+        for(int i = 0; i < operands.length; i++) {
+            DataBuffer buffer = operands[i].data();
+            if(buffer.allocationMode() != DataBuffer.AllocationMode.HEAP)
+                return null;
+            try {
+                ret[i] = buffer.array();
+            } catch(UnsupportedOperationException e) {
+                return null;
+            }
+            if(ret[i] == null || !ret[i].getClass().equals(ret[0].getClass()))
+                return null;
+        }
+        return ret;
+    }
+
+    //heap arrays hold fewer than Integer.MAX_VALUE elements so their offsets always fit in an int
+    private static void run(Op op, int kind, INDArray[] operands, Object[] arrays, Geometry geometry, long[] offsets, int n) {
+        int[][] strides = geometry.strides;
+        int last = operands.length - 1;
+        if(arrays != null && arrays[0] instanceof double[]) {
+            double[] x = (double[]) arrays[0];
+            double[] y = kind == PAIRWISE_TRANSFORM || kind == PAIRWISE_ACCUMULATION ? (double[]) arrays[1] : null;
+            double[] z = (double[]) arrays[last];
+            runDouble(op, kind, x, y, z, (int) offsets[0], (int) offsets[y != null ? 1 : 0], (int) offsets[last], strides[0][0], strides[y != null ? 1 : 0][0], strides[last][0], n);
+        }
+        else if(arrays != null && arrays[0] instanceof float[]) {
+            float[] x = (float[]) arrays[0];
+            float[] y = kind == PAIRWISE_TRANSFORM || kind == PAIRWISE_ACCUMULATION ? (float[]) arrays[1] : null;
+            float[] z = (float[]) arrays[last];
+            runFloat(op, kind, x, y, z, (int) offsets[0], (int) offsets[y != null ? 1 : 0], (int) offsets[last], strides[0][0], strides[y != null ? 1 : 0][0], strides[last][0], n);
+        }
+        else {
+            DataBuffer x = operands[0].data();
+            boolean pairwise = kind == PAIRWISE_TRANSFORM || kind == PAIRWISE_ACCUMULATION;
+            DataBuffer y = pairwise ? operands[1].data() : null;
+            DataBuffer z = operands[last].data();
+            runBuffer(op, kind, x, y, z, offsets[0], offsets[pairwise ? 1 : 0], offsets[last], strides[0][0], strides[pairwise ? 1 : 0][0], strides[last][0], n);
+        }
+    }
+
+    private static void runDouble(Op op, int kind, double[] x, double[] y, double[] z, int xi, int yi, int zi, int xs, int ys, int zs, int n) {
+        switch(kind) {
+            case TRANSFORM:
+                for(int i = 0; i < n; i++, xi += xs, zi += zs)
+                    z[zi] = op.op(x[xi]);
+                break;
+            case PAIRWISE_TRANSFORM:
+                for(int i = 0; i < n; i++, xi += xs, yi += ys, zi += zs)
+                    z[zi] = op.op(x[xi], y[yi]);
+                break;
+            case ACCUMULATION:
+                Accumulation acc = (Accumulation) op;
+                for(int i = 0; i < n; i++, xi += xs)
+                    acc.update(op.op(x[xi]));
+                break;
+            default:
+                Accumulation pairwise = (Accumulation) op;
+                for(int i = 0; i < n; i++, xi += xs, yi += ys)
+                    pairwise.update(op.op(x[xi], y[yi]));
+                break;
+        }
+    }
+
+    private static void runFloat(Op op, int kind, float[] x, float[] y, float[] z, int xi, int yi, int zi, int xs, int ys, int zs, int n) {
+        switch(kind) {
+            case TRANSFORM:
+                for(int i = 0; i < n; i++, xi += xs, zi += zs)
+                    z[zi] = (float) op.op((double) x[xi]);
+                break;
+            case PAIRWISE_TRANSFORM:
+                for(int i = 0; i < n; i++, xi += xs, yi += ys, zi += zs)
+                    z[zi] = (float) op.op((double) x[xi], (double) y[yi]);
+                break;
+            case ACCUMULATION:
+                Accumulation acc = (Accumulation) op;
+                for(int i = 0; i < n; i++, xi += xs)
+                    acc.update(op.op((double) x[xi]));
+                break;
+            default:
+                Accumulation pairwise = (Accumulation) op;
+                for(int i = 0; i < n; i++, xi += xs, yi += ys)
+                    pairwise.update(op.op((double) x[xi], (double) y[yi]));
+                break;
+        }
+    }
+
+    private static void runBuffer(Op op, int kind, DataBuffer x, DataBuffer y, DataBuffer z, long xi, long yi, long zi, int xs, int ys, int zs, int n) {
+        switch(kind) {
+            case TRANSFORM:
+                for(int i = 0; i < n; i++, xi += xs, zi += zs)
+                    z.put(zi, op.op(x.getDouble(xi)));
+                break;
+            case PAIRWISE_TRANSFORM:
+                for(int i = 0; i < n; i++, xi += xs, yi += ys, zi += zs)
+                    z.put(zi, op.op(x.getDouble(xi), y.getDouble(yi)));
+                break;
+            case ACCUMULATION:
+                Accumulation acc = (Accumulation) op;
+                for(int i = 0; i < n; i++, xi += xs)
+                    acc.update(op.op(x.getDouble(xi)));
+                break;
+            default:
+                Accumulation pairwise = (Accumulation) op;
+                for(int i = 0; i < n; i++, xi += xs, yi += ys)
+                    pairwise.update(op.op(x.getDouble(xi), y.getDouble(yi)));
+                break;
+        }
+    }
+
+
+    /**
+     * Walks a range of elements of a geometry as a series of runs
+     * along the innermost dimension. After each call to {@link #next()}
+     * the offsets point at the first element of the run for each operand.
+     */
+    static class Cursor {
+        private Geometry geometry;
+        private int[] counter;
+        long[] offsets;
+        private int remaining;
+        private int run;
+
+        Cursor(Geometry geometry, int start, int end) {
+            this.geometry = geometry;
+            this.counter = new int[geometry.rank];
+            this.offsets = geometry.offsets.clone();
+            this.remaining = end - start;
+            int index = start;
+            for(int d = 0; d < geometry.rank; d++) {
+                counter[d] = index % geometry.shape[d];
+                index /= geometry.shape[d];
+                for(int j = 0; j < offsets.length; j++)
+                    offsets[j] += (long) counter[d] * geometry.strides[j][d];
+            }
+        }
+
+        /**
+         * Move past the current run
+         * @return the length of the next run or 0 if the range is exhausted
+         */
+        int next() {
+            if(run > 0) {
+                counter[0] += run;
+                for(int j = 0; j < offsets.length; j++)
+                    offsets[j] += (long) geometry.strides[j][0] * run;
+                //carry in to the outer dimensions once a run reaches the end of the innermost one
+                for(int d = 0; d < geometry.rank && counter[d] == geometry.shape[d]; d++) {
+                    counter[d] = 0;
+                    for(int j = 0; j < offsets.length; j++)
+                        offsets[j] -= (long) geometry.strides[j][d] * geometry.shape[d];
+                    if(d + 1 < geometry.rank) {
+                        counter[d + 1]++;
+                        for(int j = 0; j < offsets.length; j++)
+                            offsets[j] += geometry.strides[j][d + 1];
+                    }
+                }
+            }
+            if(remaining <= 0)
+                return 0;
+            run = Math.min(geometry.shape[0] - counter[0], remaining);
+            remaining -= run;
+            return run;
+        }
+    }
+
+    /**
+     * The iteration geometry shared by all operands.
+     * Dimensions of size 1 are dropped and adjacent dimensions
+     * that are laid out contiguously for every operand are merged,
+     * so a contiguous array is walked with a single loop.
+     */
+    static class Geometry {
+        int rank;
+        int[] shape;
+        int[][] strides;
+        long[] offsets;
+
+        Geometry(INDArray[] operands, boolean reorder) {
+            this(operands[0].shape(), strides(operands), offsets(operands), reorder);
+        }
+
+        /**
+         * @param origShape the shape shared by all operands
+         * @param origStrides the stride of each operand, one per dimension of the shape
+         * @param origOffsets the offset of each operand
+         * @param reorder whether the dimensions may be visited in memory order
+         */
+        Geometry(int[] origShape, int[][] origStrides, long[] origOffsets, boolean reorder) {
+            int[] dims = new int[origShape.length];
+            int count = 0;
+            for(int i = 0; i < origShape.length; i++)
+                if(origShape[i] != 1)
+                    dims[count++] = i;
+
+            //visit the smallest strides of the first operand first when the order of traversal does not matter
+            if(reorder) {
+                int[] xStride = origStrides[0];
+                for(int i = 1; i < count; i++) {
+                    int d = dims[i];
+                    int j = i - 1;
+                    while(j >= 0 && Math.abs(xStride[dims[j]]) > Math.abs(xStride[d])) {
+                        dims[j + 1] = dims[j];
+                        j--;
+                    }
+                    dims[j + 1] = d;
+                }
+            }
+
+            int numOperands = origStrides.length;
+            shape = new int[Math.max(count, 1)];
+            strides = new int[numOperands][shape.length];
+            offsets = origOffsets.clone();
+            Arrays.fill(shape, 1);
+            for(int j = 0; j < numOperands; j++) {
+                for(int i = 0; i < count; i++)
+                    strides[j][i] = origStrides[j][dims[i]];
+                if(count == 0)
+                    strides[j][0] = 1;
+            }
+
+            rank = 0;
+            for(int i = 0; i < shape.length; i++) {
+                int size = count == 0 ? 1 : origShape[dims[i]];
+                boolean merge = rank > 0;
+                for(int j = 0; j < numOperands && merge; j++)
+                    merge = strides[j][i] == strides[j][rank - 1] * shape[rank - 1];
+                if(merge)
+                    shape[rank - 1] *= size;
+                else {
+                    shape[rank] = size;
+                    for(int j = 0; j < numOperands; j++)
+                        strides[j][rank] = strides[j][i];
+                    rank++;
+                }
+            }
+        }
+
+        private static int[][] strides(INDArray[] operands) {
+            int[][] ret = new int[operands.length][];
+            for(int i = 0; i < operands.length; i++)
+                ret[i] = operands[i].stride();
+            return ret;
+        }
+
+        private static long[] offsets(INDArray[] operands) {
+            long[] ret = new long[operands.length];
+            for(int i = 0; i < operands.length; i++)
+                ret[i] = operands[i].offset();
+            return ret;
+        }
+    }
+}
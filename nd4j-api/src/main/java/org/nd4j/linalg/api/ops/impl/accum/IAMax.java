@@ -26,12 +26,13 @@ import org.nd4j.linalg.api.ops.BaseAccumulation;
 import org.nd4j.linalg.api.ops.Op;
 
 /**
- * Calculate the max over a vector
+ * Calculate the index of the max absolute value over a vector
  *
  * @author Adam Gibson
  */
 public class IAMax extends BaseAccumulation {
     private int currIndexOfMax = 0;
+    private double currMax;
 
     public IAMax() {
     }
@@ -50,26 +51,24 @@ public class IAMax extends BaseAccumulation {
 
     @Override
     public void update(Number result) {
-        if (result.doubleValue() > currentResult().doubleValue()) {
-            this.currentResult = result;
-            currIndexOfMax = numProcessed;
-        }
-        numProcessed++;
-        if(numProcessed() == n())  {
-            currentResult = currIndexOfMax;
+        //op() has already counted this element
+        double abs = Math.abs(result.doubleValue());
+        if (abs > currMax) {
+            currMax = abs;
+            currIndexOfMax = numProcessed - 1;
         }
+        currentResult = currIndexOfMax;
     }
 
     @Override
     public void update(IComplexNumber result) {
-        if (result.absoluteValue().doubleValue() > currentResultComplex().absoluteValue().doubleValue()) {
+        double abs = result.absoluteValue().doubleValue();
+        if (abs > currMax) {
+            currMax = abs;
             this.currentComplexResult = result;
-            this.currIndexOfMax = numProcessed;
-        }
-        numProcessed++;
-        if(numProcessed() == n())  {
-            currentResult = currIndexOfMax;
+            this.currIndexOfMax = numProcessed - 1;
         }
+        currentResult = currIndexOfMax;
     }
 
 
@@ -84,10 +83,13 @@ public class IAMax extends BaseAccumulation {
         if (x instanceof IComplexNDArray) {
             IComplexNDArray complexX = (IComplexNDArray) x;
             currentComplexResult = complexX.getComplex(0);
+            currMax = currentComplexResult.absoluteValue().doubleValue();
         } else {
-            currentResult = x.getDouble(0);
+            currMax = Math.abs(x.getDouble(0));
             initial = x.getDouble(0);
         }
+        currIndexOfMax = 0;
+        currentResult = 0;
 
 
     }
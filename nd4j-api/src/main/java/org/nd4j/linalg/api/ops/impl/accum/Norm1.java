@@ -25,6 +25,7 @@ import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.BaseAccumulation;
 import org.nd4j.linalg.api.ops.Op;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ComplexUtil;
 
 /**
  * Sum of absolute values
@@ -59,7 +60,7 @@ public class Norm1 extends BaseAccumulation {
 
     @Override
     public void update(IComplexNumber result) {
-        currentComplexResult.addi(result);
+        currentComplexResult.addi(ComplexUtil.abs(result));
         numProcessed++;
     }
 
@@ -62,7 +62,8 @@ public class Norm2 extends BaseAccumulation {
 
     @Override
     public void update(IComplexNumber result) {
-        currentComplexResult.addi(ComplexUtil.pow(result, 2));
+        double abs = result.absoluteValue().doubleValue();
+        currentComplexResult.addi(Nd4j.createComplexNumber(abs * abs, 0));
         if (numProcessed == n)
             currentComplexResult.set(ComplexUtil.sqrt(currentComplexResult));
     }
@@ -115,6 +115,16 @@ public class Variance extends BaseAccumulation {
         return "var";
     }
 
+    /**
+     * Whether the variance is bias corrected
+     * (divided by n - 1 rather than n)
+     *
+     * @return true if the variance is bias corrected
+     */
+    public boolean isBiasCorrected() {
+        return biasCorrected;
+    }
+
 
     @Override
     public Op opForDimension(int index, int dimension) {
@@ -19,20 +19,34 @@
 
 package org.nd4j.linalg.api.rng;
 
-import org.apache.commons.math3.random.MersenneTwister;
 import org.apache.commons.math3.random.RandomGenerator;
-import org.apache.commons.math3.random.SynchronizedRandomGenerator;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
- * Apache commons based random number generation
+ * Apache commons based random number generation.
+ *
+ * Unless a generator is passed in, every thread draws from
+ * its own {@link SplitMix64} stream derived from the seed,
+ * so threads never contend on a lock.
+ * The first thread to use the generator after it is seeded
+ * gets the first stream, which keeps single threaded use reproducible.
+ * Tasks that need reproducible numbers regardless of
+ * the thread they run on should use {@link #stream(long)}.
  *
  * @author Adam Gibson
  */
 public class DefaultRandom implements Random, RandomGenerator {
+    //values generated per bulk transfer in to a buffer
+    private static final int CHUNK_SIZE = 4096;
+
     protected RandomGenerator randomGenerator;
-    protected long seed;
+    protected volatile long seed;
+    protected volatile Streams streams;
+
     /**
      * Initialize with a System.currentTimeMillis()
      * seed
@@ -40,18 +54,21 @@ public class DefaultRandom implements Random, RandomGenerator {
     public DefaultRandom() { this(System.currentTimeMillis()); }
 
     public DefaultRandom(long seed) {
-        this.seed = seed;
-        this.randomGenerator = new SynchronizedRandomGenerator(new MersenneTwister(seed));
+        setSeed(seed);
     }
 
+    /**
+     * Use the given generator from all threads.
+     * The generator must be thread safe if it is shared
+     * @param randomGenerator the generator to use
+     */
     public DefaultRandom(RandomGenerator randomGenerator) {
         this.randomGenerator = randomGenerator;
     }
 
     @Override
     public void setSeed(int seed) {
-        this.seed = (long) seed;
-        getRandomGenerator().setSeed(seed);
+        setSeed((long) seed);
     }
 
 
@@ -64,8 +81,11 @@ public class DefaultRandom implements Random, RandomGenerator {
 
     @Override
     public void setSeed(long seed) {
-        this.seed= seed;
-        getRandomGenerator().setSeed(seed);
+        this.seed = seed;
+        if(randomGenerator != null)
+            randomGenerator.setSeed(seed);
+        else
+            streams = new Streams(seed);
     }
 
     @Override
@@ -108,9 +128,18 @@ public class DefaultRandom implements Random, RandomGenerator {
         return getRandomGenerator().nextGaussian();
     }
 
+    @Override
+    public int nextBinomial(int trials, double p) {
+        return binomial(getRandomGenerator(), trials, p);
+    }
+
     @Override
     public INDArray nextGaussian(int[] shape) {
         INDArray ret = Nd4j.create(shape);
+        if(isDense(ret)) {
+            fillGaussian(ret.data(), 0, 1);
+            return ret;
+        }
         INDArray linear = ret.linearView();
         for (int i = 0; i < linear.length(); i++) {
             linear.putScalar(i, nextGaussian());
@@ -121,6 +150,10 @@ public class DefaultRandom implements Random, RandomGenerator {
     @Override
     public INDArray nextDouble(int[] shape) {
         INDArray ret = Nd4j.create(shape);
+        if(isDense(ret)) {
+            fill(ret.data());
+            return ret;
+        }
         INDArray linear = ret.linearView();
         for (int i = 0; i < linear.length(); i++) {
             linear.putScalar(i, nextDouble());
@@ -158,13 +191,186 @@ public class DefaultRandom implements Random, RandomGenerator {
         return ret;
     }
 
+    @Override
+    public void fill(DataBuffer buffer) {
+        fill(buffer, 0, 1);
+    }
 
-    public synchronized RandomGenerator getRandomGenerator() {
-        return randomGenerator;
+    @Override
+    public void fill(DataBuffer buffer, double min, double max) {
+        RandomGenerator generator = getRandomGenerator();
+        double range = max - min;
+        double[] chunk = new double[Math.min(CHUNK_SIZE, buffer.length())];
+        for(int i = 0; i < buffer.length(); i += chunk.length) {
+            int n = Math.min(chunk.length, buffer.length() - i);
+            for(int j = 0; j < n; j++)
+                chunk[j] = min + range * generator.nextDouble();
+            write(buffer, i, chunk, n);
+        }
+    }
+
+    @Override
+    public void fillGaussian(DataBuffer buffer, double mean, double standardDeviation) {
+        RandomGenerator generator = getRandomGenerator();
+        double[] chunk = new double[Math.min(CHUNK_SIZE, buffer.length())];
+        for(int i = 0; i < buffer.length(); i += chunk.length) {
+            int n = Math.min(chunk.length, buffer.length() - i);
+            for(int j = 0; j < n; j++)
+                chunk[j] = mean + standardDeviation * generator.nextGaussian();
+            write(buffer, i, chunk, n);
+        }
     }
 
-    public synchronized long getSeed(){
+    @Override
+    public void fillBinomial(DataBuffer buffer, int trials, double p) {
+        RandomGenerator generator = getRandomGenerator();
+        double[] chunk = new double[Math.min(CHUNK_SIZE, buffer.length())];
+        for(int i = 0; i < buffer.length(); i += chunk.length) {
+            int n = Math.min(chunk.length, buffer.length() - i);
+            for(int j = 0; j < n; j++)
+                chunk[j] = binomial(generator, trials, p);
+            write(buffer, i, chunk, n);
+        }
+    }
+
+    @Override
+    public Random stream(long index) {
+        //thread streams use negative indices so they never collide with task streams
+        if(index < 0)
+            throw new IllegalArgumentException("Stream index must not be negative");
+        DefaultRandom ret = new DefaultRandom(SplitMix64.stream(seed, index));
+        ret.seed = seed;
+        return ret;
+    }
+
+    /**
+     * The generator for the calling thread
+     * @return the generator the calling thread draws from
+     */
+    public RandomGenerator getRandomGenerator() {
+        if(randomGenerator != null)
+            return randomGenerator;
+        return streams.get();
+    }
+
+    public long getSeed(){
         return this.seed;
     }
 
+    /**
+     * Sample the number of successes in the given number of trials
+     * @param generator the generator to draw from
+     * @param trials the number of trials
+     * @param p the probability of success of each trial
+     * @return the number of successes
+     */
+    public static int binomial(RandomGenerator generator, int trials, double p) {
+        if(p <= 0 || trials <= 0)
+            return 0;
+        if(p >= 1)
+            return trials;
+
+        //split the trials on a beta distributed order statistic until few successes are expected (Knuth 3.4.1)
+        int ret = 0;
+        while(trials > 32 && trials * Math.min(p, 1 - p) > 16) {
+            int a = 1 + trials / 2;
+            int b = trials - a + 1;
+            double x = beta(generator, a, b);
+            if(x >= p) {
+                trials = a - 1;
+                p /= x;
+            }
+            else {
+                ret += a;
+                trials = b - 1;
+                p = (p - x) / (1 - x);
+            }
+        }
+
+        if(p > 0.5)
+            return ret + trials - successes(generator, trials, 1 - p);
+        return ret + successes(generator, trials, p);
+    }
+
+    //binomial sample for p <= 0.5 and few expected successes
+    private static int successes(RandomGenerator generator, int trials, double p) {
+        if(p <= 0 || trials <= 0)
+            return 0;
+        int ret = 0;
+        if(trials <= 32) {
+            for(int i = 0; i < trials; i++)
+                if(generator.nextDouble() < p)
+                    ret++;
+            return ret;
+        }
+
+        //count the geometric waiting times between successes,
+        //compared as doubles since a tiny p gives waits past the range of a long
+        double logQ = Math.log1p(-p);
+        int position = 0;
+        while(true) {
+            double failures = Math.floor(Math.log(1 - generator.nextDouble()) / logQ);
+            if(failures >= trials - position)
+                return ret;
+            position += (int) failures + 1;
+            ret++;
+        }
+    }
+
+    private static double beta(RandomGenerator generator, double a, double b) {
+        double x = gamma(generator, a);
+        return x / (x + gamma(generator, b));
+    }
+
+    //Marsaglia and Tsang's method for shape >= 1
+    private static double gamma(RandomGenerator generator, double shape) {
+        double d = shape - 1.0 / 3;
+        double c = 1 / Math.sqrt(9 * d);
+        while(true) {
+            double x = generator.nextGaussian();
+            double v = 1 + c * x;
+            if(v <= 0)
+                continue;
+            v = v * v * v;
+            double u = generator.nextDouble();
+            if(Math.log(u) < 0.5 * x * x + d - d * v + d * Math.log(v))
+                return d * v;
+        }
+    }
+
+    //whether the array covers its whole buffer
+    private static boolean isDense(INDArray arr) {
+        return arr.offset() == 0 && arr.length() == arr.data().length();
+    }
+
+    //copy n generated values in to the buffer starting at offset
+    private static void write(DataBuffer buffer, int offset, double[] chunk, int n) {
+        Object array = buffer.allocationMode() == DataBuffer.AllocationMode.HEAP ? buffer.array() : null;
+        if(array instanceof double[])
+            System.arraycopy(chunk, 0, array, offset, n);
+        else if(array instanceof float[]) {
+            float[] floats = (float[]) array;
+            for(int i = 0; i < n; i++)
+                floats[offset + i] = (float) chunk[i];
+        }
+        else
+            for(int i = 0; i < n; i++)
+                buffer.put(offset + i, chunk[i]);
+    }
+
+    //one stream per thread, numbered in the order threads first draw
+    protected static class Streams extends ThreadLocal<RandomGenerator> {
+        private final long seed;
+        private final AtomicLong next = new AtomicLong();
+
+        Streams(long seed) {
+            this.seed = seed;
+        }
+
+        @Override
+        protected RandomGenerator initialValue() {
+            return SplitMix64.stream(seed, -1 - next.getAndIncrement());
+        }
+    }
+
 }
@@ -19,6 +19,7 @@
 
 package org.nd4j.linalg.api.rng;
 
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
 /**
@@ -226,6 +227,57 @@ public interface Random {
      */
     INDArray nextInt(int n, int[] shape);
 
-}
+    /**
+     * The number of successes in the given number of trials
+     *
+     * @param trials the number of trials
+     * @param p the probability of success of each trial
+     * @return the binomially distributed number of successes
+     */
+    int nextBinomial(int trials, double p);
+
+    /**
+     * Fill the buffer with uniformly distributed numbers in [0,1)
+     *
+     * @param buffer the buffer to fill
+     */
+    void fill(DataBuffer buffer);
+
+    /**
+     * Fill the buffer with uniformly distributed numbers in [min,max)
+     *
+     * @param buffer the buffer to fill
+     * @param min the lower bound (inclusive)
+     * @param max the upper bound (exclusive)
+     */
+    void fill(DataBuffer buffer, double min, double max);
 
+    /**
+     * Fill the buffer with normally distributed numbers
+     *
+     * @param buffer the buffer to fill
+     * @param mean the mean
+     * @param standardDeviation the standard deviation
+     */
+    void fillGaussian(DataBuffer buffer, double mean, double standardDeviation);
+
+    /**
+     * Fill the buffer with binomially distributed numbers
+     *
+     * @param buffer the buffer to fill
+     * @param trials the number of trials
+     * @param p the probability of success of each trial
+     */
+    void fillBinomial(DataBuffer buffer, int trials, double p);
+
+    /**
+     * An independent random stream for a task.
+     * The same seed and index always give the same stream,
+     * regardless of which thread uses it
+     *
+     * @param index the index of the stream
+     * @return the random stream
+     */
+    Random stream(long index);
 
+}
@@ -0,0 +1,154 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.api.rng;
+
+import org.apache.commons.math3.random.RandomGenerator;
+
+/**
+ * SplitMix64: a counter based generator.
+ * Each value is a strong 64 bit mix of a counter
+ * advanced by a fixed odd increment, so
+ * independent streams can be derived from one seed
+ * with {@link #stream(long, long)}.
+ *
+ * Not thread safe: each thread should use its own stream.
+ *
+ * @author Adam Gibson
+ */
+public class SplitMix64 implements RandomGenerator {
+
+    public final static long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+    private double nextGaussian = Double.NaN;
+
+    public SplitMix64(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * An independent generator for the given stream of a seed.
+     * The same seed and index always produce the same stream
+     * @param seed the master seed
+     * @param index the index of the stream
+     * @return the generator for the stream
+     */
+    public static SplitMix64 stream(long seed, long index) {
+        return new SplitMix64(mix64(mix64(seed) + (index + 1) * GOLDEN_GAMMA));
+    }
+
+    /**
+     * A bijective mix of all 64 bits
+     * @param z the value to mix
+     * @return the mixed value
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public void setSeed(int seed) {
+        setSeed((long) seed);
+    }
+
+    @Override
+    public void setSeed(int[] seed) {
+        long combined = 0;
+        for(int i = 0; i < seed.length; i++)
+            combined = mix64(combined + seed[i]);
+        setSeed(combined);
+    }
+
+    @Override
+    public void setSeed(long seed) {
+        state = seed;
+        nextGaussian = Double.NaN;
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix64(state);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public int nextInt(int n) {
+        if(n <= 0)
+            throw new IllegalArgumentException("Bound must be positive");
+        //reject the top partial range so every value is equally likely
+        int bits, val;
+        do {
+            bits = (int) (nextLong() >>> 33);
+            val = bits % n;
+        } while(bits - val + (n - 1) < 0);
+        return val;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        int i = 0;
+        while(i < bytes.length) {
+            long rnd = nextLong();
+            for(int n = Math.min(bytes.length - i, 8); n-- > 0; rnd >>>= 8)
+                bytes[i++] = (byte) rnd;
+        }
+    }
+
+    @Override
+    public double nextGaussian() {
+        //polar method: values come in pairs, the second is kept for the next call
+        if(!Double.isNaN(nextGaussian)) {
+            double ret = nextGaussian;
+            nextGaussian = Double.NaN;
+            return ret;
+        }
+        double x, y, s;
+        do {
+            x = 2 * nextDouble() - 1;
+            y = 2 * nextDouble() - 1;
+            s = x * x + y * y;
+        } while(s >= 1 || s == 0);
+        double scale = Math.sqrt(-2 * Math.log(s) / s);
+        nextGaussian = y * scale;
+        return x * scale;
+    }
+}
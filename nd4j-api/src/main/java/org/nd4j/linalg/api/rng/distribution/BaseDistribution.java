@@ -26,6 +26,7 @@ import org.apache.commons.math3.exception.NumberIsTooLargeException;
 import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.exception.util.LocalizedFormats;
 import org.apache.commons.math3.util.FastMath;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.factory.Nd4j;
@@ -257,10 +258,26 @@ public abstract class BaseDistribution implements Distribution {
     @Override
     public INDArray sample(int[] shape) {
         INDArray ret = Nd4j.create(shape);
+        if (ret.offset() == 0 && ret.length() == ret.data().length()) {
+            fill(ret.data());
+            return ret;
+        }
         INDArray linear = ret.linearView();
         for (int i = 0; i < linear.length(); i++) {
             linear.putScalar(i, sample());
         }
         return ret;
     }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * The default implementation calls
+     * {@link #sample()} for each element.
+     */
+    @Override
+    public void fill(DataBuffer buffer) {
+        for (int i = 0; i < buffer.length(); i++)
+            buffer.put(i, sample());
+    }
 }
@@ -21,6 +21,7 @@ package org.nd4j.linalg.api.rng.distribution;
 
 import org.apache.commons.math3.exception.NumberIsTooLargeException;
 import org.apache.commons.math3.exception.OutOfRangeException;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 
 /**
@@ -205,4 +206,11 @@ public interface Distribution {
     INDArray sample(int[] shape);
 
 
+
+    /**
+     * Fill the buffer with samples from the distribution
+     *
+     * @param buffer the buffer to fill
+     */
+    void fill(DataBuffer buffer);
 }
@@ -23,9 +23,9 @@ import org.apache.commons.math3.exception.NotPositiveException;
 import org.apache.commons.math3.exception.NumberIsTooLargeException;
 import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.exception.util.LocalizedFormats;
-import org.apache.commons.math3.random.RandomGenerator;
 import org.apache.commons.math3.special.Beta;
 import org.apache.commons.math3.util.FastMath;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.api.rng.distribution.BaseDistribution;
@@ -252,18 +252,20 @@ public class BinomialDistribution extends BaseDistribution {
 
     @Override
     public INDArray sample(int[] shape) {
+        if (p == null)
+            return super.sample(shape);
         INDArray ret = Nd4j.create(shape);
         INDArray linear = ret.linearView();
-        if (p != null)
-            for (int i = 0; i < linear.length(); i++) {
-                org.apache.commons.math3.distribution.BinomialDistribution binomialDistribution = new org.apache.commons.math3.distribution.BinomialDistribution((RandomGenerator) Nd4j.getRandom(), numberOfTrials, p.linearView().getDouble(i));
-                linear.putScalar(i, binomialDistribution.sample());
-            }
-        else
-            for (int i = 0; i < linear.length(); i++) {
-                org.apache.commons.math3.distribution.BinomialDistribution binomialDistribution = new org.apache.commons.math3.distribution.BinomialDistribution((RandomGenerator) Nd4j.getRandom(), numberOfTrials, probabilityOfSuccess);
-                linear.putScalar(i, binomialDistribution.sample());
-            }
+        INDArray pLinear = p.linearView();
+        for (int i = 0; i < linear.length(); i++)
+            linear.putScalar(i, random.nextBinomial(numberOfTrials, pLinear.getDouble(i)));
         return ret;
     }
+
+    @Override
+    public void fill(DataBuffer buffer) {
+        if (p != null)
+            throw new IllegalStateException("Unable to fill a buffer with more than one probability");
+        random.fillBinomial(buffer, numberOfTrials, probabilityOfSuccess);
+    }
 }
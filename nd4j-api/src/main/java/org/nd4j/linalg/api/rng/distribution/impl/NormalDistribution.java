@@ -25,6 +25,7 @@ import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.exception.util.LocalizedFormats;
 import org.apache.commons.math3.special.Erf;
 import org.apache.commons.math3.util.FastMath;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.api.rng.distribution.BaseDistribution;
@@ -330,16 +331,21 @@ public class NormalDistribution extends BaseDistribution {
 
     @Override
     public INDArray sample(int[] shape) {
+        if (means == null)
+            return super.sample(shape);
         INDArray ret = Nd4j.create(shape);
         INDArray linear = ret.linearView();
-        if (means != null)
-            for (int i = 0; i < linear.length(); i++) {
-                linear.putScalar(i, standardDeviation * random.nextGaussian() + means.linearView().getDouble(i));
-            }
-        else
-            for (int i = 0; i < linear.length(); i++) {
-                linear.putScalar(i, standardDeviation * random.nextGaussian() + mean);
-            }
+        INDArray meansLinear = means.linearView();
+        for (int i = 0; i < linear.length(); i++) {
+            linear.putScalar(i, standardDeviation * random.nextGaussian() + meansLinear.getDouble(i));
+        }
         return ret;
     }
+
+    @Override
+    public void fill(DataBuffer buffer) {
+        if (means != null)
+            throw new IllegalStateException("Unable to sample from more than one mean");
+        random.fillGaussian(buffer, mean, standardDeviation);
+    }
 }
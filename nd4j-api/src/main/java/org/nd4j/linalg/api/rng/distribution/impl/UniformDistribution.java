@@ -22,6 +22,7 @@ package org.nd4j.linalg.api.rng.distribution.impl;
 import org.apache.commons.math3.exception.NumberIsTooLargeException;
 import org.apache.commons.math3.exception.OutOfRangeException;
 import org.apache.commons.math3.exception.util.LocalizedFormats;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.rng.distribution.BaseDistribution;
 import org.nd4j.linalg.factory.Nd4j;
 
@@ -189,4 +190,9 @@ public class UniformDistribution extends BaseDistribution {
         final double u = random.nextDouble();
         return u * upper + (1 - u) * lower;
     }
+
+    @Override
+    public void fill(DataBuffer buffer) {
+        random.fill(buffer, lower, upper);
+    }
 }
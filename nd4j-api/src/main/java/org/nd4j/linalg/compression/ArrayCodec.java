@@ -0,0 +1,64 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.compression;
+
+/**
+ * Compresses the payload of a serialized ndarray.
+ *
+ * The payload is handed to the codec in blocks of little endian
+ * elements, each of which is compressed independently so arrays
+ * can be decompressed while they are streamed in.
+ *
+ * Codecs are registered with {@link ArrayCodecs} under an id
+ * which is stored with the array.
+ *
+ * @author Adam Gibson
+ */
+public interface ArrayCodec {
+
+    /**
+     * The id of the codec stored with compressed arrays.
+     * Must be between 1 and 127
+     * @return the id of this codec
+     */
+    byte id();
+
+    /**
+     * Compress a block of elements.
+     * The block may be modified
+     *
+     * @param block the elements to compress
+     * @param length the number of bytes in the block
+     * @param elementSize the size of an element in bytes
+     * @return the compressed bytes
+     */
+    byte[] encode(byte[] block, int length, int elementSize);
+
+    /**
+     * Decompress a block of elements
+     *
+     * @param compressed the compressed bytes
+     * @param compressedLength the number of compressed bytes
+     * @param block the block to decompress in to
+     * @param length the number of bytes in the decompressed block
+     * @param elementSize the size of an element in bytes
+     */
+    void decode(byte[] compressed, int compressedLength, byte[] block, int length, int elementSize);
+}
@@ -0,0 +1,79 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.compression;
+
+/**
+ * Registry of the codecs
+ * serialized arrays may be compressed with.
+ *
+ * @author Adam Gibson
+ */
+public class ArrayCodecs {
+
+    /**
+     * Plain deflate
+     */
+    public final static ArrayCodec DEFLATE = new DeflateCodec((byte) 1, DeflateCodec.Filter.NONE, 1);
+    /**
+     * Byte shuffle followed by deflate: good default for float data
+     */
+    public final static ArrayCodec SHUFFLE = new DeflateCodec((byte) 2, DeflateCodec.Filter.SHUFFLE, 1);
+    /**
+     * Xor with the previous element, byte shuffle then deflate:
+     * for smooth data such as slowly changing parameters
+     */
+    public final static ArrayCodec XOR_DELTA = new DeflateCodec((byte) 3, DeflateCodec.Filter.XOR_DELTA, 1);
+
+    private static final ArrayCodec[] codecs = new ArrayCodec[128];
+
+    static {
+        register(DEFLATE);
+        register(SHUFFLE);
+        register(XOR_DELTA);
+    }
+
+    private ArrayCodecs() {
+    }
+
+    /**
+     * Register a codec so arrays compressed with it can be read
+     * @param codec the codec to register
+     */
+    public static synchronized void register(ArrayCodec codec) {
+        int id = codec.id();
+        if(id < 1)
+            throw new IllegalArgumentException("Codec ids must be between 1 and 127");
+        if(codecs[id] != null && codecs[id] != codec)
+            throw new IllegalArgumentException("A codec with id " + id + " is already registered");
+        codecs[id] = codec;
+    }
+
+    /**
+     * The codec with the given id
+     * @param id the id of the codec
+     * @return the codec
+     * @throws IllegalArgumentException if no codec is registered with the id
+     */
+    public static synchronized ArrayCodec get(int id) {
+        if(id < 1 || id >= codecs.length || codecs[id] == null)
+            throw new IllegalArgumentException("No codec registered with id " + id);
+        return codecs[id];
+    }
+}
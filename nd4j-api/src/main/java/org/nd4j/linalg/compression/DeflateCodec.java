@@ -0,0 +1,153 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.compression;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate compression with an optional
+ * floating point aware filter in front of it.
+ *
+ * {@link Filter#SHUFFLE} groups the bytes of the elements by significance
+ * so the slowly varying sign/exponent bytes end up next to each other.
+ * {@link Filter#XOR_DELTA} additionally xors each element with its
+ * predecessor before shuffling, which zeroes the bits neighbouring
+ * values have in common.
+ *
+ * @author Adam Gibson
+ */
+public class DeflateCodec implements ArrayCodec {
+
+    public enum Filter {
+        NONE,
+        SHUFFLE,
+        XOR_DELTA
+    }
+
+    private byte id;
+    private Filter filter;
+    private int level;
+
+    /**
+     *
+     * @param id the id of the codec
+     * @param filter the filter to apply before compressing
+     * @param level the deflate level (0-9)
+     */
+    public DeflateCodec(byte id, Filter filter, int level) {
+        this.id = id;
+        this.filter = filter;
+        this.level = level;
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    public Filter getFilter() {
+        return filter;
+    }
+
+    @Override
+    public byte[] encode(byte[] block, int length, int elementSize) {
+        byte[] input = block;
+        if(filter == Filter.XOR_DELTA)
+            xorDelta(block, length, elementSize);
+        if(filter != Filter.NONE)
+            input = shuffle(block, length, elementSize);
+
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(input, 0, length);
+            deflater.finish();
+            byte[] out = new byte[Math.max(64, length + length / 16 + 64)];
+            int written = 0;
+            while(!deflater.finished()) {
+                if(written == out.length)
+                    out = Arrays.copyOf(out, out.length * 2);
+                written += deflater.deflate(out, written, out.length - written);
+            }
+            return Arrays.copyOf(out, written);
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public void decode(byte[] compressed, int compressedLength, byte[] block, int length, int elementSize) {
+        byte[] output = filter == Filter.NONE ? block : new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed, 0, compressedLength);
+            int read = 0;
+            while(read < length) {
+                int n = inflater.inflate(output, read, length - read);
+                if(n == 0 && (inflater.finished() || inflater.needsInput()))
+                    throw new IllegalStateException("Compressed block is truncated");
+                read += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException(e);
+        }
+        finally {
+            inflater.end();
+        }
+
+        if(filter != Filter.NONE)
+            unshuffle(output, block, length, elementSize);
+        if(filter == Filter.XOR_DELTA)
+            undoXorDelta(block, length, elementSize);
+    }
+
+    //byte b of element i moves to b * n + i
+    private static byte[] shuffle(byte[] block, int length, int elementSize) {
+        int n = length / elementSize;
+        byte[] ret = new byte[length];
+        for(int i = 0; i < n; i++)
+            for(int b = 0; b < elementSize; b++)
+                ret[b * n + i] = block[i * elementSize + b];
+        return ret;
+    }
+
+    private static void unshuffle(byte[] shuffled, byte[] block, int length, int elementSize) {
+        int n = length / elementSize;
+        for(int i = 0; i < n; i++)
+            for(int b = 0; b < elementSize; b++)
+                block[i * elementSize + b] = shuffled[b * n + i];
+    }
+
+    //each element is xored with its predecessor: walk backwards so predecessors are still intact
+    private static void xorDelta(byte[] block, int length, int elementSize) {
+        for(int i = length - elementSize; i >= elementSize; i -= elementSize)
+            for(int b = 0; b < elementSize; b++)
+                block[i + b] ^= block[i - elementSize + b];
+    }
+
+    private static void undoXorDelta(byte[] block, int length, int elementSize) {
+        for(int i = elementSize; i + elementSize <= length; i += elementSize)
+            for(int b = 0; b < elementSize; b++)
+                block[i + b] ^= block[i - elementSize + b];
+    }
+}
@@ -20,10 +20,12 @@
 package org.nd4j.linalg.convolution;
 
 
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.Loop;
+import org.nd4j.linalg.api.ops.executioner.StridedKernelExecutor;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -66,48 +68,20 @@ public class Convolution {
      * @param w width
      * @return
      */
-    public static INDArray col2im(INDArray col,int sy,int sx,int ph,int pw,int h,int w) {
+    public static INDArray col2im(final INDArray col, final int sy, final int sx, final int ph, final int pw, int h, int w) {
        //number of images
         int n = col.size(0);
         //number of columns
-        int c = col.size(1);
-        //kernel height
-        int kh = col.size(2);
-        //kernel width
-        int kw = col.size(3);
-        //out height
-        int outH = col.size(4);
-        //out width
-        int outW = col.size(5);
-
-        INDArray img = Nd4j.create(n,c,h + 2 * ph + sy - 1,w + 2 * pw + sx - 1);
-        for(int i = 0; i < kh; i++) {
-            //iterate over the kernel rows
-            int  iLim = i + sy * outH;
-            for(int j = 0; j < kw; j++) {
-                //iterate over the kernel columns
-                int  jLim = j + sx * outW;
-                INDArray get = img.get(
-                        NDArrayIndex.all(),
-                        NDArrayIndex.all(),
-                        NDArrayIndex.interval(i,sy,iLim),
-                        NDArrayIndex.interval(j,sx,jLim)
-                );
-
-                INDArray colAdd = col.get(
-                        NDArrayIndex.all()
-                        , NDArrayIndex.all()
-                        , new NDArrayIndex(i)
-                        ,new NDArrayIndex(j)
-                        ,NDArrayIndex.all()
-                        ,NDArrayIndex.all());
-                get.addi(colAdd);
+        final int c = col.size(1);
 
+        final INDArray img = Nd4j.create(n, c, h, w);
+        forEachPlane(n * c, col.length(), new Loop.Each() {
+            @Override
+            public void run(int plane) {
+                col2im(col, img, plane / c, plane % c, sy, sx, ph, pw);
             }
-        }
-
-        //return the subset of the padded image relative to the height/width of the image and the padding width/height
-        return img.get(NDArrayIndex.all(), NDArrayIndex.all(), NDArrayIndex.interval(ph, ph + h), NDArrayIndex.interval(pw, pw + w));
+        });
+        return img;
     }
 
     /**
@@ -124,42 +98,168 @@ public class Convolution {
      * @return the column formatted image
      *
      */
-    public static INDArray im2col(INDArray img,int kh, int kw, int sy, int sx, int ph, int pw, int pval, boolean coverAll) {
+    public static INDArray im2col(final INDArray img, int kh, int kw, final int sy, final int sx, final int ph, final int pw, final int pval, boolean coverAll) {
        //number of images
         int n = img.size(0);
 
-        int c = img.size(1);
+        final int c = img.size(1);
         int h = img.size(2);
         int w = img.size(3);
-        int outWidth = outSize(h, kh, sy, ph, coverAll);
-        int outHeight = outSize(w, kw, sx, pw, coverAll);
-        INDArray padded = Nd4j.pad(img, new int[][]{
-                {0, 0}
-                , {0, 0}
-                , {ph, ph + sy - 1}, {pw, pw + sx - 1}}, Nd4j.PadMode.CONSTANT);
-        INDArray ret =   Nd4j.create(n, c, kh, kw, outHeight, outWidth);
+        int outHeight = outSize(h, kh, sy, ph, coverAll);
+        int outWidth = outSize(w, kw, sx, pw, coverAll);
+        final INDArray ret = Nd4j.create(n, c, kh, kw, outHeight, outWidth);
+        forEachPlane(n * c, ret.length(), new Loop.Each() {
+            @Override
+            public void run(int plane) {
+                im2col(img, ret, plane / c, plane % c, sy, sx, ph, pw, pval);
+            }
+        });
+        return ret;
+    }
+
+    //run the body for each (image, channel) plane, across cores for large arrays
+    static void forEachPlane(int planes, int length, Loop.Each body) {
+        if(planes > 1 && length >= Nd4j.parallelThreshold)
+            Loop.withIndex(0, planes, body);
+        else
+            for(int i = 0; i < planes; i++)
+                body.run(i);
+    }
+
+    /**
+     * im2col for one channel of one image.
+     * col[i,j,y,x] = img[i + y * sy - ph, j + x * sx - pw],
+     * positions outside of the image are the padding value.
+     * Heap buffers are walked through their backing arrays,
+     * anything else through the data buffer.
+     */
+    private static void im2col(INDArray img, INDArray col, int image, int channel, int sy, int sx, int ph, int pw, double pval) {
+        DataBuffer in = img.data();
+        DataBuffer out = col.data();
+        Object[] arrays = StridedKernelExecutor.backingArrays(new INDArray[]{img, col});
+        int[] inStride = img.stride();
+        int[] outStride = col.stride();
+        int h = img.size(2), w = img.size(3);
+        int kh = col.size(2), kw = col.size(3), outH = col.size(4), outW = col.size(5);
+        int inPlane = img.offset() + image * inStride[0] + channel * inStride[1];
+        int outPlane = col.offset() + image * outStride[0] + channel * outStride[1];
+
         for(int i = 0; i < kh; i++) {
-            //offset for the row based on the stride and output height
-            int iLim = i + sy * outHeight;
             for(int j = 0; j < kw; j++) {
-                //offset for the column based on stride and output width
-                int  jLim = j + sx * outWidth;
-                INDArray get = padded.get(
-                        NDArrayIndex.all()
-                        , NDArrayIndex.all()
-                        , NDArrayIndex.interval(i, sx, iLim)
-                        , NDArrayIndex.interval(j, sy, jLim),
-                        NDArrayIndex.all(), NDArrayIndex.all());
-                ret.put(new NDArrayIndex[]{
-                        NDArrayIndex.all()
-                        ,NDArrayIndex.all()
-                        ,new NDArrayIndex(i)
-                        ,new NDArrayIndex(j)
-                        ,NDArrayIndex.all()
-                        ,NDArrayIndex.all()}, get);
+                int outKernel = outPlane + i * outStride[2] + j * outStride[3];
+                //output columns x0 (inclusive) to x1 (exclusive) read the image, the rest are padding
+                int x0 = firstColumn(0, j, sx, pw, outW);
+                int x1 = Math.max(x0, firstColumn(w, j, sx, pw, outW));
+                int inStep = sx * inStride[3];
+                for(int y = 0; y < outH; y++) {
+                    int row = i + y * sy - ph;
+                    int outRow = outKernel + y * outStride[4];
+                    boolean padding = row < 0 || row >= h;
+                    int from = padding ? 0 : x0, to = padding ? 0 : x1;
+                    int inIdx = padding ? 0 : inPlane + row * inStride[2] + (j + x0 * sx - pw) * inStride[3];
+                    if(arrays == null)
+                        im2colRow(in, inIdx, inStep, out, outRow, outStride[5], from, to, outW, pval);
+                    else if(arrays[0] instanceof double[])
+                        im2colRow((double[]) arrays[0], inIdx, inStep, (double[]) arrays[1], outRow, outStride[5], from, to, outW, pval);
+                    else
+                        im2colRow((float[]) arrays[0], inIdx, inStep, (float[]) arrays[1], outRow, outStride[5], from, to, outW, (float) pval);
+                }
             }
         }
-        return ret;
+    }
+
+    //the first output column x with j + x * sx - pw >= bound, at most outW
+    private static int firstColumn(int bound, int j, int sx, int pw, int outW) {
+        int distance = bound + pw - j;
+        if(distance <= 0)
+            return 0;
+        return Math.min(outW, (distance + sx - 1) / sx);
+    }
+
+    //one output row of im2col: columns from (inclusive) to to (exclusive) are copied, the rest are padding
+    private static void im2colRow(double[] in, int inIdx, int inStep, double[] out, int outIdx, int outStep, int from, int to, int outW, double pval) {
+        int x = 0;
+        for(; x < from; x++, outIdx += outStep)
+            out[outIdx] = pval;
+        for(; x < to; x++, inIdx += inStep, outIdx += outStep)
+            out[outIdx] = in[inIdx];
+        for(; x < outW; x++, outIdx += outStep)
+            out[outIdx] = pval;
+    }
+
+    private static void im2colRow(float[] in, int inIdx, int inStep, float[] out, int outIdx, int outStep, int from, int to, int outW, float pval) {
+        int x = 0;
+        for(; x < from; x++, outIdx += outStep)
+            out[outIdx] = pval;
+        for(; x < to; x++, inIdx += inStep, outIdx += outStep)
+            out[outIdx] = in[inIdx];
+        for(; x < outW; x++, outIdx += outStep)
+            out[outIdx] = pval;
+    }
+
+    private static void im2colRow(DataBuffer in, int inIdx, int inStep, DataBuffer out, int outIdx, int outStep, int from, int to, int outW, double pval) {
+        int x = 0;
+        for(; x < from; x++, outIdx += outStep)
+            out.put(outIdx, pval);
+        for(; x < to; x++, inIdx += inStep, outIdx += outStep)
+            out.put(outIdx, in.getDouble(inIdx));
+        for(; x < outW; x++, outIdx += outStep)
+            out.put(outIdx, pval);
+    }
+
+    /**
+     * col2im for one channel of one image: the inverse scatter of {@link #im2col},
+     * overlapping kernel positions are summed
+     */
+    private static void col2im(INDArray col, INDArray img, int image, int channel, int sy, int sx, int ph, int pw) {
+        DataBuffer in = col.data();
+        DataBuffer out = img.data();
+        Object[] arrays = StridedKernelExecutor.backingArrays(new INDArray[]{col, img});
+        int[] inStride = col.stride();
+        int[] outStride = img.stride();
+        int h = img.size(2), w = img.size(3);
+        int kh = col.size(2), kw = col.size(3), outH = col.size(4), outW = col.size(5);
+        int inPlane = col.offset() + image * inStride[0] + channel * inStride[1];
+        int outPlane = img.offset() + image * outStride[0] + channel * outStride[1];
+
+        for(int i = 0; i < kh; i++) {
+            for(int j = 0; j < kw; j++) {
+                int inKernel = inPlane + i * inStride[2] + j * inStride[3];
+                //only output columns x0 (inclusive) to x1 (exclusive) land inside the image
+                int x0 = firstColumn(0, j, sx, pw, outW);
+                int x1 = Math.max(x0, firstColumn(w, j, sx, pw, outW));
+                int outStep = sx * outStride[3];
+                for(int y = 0; y < outH; y++) {
+                    int row = i + y * sy - ph;
+                    if(row < 0 || row >= h || x0 == x1)
+                        continue;
+                    int inIdx = inKernel + y * inStride[4] + x0 * inStride[5];
+                    int outIdx = outPlane + row * outStride[2] + (j + x0 * sx - pw) * outStride[3];
+                    if(arrays == null)
+                        col2imRow(in, inIdx, inStride[5], out, outIdx, outStep, x1 - x0);
+                    else if(arrays[0] instanceof double[])
+                        col2imRow((double[]) arrays[0], inIdx, inStride[5], (double[]) arrays[1], outIdx, outStep, x1 - x0);
+                    else
+                        col2imRow((float[]) arrays[0], inIdx, inStride[5], (float[]) arrays[1], outIdx, outStep, x1 - x0);
+                }
+            }
+        }
+    }
+
+    //one row of the col2im scatter: n columns are added in to the image
+    private static void col2imRow(double[] in, int inIdx, int inStep, double[] out, int outIdx, int outStep, int n) {
+        for(int x = 0; x < n; x++, inIdx += inStep, outIdx += outStep)
+            out[outIdx] += in[inIdx];
+    }
+
+    private static void col2imRow(float[] in, int inIdx, int inStep, float[] out, int outIdx, int outStep, int n) {
+        for(int x = 0; x < n; x++, inIdx += inStep, outIdx += outStep)
+            out[outIdx] += in[inIdx];
+    }
+
+    private static void col2imRow(DataBuffer in, int inIdx, int inStep, DataBuffer out, int outIdx, int outStep, int n) {
+        for(int x = 0; x < n; x++, inIdx += inStep, outIdx += outStep)
+            out.put(outIdx, out.getDouble(outIdx) + in.getDouble(inIdx));
     }
 
     /**
@@ -0,0 +1,307 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.convolution;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.Loop;
+import org.nd4j.linalg.api.ops.executioner.StridedKernelExecutor;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+
+/**
+ * 2d pooling over (images, channels, height, width) arrays.
+ *
+ * Windows are kh x kw, moved sy rows and sx columns at a time
+ * over the image padded with ph rows and pw columns on each side.
+ * Padding never contributes to a window: max pooling ignores it
+ * and average pooling divides by the number of pixels
+ * of the window inside the image.
+ *
+ * Each (image, channel) plane is pooled with one pass over its windows,
+ * across cores for large inputs.
+ *
+ * @author Adam Gibson
+ */
+public class Pooling {
+
+    public enum Type {
+        MAX, AVG, SUM
+    }
+
+    private Pooling() {
+    }
+
+    /**
+     * Pool the given images
+     * @param input the images (n, c, h, w)
+     * @param type the kind of pooling
+     * @param kh the window height
+     * @param kw the window width
+     * @param sy the stride along y
+     * @param sx the stride along x
+     * @param ph the padding height
+     * @param pw the padding width
+     * @param coverAll whether partial windows at the border are included
+     * @return the pooled images (n, c, outH, outW)
+     */
+    public static INDArray pool(INDArray input, Type type, int kh, int kw, int sy, int sx, int ph, int pw, boolean coverAll) {
+        return pool(input, type, kh, kw, sy, sx, ph, pw, coverAll, null);
+    }
+
+    /**
+     * Max pool the given images
+     * recording where each maximum came from
+     * @param input the images (n, c, h, w)
+     * @param kh the window height
+     * @param kw the window width
+     * @param sy the stride along y
+     * @param sx the stride along x
+     * @param ph the padding height
+     * @param pw the padding width
+     * @param coverAll whether partial windows at the border are included
+     * @param argMax null or an array of the output shape (of any data type, including int)
+     *               which receives the index (row * w + column) of each maximum within its plane,
+     *               -1 for windows entirely in the padding
+     * @return the pooled images (n, c, outH, outW)
+     */
+    public static INDArray maxPool(INDArray input, int kh, int kw, int sy, int sx, int ph, int pw, boolean coverAll, INDArray argMax) {
+        return pool(input, Type.MAX, kh, kw, sy, sx, ph, pw, coverAll, argMax);
+    }
+
+    /**
+     * The gradient of max pooling with respect to its input
+     * @param epsilon the gradient with respect to the pooled output (n, c, outH, outW)
+     * @param argMax the indices recorded by {@link #maxPool}
+     * @param h the height of the pooled images
+     * @param w the width of the pooled images
+     * @return the gradient with respect to the images (n, c, h, w)
+     */
+    public static INDArray maxPoolBackward(final INDArray epsilon, final INDArray argMax, final int h, final int w) {
+        if(!Arrays.equals(epsilon.shape(), argMax.shape()))
+            throw new IllegalArgumentException("Epsilon and argMax must have the same shape");
+        final int c = epsilon.size(1);
+        final INDArray ret = Nd4j.create(epsilon.size(0), c, h, w);
+        Convolution.forEachPlane(epsilon.size(0) * c, ret.length(), new Loop.Each() {
+            @Override
+            public void run(int plane) {
+                scatter(epsilon, argMax, ret, plane / c, plane % c);
+            }
+        });
+        return ret;
+    }
+
+    private static INDArray pool(final INDArray input, final Type type, final int kh, final int kw, final int sy, final int sx, final int ph, final int pw, boolean coverAll, final INDArray argMax) {
+        if(input.shape().length != 4)
+            throw new IllegalArgumentException("Pooling requires 4 dimensional input (images, channels, height, width)");
+        int n = input.size(0);
+        final int c = input.size(1);
+        int outH = Convolution.outSize(input.size(2), kh, sy, ph, coverAll);
+        int outW = Convolution.outSize(input.size(3), kw, sx, pw, coverAll);
+        final INDArray ret = Nd4j.create(n, c, outH, outW);
+        if(argMax != null && !Arrays.equals(argMax.shape(), ret.shape()))
+            throw new IllegalArgumentException("ArgMax must have shape " + Arrays.toString(ret.shape()));
+
+        Convolution.forEachPlane(n * c, input.length(), new Loop.Each() {
+            @Override
+            public void run(int plane) {
+                pool(input, ret, argMax, plane / c, plane % c, type, kh, kw, sy, sx, ph, pw);
+            }
+        });
+        return ret;
+    }
+
+    //pool one channel of one image: heap planes are read through their backing arrays
+    private static void pool(INDArray input, INDArray output, INDArray argMax, int image, int channel, Type type,
+                             int kh, int kw, int sy, int sx, int ph, int pw) {
+        DataBuffer in = input.data();
+        DataBuffer out = output.data();
+        DataBuffer arg = argMax != null ? argMax.data() : null;
+        Object[] arrays = StridedKernelExecutor.backingArrays(new INDArray[]{input, output});
+        Object argArray = argMax != null ? backingArray(argMax) : null;
+        int[] inStride = input.stride();
+        int[] outStride = output.stride();
+        int[] argStride = argMax != null ? argMax.stride() : null;
+        int h = input.size(2), w = input.size(3);
+        int outH = output.size(2), outW = output.size(3);
+        int inPlane = input.offset() + image * inStride[0] + channel * inStride[1];
+        int outPlane = output.offset() + image * outStride[0] + channel * outStride[1];
+        int argPlane = argMax != null ? argMax.offset() + image * argStride[0] + channel * argStride[1] : 0;
+        boolean max = type == Type.MAX;
+        int[] best = new int[1];
+
+        for(int y = 0; y < outH; y++) {
+            int top = y * sy - ph;
+            int rowStart = Math.max(top, 0);
+            int rowEnd = Math.min(top + kh, h);
+            for(int x = 0; x < outW; x++) {
+                int left = x * sx - pw;
+                int colStart = Math.max(left, 0);
+                int colEnd = Math.min(left + kw, w);
+
+                double acc;
+                if(arrays == null)
+                    acc = window(in, inPlane, inStride[2], inStride[3], rowStart, rowEnd, colStart, colEnd, w, max, best);
+                else if(arrays[0] instanceof double[])
+                    acc = window((double[]) arrays[0], inPlane, inStride[2], inStride[3], rowStart, rowEnd, colStart, colEnd, w, max, best);
+                else
+                    acc = window((float[]) arrays[0], inPlane, inStride[2], inStride[3], rowStart, rowEnd, colStart, colEnd, w, max, best);
+
+                int count = Math.max(rowEnd - rowStart, 0) * Math.max(colEnd - colStart, 0);
+                if(type == Type.AVG && count > 0)
+                    acc /= count;
+                int outIdx = outPlane + y * outStride[2] + x * outStride[3];
+                if(arrays == null)
+                    out.put(outIdx, acc);
+                else if(arrays[1] instanceof double[])
+                    ((double[]) arrays[1])[outIdx] = acc;
+                else
+                    ((float[]) arrays[1])[outIdx] = (float) acc;
+                if(arg != null)
+                    putIndex(arg, argArray, argPlane + y * argStride[2] + x * argStride[3], best[0]);
+            }
+        }
+    }
+
+    /**
+     * Sum or max one window of a plane.
+     * For max pooling best[0] receives the position (row * w + column)
+     * of the maximum within the plane, -1 for an empty window
+     */
+    private static double window(double[] in, int inPlane, int rowStride, int colStride, int rowStart, int rowEnd,
+                                 int colStart, int colEnd, int w, boolean max, int[] best) {
+        double acc = 0;
+        best[0] = -1;
+        for(int row = rowStart; row < rowEnd; row++) {
+            int idx = inPlane + row * rowStride + colStart * colStride;
+            for(int col = colStart; col < colEnd; col++, idx += colStride) {
+                double val = in[idx];
+                if(!max)
+                    acc += val;
+                else if(best[0] < 0 || val > acc) {
+                    acc = val;
+                    best[0] = row * w + col;
+                }
+            }
+        }
+        return acc;
+    }
+
+    private static double window(float[] in, int inPlane, int rowStride, int colStride, int rowStart, int rowEnd,
+                                 int colStart, int colEnd, int w, boolean max, int[] best) {
+        double acc = 0;
+        best[0] = -1;
+        for(int row = rowStart; row < rowEnd; row++) {
+            int idx = inPlane + row * rowStride + colStart * colStride;
+            for(int col = colStart; col < colEnd; col++, idx += colStride) {
+                double val = in[idx];
+                if(!max)
+                    acc += val;
+                else if(best[0] < 0 || val > acc) {
+                    acc = val;
+                    best[0] = row * w + col;
+                }
+            }
+        }
+        return acc;
+    }
+
+    private static double window(DataBuffer in, int inPlane, int rowStride, int colStride, int rowStart, int rowEnd,
+                                 int colStart, int colEnd, int w, boolean max, int[] best) {
+        double acc = 0;
+        best[0] = -1;
+        for(int row = rowStart; row < rowEnd; row++) {
+            int idx = inPlane + row * rowStride + colStart * colStride;
+            for(int col = colStart; col < colEnd; col++, idx += colStride) {
+                double val = in.getDouble(idx);
+                if(!max)
+                    acc += val;
+                else if(best[0] < 0 || val > acc) {
+                    acc = val;
+                    best[0] = row * w + col;
+                }
+            }
+        }
+        return acc;
+    }
+
+    //route the gradient of each window to its maximum
+    private static void scatter(INDArray epsilon, INDArray argMax, INDArray ret, int image, int channel) {
+        DataBuffer eps = epsilon.data();
+        DataBuffer arg = argMax.data();
+        DataBuffer out = ret.data();
+        Object[] arrays = StridedKernelExecutor.backingArrays(new INDArray[]{epsilon, ret});
+        Object argArray = backingArray(argMax);
+        int[] epsStride = epsilon.stride();
+        int[] argStride = argMax.stride();
+        int[] outStride = ret.stride();
+        int w = ret.size(3);
+        int outH = epsilon.size(2), outW = epsilon.size(3);
+        int epsPlane = epsilon.offset() + image * epsStride[0] + channel * epsStride[1];
+        int argPlane = argMax.offset() + image * argStride[0] + channel * argStride[1];
+        int outPlane = ret.offset() + image * outStride[0] + channel * outStride[1];
+        double[] epsDoubles = arrays != null && arrays[0] instanceof double[] ? (double[]) arrays[0] : null;
+        double[] outDoubles = epsDoubles != null ? (double[]) arrays[1] : null;
+        float[] epsFloats = arrays != null && arrays[0] instanceof float[] ? (float[]) arrays[0] : null;
+        float[] outFloats = epsFloats != null ? (float[]) arrays[1] : null;
+
+        for(int y = 0; y < outH; y++) {
+            int epsIdx = epsPlane + y * epsStride[2];
+            int argIdx = argPlane + y * argStride[2];
+            for(int x = 0; x < outW; x++, epsIdx += epsStride[3], argIdx += argStride[3]) {
+                int best = getIndex(arg, argArray, argIdx);
+                if(best < 0)
+                    continue;
+                int idx = outPlane + (best / w) * outStride[2] + (best % w) * outStride[3];
+                if(outDoubles != null)
+                    outDoubles[idx] += epsDoubles[epsIdx];
+                else if(outFloats != null)
+                    outFloats[idx] += epsFloats[epsIdx];
+                else
+                    out.put(idx, out.getDouble(idx) + eps.getDouble(epsIdx));
+            }
+        }
+    }
+
+    //the heap array backing the given ndarray, null for int or off heap buffers
+    private static Object backingArray(INDArray arr) {
+        Object[] arrays = StridedKernelExecutor.backingArrays(new INDArray[]{arr});
+        return arrays != null ? arrays[0] : null;
+    }
+
+    //argMax may be stored as doubles, floats or ints: indices are written and read without going through a double
+    private static void putIndex(DataBuffer arg, Object array, int idx, int index) {
+        if(array instanceof double[])
+            ((double[]) array)[idx] = index;
+        else if(array instanceof float[])
+            ((float[]) array)[idx] = index;
+        else
+            arg.put(idx, index);
+    }
+
+    private static int getIndex(DataBuffer arg, Object array, int idx) {
+        if(array instanceof double[])
+            return (int) ((double[]) array)[idx];
+        if(array instanceof float[])
+            return (int) ((float[]) array)[idx];
+        return arg.getInt(idx);
+    }
+}
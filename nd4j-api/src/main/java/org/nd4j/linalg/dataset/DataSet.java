@@ -224,11 +224,28 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
 
     @Override
     public void shuffle() {
-        List<DataSet> list = asList();
-        Collections.shuffle(list);
-        DataSet ret = DataSet.merge(list,false);
-        setFeatures(ret.getFeatures());
-        setLabels(ret.getLabels());
+        shuffle(Nd4j.getRandom(), false);
+    }
+
+    /**
+     * Randomly permute the examples.
+     * Either the rows are gathered in to new feature and label matrices
+     * in the order of a random permutation, or pairs of rows are swapped
+     * in the existing matrices, which allocates nothing
+     * but writes to views of them as well.
+     *
+     * @param rng     the rng to use
+     * @param inPlace whether to swap rows in place rather than gather them
+     */
+    @Override
+    public void shuffle(org.nd4j.linalg.api.rng.Random rng, boolean inPlace) {
+        if (inPlace) {
+            Rows.shuffle(rng, getFeatures(), getLabels());
+            return;
+        }
+        int[] order = Rows.permutation(numExamples(), rng);
+        setFeatures(Rows.gather(getFeatures(), order));
+        setLabels(Rows.gather(getLabels(), order));
     }
 
 
@@ -548,16 +565,23 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
         if (numHoldout >= numExamples())
             throw new IllegalArgumentException("Unable to split on size larger than the number of rows");
 
-        List<DataSet> list = asList();
+        //rotate by 3 then shuffle as Collections.shuffle would, on row indices
+        int examples = numExamples();
+        int[] order = new int[examples];
+        for (int i = 0; i < examples; i++)
+            order[(i + 3) % examples] = i;
+        for (int i = examples; i > 1; i--) {
+            int j = rng.nextInt(i);
+            int tmp = order[i - 1];
+            order[i - 1] = order[j];
+            order[j] = tmp;
+        }
 
-        Collections.rotate(list, 3);
-        Collections.shuffle(list, rng);
-        List<List<DataSet>> partition = new ArrayList<>();
-        partition.add(list.subList(0, numHoldout));
-        partition.add(list.subList(numHoldout, list.size()));
-        DataSet train = merge(partition.get(0),false);
-        DataSet test = merge(partition.get(1),false);
-        return new SplitTestAndTrain(train, test);
+        int[] train = Arrays.copyOfRange(order, 0, numHoldout);
+        int[] test = Arrays.copyOfRange(order, numHoldout, examples);
+        return new SplitTestAndTrain(
+                new DataSet(Rows.gather(getFeatures(), train), Rows.gather(getLabels(), train)),
+                new DataSet(Rows.gather(getFeatures(), test), Rows.gather(getLabels(), test)));
     }
 
     @Override
@@ -598,62 +622,40 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
      */
     @Override
     public void sortByLabel() {
-        Map<Integer, Queue<DataSet>> map = new HashMap<>();
-        List<DataSet> data = asList();
+        int[] labels = Rows.labels(getLabels());
         int numLabels = numOutcomes();
         int examples = numExamples();
-        for (DataSet d : data) {
-            int label = d.outcome();
-            Queue<DataSet> q = map.get(label);
-            if (q == null) {
-                q = new ArrayDeque<>();
-                map.put(label, q);
-            }
-            q.add(d);
-        }
 
-        for (Map.Entry<Integer, Queue<DataSet>> label : map.entrySet()) {
-            log.info("Label " + label + " has " + label.getValue().size() + " elements");
-        }
+        //the examples of each label in order: a counting sort of the row indices
+        int[] counts = new int[numLabels];
+        for (int label : labels)
+            counts[label]++;
+        for (int label = 0; label < numLabels; label++)
+            log.info("Label " + label + " has " + counts[label] + " elements");
+        int[] start = new int[numLabels + 1];
+        for (int label = 0; label < numLabels; label++)
+            start[label + 1] = start[label] + counts[label];
+        int[] byLabel = new int[examples];
+        int[] next = start.clone();
+        for (int i = 0; i < examples; i++)
+            byLabel[next[labels[i]]++] = i;
 
         //ideal input splits: 1 of each label in each batch
-        //after we run out of ideal batches: fall back to a new strategy
-        boolean optimal = true;
-        for (int i = 0; i < examples; i++) {
-            if (optimal) {
-                for (int j = 0; j < numLabels; j++) {
-                    Queue<DataSet> q = map.get(j);
-                    if (q == null) {
-                        optimal = false;
-                        break;
-                    }
-                    DataSet next = q.poll();
-                    //add a row; go to next
-                    if (next != null) {
-                        addRow(next, i);
-                        i++;
-                    } else {
-                        optimal = false;
-                        break;
-                    }
-                }
-            } else {
-                DataSet add = null;
-                for (Queue<DataSet> q : map.values()) {
-                    if (!q.isEmpty()) {
-                        add = q.poll();
-                        break;
-                    }
-                }
-
-                addRow(add, i);
-
-            }
-
-
-        }
-
+        //after we run out of ideal batches: fall back to the remaining examples label by label
+        int rounds = Integer.MAX_VALUE;
+        for (int label = 0; label < numLabels; label++)
+            rounds = Math.min(rounds, counts[label]);
+        int[] order = new int[examples];
+        int pos = 0;
+        for (int round = 0; round < rounds; round++)
+            for (int label = 0; label < numLabels; label++)
+                order[pos++] = byLabel[start[label] + round];
+        for (int label = 0; label < numLabels; label++)
+            for (int i = start[label] + rounds; i < start[label + 1]; i++)
+                order[pos++] = byLabel[i];
 
+        setFeatures(Rows.gather(getFeatures(), order));
+        setLabels(Rows.gather(getLabels(), order));
     }
 
 
@@ -733,22 +735,15 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
      */
     @Override
     public DataSet sample(int numSamples, org.nd4j.linalg.api.rng.Random rng, boolean withReplacement) {
-            INDArray examples = Nd4j.create(numSamples, getFeatures().columns());
-            INDArray outcomes = Nd4j.create(numSamples, numOutcomes());
-            Set<Integer> added = new HashSet<>();
-            for (int i = 0; i < numSamples; i++) {
-                int picked = rng.nextInt(numExamples());
-                if (!withReplacement)
-                    while (added.contains(picked))
-                        picked = rng.nextInt(numExamples());
-
-
-                examples.putRow(i, get(picked).getFeatures());
-                outcomes.putRow(i, get(picked).getLabels());
-
-            }
-            return new DataSet(examples, outcomes);
-
+        int[] rows;
+        if (withReplacement) {
+            rows = new int[numSamples];
+            for (int i = 0; i < numSamples; i++)
+                rows[i] = rng.nextInt(numExamples());
+        }
+        else
+            rows = Rows.sample(numExamples(), numSamples, rng);
+        return new DataSet(Rows.gather(getFeatures(), rows), Rows.gather(getLabels(), rows));
     }
 
     @Override
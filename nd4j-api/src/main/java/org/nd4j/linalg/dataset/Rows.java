@@ -0,0 +1,208 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.dataset;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.rng.Random;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Row permutations of the example matrices of a dataset,
+ * done on index arrays and buffers rather than per example datasets.
+ *
+ * A row is everything with the same index along the first dimension.
+ *
+ * @author Adam Gibson
+ */
+class Rows {
+
+    private Rows() {
+    }
+
+    /**
+     * A random permutation of 0 .. n - 1 (Fisher-Yates)
+     * @param n the number of indices
+     * @param rng the rng to use
+     * @return the permutation
+     */
+    static int[] permutation(int n, Random rng) {
+        return sample(n, n, rng);
+    }
+
+    /**
+     * The first k entries of a random permutation of 0 .. n - 1:
+     * k distinct indices in random order
+     * @param n the number of indices to choose from
+     * @param k the number of indices to choose
+     * @param rng the rng to use
+     * @return the chosen indices
+     */
+    static int[] sample(int n, int k, Random rng) {
+        if(k > n)
+            throw new IllegalArgumentException("Unable to sample " + k + " distinct rows out of " + n);
+        int[] index = new int[n];
+        for(int i = 0; i < n; i++)
+            index[i] = i;
+        for(int i = 0; i < k; i++) {
+            int j = i + rng.nextInt(n - i);
+            int tmp = index[i];
+            index[i] = index[j];
+            index[j] = tmp;
+        }
+        if(k == n)
+            return index;
+        int[] ret = new int[k];
+        System.arraycopy(index, 0, ret, 0, k);
+        return ret;
+    }
+
+    /**
+     * Copy the given rows in to a new array
+     * @param arr the array to copy from
+     * @param rows the rows to copy, in order
+     * @return an array with one row per entry of rows
+     */
+    static INDArray gather(INDArray arr, int[] rows) {
+        int[] shape = arr.shape().clone();
+        shape[0] = rows.length;
+        INDArray ret = Nd4j.create(shape);
+        if(rows.length == 0 || arr.length() == 0)
+            return ret;
+
+        int[] from = rowOffsets(arr);
+        int[] to = rowOffsets(ret);
+        DataBuffer src = arr.data();
+        DataBuffer dst = ret.data();
+        Object srcArray = src.allocationMode() == DataBuffer.AllocationMode.HEAP ? src.array() : null;
+        Object dstArray = dst.allocationMode() == DataBuffer.AllocationMode.HEAP ? dst.array() : null;
+        //rows laid out contiguously in arrays of the same type are copied as blocks
+        boolean block = isContiguous(from) && isContiguous(to) && srcArray != null && dstArray != null
+                && srcArray.getClass() == dstArray.getClass();
+        int srcStride = arr.stride(0);
+        int dstStride = ret.stride(0);
+        for(int i = 0; i < rows.length; i++) {
+            int srcRow = arr.offset() + rows[i] * srcStride;
+            int dstRow = ret.offset() + i * dstStride;
+            if(block)
+                System.arraycopy(srcArray, srcRow, dstArray, dstRow, from.length);
+            else
+                for(int j = 0; j < from.length; j++)
+                    dst.put(dstRow + to[j], src.getDouble(srcRow + from[j]));
+        }
+        return ret;
+    }
+
+    /**
+     * Apply a random permutation to the rows in place
+     * by swapping pairs of rows (Fisher-Yates).
+     * The same permutation is applied to every array
+     * @param rng the rng to use
+     * @param arrs the arrays to permute, all with the same number of rows
+     */
+    static void shuffle(Random rng, INDArray...arrs) {
+        int n = arrs[0].size(0);
+        int[][] offsets = new int[arrs.length][];
+        for(int a = 0; a < arrs.length; a++)
+            offsets[a] = rowOffsets(arrs[a]);
+        for(int i = n - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            if(j == i)
+                continue;
+            for(int a = 0; a < arrs.length; a++)
+                swap(arrs[a], offsets[a], i, j);
+        }
+    }
+
+    //the label of each row: the column with the largest value
+    static int[] labels(INDArray labels) {
+        int rows = labels.size(0);
+        int[] offsets = rowOffsets(labels);
+        DataBuffer data = labels.data();
+        int[] ret = new int[rows];
+        for(int i = 0; i < rows; i++) {
+            int row = labels.offset() + i * labels.stride(0);
+            int best = 0;
+            for(int j = 1; j < offsets.length; j++)
+                if(data.getDouble(row + offsets[j]) > data.getDouble(row + offsets[best]))
+                    best = j;
+            ret[i] = best;
+        }
+        return ret;
+    }
+
+    private static void swap(INDArray arr, int[] offsets, int i, int j) {
+        DataBuffer data = arr.data();
+        int a = arr.offset() + i * arr.stride(0);
+        int b = arr.offset() + j * arr.stride(0);
+        Object array = data.allocationMode() == DataBuffer.AllocationMode.HEAP ? data.array() : null;
+        if(array instanceof double[]) {
+            double[] doubles = (double[]) array;
+            for(int k = 0; k < offsets.length; k++) {
+                double tmp = doubles[a + offsets[k]];
+                doubles[a + offsets[k]] = doubles[b + offsets[k]];
+                doubles[b + offsets[k]] = tmp;
+            }
+        }
+        else if(array instanceof float[]) {
+            float[] floats = (float[]) array;
+            for(int k = 0; k < offsets.length; k++) {
+                float tmp = floats[a + offsets[k]];
+                floats[a + offsets[k]] = floats[b + offsets[k]];
+                floats[b + offsets[k]] = tmp;
+            }
+        }
+        else
+            for(int k = 0; k < offsets.length; k++) {
+                double tmp = data.getDouble(a + offsets[k]);
+                data.put(a + offsets[k], data.getDouble(b + offsets[k]));
+                data.put(b + offsets[k], tmp);
+            }
+    }
+
+    //the buffer offsets of the elements of a row relative to the start of the row, in c order
+    private static int[] rowOffsets(INDArray arr) {
+        int[] shape = arr.shape();
+        int[] stride = arr.stride();
+        int rowLength = shape[0] == 0 ? 0 : arr.length() / shape[0];
+        int[] ret = new int[rowLength];
+        int[] counter = new int[shape.length];
+        int offset = 0;
+        for(int i = 0; i < rowLength; i++) {
+            ret[i] = offset;
+            for(int d = shape.length - 1; d > 0; d--) {
+                if(++counter[d] < shape[d]) {
+                    offset += stride[d];
+                    break;
+                }
+                offset -= (shape[d] - 1) * stride[d];
+                counter[d] = 0;
+            }
+        }
+        return ret;
+    }
+
+    private static boolean isContiguous(int[] offsets) {
+        for(int i = 0; i < offsets.length; i++)
+            if(offsets[i] != i)
+                return false;
+        return true;
+    }
+}
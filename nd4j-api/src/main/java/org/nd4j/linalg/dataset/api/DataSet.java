@@ -55,6 +55,8 @@ public interface DataSet extends Iterable<org.nd4j.linalg.dataset.DataSet>, Seri
 
     void shuffle();
 
+    void shuffle(Random rng, boolean inPlace);
+
     void squishToRange(double min, double max);
 
     void scaleMinAndMax(double min, double max);
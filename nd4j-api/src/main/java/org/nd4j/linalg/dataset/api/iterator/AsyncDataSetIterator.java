@@ -0,0 +1,255 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.dataset.api.iterator;
+
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prefetches batches of another iterator on a background thread.
+ *
+ * A daemon thread pulls batches from the wrapped iterator,
+ * runs the pre processor on them and puts them in a bounded queue,
+ * so the next batches are assembled while the current one is being used.
+ * The wrapped iterator is only touched by that thread
+ * and must not be used directly while this iterator is in use.
+ *
+ * An exception thrown while fetching is rethrown by
+ * {@link #hasNext()} or {@link #next()} once the batches
+ * fetched before it have been consumed.
+ * Call {@link #shutdown()} to stop the thread when done early.
+ * Batches are meant to be consumed by one thread at a time;
+ * {@link #shutdown()} may be called from any thread and
+ * also releases a consumer waiting on a slow wrapped iterator.
+ *
+ * @author Adam Gibson
+ */
+public class AsyncDataSetIterator implements DataSetIterator {
+
+    private static final long serialVersionUID = 4395217458321781447L;
+    public final static int DEFAULT_PREFETCH = 2;
+    //marks the end of the batches in the queue
+    private static final Object TERMINATOR = new Object();
+    //how often a waiting consumer checks whether it was shut down
+    private static final long POLL_MILLIS = 100;
+
+    private DataSetIterator iter;
+    private int prefetch;
+    private volatile DataSetPreProcessor preProcessor;
+    private transient BlockingQueue<Object> queue;
+    private transient Thread thread;
+    private transient volatile Throwable error;
+    private transient volatile boolean running;
+    private transient volatile Object next;
+
+    /**
+     * Prefetch {@link #DEFAULT_PREFETCH} batches
+     * @param iter the iterator to prefetch from
+     */
+    public AsyncDataSetIterator(DataSetIterator iter) {
+        this(iter, DEFAULT_PREFETCH);
+    }
+
+    /**
+     * @param iter the iterator to prefetch from
+     * @param prefetch the maximum number of batches fetched ahead
+     */
+    public AsyncDataSetIterator(DataSetIterator iter, int prefetch) {
+        if(prefetch < 1)
+            throw new IllegalArgumentException("Prefetch must be at least 1");
+        this.iter = iter;
+        this.prefetch = prefetch;
+        start();
+    }
+
+    /**
+     * Not supported for sizes other than {@link #batch()}:
+     * batches are fetched ahead of time
+     *
+     * @param num the number of examples
+     * @return the next batch
+     */
+    @Override
+    public DataSet next(int num) {
+        if(num != batch())
+            throw new UnsupportedOperationException("Prefetched batches have a fixed size of " + batch());
+        return next();
+    }
+
+    @Override
+    public int totalExamples() {
+        return iter.totalExamples();
+    }
+
+    @Override
+    public int inputColumns() {
+        return iter.inputColumns();
+    }
+
+    @Override
+    public int totalOutcomes() {
+        return iter.totalOutcomes();
+    }
+
+    /**
+     * Stops prefetching, resets the wrapped iterator
+     * and starts prefetching from the beginning
+     */
+    @Override
+    public synchronized void reset() {
+        shutdown();
+        iter.reset();
+        start();
+    }
+
+    @Override
+    public int batch() {
+        return iter.batch();
+    }
+
+    /**
+     * The cursor of the wrapped iterator:
+     * this is ahead of the batches returned so far
+     *
+     * @return the cursor of the wrapped iterator
+     */
+    @Override
+    public int cursor() {
+        return iter.cursor();
+    }
+
+    @Override
+    public int numExamples() {
+        return iter.numExamples();
+    }
+
+    /**
+     * Set a pre processor run on the prefetch thread.
+     * Batches already fetched are not affected.
+     *
+     * @param preProcessor a pre processor to set
+     */
+    @Override
+    public void setPreProcessor(DataSetPreProcessor preProcessor) {
+        this.preProcessor = preProcessor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        //the monitor is not held while waiting so shutdown can always get in
+        while(next == null) {
+            if(!running)
+                return false;
+            try {
+                next = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the next batch", e);
+            }
+        }
+        if(!running)
+            return false;
+        if(next == TERMINATOR) {
+            Throwable t = error;
+            if(t != null) {
+                error = null;
+                throw new RuntimeException("Unable to fetch the next batch", t);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public DataSet next() {
+        if(!hasNext())
+            throw new NoSuchElementException();
+        DataSet ret = (DataSet) next;
+        next = null;
+        return ret;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Stop the prefetch thread and drop any prefetched batches.
+     * {@link #hasNext()} returns false afterwards until {@link #reset()}
+     */
+    public synchronized void shutdown() {
+        if(thread == null)
+            return;
+        running = false;
+        try {
+            while(thread.isAlive()) {
+                thread.interrupt();
+                //make room in case the thread is blocked on a full queue
+                queue.clear();
+                thread.join(100);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        queue.clear();
+        error = null;
+    }
+
+    private void start() {
+        queue = new ArrayBlockingQueue<>(prefetch);
+        error = null;
+        next = null;
+        running = true;
+        final BlockingQueue<Object> batches = queue;
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while(running && iter.hasNext()) {
+                        DataSet batch = iter.next();
+                        DataSetPreProcessor pre = preProcessor;
+                        if(pre != null)
+                            pre.preProcess(batch);
+                        batches.put(batch);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Throwable t) {
+                    error = t;
+                }
+                try {
+                    if(running)
+                        batches.put(TERMINATOR);
+                } catch (InterruptedException e) {
+                    //shutting down: nobody is waiting for the terminator
+                }
+            }
+        }, "AsyncDataSetIterator-prefetch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+}
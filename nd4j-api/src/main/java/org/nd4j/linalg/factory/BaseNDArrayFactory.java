@@ -20,6 +20,7 @@
 package org.nd4j.linalg.factory;
 
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
@@ -34,6 +35,7 @@ import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.BulkCopyExecutor;
 import org.nd4j.linalg.api.rng.distribution.Distribution;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.util.ArrayUtil;
@@ -238,12 +240,14 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
             length += m.length();
 
         INDArray ret = Nd4j.create(length);
+        INDArray[] arrs = matrices.toArray(new INDArray[matrices.size()]);
+        INDArray[] windows = new INDArray[arrs.length];
         int count = 0;
-        for(INDArray arr : matrices) {
-            INDArray linear = arr.ravel();
-            for(int j = 0; j < linear.length(); j++)
-                ret.putScalar(count++,linear.getDouble(j));
+        for(int i = 0; i < arrs.length; i++) {
+            windows[i] = flatWindow(ret, count, arrs[i].shape());
+            count += arrs[i].length();
         }
+        copyInto(arrs, windows);
 
         return ret;
 
@@ -252,18 +256,20 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
     @Override
     public INDArray toFlattened(int length, Iterator<? extends INDArray>... matrices) {
         INDArray ret = Nd4j.create(length);
+        List<INDArray> arrs = new ArrayList<>();
+        List<INDArray> windows = new ArrayList<>();
         int linearIndex = 0;
 
         for (Iterator<? extends INDArray> iter1 : matrices) {
             while (iter1.hasNext()) {
                 INDArray d = iter1.next();
-                INDArray flattened = d.linearView();
-                for (int i = 0; i < d.length(); i++) {
-                    ret.putScalar(linearIndex++, flattened.getDouble(i));
-                }
+                arrs.add(d);
+                windows.add(flatWindow(ret, linearIndex, d.shape()));
+                linearIndex += d.length();
             }
 
         }
+        copyInto(arrs.toArray(new INDArray[arrs.size()]), windows.toArray(new INDArray[windows.size()]));
 
         return ret;
     }
@@ -303,14 +309,18 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
         for (INDArray m : matrices)
             length += m.length();
         INDArray ret = Nd4j.create(1, length);
+        INDArray[] arrs = new INDArray[matrices.length];
+        INDArray[] windows = new INDArray[matrices.length];
         int linearIndex = 0;
-        for (INDArray d : matrices) {
+        for (int i = 0; i < matrices.length; i++) {
+            INDArray d = matrices[i];
             if (!d.isVector())
                 d = Nd4j.create(d.data(), new int[]{1, d.length()}, d.offset());
-            for (int i = 0; i < d.length(); i++) {
-                ret.putScalar(linearIndex++, d.getFloat(i));
-            }
+            arrs[i] = d;
+            windows[i] = flatWindow(ret, linearIndex, d.shape());
+            linearIndex += d.length();
         }
+        copyInto(arrs, windows);
 
         return ret;
     }
@@ -973,47 +983,17 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
         int[] sortedStrides = Nd4j.getStrides(outputShape);
 
         INDArray ret = Nd4j.create(outputShape,sortedStrides);
-        if(ret.isVector()) {
-            int offset = 0;
-            for(INDArray arr : toConcat) {
-                for(int i = 0; i < arr.length(); i++) {
-                    ret.putScalar(offset++,arr.getDouble(i));
-                }
-            }
-
-            return ret;
-        }
-
-        if(toConcat[0].isScalar()) {
-            INDArray retLinear = ret.linearView();
-            for(int i = 0; i < retLinear.length(); i++)
-                retLinear.putScalar(i,toConcat[i].getDouble(0));
-            return ret;
-        }
-
-
-
-
+        INDArray[] windows = new INDArray[toConcat.length];
         int arrOffset = 0;
-        for(INDArray arr : toConcat) {
-            int arrTensorLength = -1;
-            if(arr.tensorssAlongDimension(dimension) != ret.tensorssAlongDimension(dimension))
+        for(int i = 0; i < toConcat.length; i++) {
+            INDArray arr = toConcat[i];
+            if(!Arrays.equals(ArrayUtil.removeIndex(arr.shape(), dimension), ArrayUtil.removeIndex(outputShape, dimension)))
                 throw new IllegalStateException("Illegal concatenate. Tensors along dimension must be same length.");
-            for(int i = 0; i < arr.tensorssAlongDimension(dimension); i++) {
-                INDArray retLinear = ret.tensorAlongDimension(i,dimension).linearView();
-                INDArray arrTensor = arr.tensorAlongDimension(i,dimension).linearView();
-                arrTensorLength = arrTensor.length();
-                for(int j = 0; j < arrTensor.length(); j++) {
-                    int idx = j + (!arrTensor.isScalar() ? arrOffset : 0);
-                    retLinear.putScalar(idx,arrTensor.getDouble(j));
-                }
-
-
-            }
-            //bump the sliding window
-            arrOffset += arrTensorLength;
-
+            //each array fills the slab of the result starting at its offset along the dimension
+            windows[i] = Nd4j.create(ret.data(), arr.shape(), ret.stride(), ret.offset() + arrOffset * ret.stride(dimension), ret.ordering());
+            arrOffset += arr.size(dimension);
         }
+        copyInto(toConcat, windows);
 
         return ret;
 
@@ -1042,15 +1022,13 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
 
 
         IComplexNDArray ret = Nd4j.createComplex(outputShape);
-        IComplexNDArray linear = ret.linearView();
-        int count = 0;
+        INDArray[] windows = new INDArray[toConcat.length];
+        int arrOffset = 0;
         for (int i = 0; i < toConcat.length; i++) {
-            IComplexNDArray flattened = toConcat[i].linearView();
-
-            for (int j = 0; j < flattened.length(); j++) {
-                linear.putScalar(count++, flattened.getComplex(j));
-            }
+            windows[i] = Nd4j.createComplex(ret.data(), toConcat[i].shape(), ret.stride(), ret.offset() + arrOffset * ret.stride(dimension), ret.ordering());
+            arrOffset += toConcat[i].size(dimension);
         }
+        copyInto(toConcat, windows);
 
 
         return ret;
@@ -1062,13 +1040,13 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
         int length = 0;
         for (IComplexNDArray m : flatten) length += m.length();
         IComplexNDArray ret = Nd4j.createComplex(length);
+        INDArray[] windows = new INDArray[flatten.length];
         int linearIndex = 0;
-        for (IComplexNDArray d : flatten) {
-            IComplexNDArray flattened = d.linearView();
-            for (int i = 0; i < d.length(); i++) {
-                ret.putScalar(linearIndex++, flattened.getComplex(i));
-            }
+        for (int i = 0; i < flatten.length; i++) {
+            windows[i] = flatWindow(ret, linearIndex, flatten[i].shape());
+            linearIndex += flatten[i].length();
         }
+        copyInto(flatten, windows);
 
         return ret;
 
@@ -1076,19 +1054,62 @@ public abstract class BaseNDArrayFactory implements NDArrayFactory {
 
     @Override
     public IComplexNDArray complexFlatten(List<IComplexNDArray> flatten) {
-        int length = 0;
-        for (IComplexNDArray m : flatten) length += m.length();
-        IComplexNDArray ret = Nd4j.createComplex(length);
-        int linearIndex = 0;
-        for (IComplexNDArray d : flatten) {
-            IComplexNDArray flattened = d.linearView();
-            for (int i = 0; i < d.length(); i++) {
-                ret.putScalar(linearIndex++, flattened.getComplex(i));
-            }
+        return complexFlatten(flatten.toArray(new IComplexNDArray[flatten.size()]));
+
+    }
+
+    /**
+     * A view of the elements of a flat result, starting at the given element,
+     * laid out with the given shape in linear order:
+     * the first dimension moving fastest for real arrays
+     * and the last for complex arrays, matching their linear views
+     *
+     * @param ret the flat result
+     * @param start the first element of the view
+     * @param shape the shape of the view
+     * @return the view in to the result
+     */
+    protected INDArray flatWindow(INDArray ret, int start, int[] shape) {
+        boolean complex = ret instanceof IComplexNDArray;
+        int width = complex ? 2 : 1;
+        int[] stride = new int[shape.length];
+        int st = width;
+        for (int j = 0; j < shape.length; j++) {
+            int dim = complex ? shape.length - 1 - j : j;
+            stride[dim] = st;
+            st *= shape[dim];
         }
+        int offset = ret.offset() + start * width;
+        if (complex)
+            return Nd4j.createComplex(ret.data(), shape, stride, offset, ret.ordering());
+        return Nd4j.create(ret.data(), shape, stride, offset, ret.ordering());
+    }
 
-        return ret;
+    /**
+     * Copy each array in to the window at the same index
+     * with the bulk copy engine, falling back to assign
+     * for arrays it can not address
+     *
+     * @param arrs the arrays to copy
+     * @param windows the disjoint destinations of the same shapes
+     */
+    protected void copyInto(INDArray[] arrs, INDArray[] windows) {
+        boolean bulk = true;
+        for (int i = 0; i < arrs.length && bulk; i++)
+            bulk = BulkCopyExecutor.canCopy(arrs[i], windows[i]);
+        if (bulk) {
+            BulkCopyExecutor.copy(arrs, windows);
+            return;
+        }
 
+        for (int i = 0; i < arrs.length; i++) {
+            if (BulkCopyExecutor.canCopy(arrs[i], windows[i]))
+                BulkCopyExecutor.copy(arrs[i], windows[i]);
+            else if (windows[i] instanceof IComplexNDArray)
+                ((IComplexNDArray) windows[i]).assign((IComplexNDArray) arrs[i]);
+            else
+                windows[i].assign(arrs[i]);
+        }
     }
 
     /**
@@ -24,6 +24,7 @@ import com.google.common.primitives.Ints;
 
 import io.netty.buffer.ByteBuf;
 import org.apache.commons.io.IOUtils;
+import org.nd4j.linalg.api.buffer.ChunkedDataBuffer;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.buffer.factory.DataBufferFactory;
 import org.nd4j.linalg.api.buffer.factory.DefaultDataBufferFactory;
@@ -33,8 +34,10 @@ import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.instrumentation.InMemoryInstrumentation;
 import org.nd4j.linalg.api.instrumentation.Instrumentation;
+import org.nd4j.linalg.api.instrumentation.OpMetricsRegistry;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
+import org.nd4j.linalg.api.ops.executioner.InstrumentedOpExecutioner;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.api.ops.factory.DefaultOpFactory;
 import org.nd4j.linalg.api.ops.factory.OpFactory;
@@ -42,6 +45,8 @@ import org.nd4j.linalg.api.rng.DefaultRandom;
 import org.nd4j.linalg.api.rng.distribution.Distribution;
 import org.nd4j.linalg.api.rng.distribution.factory.DefaultDistributionFactory;
 import org.nd4j.linalg.api.rng.distribution.factory.DistributionFactory;
+import org.nd4j.linalg.compression.ArrayCodec;
+import org.nd4j.linalg.compression.ArrayCodecs;
 import org.nd4j.linalg.convolution.ConvolutionInstance;
 import org.nd4j.linalg.convolution.DefaultConvolutionInstance;
 import org.nd4j.linalg.factory.Nd4jBackend.NoAvailableBackendException;
@@ -50,13 +55,16 @@ import org.nd4j.linalg.fft.FFTInstance;
 import org.nd4j.linalg.indexing.BooleanIndexing;
 import org.nd4j.linalg.indexing.conditions.Conditions;
 import org.nd4j.linalg.indexing.functions.Value;
+import org.nd4j.linalg.sort.Sorting;
 import org.nd4j.linalg.util.ArrayUtil;
+import org.nd4j.linalg.util.BinarySerde;
 import org.nd4j.linalg.util.Shape;
 import org.springframework.core.io.Resource;
 
 import java.io.*;
 import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Constructor;
+import java.nio.channels.FileChannel;
 import java.util.*;
 
 /**
@@ -84,6 +92,9 @@ public class Nd4j {
     public final static String RESOURCE_MANGER_ON = "resourcemanager_state";
     public final static String ALLOC = "alloc";
     public final static String EXECUTION_MODE = "opexec.mode";
+    public final static String PARALLEL_THRESHOLD = "opexec.parallel.threshold";
+    //whether to record per op metrics
+    public final static String OP_METRICS = "opmetrics";
     //execution mode for element wise operations
     public static OpExecutioner.ExecutionMode executionMode = OpExecutioner.ExecutionMode.JAVA;
 
@@ -103,6 +114,8 @@ public class Nd4j {
     public static boolean copyOnOps = true;
     public static boolean shouldInstrument = false;
     public static boolean resourceManagerOn = false;
+    //minimum number of elements for an op to be split across cores in parallel execution mode
+    public static int parallelThreshold = 65536;
 
     protected static Class<? extends BlasWrapper> blasWrapperClazz;
     protected static Class<? extends NDArrayFactory> ndArrayFactoryClazz;
@@ -121,6 +134,7 @@ public class Nd4j {
     protected static FFTInstance FFT_INSTANCE;
     protected static ConvolutionInstance CONVOLUTION_INSTANCE;
     protected static OpExecutioner OP_EXECUTIONER_INSTANCE;
+    protected static final OpMetricsRegistry OP_METRICS_INSTANCE = new OpMetricsRegistry();
     protected static DistributionFactory DISTRIBUTION_FACTORY;
     protected static OpFactory OP_FACTORY_INSTANCE;
     protected static org.nd4j.linalg.api.rng.Random random;
@@ -351,6 +365,16 @@ public class Nd4j {
         return instrumentation;
     }
 
+    /**
+     * Gets the per op metrics,
+     * recorded when {@link #OP_METRICS} is true
+     *
+     * @return the op metrics
+     */
+    public static OpMetricsRegistry getOpMetrics() {
+        return OP_METRICS_INSTANCE;
+    }
+
     /**
      * Get the primary distributions
      * factory
@@ -844,7 +868,7 @@ public class Nd4j {
      * @return the created buffer
      */
     public static DataBuffer createBuffer(int[] shape, DataBuffer.Type type) {
-        int length = ArrayUtil.prod(shape);
+        int length = ArrayUtil.lengthOf(shape);
         return type == DataBuffer.Type.DOUBLE ? createBuffer(new double[length]) : createBuffer(new float[length]);
     }
 
@@ -855,10 +879,22 @@ public class Nd4j {
      * @return the created buffer
      */
     public static DataBuffer createBuffer(int[] shape) {
-        int length = ArrayUtil.prod(shape);
+        int length = ArrayUtil.lengthOf(shape);
         return createBuffer(length);
     }
 
+    /**
+     * Creates a long indexed buffer based on the data type
+     * for data with more than {@link Integer#MAX_VALUE} elements
+     *
+     * @param length the length of the buffer
+     * @param chunkLength the number of elements per chunk
+     * @return the created buffer
+     */
+    public static ChunkedDataBuffer createChunkedBuffer(long length, int chunkLength) {
+        return new ChunkedDataBuffer(dataType(), length, chunkLength);
+    }
+
     /**
      * Creates a buffer of the specified length based on the data type
      *
@@ -1034,57 +1070,32 @@ public class Nd4j {
      * @return the indices and the sorted ndarray
      */
     public static INDArray[] sortWithIndices(INDArray ndarray, int dimension, boolean ascending) {
-        INDArray indices = Nd4j.create(ndarray.shape());
-        INDArray[] ret = new INDArray[2];
-
-        for (int i = 0; i < ndarray.vectorsAlongDimension(dimension); i++) {
-            INDArray vec = ndarray.vectorAlongDimension(i, dimension);
-            INDArray indexVector = indices.vectorAlongDimension(i, dimension);
-            final Double[] data = new Double[vec.length()];
-            final Double[] index = new Double[vec.length()];
-
-            for (int j = 0; j < vec.length(); j++) {
-                data[j] = vec.getDouble(j);
-                index[j] = (double) j;
-            }
-
-            /**
-             * Inject a comparator that sorts indices relative to
-             * the actual values in the data.
-             * This allows us to retain the indices
-             * and how they were rearranged.
-             */
-
-            Arrays.sort(index, new Comparator<Double>() {
-                @Override
-                public int compare(Double o1, Double o2) {
-                    int o = (int) o1.doubleValue();
-                    int oo2 = (int) o2.doubleValue();
-                    return Double.compare(data[o], data[oo2]);
-                }
-            });
-
-            if (ascending)
-                for (int j = 0; j < vec.length(); j++) {
-                    vec.putScalar(j, data[(int) index[j].doubleValue()]);
-                    indexVector.putScalar(j, index[j]);
-                }
-            else {
-                int count = data.length - 1;
-                for (int j = 0; j < vec.length(); j++) {
-                    int currCount2 = count;
-                    count--;
-                    vec.putScalar(j, data[(int) index[currCount2].doubleValue()]);
-                    indexVector.putScalar(j, index[currCount2]);
-                }
-            }
-
-        }
+        return Sorting.sortWithIndices(ndarray, dimension, ascending);
+    }
 
-        ret[0] = indices;
-        ret[1] = ndarray;
+    /**
+     * The indices that would sort an ndarray along a particular dimension
+     *
+     * @param ndarray   the ndarray to sort; not modified
+     * @param dimension the dimension to sort
+     * @param ascending whether to sort in ascending order
+     * @return the indices, in the shape of the ndarray
+     */
+    public static INDArray argsort(INDArray ndarray, int dimension, boolean ascending) {
+        return Sorting.argsort(ndarray, dimension, ascending);
+    }
 
-        return ret;
+    /**
+     * The k largest or smallest values along a particular dimension
+     *
+     * @param ndarray   the ndarray to select from; not modified
+     * @param k         the number of values to select
+     * @param dimension the dimension to select along
+     * @param largest   whether to select the largest values rather than the smallest
+     * @return the indices and the values, best first
+     */
+    public static INDArray[] topK(INDArray ndarray, int k, int dimension, boolean largest) {
+        return Sorting.topK(ndarray, k, dimension, largest);
     }
 
     /**
@@ -1138,28 +1149,7 @@ public class Nd4j {
      * @return the sorted ndarray
      */
     public static INDArray sort(INDArray ndarray, int dimension, boolean ascending) {
-        for (int i = 0; i < ndarray.vectorsAlongDimension(dimension); i++) {
-            INDArray vec = ndarray.vectorAlongDimension(i, dimension);
-            double[] data = new double[vec.length()];
-            for (int j = 0; j < vec.length(); j++) {
-                data[j] = vec.getDouble(j);
-            }
-
-            Arrays.sort(data);
-
-            if (ascending)
-                for (int j = 0; j < vec.length(); j++)
-                    vec.putScalar(j, data[j]);
-            else {
-                int count = data.length - 1;
-                for (int j = 0; j < vec.length(); j++) {
-                    vec.putScalar(j, data[count--]);
-                }
-            }
-
-        }
-
-        return ndarray;
+        return Sorting.sort(ndarray, dimension, ascending);
     }
 
     /**
@@ -1551,6 +1541,10 @@ public class Nd4j {
      */
     public static INDArray read(DataInputStream dis) throws IOException {
         int dimensions = dis.readInt();
+        //the binary format starts with a little endian magic number, the legacy format with the rank
+        if(Integer.reverseBytes(dimensions) == BinarySerde.MAGIC)
+            return BinarySerde.readAfterMagic(dis);
+
         int[] shape = new int[dimensions];
         int[] stride = new int[dimensions];
 
@@ -1571,24 +1565,69 @@ public class Nd4j {
 
     }
 
+    /**
+     * Save an ndarray to a file in the binary format
+     * with the payload page aligned, so it can be
+     * opened with {@link #readMapped(File)}
+     *
+     * @param arr  the array to save
+     * @param file the file to save to
+     * @throws IOException
+     */
+    public static void saveBinary(INDArray arr, File file) throws IOException {
+        BinarySerde.write(arr, file);
+    }
+
+    /**
+     * Open an array saved with {@link #saveBinary(INDArray, File)}
+     * read only, without reading it on to the heap
+     *
+     * @param file the file to open
+     * @return an array backed by the memory mapped file
+     * @throws IOException
+     */
+    public static INDArray readMapped(File file) throws IOException {
+        return readMapped(file, FileChannel.MapMode.READ_ONLY);
+    }
+
+    /**
+     * Open an array saved with {@link #saveBinary(INDArray, File)}
+     * without reading it on to the heap
+     *
+     * @param file the file to open
+     * @param mode read only, private (copy on write) or read write
+     * @return an array backed by the memory mapped file
+     * @throws IOException
+     */
+    public static INDArray readMapped(File file, FileChannel.MapMode mode) throws IOException {
+        return BinarySerde.readMapped(file, mode);
+    }
+
     /**
      * Write an ndarray to the specified outputstream
+     * in the checksummed binary format of {@link BinarySerde}.
+     * Views are compacted before writing.
      *
      * @param arr              the array to write
      * @param dataOutputStream the data output stream to write to
      * @throws IOException
      */
     public static void write(INDArray arr, DataOutputStream dataOutputStream) throws IOException {
-        dataOutputStream.writeInt(arr.shape().length);
-        for (int i = 0; i < arr.shape().length; i++)
-            dataOutputStream.writeInt(arr.size(i));
-        for (int i = 0; i < arr.stride().length; i++)
-            dataOutputStream.writeInt(arr.stride(i));
-
-        dataOutputStream.writeUTF(dataType() == DataBuffer.Type.FLOAT ? "float" : "double");
-        dataOutputStream.writeUTF("real");
-        arr.data().write(dataOutputStream);
+        BinarySerde.write(arr, dataOutputStream, true);
+    }
 
+    /**
+     * Write an ndarray to the specified outputstream
+     * compressing its payload with the given codec.
+     * {@link #read(DataInputStream)} detects the codec.
+     *
+     * @param arr              the array to write
+     * @param dataOutputStream the data output stream to write to
+     * @param codec            the codec to compress with, see {@link ArrayCodecs}
+     * @throws IOException
+     */
+    public static void write(INDArray arr, DataOutputStream dataOutputStream, ArrayCodec codec) throws IOException {
+        BinarySerde.write(arr, dataOutputStream, true, codec);
     }
 
     /**
@@ -4241,7 +4280,16 @@ public class Nd4j {
             copyOnOps = Boolean.parseBoolean(props.getProperty(COPY_OPS, "true"));
             shouldInstrument = Boolean.parseBoolean(props.getProperty(INSTRUMENTATION, "false"));
             resourceManagerOn = Boolean.parseBoolean(props.getProperty(RESOURCE_MANGER_ON,"false"));
-            executionMode = props.getProperty(EXECUTION_MODE,"java").equals("java" ) ? OpExecutioner.ExecutionMode.JAVA : OpExecutioner.ExecutionMode.NATIVE;
+            String otherExecutionMode = props.getProperty(EXECUTION_MODE,"java");
+            if(otherExecutionMode.equals("java"))
+                executionMode = OpExecutioner.ExecutionMode.JAVA;
+            else if(otherExecutionMode.equals("strided"))
+                executionMode = OpExecutioner.ExecutionMode.STRIDED;
+            else if(otherExecutionMode.equals("parallel"))
+                executionMode = OpExecutioner.ExecutionMode.PARALLEL;
+            else
+                executionMode = OpExecutioner.ExecutionMode.NATIVE;
+            parallelThreshold = Integer.parseInt(System.getProperty(PARALLEL_THRESHOLD, props.getProperty(PARALLEL_THRESHOLD, String.valueOf(parallelThreshold))));
             ORDER = System.getProperty(ORDER_KEY, props.getProperty(ORDER_KEY, "c").toString()).charAt(0);
             opExecutionerClazz = (Class<? extends OpExecutioner>) Class.forName(props.getProperty(OP_EXECUTIONER, DefaultOpExecutioner.class.getName()));
             fftInstanceClazz = (Class<? extends FFTInstance>) Class.forName(System.getProperty(FFT_OPS, DefaultFFTInstance.class.getName()));
@@ -4267,6 +4315,11 @@ public class Nd4j {
 
             instrumentation = instrumentationClazz.newInstance();
             OP_EXECUTIONER_INSTANCE = opExecutionerClazz.newInstance();
+            boolean recordOps = Boolean.parseBoolean(System.getProperty(OP_METRICS, props.getProperty(OP_METRICS, "false")));
+            OP_METRICS_INSTANCE.setBackend(backend.getClass().getSimpleName());
+            OP_METRICS_INSTANCE.setEnabled(recordOps);
+            if(recordOps)
+                OP_EXECUTIONER_INSTANCE = new InstrumentedOpExecutioner(OP_EXECUTIONER_INSTANCE, OP_METRICS_INSTANCE);
             FFT_INSTANCE = fftInstanceClazz.newInstance();
             Constructor c2 = ndArrayFactoryClazz.getConstructor(DataBuffer.Type.class, char.class);
             INSTANCE = (NDArrayFactory) c2.newInstance(dtype, ORDER);
@@ -45,9 +45,9 @@ public class DefaultFFTInstance extends BaseFFTInstance {
      */
     @Override
     public IComplexNDArray fft(INDArray transform, int numElements, int dimension) {
-        IComplexNDArray inputC = Nd4j.createComplex(transform);
-        if (inputC.isVector())
-            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(getFftOp(inputC, numElements));
+        //real vectors go through the half length real transform
+        if (transform.isVector())
+            return (IComplexNDArray) Nd4j.getExecutioner().execAndReturn(getFftOp(transform, numElements));
         else {
             int[] finalShape = ArrayUtil.replace(transform.shape(), dimension, numElements);
             IComplexNDArray transform2 = Nd4j.createComplex(transform);
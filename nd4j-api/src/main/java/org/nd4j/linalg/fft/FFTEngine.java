@@ -0,0 +1,411 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.fft;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * O(n log n) fourier transforms over interleaved
+ * (real, imaginary) double arrays.
+ *
+ * Powers of 2 use an in place radix-2 Cooley-Tukey transform,
+ * lengths made of small primes a mixed radix (Stockham) transform
+ * and anything else Bluestein's algorithm on top of a power of 2 transform.
+ * Real input of even length is packed in to a half length complex transform.
+ *
+ * Twiddle factors are computed once per length and cached.
+ *
+ * @author Adam Gibson
+ */
+public class FFTEngine {
+
+    /**
+     * The largest prime factor handled by the mixed radix
+     * transform; lengths with larger prime factors use Bluestein
+     */
+    public final static int MAX_RADIX = 64;
+
+    //length -> exp(-2 pi i k / length) for k in [0,length)
+    private final static Map<Integer, double[]> twiddles = new ConcurrentHashMap<>();
+    //length -> {chirp, fft of the convolution kernel}
+    private final static Map<Integer, double[][]> chirps = new ConcurrentHashMap<>();
+
+    private FFTEngine() {
+    }
+
+    /**
+     * Forward transform of n interleaved complex numbers in place
+     * @param data the interleaved complex numbers (at least 2 * n doubles)
+     * @param n the number of complex numbers
+     */
+    public static void fft(double[] data, int n) {
+        if(data.length < 2 * n)
+            throw new IllegalArgumentException("Data must hold " + n + " complex numbers");
+        if(n <= 1)
+            return;
+        if(Integer.bitCount(n) == 1) {
+            radix2(data, n, twiddles(n));
+            return;
+        }
+
+        int[] factors = factor(n);
+        if(factors[factors.length - 1] <= MAX_RADIX)
+            mixedRadix(data, n, factors, twiddles(n));
+        else
+            bluestein(data, n);
+    }
+
+    /**
+     * Inverse transform of n interleaved complex numbers
+     * in place, scaled by 1 / n
+     * @param data the interleaved complex numbers (at least 2 * n doubles)
+     * @param n the number of complex numbers
+     */
+    public static void ifft(double[] data, int n) {
+        //ifft(x) = conj(fft(conj(x))) / n
+        conj(data, n);
+        fft(data, n);
+        double scale = 1.0 / n;
+        for(int i = 0; i < 2 * n; i += 2) {
+            data[i] *= scale;
+            data[i + 1] *= -scale;
+        }
+    }
+
+    /**
+     * Forward transform of n real numbers
+     * @param real the real numbers
+     * @param n the number of numbers
+     * @return the full spectrum as n interleaved complex numbers
+     */
+    public static double[] realFFT(double[] real, int n) {
+        double[] ret = new double[2 * n];
+        if(n % 2 != 0 || n < 4) {
+            for(int i = 0; i < n; i++)
+                ret[2 * i] = real[i];
+            fft(ret, n);
+            return ret;
+        }
+
+        //the even elements become the real parts and the odd elements the imaginary parts of a half length signal
+        int half = n / 2;
+        System.arraycopy(real, 0, ret, 0, n);
+        fft(ret, half);
+        double[] z = new double[n];
+        System.arraycopy(ret, 0, z, 0, n);
+        double[] w = twiddles(n);
+        for(int k = 0; k <= half; k++) {
+            int i = 2 * (k % half);
+            int j = 2 * ((half - k) % half);
+            //even = (z[k] + conj(z[half - k])) / 2, odd = (z[k] - conj(z[half - k])) / 2i
+            double evenRe = 0.5 * (z[i] + z[j]);
+            double evenIm = 0.5 * (z[i + 1] - z[j + 1]);
+            double oddRe = 0.5 * (z[i + 1] + z[j + 1]);
+            double oddIm = -0.5 * (z[i] - z[j]);
+            double wr = w[2 * k], wi = w[2 * k + 1];
+            double re = evenRe + wr * oddRe - wi * oddIm;
+            double im = evenIm + wr * oddIm + wi * oddRe;
+            ret[2 * k] = re;
+            ret[2 * k + 1] = im;
+            if(k > 0 && k < half) {
+                ret[2 * (n - k)] = re;
+                ret[2 * (n - k) + 1] = -im;
+            }
+        }
+        return ret;
+    }
+
+    /**
+     * Forward transform of a vector,
+     * zero padded or truncated to n elements
+     * @param vector the vector to transform
+     * @param n the length of the transform
+     * @return the transformed row vector
+     */
+    public static IComplexNDArray fft(INDArray vector, int n) {
+        double[] data;
+        if(vector instanceof IComplexNDArray) {
+            data = interleaved((IComplexNDArray) vector, n);
+            fft(data, n);
+        }
+        else
+            data = realFFT(real(vector, n), n);
+        return Nd4j.createComplex(data, new int[]{1, n});
+    }
+
+    /**
+     * Inverse transform of a vector,
+     * zero padded or truncated to n elements
+     * @param vector the vector to transform
+     * @param n the length of the transform
+     * @return the transformed row vector
+     */
+    public static IComplexNDArray ifft(INDArray vector, int n) {
+        double[] data;
+        if(vector instanceof IComplexNDArray)
+            data = interleaved((IComplexNDArray) vector, n);
+        else {
+            double[] real = real(vector, n);
+            data = new double[2 * n];
+            for(int i = 0; i < n; i++)
+                data[2 * i] = real[i];
+        }
+        ifft(data, n);
+        return Nd4j.createComplex(data, new int[]{1, n});
+    }
+
+    /**
+     * Drop all cached twiddle factors
+     */
+    public static void clearCache() {
+        twiddles.clear();
+        chirps.clear();
+    }
+
+    //the first n elements of a complex vector, zero padded
+    private static double[] interleaved(IComplexNDArray vector, int n) {
+        double[] ret = new double[2 * n];
+        DataBuffer data = vector.data();
+        int offset = vector.offset();
+        int stride = vectorStride(vector);
+        int length = Math.min(n, vector.length());
+        for(int i = 0; i < length; i++) {
+            int idx = offset + i * stride;
+            ret[2 * i] = data.getDouble(idx);
+            ret[2 * i + 1] = data.getDouble(idx + 1);
+        }
+        return ret;
+    }
+
+    //the first n elements of a real vector, zero padded
+    private static double[] real(INDArray vector, int n) {
+        double[] ret = new double[n];
+        DataBuffer data = vector.data();
+        int offset = vector.offset();
+        int stride = vectorStride(vector);
+        int length = Math.min(n, vector.length());
+        for(int i = 0; i < length; i++)
+            ret[i] = data.getDouble(offset + i * stride);
+        return ret;
+    }
+
+    //the buffer stride between consecutive elements of a vector
+    private static int vectorStride(INDArray vector) {
+        if(!vector.isVector() && !vector.isScalar())
+            throw new IllegalArgumentException("Only vectors can be transformed");
+        int[] shape = vector.shape();
+        for(int i = 0; i < shape.length; i++)
+            if(shape[i] != 1)
+                return vector.stride(i);
+        return 0;
+    }
+
+    private static void conj(double[] data, int n) {
+        for(int i = 1; i < 2 * n; i += 2)
+            data[i] = -data[i];
+    }
+
+    static double[] twiddles(int n) {
+        double[] ret = twiddles.get(n);
+        if(ret == null) {
+            ret = new double[2 * n];
+            for(int k = 0; k < n; k++) {
+                double angle = 2 * Math.PI * k / n;
+                ret[2 * k] = Math.cos(angle);
+                ret[2 * k + 1] = -Math.sin(angle);
+            }
+            twiddles.put(n, ret);
+        }
+        return ret;
+    }
+
+    //prime factors in ascending order
+    static int[] factor(int n) {
+        List<Integer> factors = new ArrayList<>();
+        for(int p = 2; (long) p * p <= n; p++)
+            while(n % p == 0) {
+                factors.add(p);
+                n /= p;
+            }
+        if(n > 1)
+            factors.add(n);
+        int[] ret = new int[factors.size()];
+        for(int i = 0; i < ret.length; i++)
+            ret[i] = factors.get(i);
+        return ret;
+    }
+
+    //iterative decimation in time: bit reversal followed by log2(n) butterfly passes
+    private static void radix2(double[] a, int n, double[] w) {
+        for(int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for(; (j & bit) != 0; bit >>= 1)
+                j ^= bit;
+            j ^= bit;
+            if(i < j) {
+                double re = a[2 * i], im = a[2 * i + 1];
+                a[2 * i] = a[2 * j];
+                a[2 * i + 1] = a[2 * j + 1];
+                a[2 * j] = re;
+                a[2 * j + 1] = im;
+            }
+        }
+
+        for(int len = 2; len <= n; len <<= 1) {
+            int half = len >> 1;
+            int step = n / len;
+            for(int i = 0; i < n; i += len) {
+                for(int k = 0; k < half; k++) {
+                    int t = 2 * k * step;
+                    double wr = w[t], wi = w[t + 1];
+                    int u = 2 * (i + k), v = 2 * (i + k + half);
+                    double xr = a[v] * wr - a[v + 1] * wi;
+                    double xi = a[v] * wi + a[v + 1] * wr;
+                    a[v] = a[u] - xr;
+                    a[v + 1] = a[u + 1] - xi;
+                    a[u] += xr;
+                    a[u + 1] += xi;
+                }
+            }
+        }
+    }
+
+    //self sorting (Stockham) transform: one pass per factor, ping ponging with a scratch buffer
+    private static void mixedRadix(double[] a, int n, int[] factors, double[] w) {
+        int maxRadix = factors[factors.length - 1];
+        double[] v = new double[2 * maxRadix];
+        double[] src = a;
+        double[] dst = new double[2 * n];
+        int span = 1;
+        for(int f = 0; f < factors.length; f++) {
+            int radix = factors[f];
+            int groups = n / radix;
+            int twiddleStep = n / (span * radix);
+            int radixStep = n / radix;
+            for(int j = 0; j < groups; j++) {
+                int k = j % span;
+                //gather and twiddle
+                for(int q = 0; q < radix; q++) {
+                    int s = 2 * (j + q * groups);
+                    int t = 2 * (k * q * twiddleStep);
+                    double re = src[s], im = src[s + 1];
+                    v[2 * q] = re * w[t] - im * w[t + 1];
+                    v[2 * q + 1] = re * w[t + 1] + im * w[t];
+                }
+
+                int d = (j - k) * radix + k;
+                if(radix == 2) {
+                    dst[2 * d] = v[0] + v[2];
+                    dst[2 * d + 1] = v[1] + v[3];
+                    dst[2 * (d + span)] = v[0] - v[2];
+                    dst[2 * (d + span) + 1] = v[1] - v[3];
+                    continue;
+                }
+
+                //small dft of size radix
+                for(int p = 0; p < radix; p++) {
+                    double re = 0, im = 0;
+                    for(int q = 0; q < radix; q++) {
+                        int t = 2 * ((p * q % radix) * radixStep);
+                        re += v[2 * q] * w[t] - v[2 * q + 1] * w[t + 1];
+                        im += v[2 * q] * w[t + 1] + v[2 * q + 1] * w[t];
+                    }
+                    dst[2 * (d + p * span)] = re;
+                    dst[2 * (d + p * span) + 1] = im;
+                }
+            }
+            span *= radix;
+            double[] tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+
+        if(src != a)
+            System.arraycopy(src, 0, a, 0, 2 * n);
+    }
+
+    //arbitrary lengths as a convolution with a chirp, computed with power of 2 transforms
+    private static void bluestein(double[] a, int n) {
+        int m = Integer.highestOneBit(2 * n - 1);
+        if(m < 2 * n - 1)
+            m <<= 1;
+        double[][] chirp = chirp(n, m);
+        double[] c = chirp[0];
+        double[] kernel = chirp[1];
+        double[] w = twiddles(m);
+
+        double[] x = new double[2 * m];
+        for(int k = 0; k < 2 * n; k += 2) {
+            x[k] = a[k] * c[k] - a[k + 1] * c[k + 1];
+            x[k + 1] = a[k] * c[k + 1] + a[k + 1] * c[k];
+        }
+        radix2(x, m, w);
+        for(int k = 0; k < 2 * m; k += 2) {
+            double re = x[k] * kernel[k] - x[k + 1] * kernel[k + 1];
+            double im = x[k] * kernel[k + 1] + x[k + 1] * kernel[k];
+            x[k] = re;
+            x[k + 1] = -im;
+        }
+        //inverse via conjugation, the conjugate was taken above
+        radix2(x, m, w);
+        double scale = 1.0 / m;
+        for(int k = 0; k < 2 * n; k += 2) {
+            double re = x[k] * scale;
+            double im = -x[k + 1] * scale;
+            a[k] = re * c[k] - im * c[k + 1];
+            a[k + 1] = re * c[k + 1] + im * c[k];
+        }
+    }
+
+    private static double[][] chirp(int n, int m) {
+        double[][] ret = chirps.get(n);
+        if(ret == null) {
+            //c[k] = exp(-pi i k^2 / n), k^2 is reduced mod 2n to keep the angle accurate
+            double[] c = new double[2 * n];
+            for(int k = 0; k < n; k++) {
+                double angle = Math.PI * ((long) k * k % (2L * n)) / n;
+                c[2 * k] = Math.cos(angle);
+                c[2 * k + 1] = -Math.sin(angle);
+            }
+
+            double[] kernel = new double[2 * m];
+            for(int k = 0; k < n; k++) {
+                kernel[2 * k] = c[2 * k];
+                kernel[2 * k + 1] = -c[2 * k + 1];
+                if(k > 0) {
+                    kernel[2 * (m - k)] = c[2 * k];
+                    kernel[2 * (m - k) + 1] = -c[2 * k + 1];
+                }
+            }
+            radix2(kernel, m, twiddles(m));
+            ret = new double[][]{c, kernel};
+            chirps.put(n, ret);
+        }
+        return ret;
+    }
+}
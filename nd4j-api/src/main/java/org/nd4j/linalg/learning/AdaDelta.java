@@ -1,8 +1,10 @@
 package org.nd4j.linalg.learning;
 
+import org.nd4j.linalg.api.buffer.allocation.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.FusedKernel;
+import org.nd4j.linalg.api.ops.executioner.FusedKernelExecutor;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.ops.transforms.Transforms;
 
 import java.io.Serializable;
 
@@ -53,7 +55,8 @@ public class AdaDelta implements Serializable,GradientUpdater {
 
     /**
      * Get the updated gradient for the given gradient
-     * and also update the state of ada delta.
+     * and also update the state of ada delta
+     * in one pass: the update is written in to the gradient.
      * @param gradient the gradient to get the
      *                 updated gradient for
      * @param iteration
@@ -62,18 +65,28 @@ public class AdaDelta implements Serializable,GradientUpdater {
     @Override
     public INDArray getGradient(INDArray gradient, int iteration) {
         if(msg == null)
-            msg = Nd4j.zeros(gradient.shape());
+            msg = MemoryWorkspace.detach(Nd4j.zeros(gradient.shape()));
 
         if(msdx == null)
-            msdx = Nd4j.zeros(gradient.shape());
-
-        msg.muli(rho);
-        msg.addi(1 - rho).muli(gradient.mul(gradient));
-        INDArray ret = Transforms.sqrt(msdx.add(Nd4j.EPS_THRESHOLD).divi(msg.addi(Nd4j.EPS_THRESHOLD))).muli(gradient);
-        msdx.muli(rho);
-        msdx.addi(1 - rho).muli(ret).muli(ret);
-
-        return ret;
+            msdx = MemoryWorkspace.detach(Nd4j.zeros(gradient.shape()));
+
+        final double rho = this.rho;
+        final double eps = Nd4j.EPS_THRESHOLD;
+        FusedKernelExecutor.exec(new FusedKernel() {
+            @Override
+            public void apply(double[][] operands, int n) {
+                double[] g = operands[0], msg = operands[1], msdx = operands[2];
+                for(int i = 0; i < n; i++) {
+                    double grad = g[i];
+                    msg[i] = rho * msg[i] + (1 - rho) * grad * grad;
+                    double update = Math.sqrt((msdx[i] + eps) / (msg[i] + eps)) * grad;
+                    msdx[i] = rho * msdx[i] + (1 - rho) * update * update;
+                    g[i] = update;
+                }
+            }
+        }, gradient, msg, msdx);
+
+        return gradient;
     }
 
 
@@ -20,11 +20,15 @@
 package org.nd4j.linalg.learning;
 
 
+import org.nd4j.linalg.api.buffer.allocation.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.FusedKernel;
+import org.nd4j.linalg.api.ops.executioner.FusedKernelExecutor;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.util.Shape;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import static org.nd4j.linalg.ops.transforms.Transforms.pow;
 import static org.nd4j.linalg.ops.transforms.Transforms.sqrt;
@@ -113,7 +117,7 @@ public class AdaGrad implements Serializable,GradientUpdater {
     public double getGradient(double gradient, int column, int[] shape) {
         boolean historicalInitialized = false;
         if (this.historicalGradient == null) {
-            this.historicalGradient = Nd4j.ones(shape);
+            this.historicalGradient = MemoryWorkspace.detach(Nd4j.ones(shape));
             historicalInitialized = true;
         }
 
@@ -135,7 +139,7 @@ public class AdaGrad implements Serializable,GradientUpdater {
      */
     public AdaGrad createSubset(int index) {
         if (historicalGradient == null)
-            this.historicalGradient = Nd4j.ones(shape);
+            this.historicalGradient = MemoryWorkspace.detach(Nd4j.ones(shape));
 
         if (Shape.isMatrix(shape)) {
             AdaGrad a = new AdaGrad(1, historicalGradient.columns());
@@ -171,7 +175,7 @@ public class AdaGrad implements Serializable,GradientUpdater {
     public INDArray getGradient(INDArray gradient, int slice, int[] shape) {
         boolean historicalInitialized = false;
         if (this.historicalGradient == null) {
-            this.historicalGradient = Nd4j.ones(shape);
+            this.historicalGradient = MemoryWorkspace.detach(Nd4j.ones(shape));
             historicalInitialized = true;
         } else if (!this.historicalGradient.isVector() && this.historicalGradient.slice(slice).length() != gradient.length())
             throw new IllegalArgumentException("Illegal gradient");
@@ -197,7 +201,9 @@ public class AdaGrad implements Serializable,GradientUpdater {
      * Gets feature specific learning rates
      * Adagrad keeps a history of gradients being passed in.
      * Note that each gradient passed in becomes adapted over time, hence
-     * the name adagrad
+     * the name adagrad.
+     * The history and the adapted gradient are updated in one pass,
+     * in place.
      *
      * @param gradient the gradient to get learning rates for
      * @param iteration
@@ -205,22 +211,28 @@ public class AdaGrad implements Serializable,GradientUpdater {
      */
     @Override
     public INDArray getGradient(INDArray gradient, int iteration) {
-        boolean historicalInitialized = false;
-        if (this.historicalGradient == null) {
-            this.historicalGradient = Nd4j.ones(gradient.rows(), gradient.columns());
-            historicalInitialized = true;
-        } else if (this.historicalGradient.length() != gradient.length())
+        if (this.historicalGradient == null)
+            this.historicalGradient = MemoryWorkspace.detach(Nd4j.ones(gradient.shape()));
+        else if (this.historicalGradient.length() != gradient.length())
             throw new IllegalArgumentException("Illegal gradient");
-
-
-        INDArray sqrtHistory = !historicalInitialized ? sqrt(historicalGradient) : historicalGradient;
-        INDArray learningRates = sqrtHistory.add(Nd4j.EPS_THRESHOLD).rdivi(masterStepSize);
-        gradient.muli(learningRates);
-
-        this.historicalGradient.addi(pow(gradient, 2));
+        else if (!Arrays.equals(historicalGradient.shape(), gradient.shape()))
+            this.historicalGradient = historicalGradient.reshape(gradient.shape());
+
+        final double stepSize = masterStepSize;
+        final double eps = Nd4j.EPS_THRESHOLD;
+        FusedKernelExecutor.exec(new FusedKernel() {
+            @Override
+            public void apply(double[][] operands, int n) {
+                double[] g = operands[0], history = operands[1];
+                for(int i = 0; i < n; i++) {
+                    double grad = g[i];
+                    history[i] += grad * grad;
+                    g[i] = stepSize * grad / (Math.sqrt(history[i]) + eps);
+                }
+            }
+        }, gradient, historicalGradient);
         numIterations++;
 
-        //ensure no zeros
         return gradient;
     }
 
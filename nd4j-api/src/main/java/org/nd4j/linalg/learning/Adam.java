@@ -1,9 +1,11 @@
 package org.nd4j.linalg.learning;
 
 import org.apache.commons.math3.util.FastMath;
+import org.nd4j.linalg.api.buffer.allocation.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.FusedKernel;
+import org.nd4j.linalg.api.ops.executioner.FusedKernelExecutor;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.ops.transforms.Transforms;
 
 import java.io.Serializable;
 
@@ -47,32 +49,41 @@ public class Adam implements Serializable,GradientUpdater {
 
     /**
      * Calculate the update based
-     * on the given gradient
+     * on the given gradient.
+     * The moments and the update are computed in one pass:
+     * the update is written in to the gradient
      * @param gradient the gradient to get the update for
-     * @param iteration
+     * @param iteration the iteration, counted from 0
      * @return the gradient
      */
     @Override
     public INDArray getGradient(INDArray gradient, int iteration) {
-        if(m == null) {
-            m = Nd4j.zeros(gradient.shape());
-        }
-
-
+        if(m == null)
+            m = MemoryWorkspace.detach(Nd4j.zeros(gradient.shape()));
+        if (v == null)
+            v = MemoryWorkspace.detach(Nd4j.zeros(gradient.shape()));
 
-        this.t = iteration;
+        this.t = iteration + 1;
         beta1T = beta1T();
-
-
-        m.addi(1 - beta1T).muli(gradient.sub(m));
-        if (v == null)
-            v = Nd4j.zeros(gradient.shape());
-        v.addi(1 - beta2).muli(gradient.mul(gradient).subi(v));
         lr = lr();
-        INDArray mTimesLr = m.mul(lr);
-        INDArray sqrtV = Transforms.sqrt(v).add(Nd4j.EPS_THRESHOLD);
-        Nd4j.clearNans(sqrtV);
-        return mTimesLr.divi(sqrtV);
+
+        final double b1 = beta1T;
+        final double b2 = beta2;
+        final double alphaT = lr;
+        final double eps = Nd4j.EPS_THRESHOLD;
+        FusedKernelExecutor.exec(new FusedKernel() {
+            @Override
+            public void apply(double[][] operands, int n) {
+                double[] g = operands[0], m = operands[1], v = operands[2];
+                for(int i = 0; i < n; i++) {
+                    double grad = g[i];
+                    m[i] = b1 * m[i] + (1 - b1) * grad;
+                    v[i] = b2 * v[i] + (1 - b2) * grad * grad;
+                    g[i] = alphaT * m[i] / (Math.sqrt(v[i]) + eps);
+                }
+            }
+        }, gradient, m, v);
+        return gradient;
     }
 
     public double getAlpha() {
@@ -1,6 +1,9 @@
 package org.nd4j.linalg.learning;
 
+import org.nd4j.linalg.api.buffer.allocation.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.FusedKernel;
+import org.nd4j.linalg.api.ops.executioner.FusedKernelExecutor;
 import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.Serializable;
@@ -48,20 +51,31 @@ public class Nesterovs implements Serializable,GradientUpdater {
     }
 
     /**
-     * Get the nesterov update
+     * Get the nesterov update.
+     * The update is written in to the gradient
      * @param gradient the
      *                 gradient to get the update for
      *
      * @param iteration
-     * @return
+     * @return the gradient
      */
     @Override
     public INDArray getGradient(INDArray gradient, int iteration) {
         if(lastGradient == null)
-            lastGradient = Nd4j.zeros(gradient.shape());
-        INDArray ret  = lastGradient.mul(momentum).subi(gradient.mul(lr));
-        lastGradient = ret;
-        return ret;
+            lastGradient = MemoryWorkspace.detach(Nd4j.zeros(gradient.shape()));
+        final double momentum = this.momentum;
+        final double lr = this.lr;
+        FusedKernelExecutor.exec(new FusedKernel() {
+            @Override
+            public void apply(double[][] operands, int n) {
+                double[] g = operands[0], last = operands[1];
+                for(int i = 0; i < n; i++) {
+                    last[i] = momentum * last[i] - lr * g[i];
+                    g[i] = last[i];
+                }
+            }
+        }, gradient, lastGradient);
+        return gradient;
     }
 
 
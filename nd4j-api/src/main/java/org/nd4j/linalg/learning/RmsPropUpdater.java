@@ -1,8 +1,10 @@
 package org.nd4j.linalg.learning;
 
+import org.nd4j.linalg.api.buffer.allocation.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.FusedKernel;
+import org.nd4j.linalg.api.ops.executioner.FusedKernelExecutor;
 import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.linalg.ops.transforms.Transforms;
 
 /**
  *
@@ -18,12 +20,31 @@ public class RmsPropUpdater implements GradientUpdater {
     private double lr = 1e-1;
 
 
+    /**
+     * Update the running average of the squared gradient
+     * and write the update in to the gradient in one pass
+     * @param gradient the gradient to get the update for
+     * @param iteration
+     * @return the gradient
+     */
     @Override
     public INDArray getGradient(INDArray gradient, int iteration) {
         if(lastGradient == null)
-            lastGradient = Nd4j.zeros(gradient.shape());
-        lastGradient.assign(lastGradient.mul(rmsDecay).addi(Transforms.pow(gradient, 2).muli((1 - rmsDecay))));
-        INDArray ret = gradient.mul(lr).negi().divi(Transforms.sqrt(lastGradient.add(Nd4j.EPS_THRESHOLD)));
-        return ret;
+            lastGradient = MemoryWorkspace.detach(Nd4j.zeros(gradient.shape()));
+        final double rmsDecay = this.rmsDecay;
+        final double lr = this.lr;
+        final double eps = Nd4j.EPS_THRESHOLD;
+        FusedKernelExecutor.exec(new FusedKernel() {
+            @Override
+            public void apply(double[][] operands, int n) {
+                double[] g = operands[0], cache = operands[1];
+                for(int i = 0; i < n; i++) {
+                    double grad = g[i];
+                    cache[i] = rmsDecay * cache[i] + (1 - rmsDecay) * grad * grad;
+                    g[i] = -lr * grad / Math.sqrt(cache[i] + eps);
+                }
+            }
+        }, gradient, lastGradient);
+        return gradient;
     }
 }
@@ -22,6 +22,6 @@ public class SgdUpdater implements GradientUpdater {
 
     @Override
     public INDArray getGradient(INDArray gradient, int iteration) {
-        return gradient.mul(lr);
+        return gradient.muli(lr);
     }
 }
@@ -0,0 +1,166 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.lossfunctions;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.FusedKernelExecutor;
+import org.nd4j.linalg.api.ops.executioner.FusedReduction;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.util.Arrays;
+
+/**
+ * Scores loss functions in a single pass over the labels and output,
+ * accumulating the loss in a primitive rather than building
+ * intermediate arrays, and optionally writing the gradient
+ * of the loss with respect to the output in the same pass.
+ *
+ * Arguments of logs and divisors are clamped to at least
+ * {@link Nd4j#EPS_THRESHOLD} per element, so an output of 0
+ * gives a large but finite loss without touching any global state.
+ *
+ * @author Adam Gibson
+ */
+public class FusedLoss {
+
+    private FusedLoss() {
+    }
+
+    /**
+     * The scaled sum over all elements of the per element loss
+     *
+     * @param lossFunction the loss function to use
+     * @param labels the labels to score
+     * @param z the output to score
+     * @param scale what to multiply the loss (and gradient) by
+     * @param gradient if not null, receives the gradient of the result with respect to z
+     * @return scale times the summed loss
+     */
+    public static double score(LossFunctions.LossFunction lossFunction, INDArray labels, INDArray z, double scale, INDArray gradient) {
+        if (!Arrays.equals(labels.shape(), z.shape()))
+            throw new IllegalArgumentException("Output and labels must be same length");
+        if (lossFunction == LossFunctions.LossFunction.CUSTOM)
+            throw new IllegalStateException("Unable to score custom operation. Please define an alternative mechanism");
+        Kernel kernel = new Kernel(lossFunction, scale, false, gradient != null);
+        INDArray[] inputs = {labels, z};
+        return gradient == null ? FusedKernelExecutor.sum(kernel, inputs) : FusedKernelExecutor.sum(kernel, inputs, gradient);
+    }
+
+    /**
+     * The scaled sum of a loss that only depends on
+     * the difference between the labels and the output
+     * (MSE, SQUARED_LOSS or RMSE_XENT)
+     *
+     * @param lossFunction the loss function to use
+     * @param delta the labels minus the output
+     * @param scale what to multiply the loss (and gradient) by
+     * @param gradient if not null, receives the gradient of the result with respect to the output
+     * @return scale times the summed loss
+     */
+    public static double scoreDelta(LossFunctions.LossFunction lossFunction, INDArray delta, double scale, INDArray gradient) {
+        if (lossFunction != LossFunctions.LossFunction.MSE && lossFunction != LossFunctions.LossFunction.SQUARED_LOSS
+                && lossFunction != LossFunctions.LossFunction.RMSE_XENT)
+            throw new IllegalArgumentException("Unable to score " + lossFunction + " from the difference of labels and output");
+        Kernel kernel = new Kernel(lossFunction, scale, true, gradient != null);
+        INDArray[] inputs = {delta};
+        return gradient == null ? FusedKernelExecutor.sum(kernel, inputs) : FusedKernelExecutor.sum(kernel, inputs, gradient);
+    }
+
+    private static double log(double x) {
+        return Math.log(Math.max(x, Nd4j.EPS_THRESHOLD));
+    }
+
+    private static double clamp(double x) {
+        return Math.max(x, Nd4j.EPS_THRESHOLD);
+    }
+
+    private static class Kernel implements FusedReduction {
+        private LossFunctions.LossFunction lossFunction;
+        private double scale;
+        private boolean delta, gradient;
+
+        Kernel(LossFunctions.LossFunction lossFunction, double scale, boolean delta, boolean gradient) {
+            this.lossFunction = lossFunction;
+            this.scale = scale;
+            this.delta = delta;
+            this.gradient = gradient;
+        }
+
+        @Override
+        public double apply(double[][] operands, int n) {
+            double[] labels = operands[0];
+            double[] z = delta ? null : operands[1];
+            double[] grad = gradient ? operands[operands.length - 1] : null;
+            double sum = 0;
+            switch (lossFunction) {
+                case MSE:
+                case SQUARED_LOSS:
+                case RMSE_XENT:
+                    for (int i = 0; i < n; i++) {
+                        double d = delta ? labels[i] : labels[i] - z[i];
+                        double dz;
+                        if (lossFunction == LossFunctions.LossFunction.MSE) {
+                            sum += 0.5 * d * d;
+                            dz = -d;
+                        }
+                        else if (lossFunction == LossFunctions.LossFunction.SQUARED_LOSS) {
+                            sum += d * d;
+                            dz = -2 * d;
+                        }
+                        else {
+                            sum += Math.abs(d);
+                            dz = -Math.signum(d);
+                        }
+                        if (grad != null)
+                            grad[i] = scale * dz;
+                    }
+                    break;
+                case EXPLL:
+                    for (int i = 0; i < n; i++) {
+                        sum += z[i] - labels[i] * log(z[i]);
+                        if (grad != null)
+                            grad[i] = scale * (1 - labels[i] / clamp(z[i]));
+                    }
+                    break;
+                case MCXENT:
+                    for (int i = 0; i < n; i++) {
+                        sum -= labels[i] * log(z[i]);
+                        if (grad != null)
+                            grad[i] = -scale * labels[i] / clamp(z[i]);
+                    }
+                    break;
+                case XENT:
+                case RECONSTRUCTION_CROSSENTROPY:
+                case NEGATIVELOGLIKELIHOOD:
+                    //binary cross entropy: -(labels * log(z) + (1 - labels) * log(1 - z))
+                    for (int i = 0; i < n; i++) {
+                        double l = labels[i];
+                        sum -= l * log(z[i]) + (1 - l) * log(1 - z[i]);
+                        if (grad != null)
+                            grad[i] = scale * ((1 - l) / clamp(1 - z[i]) - l / clamp(z[i]));
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unable to score " + lossFunction);
+            }
+            return scale * sum;
+        }
+    }
+}
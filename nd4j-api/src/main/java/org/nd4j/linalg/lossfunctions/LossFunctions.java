@@ -20,15 +20,12 @@
 package org.nd4j.linalg.lossfunctions;
 
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.factory.Nd4j;
 
 import java.util.Arrays;
 
-import static org.nd4j.linalg.ops.transforms.Transforms.*;
-
-
 /**
- * Central class for loss functions
+ * Central class for loss functions.
+ * Scores are computed in a single pass by {@link FusedLoss}
  * @author Adam Gibson
  */
 public class LossFunctions {
@@ -72,63 +69,22 @@ public class LossFunctions {
      * @return the score for the given parameters
      */
     public static double score(INDArray labels, LossFunction lossFunction, INDArray z, double l2, boolean useRegularization) {
-        double ret = 0.0;
-        double reg = 0.5 * l2;
         if (!Arrays.equals(labels.shape(), z.shape()))
             throw new IllegalArgumentException("Output and labels must be same length");
-        boolean oldEnforce = Nd4j.ENFORCE_NUMERICAL_STABILITY;
-        Nd4j.ENFORCE_NUMERICAL_STABILITY = true;
+        double ret;
         switch (lossFunction) {
-            case CUSTOM: throw new IllegalStateException("Unable to score custom operation. Please define an alternative mechanism");
             case RECONSTRUCTION_CROSSENTROPY:
-                INDArray xEntLogZ2 = log(z);
-                INDArray xEntOneMinusLabelsOut2 = labels.rsub(1);
-                INDArray xEntOneMinusLogOneMinusZ2 = log(z).rsubi(1);
-                ret = labels.mul(xEntLogZ2).add(xEntOneMinusLabelsOut2).muli(xEntOneMinusLogOneMinusZ2).sum(1).meanNumber().doubleValue();
-                break;
-            case MCXENT:
-                INDArray sums = log(z);
-                INDArray columnSums = labels.mul(log(sums));
-                ret = -columnSums.sumNumber().doubleValue();
-                break;
-            case XENT:
-                INDArray xEntLogZ = log(z);
-                INDArray xEntOneMinusLabelsOut = labels.rsub(1);
-                INDArray xEntOneMinusLogOneMinusZ = log(z).rsubi(1);
-                ret = labels.mul(xEntLogZ).add(xEntOneMinusLabelsOut).muli(xEntOneMinusLogOneMinusZ).sum(1).sumNumber().doubleValue();
-                break;
-            case RMSE_XENT:
-                INDArray rmseXentDiff = labels.sub(z);
-                INDArray squaredrmseXentDiff = pow(rmseXentDiff, 2.0);
-                INDArray sqrt = sqrt(squaredrmseXentDiff);
-                ret = sqrt.sum(1).sumNumber().doubleValue();
-                break;
-            case MSE:
-                INDArray mseDelta = labels.sub(z);
-                ret = 0.5 * pow(mseDelta, 2).sum(1).sumNumber().doubleValue();
+                //mean over the examples of the cross entropy
+                ret = FusedLoss.score(lossFunction, labels, z, 1.0 / labels.rows(), null);
                 break;
-            case EXPLL:
-                INDArray expLLLogZ = log(z);
-                ret = z.sub(labels.mul(expLLLogZ)).sum(1).sumNumber().doubleValue();
-                break;
-            case SQUARED_LOSS:
-                ret = pow(labels.sub(z), 2).sum(1).sumNumber().doubleValue();
-                break;
-            case NEGATIVELOGLIKELIHOOD:
-                ret = -Nd4j.sum(
-                        labels.mul(log(z.addi(Nd4j.EPS_THRESHOLD)))
-                                .addi(labels.rsub(1).muli(log(z.rsub(1).addi(Nd4j.EPS_THRESHOLD))))
-                        , 1).getDouble(0);
-
-
-
+            default:
+                ret = FusedLoss.score(lossFunction, labels, z, 1.0, null);
         }
 
         if (useRegularization)
-            ret += reg;
+            ret += 0.5 * l2;
 
         ret /= (double) labels.rows();
-        Nd4j.ENFORCE_NUMERICAL_STABILITY = oldEnforce;
         return ret;
 
     }
@@ -30,6 +30,7 @@ import org.nd4j.linalg.api.ops.impl.transforms.comparison.Eps;
 import org.nd4j.linalg.api.ops.impl.transforms.comparison.GreaterThanOrEqual;
 import org.nd4j.linalg.api.ops.impl.transforms.comparison.LessThanOrEqual;
 import org.nd4j.linalg.convolution.Convolution;
+import org.nd4j.linalg.convolution.Pooling;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.util.ArrayUtil;
@@ -48,45 +49,19 @@ public class Transforms {
 
 
     /**
-     * Max pooling
+     * Max pooling over non overlapping ds[0] x ds[1] windows
+     * of the last two dimensions
      *
-     * @param input
+     * @param input the images (n, c, h, w)
      * @param ds    the strides with which to max pool expectations
-     * @return
+     * @return the pooled images
      * @parma ignoreBorder whether to ignore the borders of images
      */
     public static INDArray maxPool(INDArray input, int[] ds, boolean ignoreBorder) {
         assert input.length() >= 2 : "Max pooling requires an ndarray of >= length 2";
         assert ds.length == 2 : "Down sampling must be of length 2 (the factors used for each image size";
         assert input.shape().length == 4 : "Only supports 4 dimensional tensors";
-        int batchSize = ArrayUtil.prod(new int[]{input.size(0) * input.size(1)});
-        //possibly look at a input implementation instead (looping over the outer dimension slice wise with calling input repeatedly)
-        //use the given rows and columns if ignoring borders
-        int rows = input.size(2);
-        int cols = input.size(3);
-
-        INDArray signalNDArray = input.reshape(batchSize, 1, rows, cols);
-        INDArray zz = Nd4j.create(signalNDArray.shape());
-
-        int rowIter = ignoreBorder ? (int) (rows / Math.pow(ds[0], 2)) : rows;
-        int colIter = ignoreBorder ? (int) (cols / Math.pow(ds[1], 2)) : cols;
-        rowIter = Math.max(1,rowIter);
-        colIter = Math.max(1, colIter);
-        for (int i = 0; i < signalNDArray.size(0); i++) {
-            for (int j = 0; j < signalNDArray.size(1); j++) {
-                for (int k = 0; k < rowIter; k++) {
-                    int zk = k / ds[0];
-                    for (int l = 0; l < colIter; l++) {
-                        int zl = l / ds[1];
-                        double num = input.getDouble(i, j, k, l);
-                        double zzGet = zz.getDouble(i, j, zk, zl);
-                        zz.putScalar(new int[]{i, j, zk, zl}, Math.max(num, zzGet));
-                    }
-                }
-            }
-        }
-
-        return zz.reshape(signalNDArray.shape());
+        return Pooling.pool(input, Pooling.Type.MAX, ds[0], ds[1], ds[0], ds[1], 0, 0, !ignoreBorder);
     }
 
     /**
@@ -98,6 +73,10 @@ public class Transforms {
      * @return the  down sampled ndarray
      */
     public static INDArray downSample(INDArray d1, int[] stride) {
+        //averaging the last two dimensions is plain average pooling
+        if(stride.length == 2 && d1.shape().length >= 2)
+            return pool(d1, stride, Pooling.Type.AVG, false);
+
         INDArray d = Nd4j.ones(stride);
         d.divi(ArrayUtil.prod(stride));
         if(stride.length != d1.shape().length) {
@@ -136,62 +115,42 @@ public class Transforms {
     }
 
     /**
-     * Pooled expectations(avg)
+     * Pooled expectations(avg) over non overlapping
+     * windows of the last two dimensions.
+     * Partial windows at the border are averaged over the pixels they contain
      *
      * @param toPool the ndarray to sumPooling
      * @param stride the 2d stride across the ndarray
      * @return
      */
     public static INDArray avgPooling(INDArray toPool, int[] stride) {
-
-        int nDims = toPool.shape().length;
-        assert nDims >= 3 : "NDArray must have 3 dimensions";
-        int nRows = toPool.shape()[nDims - 2];
-        int nCols = toPool.shape()[nDims - 1];
-        int yStride = stride[0], xStride = stride[1];
-        INDArray blocks = Nd4j.create(toPool.shape());
-        for (int iR = 0; iR < Math.ceil(nRows / yStride); iR++) {
-            NDArrayIndex rows = NDArrayIndex.interval(iR * yStride, iR * yStride, true);
-            for (int jC = 0; jC < Math.ceil(nCols / xStride); jC++) {
-                NDArrayIndex cols = NDArrayIndex.interval(jC * xStride, (jC * xStride) + 1, true);
-                INDArray blockVal = toPool.get(rows, cols).sum(toPool.shape().length - 1).mean(toPool.shape().length - 1);
-                blocks.put(
-                        new NDArrayIndex[]{rows, cols},
-                        blockVal.permute(new int[]{1, 2, 0}))
-                        .repmat(new int[]{rows.length(), cols.length()});
-            }
-        }
-
-        return blocks;
+        return pool(toPool, stride, Pooling.Type.AVG, true);
     }
+
     /**
-     * Pooled expectations(sum)
+     * Pooled expectations(sum) over non overlapping
+     * windows of the last two dimensions
      *
      * @param toPool the ndarray to sumPooling
      * @param stride the 2d stride across the ndarray
      * @return
      */
     public static INDArray sumPooling(INDArray toPool, int[] stride) {
+        return pool(toPool, stride, Pooling.Type.SUM, true);
+    }
 
+    //pool the last two dimensions with the leading dimensions folded in to the batch
+    private static INDArray pool(INDArray toPool, int[] stride, Pooling.Type type, boolean coverAll) {
         int nDims = toPool.shape().length;
-        assert nDims >= 3 : "NDArray must have 3 dimensions";
-        int nRows = toPool.shape()[nDims - 2];
-        int nCols = toPool.shape()[nDims - 1];
-        int yStride = stride[0], xStride = stride[1];
-        INDArray blocks = Nd4j.create(toPool.shape());
-        for (int iR = 0; iR < Math.ceil(nRows / yStride); iR++) {
-            NDArrayIndex rows = NDArrayIndex.interval(iR * yStride, iR * yStride, true);
-            for (int jC = 0; jC < Math.ceil(nCols / xStride); jC++) {
-                NDArrayIndex cols = NDArrayIndex.interval(jC * xStride, (jC * xStride) + 1, true);
-                INDArray blockVal = toPool.get(rows, cols).sum(toPool.shape().length - 1).sum(toPool.shape().length - 1);
-                blocks.put(
-                        new NDArrayIndex[]{rows, cols},
-                        blockVal.permute(new int[]{1, 2, 0}))
-                        .repmat(new int[]{rows.length(), cols.length()});
-            }
-        }
-
-        return blocks;
+        assert nDims >= 2 : "NDArray must have at least 2 dimensions";
+        int nRows = toPool.size(nDims - 2);
+        int nCols = toPool.size(nDims - 1);
+        INDArray images = toPool.reshape(toPool.length() / (nRows * nCols), 1, nRows, nCols);
+        INDArray pooled = Pooling.pool(images, type, stride[0], stride[1], stride[0], stride[1], 0, 0, coverAll);
+        int[] shape = ArrayUtil.copy(toPool.shape());
+        shape[nDims - 2] = pooled.size(2);
+        shape[nDims - 1] = pooled.size(3);
+        return pooled.reshape(shape);
     }
 
     /**
@@ -0,0 +1,282 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.sort;
+
+import org.nd4j.linalg.api.ops.executioner.ParallelOpExecutor;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sorting of primitive double arrays and
+ * of int indices keyed by a double array.
+ *
+ * Values are ordered as {@link Double#compare(double, double)} orders them,
+ * so NaN sorts above positive infinity and -0.0 below 0.0.
+ * Index sorts are stable: equal values keep their original order.
+ * Ranges of at least {@link #PARALLEL_THRESHOLD} elements are merge sorted
+ * in parallel on the fork join pool used for parallel ops.
+ *
+ * @author Adam Gibson
+ */
+public class PrimitiveSort {
+
+    public final static int PARALLEL_THRESHOLD = 1 << 16;
+    //below this the halves of a parallel sort are sorted serially
+    private final static int GRAIN = 1 << 13;
+    private final static int INSERTION_SORT = 32;
+
+    private PrimitiveSort() {
+    }
+
+    /**
+     * Sort a range of an array in place
+     * @param values the values to sort
+     * @param from the first index (inclusive)
+     * @param to the last index (exclusive)
+     * @param ascending whether to sort in ascending order
+     */
+    public static void sort(double[] values, int from, int to, boolean ascending) {
+        if(to - from >= PARALLEL_THRESHOLD)
+            ParallelOpExecutor.pool().invoke(new SortTask(values, new double[values.length], from, to));
+        else
+            Arrays.sort(values, from, to);
+        if(!ascending)
+            reverse(values, from, to);
+    }
+
+    /**
+     * The indices that sort a range of an array
+     * @param values the values to sort by; not modified
+     * @param from the first index (inclusive)
+     * @param to the last index (exclusive)
+     * @param ascending whether to sort in ascending order
+     * @return the indices (relative to from) in sorted order
+     */
+    public static int[] argsort(double[] values, int from, int to, boolean ascending) {
+        int n = to - from;
+        int[] index = new int[n];
+        for(int i = 0; i < n; i++)
+            index[i] = i;
+        int[] tmp = new int[n];
+        if(n >= PARALLEL_THRESHOLD)
+            ParallelOpExecutor.pool().invoke(new ArgsortTask(values, from, ascending, index, tmp, 0, n));
+        else
+            argsort(values, from, ascending, index, tmp, 0, n);
+        return index;
+    }
+
+    /**
+     * The indices of the k largest (or smallest) values of a range,
+     * best first. Ties go to the lower index.
+     * This is a partial sort: it takes O(n log k) time.
+     * @param values the values to select from; not modified
+     * @param from the first index (inclusive)
+     * @param to the last index (exclusive)
+     * @param k the number of values to select
+     * @param largest whether to select the largest values rather than the smallest
+     * @return the indices (relative to from) of the selected values
+     */
+    public static int[] topK(double[] values, int from, int to, int k, boolean largest) {
+        int n = to - from;
+        if(k < 0)
+            throw new IllegalArgumentException("k must not be negative");
+        if(k >= n)
+            return argsort(values, from, to, !largest);
+
+        //heap with the worst of the kept values on top
+        int[] heap = new int[k];
+        int size = 0;
+        for(int i = 0; i < n; i++) {
+            if(size < k) {
+                heap[size] = i;
+                siftUp(values, from, largest, heap, size++);
+            }
+            else if(k > 0 && better(values, from, largest, i, heap[0])) {
+                heap[0] = i;
+                siftDown(values, from, largest, heap, k);
+            }
+        }
+
+        //popping yields the worst first
+        int[] ret = new int[k];
+        while(size > 0) {
+            ret[--size] = heap[0];
+            heap[0] = heap[size];
+            siftDown(values, from, largest, heap, size);
+        }
+        return ret;
+    }
+
+    private static void reverse(double[] values, int from, int to) {
+        for(int i = from, j = to - 1; i < j; i++, j--) {
+            double tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+    }
+
+    private static int compare(double x, double y, boolean ascending) {
+        return ascending ? Double.compare(x, y) : Double.compare(y, x);
+    }
+
+    //whether index i ranks strictly before index j
+    private static boolean better(double[] values, int from, boolean largest, int i, int j) {
+        int c = Double.compare(values[from + i], values[from + j]);
+        if(c != 0)
+            return largest ? c > 0 : c < 0;
+        return i < j;
+    }
+
+    private static void siftUp(double[] values, int from, boolean largest, int[] heap, int pos) {
+        int item = heap[pos];
+        while(pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if(!better(values, from, largest, heap[parent], item))
+                break;
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = item;
+    }
+
+    private static void siftDown(double[] values, int from, boolean largest, int[] heap, int size) {
+        if(size == 0)
+            return;
+        int item = heap[0];
+        int pos = 0;
+        int half = size >>> 1;
+        while(pos < half) {
+            int child = 2 * pos + 1;
+            if(child + 1 < size && better(values, from, largest, heap[child], heap[child + 1]))
+                child++;
+            if(!better(values, from, largest, item, heap[child]))
+                break;
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = item;
+    }
+
+    //stable merge sort of index[lo, hi) keyed by values[from + index]
+    private static void argsort(double[] values, int from, boolean ascending, int[] index, int[] tmp, int lo, int hi) {
+        if(hi - lo <= INSERTION_SORT) {
+            for(int i = lo + 1; i < hi; i++) {
+                int item = index[i];
+                double key = values[from + item];
+                int j = i - 1;
+                while(j >= lo && compare(values[from + index[j]], key, ascending) > 0) {
+                    index[j + 1] = index[j];
+                    j--;
+                }
+                index[j + 1] = item;
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        argsort(values, from, ascending, index, tmp, lo, mid);
+        argsort(values, from, ascending, index, tmp, mid, hi);
+        merge(values, from, ascending, index, tmp, lo, mid, hi);
+    }
+
+    private static void merge(double[] values, int from, boolean ascending, int[] index, int[] tmp, int lo, int mid, int hi) {
+        if(compare(values[from + index[mid - 1]], values[from + index[mid]], ascending) <= 0)
+            return;
+        System.arraycopy(index, lo, tmp, lo, mid - lo);
+        int i = lo, j = mid, k = lo;
+        while(i < mid && j < hi) {
+            //take from the left on ties to keep the sort stable
+            if(compare(values[from + index[j]], values[from + tmp[i]], ascending) < 0)
+                index[k++] = index[j++];
+            else
+                index[k++] = tmp[i++];
+        }
+        while(i < mid)
+            index[k++] = tmp[i++];
+    }
+
+    private static void merge(double[] values, double[] tmp, int lo, int mid, int hi) {
+        if(Double.compare(values[mid - 1], values[mid]) <= 0)
+            return;
+        System.arraycopy(values, lo, tmp, lo, mid - lo);
+        int i = lo, j = mid, k = lo;
+        while(i < mid && j < hi) {
+            if(Double.compare(values[j], tmp[i]) < 0)
+                values[k++] = values[j++];
+            else
+                values[k++] = tmp[i++];
+        }
+        while(i < mid)
+            values[k++] = tmp[i++];
+    }
+
+    private static class SortTask extends RecursiveAction {
+        private double[] values, tmp;
+        private int lo, hi;
+
+        private SortTask(double[] values, double[] tmp, int lo, int hi) {
+            this.values = values;
+            this.tmp = tmp;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if(hi - lo <= GRAIN) {
+                Arrays.sort(values, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new SortTask(values, tmp, lo, mid), new SortTask(values, tmp, mid, hi));
+            merge(values, tmp, lo, mid, hi);
+        }
+    }
+
+    private static class ArgsortTask extends RecursiveAction {
+        private double[] values;
+        private int from;
+        private boolean ascending;
+        private int[] index, tmp;
+        private int lo, hi;
+
+        private ArgsortTask(double[] values, int from, boolean ascending, int[] index, int[] tmp, int lo, int hi) {
+            this.values = values;
+            this.from = from;
+            this.ascending = ascending;
+            this.index = index;
+            this.tmp = tmp;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if(hi - lo <= GRAIN) {
+                argsort(values, from, ascending, index, tmp, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ArgsortTask(values, from, ascending, index, tmp, lo, mid),
+                    new ArgsortTask(values, from, ascending, index, tmp, mid, hi));
+            merge(values, from, ascending, index, tmp, lo, mid, hi);
+        }
+    }
+}
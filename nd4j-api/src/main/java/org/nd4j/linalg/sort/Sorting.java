@@ -0,0 +1,285 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.sort;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.Loop;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Sorting, argsort and top k selection of ndarrays
+ * along a dimension.
+ *
+ * Every vector along the dimension is read straight from the buffer
+ * in to a primitive array, sorted with {@link PrimitiveSort}
+ * and written back through its stride.
+ * Many vectors are processed across cores, a single long vector
+ * is merge sorted in parallel.
+ * A vector is always sorted along its length, whatever the dimension.
+ *
+ * @author Adam Gibson
+ */
+public class Sorting {
+
+    private Sorting() {
+    }
+
+    /**
+     * Sort an ndarray in place along a dimension
+     * @param arr the ndarray to sort
+     * @param dimension the dimension to sort along
+     * @param ascending whether to sort in ascending order
+     * @return the sorted ndarray
+     */
+    public static INDArray sort(final INDArray arr, int dimension, final boolean ascending) {
+        final Layout layout = new Layout(arr, axis(arr, dimension));
+        forEachVector(layout.offsets.length, arr.length(), new Loop.Each() {
+            @Override
+            public void run(int v) {
+                double[] values = layout.read(v);
+                PrimitiveSort.sort(values, 0, values.length, ascending);
+                layout.write(v, values);
+            }
+        });
+        return arr;
+    }
+
+    /**
+     * Sort an ndarray in place along a dimension
+     * recording where each value came from
+     * @param arr the ndarray to sort
+     * @param dimension the dimension to sort along
+     * @param ascending whether to sort in ascending order
+     * @return the original indices of the sorted values and the sorted ndarray
+     */
+    public static INDArray[] sortWithIndices(final INDArray arr, int dimension, final boolean ascending) {
+        int axis = axis(arr, dimension);
+        final INDArray indices = Nd4j.create(arr.shape());
+        final Layout layout = new Layout(arr, axis);
+        final Layout indexLayout = new Layout(indices, axis);
+        forEachVector(layout.offsets.length, arr.length(), new Loop.Each() {
+            @Override
+            public void run(int v) {
+                double[] values = layout.read(v);
+                int[] index = PrimitiveSort.argsort(values, 0, values.length, ascending);
+                double[] sorted = new double[index.length];
+                for(int i = 0; i < index.length; i++)
+                    sorted[i] = values[index[i]];
+                layout.write(v, sorted);
+                indexLayout.write(v, index);
+            }
+        });
+        return new INDArray[]{indices, arr};
+    }
+
+    /**
+     * The indices that sort an ndarray along a dimension.
+     * Equal values keep their original order.
+     * @param arr the ndarray; not modified
+     * @param dimension the dimension to sort along
+     * @param ascending whether to sort in ascending order
+     * @return an ndarray of the same shape holding the indices
+     */
+    public static INDArray argsort(final INDArray arr, int dimension, final boolean ascending) {
+        int axis = axis(arr, dimension);
+        final INDArray indices = Nd4j.create(arr.shape());
+        final Layout layout = new Layout(arr, axis);
+        final Layout indexLayout = new Layout(indices, axis);
+        forEachVector(layout.offsets.length, arr.length(), new Loop.Each() {
+            @Override
+            public void run(int v) {
+                double[] values = layout.read(v);
+                indexLayout.write(v, PrimitiveSort.argsort(values, 0, values.length, ascending));
+            }
+        });
+        return indices;
+    }
+
+    /**
+     * The indices that sort a vector
+     * @param vector the vector; not modified
+     * @param ascending whether to sort in ascending order
+     * @return the indices in sorted order
+     */
+    public static int[] argsort(INDArray vector, boolean ascending) {
+        double[] values = vectorValues(vector);
+        return PrimitiveSort.argsort(values, 0, values.length, ascending);
+    }
+
+    /**
+     * The k largest (or smallest) values along a dimension, best first.
+     * Ties go to the lower index.
+     * @param arr the ndarray; not modified
+     * @param k the number of values to select
+     * @param dimension the dimension to select along
+     * @param largest whether to select the largest values rather than the smallest
+     * @return the indices and the values, both shaped like arr with k
+     * entries along the dimension
+     */
+    public static INDArray[] topK(final INDArray arr, final int k, int dimension, final boolean largest) {
+        int axis = axis(arr, dimension);
+        if(k < 0 || k > arr.size(axis))
+            throw new IllegalArgumentException("k must be between 0 and " + arr.size(axis));
+        int[] shape = arr.shape().clone();
+        shape[axis] = k;
+        final INDArray indices = Nd4j.create(shape);
+        final INDArray values = Nd4j.create(shape);
+        final Layout layout = new Layout(arr, axis);
+        final Layout indexLayout = new Layout(indices, axis);
+        final Layout valueLayout = new Layout(values, axis);
+        forEachVector(layout.offsets.length, arr.length(), new Loop.Each() {
+            @Override
+            public void run(int v) {
+                double[] vector = layout.read(v);
+                int[] top = PrimitiveSort.topK(vector, 0, vector.length, k, largest);
+                double[] best = new double[k];
+                for(int i = 0; i < k; i++)
+                    best[i] = vector[top[i]];
+                indexLayout.write(v, top);
+                valueLayout.write(v, best);
+            }
+        });
+        return new INDArray[]{indices, values};
+    }
+
+    /**
+     * The indices of the k largest (or smallest) values of a vector, best first
+     * @param vector the vector; not modified
+     * @param k the number of values to select
+     * @param largest whether to select the largest values rather than the smallest
+     * @return the selected indices
+     */
+    public static int[] topK(INDArray vector, int k, boolean largest) {
+        double[] values = vectorValues(vector);
+        if(k > values.length)
+            throw new IllegalArgumentException("k must be between 0 and " + values.length);
+        return PrimitiveSort.topK(values, 0, values.length, k, largest);
+    }
+
+    private static double[] vectorValues(INDArray vector) {
+        if(!vector.isVector() && !vector.isScalar())
+            throw new IllegalArgumentException("Only vectors can be sorted without a dimension");
+        return new Layout(vector, axis(vector, 0)).read(0);
+    }
+
+    //vectors sort along their length, otherwise normalize negative dimensions
+    private static int axis(INDArray arr, int dimension) {
+        int[] shape = arr.shape();
+        if(arr.isVector() || arr.isScalar()) {
+            for(int i = 0; i < shape.length; i++)
+                if(shape[i] != 1)
+                    return i;
+            return shape.length - 1;
+        }
+        if(dimension < 0)
+            dimension += shape.length;
+        if(dimension < 0 || dimension >= shape.length)
+            throw new IllegalArgumentException("Illegal dimension " + dimension + " for rank " + shape.length);
+        return dimension;
+    }
+
+    private static void forEachVector(int vectors, int length, Loop.Each body) {
+        if(vectors > 1 && length >= Nd4j.parallelThreshold)
+            Loop.withIndex(0, vectors, body);
+        else
+            for(int v = 0; v < vectors; v++)
+                body.run(v);
+    }
+
+    /**
+     * Where the vectors along one axis of an ndarray live in its buffer
+     */
+    private static class Layout {
+        private DataBuffer data;
+        private int[] offsets;
+        private int stride;
+        private int length;
+
+        private Layout(INDArray arr, int axis) {
+            int[] shape = arr.shape();
+            int[] strides = arr.stride();
+            data = arr.data();
+            length = shape[axis];
+            stride = strides[axis];
+            offsets = new int[length == 0 ? 0 : arr.length() / length];
+            int[] counter = new int[shape.length];
+            int offset = arr.offset();
+            for(int v = 0; v < offsets.length; v++) {
+                offsets[v] = offset;
+                //advance over every dimension but the axis, the last one fastest
+                for(int d = shape.length - 1; d >= 0; d--) {
+                    if(d == axis)
+                        continue;
+                    if(++counter[d] < shape[d]) {
+                        offset += strides[d];
+                        break;
+                    }
+                    offset -= (shape[d] - 1) * strides[d];
+                    counter[d] = 0;
+                }
+            }
+        }
+
+        private double[] read(int vector) {
+            double[] ret = new double[length];
+            int offset = offsets[vector];
+            Object array = data.allocationMode() == DataBuffer.AllocationMode.HEAP ? data.array() : null;
+            if(array instanceof double[]) {
+                double[] doubles = (double[]) array;
+                for(int i = 0; i < length; i++)
+                    ret[i] = doubles[offset + i * stride];
+            }
+            else if(array instanceof float[]) {
+                float[] floats = (float[]) array;
+                for(int i = 0; i < length; i++)
+                    ret[i] = floats[offset + i * stride];
+            }
+            else
+                for(int i = 0; i < length; i++)
+                    ret[i] = data.getDouble(offset + i * stride);
+            return ret;
+        }
+
+        private void write(int vector, double[] values) {
+            int offset = offsets[vector];
+            Object array = data.allocationMode() == DataBuffer.AllocationMode.HEAP ? data.array() : null;
+            if(array instanceof double[]) {
+                double[] doubles = (double[]) array;
+                for(int i = 0; i < length; i++)
+                    doubles[offset + i * stride] = values[i];
+            }
+            else if(array instanceof float[]) {
+                float[] floats = (float[]) array;
+                for(int i = 0; i < length; i++)
+                    floats[offset + i * stride] = (float) values[i];
+            }
+            else
+                for(int i = 0; i < length; i++)
+                    data.put(offset + i * stride, values[i]);
+        }
+
+        private void write(int vector, int[] values) {
+            int offset = offsets[vector];
+            for(int i = 0; i < length; i++)
+                data.put(offset + i * stride, values[i]);
+        }
+    }
+}
@@ -191,6 +191,36 @@ public class ArrayUtil {
         return ret;
     }
 
+    /**
+     * Product of an int array without overflow
+     * @param mult the elements
+     *            to calculate the product for
+     * @return the product of this array
+     */
+    public static long prodLong(int[] mult) {
+        if (mult.length < 1)
+            return 0;
+        long ret = 1;
+        for (int i = 0; i < mult.length; i++)
+            ret *= mult[i];
+        return ret;
+    }
+
+    /**
+     * Product of a shape, used as the length of an array
+     * @param shape the shape to calculate the length for
+     * @return the number of elements in the shape
+     * @throws IllegalArgumentException if the shape has more than
+     * {@link Integer#MAX_VALUE} elements
+     */
+    public static int lengthOf(int[] shape) {
+        long length = prodLong(shape);
+        if (length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Shape " + Arrays.toString(shape) + " has " + length
+                    + " elements which is more than an ndarray can hold; use a ChunkedDataBuffer");
+        return (int) length;
+    }
+
 
     public static boolean equals(float[] data, double[] data2) {
         if (data.length != data2.length)
@@ -0,0 +1,569 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.linalg.util;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.IntBuffer;
+import org.nd4j.linalg.api.buffer.MappedDataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.ArrayCodec;
+import org.nd4j.linalg.compression.ArrayCodecs;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * Binary format for ndarrays.
+ *
+ * All values are little endian. The header comes first:
+ * <pre>
+ * int    magic ("ND4J")
+ * int    version
+ * byte   data type (ordinal of {@link DataBuffer.Type})
+ * byte   ordering ('c' or 'f')
+ * byte   flags
+ * byte   codec (0 for none, otherwise an {@link ArrayCodecs} id)
+ * int    rank
+ * int[]  shape
+ * int[]  stride
+ * int    offset
+ * int    length (number of elements in the payload)
+ * int    payload position (from the start of the header)
+ * </pre>
+ * followed by the payload: length contiguous elements
+ * of the data type. Files are written with the payload
+ * aligned to a page so it can be memory mapped
+ * and viewed with the normal stride and offset.
+ * When the checksum flag is set the payload is followed
+ * by the CRC32 of its bytes as a long.
+ *
+ * A compressed payload is a sequence of blocks, each an int
+ * with the number of uncompressed bytes, an int with the
+ * number of compressed bytes and the compressed bytes.
+ * The checksum always covers the uncompressed bytes.
+ *
+ * Payloads are moved in bulk between the data buffer
+ * and the channel, never one element at a time.
+ *
+ * @author Adam Gibson
+ */
+public class BinarySerde {
+
+    public final static int MAGIC = 0x4A344E44;
+    public final static int VERSION = 1;
+    public final static int PAGE_SIZE = 4096;
+    public final static int FLAG_CHECKSUM = 1;
+
+    //bytes staged per channel transfer
+    private final static int TRANSFER_SIZE = 1 << 20;
+
+    private BinarySerde() {
+    }
+
+    /**
+     * Write the given array to a file
+     * with a page aligned payload
+     *
+     * @param arr the array to write
+     * @param file the file to write to
+     * @throws IOException
+     */
+    public static void write(INDArray arr, File file) throws IOException {
+        arr = contiguous(arr);
+        Header header = new Header(arr);
+        header.payloadPosition = align(header.size(), PAGE_SIZE);
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = raf.getChannel();
+            raf.setLength(0);
+            writeFully(channel, header.toBytes());
+            channel.position(header.payloadPosition);
+            writePayload(arr.data(), channel, null, null);
+        }
+        finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Write the given array to a stream
+     *
+     * @param arr the array to write
+     * @param out the stream to write to
+     * @param checksum whether to append a checksum of the payload
+     * @throws IOException
+     */
+    public static void write(INDArray arr, OutputStream out, boolean checksum) throws IOException {
+        write(arr, Channels.newChannel(out), checksum, null);
+    }
+
+    /**
+     * Write the given array to a stream
+     * compressing the payload
+     *
+     * @param arr the array to write
+     * @param out the stream to write to
+     * @param checksum whether to append a checksum of the payload
+     * @param codec the codec to compress the payload with or null
+     * @throws IOException
+     */
+    public static void write(INDArray arr, OutputStream out, boolean checksum, ArrayCodec codec) throws IOException {
+        write(arr, Channels.newChannel(out), checksum, codec);
+    }
+
+    /**
+     * Write the given array to a channel
+     *
+     * @param arr the array to write
+     * @param channel the channel to write to
+     * @param checksum whether to append a checksum of the payload
+     * @throws IOException
+     */
+    public static void write(INDArray arr, WritableByteChannel channel, boolean checksum) throws IOException {
+        write(arr, channel, checksum, null);
+    }
+
+    /**
+     * Write the given array to a channel
+     * compressing the payload
+     *
+     * @param arr the array to write
+     * @param channel the channel to write to
+     * @param checksum whether to append a checksum of the payload
+     * @param codec the codec to compress the payload with or null
+     * @throws IOException
+     */
+    public static void write(INDArray arr, WritableByteChannel channel, boolean checksum, ArrayCodec codec) throws IOException {
+        arr = contiguous(arr);
+        Header header = new Header(arr);
+        header.codec = codec;
+        CRC32 crc = null;
+        if(checksum) {
+            header.flags |= FLAG_CHECKSUM;
+            crc = new CRC32();
+        }
+        writeFully(channel, header.toBytes());
+        writePayload(arr.data(), channel, crc, codec);
+        if(crc != null) {
+            ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            trailer.putLong(0, crc.getValue());
+            writeFully(channel, trailer);
+        }
+    }
+
+    /**
+     * Read an array written in this format from a stream.
+     * The payload is copied in to a buffer of the current
+     * {@link Nd4j#dataType()}
+     *
+     * @param in the stream to read from
+     * @return the read array
+     * @throws IOException if the data is not in this format or the checksum doesn't match
+     */
+    public static INDArray read(InputStream in) throws IOException {
+        return read(Channels.newChannel(in));
+    }
+
+    /**
+     * Read an array written in this format from a channel
+     *
+     * @param channel the channel to read from
+     * @return the read array
+     * @throws IOException if the data is not in this format or the checksum doesn't match
+     */
+    public static INDArray read(ReadableByteChannel channel) throws IOException {
+        return read(channel, Header.read(channel));
+    }
+
+    /**
+     * Read an array in this format from a stream
+     * where the magic number was already consumed
+     *
+     * @param in the stream to read from
+     * @return the read array
+     * @throws IOException if the data is not in this format or the checksum doesn't match
+     */
+    public static INDArray readAfterMagic(InputStream in) throws IOException {
+        ReadableByteChannel channel = Channels.newChannel(in);
+        return read(channel, Header.readAfterMagic(channel));
+    }
+
+    private static INDArray read(ReadableByteChannel channel, Header header) throws IOException {
+        //skip any padding between the header and the payload
+        int padding = header.payloadPosition - header.size();
+        if(padding < 0)
+            throw new IOException("Invalid payload position " + header.payloadPosition);
+        if(padding > 0)
+            readFully(channel, ByteBuffer.allocate(padding));
+
+        CRC32 crc = (header.flags & FLAG_CHECKSUM) != 0 ? new CRC32() : null;
+        DataBuffer buffer = readPayload(channel, header.type, header.length, crc, header.codec);
+        if(crc != null) {
+            ByteBuffer trailer = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, trailer);
+            if(trailer.getLong(0) != crc.getValue())
+                throw new IOException("Checksum mismatch: the array is corrupt");
+        }
+        return Nd4j.create(buffer, header.shape, header.stride, header.offset, header.ordering);
+    }
+
+    /**
+     * Map an array written with {@link #write(INDArray, File)}
+     * without reading it on to the heap.
+     *
+     * @param file the file to map
+     * @param mode {@link FileChannel.MapMode#READ_ONLY},
+     *             {@link FileChannel.MapMode#PRIVATE} for copy on write
+     *             or {@link FileChannel.MapMode#READ_WRITE} to write through to the file
+     * @return an array viewing the mapped payload
+     * @throws IOException
+     */
+    public static INDArray readMapped(File file, FileChannel.MapMode mode) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, mode == FileChannel.MapMode.READ_WRITE ? "rw" : "r");
+        try {
+            FileChannel channel = raf.getChannel();
+            Header header = Header.read(channel);
+            if(header.codec != null)
+                throw new IOException("Compressed arrays can't be mapped");
+            long bytes = (long) header.length * elementSize(header.type);
+            if(header.payloadPosition + bytes > channel.size())
+                throw new IOException("File " + file + " is truncated");
+            if(bytes > Integer.MAX_VALUE)
+                throw new IOException("Payload of " + bytes + " bytes is too large to map as one buffer");
+            MappedByteBuffer mapped = channel.map(mode, header.payloadPosition, bytes);
+            //the mapping stays valid after the channel is closed
+            DataBuffer buffer = new MappedDataBuffer(mapped, header.type, header.length);
+            return Nd4j.create(buffer, header.shape, header.stride, header.offset, header.ordering);
+        }
+        finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * An array whose data buffer holds exactly its elements:
+     * the array itself if possible, otherwise a copy
+     * @param arr the array
+     * @return an array with offset 0 spanning its whole buffer
+     */
+    static INDArray contiguous(INDArray arr) {
+        if(arr instanceof IComplexNDArray)
+            throw new IllegalArgumentException("Complex arrays are not supported");
+        if(arr.offset() != 0 || arr.length() != arr.data().length())
+            arr = arr.dup();
+        return arr;
+    }
+
+    /**
+     * Write the elements of the buffer in bulk
+     * @param data the buffer to write
+     * @param channel the channel to write to
+     * @param crc the checksum to update with the written bytes or null
+     * @param codec the codec to compress the bytes with or null
+     * @throws IOException
+     */
+    static void writePayload(DataBuffer data, WritableByteChannel channel, Checksum crc, ArrayCodec codec) throws IOException {
+        int elementSize = elementSize(data.dataType());
+        int length = data.length();
+        boolean direct = data.allocationMode() == DataBuffer.AllocationMode.DIRECT;
+        if(direct && crc == null && codec == null && ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN) {
+            //already in the file's byte order: hand the memory straight to the channel
+            ByteBuffer nio = data.asNio();
+            nio.limit(length * elementSize);
+            writeFully(channel, nio);
+            return;
+        }
+
+        ByteBuffer transfer = ByteBuffer.allocate(Math.min(TRANSFER_SIZE, Math.max(length, 1) * elementSize)).order(ByteOrder.LITTLE_ENDIAN);
+        int perTransfer = transfer.capacity() / elementSize;
+        boolean ints = data.dataType() == DataBuffer.Type.INT;
+        double[] doubles = null;
+        float[] floats = null;
+        int[] intArray = null;
+        ByteBuffer nio = null;
+        if(direct)
+            nio = data.asNio();
+        else if(data.dataType() == DataBuffer.Type.DOUBLE)
+            doubles = data.asDouble();
+        else if(ints)
+            intArray = data.asInt();
+        else
+            floats = data.asFloat();
+
+        for(int i = 0; i < length; i += perTransfer) {
+            int n = Math.min(perTransfer, length - i);
+            transfer.clear();
+            if(doubles != null)
+                transfer.asDoubleBuffer().put(doubles, i, n);
+            else if(floats != null)
+                transfer.asFloatBuffer().put(floats, i, n);
+            else if(intArray != null)
+                transfer.asIntBuffer().put(intArray, i, n);
+            else if(elementSize == 8)
+                transfer.asDoubleBuffer().put(region(nio, i, n, elementSize).asDoubleBuffer());
+            else if(ints)
+                transfer.asIntBuffer().put(region(nio, i, n, elementSize).asIntBuffer());
+            else
+                transfer.asFloatBuffer().put(region(nio, i, n, elementSize).asFloatBuffer());
+            transfer.limit(n * elementSize);
+            if(crc != null)
+                crc.update(transfer.array(), 0, n * elementSize);
+            if(codec != null)
+                writeBlock(channel, codec.encode(transfer.array(), n * elementSize, elementSize), n * elementSize);
+            else
+                writeFully(channel, transfer);
+        }
+    }
+
+    //a compressed block: the raw and compressed lengths followed by the compressed bytes
+    private static void writeBlock(WritableByteChannel channel, byte[] compressed, int length) throws IOException {
+        ByteBuffer lengths = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        lengths.putInt(length);
+        lengths.putInt(compressed.length);
+        lengths.flip();
+        writeFully(channel, lengths);
+        writeFully(channel, ByteBuffer.wrap(compressed));
+    }
+
+    //decompress the next block in to the transfer buffer
+    private static void readBlock(ReadableByteChannel channel, ArrayCodec codec, ByteBuffer transfer, int length, int elementSize) throws IOException {
+        ByteBuffer lengths = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(channel, lengths);
+        int raw = lengths.getInt(0);
+        int compressedLength = lengths.getInt(4);
+        if(raw != length || compressedLength < 0)
+            throw new IOException("Invalid compressed block of " + raw + " bytes, expected " + length);
+        ByteBuffer compressed = ByteBuffer.allocate(compressedLength);
+        readFully(channel, compressed);
+        try {
+            codec.decode(compressed.array(), compressedLength, transfer.array(), length, elementSize);
+        } catch (IllegalStateException e) {
+            throw new IOException("Corrupt compressed block", e);
+        }
+        transfer.position(length);
+    }
+
+    /**
+     * Read elements of the given type in bulk in to
+     * a new buffer of the current {@link Nd4j#dataType()},
+     * or a new int buffer for int elements
+     * @param channel the channel to read from
+     * @param type the type of the elements in the channel
+     * @param length the number of elements
+     * @param crc the checksum to update with the read bytes or null
+     * @param codec the codec the bytes were compressed with or null
+     * @return the read buffer
+     * @throws IOException
+     */
+    static DataBuffer readPayload(ReadableByteChannel channel, DataBuffer.Type type, int length, Checksum crc, ArrayCodec codec) throws IOException {
+        DataBuffer ret = type == DataBuffer.Type.INT ? new IntBuffer(length) : Nd4j.createBuffer(length);
+        int elementSize = elementSize(type);
+        ByteBuffer transfer = ByteBuffer.allocate(Math.min(TRANSFER_SIZE, Math.max(length, 1) * elementSize)).order(ByteOrder.LITTLE_ENDIAN);
+        int perTransfer = transfer.capacity() / elementSize;
+        Object array = null;
+        ByteBuffer nio = null;
+        if(ret.allocationMode() == DataBuffer.AllocationMode.HEAP)
+            array = type == DataBuffer.Type.INT ? ret.asInt() : ret.array();
+        else
+            nio = ret.asNio();
+
+        for(int i = 0; i < length; i += perTransfer) {
+            int n = Math.min(perTransfer, length - i);
+            transfer.clear();
+            transfer.limit(n * elementSize);
+            if(codec != null)
+                readBlock(channel, codec, transfer, n * elementSize, elementSize);
+            else
+                readFully(channel, transfer);
+            if(crc != null)
+                crc.update(transfer.array(), 0, n * elementSize);
+            transfer.flip();
+
+            if(type == ret.dataType()) {
+                if(array instanceof double[])
+                    transfer.asDoubleBuffer().get((double[]) array, i, n);
+                else if(array instanceof float[])
+                    transfer.asFloatBuffer().get((float[]) array, i, n);
+                else if(array instanceof int[])
+                    transfer.asIntBuffer().get((int[]) array, i, n);
+                else if(elementSize == 8)
+                    region(nio, i, n, elementSize).asDoubleBuffer().put(transfer.asDoubleBuffer());
+                else if(type == DataBuffer.Type.INT)
+                    region(nio, i, n, elementSize).asIntBuffer().put(transfer.asIntBuffer());
+                else
+                    region(nio, i, n, elementSize).asFloatBuffer().put(transfer.asFloatBuffer());
+            }
+            else if(type == DataBuffer.Type.DOUBLE)
+                for(int j = 0; j < n; j++)
+                    ret.put(i + j, transfer.getDouble(j * 8));
+            else
+                for(int j = 0; j < n; j++)
+                    ret.put(i + j, transfer.getFloat(j * 4));
+        }
+        return ret;
+    }
+
+    //a native order view of n elements starting at element i
+    private static ByteBuffer region(ByteBuffer nio, int i, int n, int elementSize) {
+        ByteBuffer region = nio.duplicate();
+        region.limit((i + n) * elementSize);
+        region.position(i * elementSize);
+        return region.slice().order(ByteOrder.nativeOrder());
+    }
+
+    static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining())
+            channel.write(buffer);
+    }
+
+    static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining())
+            if(channel.read(buffer) < 0)
+                throw new IOException("Unexpected end of stream");
+    }
+
+    static int elementSize(DataBuffer.Type type) {
+        return type == DataBuffer.Type.DOUBLE ? 8 : 4;
+    }
+
+    private static int align(int position, int alignment) {
+        return (position + alignment - 1) / alignment * alignment;
+    }
+
+    /**
+     * The header of an array
+     */
+    static class Header {
+        DataBuffer.Type type;
+        char ordering;
+        int flags;
+        ArrayCodec codec;
+        int[] shape;
+        int[] stride;
+        int offset;
+        int length;
+        int payloadPosition;
+
+        Header() {
+        }
+
+        Header(INDArray arr) {
+            type = arr.data().dataType();
+            ordering = arr.ordering();
+            shape = arr.shape();
+            stride = arr.stride();
+            offset = arr.offset();
+            length = arr.data().length();
+            payloadPosition = size();
+        }
+
+        /**
+         * The size of the header in bytes
+         * @return the number of bytes the header takes up
+         */
+        int size() {
+            return 4 + 4 + 4 + 4 + shape.length * 8 + 4 + 4 + 4;
+        }
+
+        ByteBuffer toBytes() {
+            ByteBuffer buffer = ByteBuffer.allocate(size()).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.put((byte) type.ordinal());
+            buffer.put((byte) ordering);
+            buffer.put((byte) flags);
+            buffer.put(codec == null ? 0 : codec.id());
+            buffer.putInt(shape.length);
+            for(int i = 0; i < shape.length; i++)
+                buffer.putInt(shape[i]);
+            for(int i = 0; i < stride.length; i++)
+                buffer.putInt(stride[i]);
+            buffer.putInt(offset);
+            buffer.putInt(length);
+            buffer.putInt(payloadPosition);
+            buffer.flip();
+            return buffer;
+        }
+
+        static Header read(ReadableByteChannel channel) throws IOException {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, magic);
+            if(magic.getInt(0) != MAGIC)
+                throw new IOException("Not an nd4j binary array");
+            return readAfterMagic(channel);
+        }
+
+        static Header readAfterMagic(ReadableByteChannel channel) throws IOException {
+            ByteBuffer fixed = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, fixed);
+            fixed.flip();
+            int version = fixed.getInt();
+            if(version > VERSION)
+                throw new IOException("Unsupported format version " + version);
+
+            Header header = new Header();
+            int type = fixed.get();
+            if(type < 0 || type >= DataBuffer.Type.values().length)
+                throw new IOException("Unknown data type " + type);
+            header.type = DataBuffer.Type.values()[type];
+            header.ordering = (char) fixed.get();
+            header.flags = fixed.get();
+            int codec = fixed.get();
+            if(codec != 0) {
+                try {
+                    header.codec = ArrayCodecs.get(codec);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Unknown codec " + codec);
+                }
+            }
+            int rank = fixed.getInt();
+            if(rank < 0 || rank > 32)
+                throw new IOException("Invalid rank " + rank);
+
+            ByteBuffer rest = ByteBuffer.allocate(rank * 8 + 12).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, rest);
+            rest.flip();
+            header.shape = new int[rank];
+            header.stride = new int[rank];
+            for(int i = 0; i < rank; i++)
+                header.shape[i] = rest.getInt();
+            for(int i = 0; i < rank; i++)
+                header.stride[i] = rest.getInt();
+            header.offset = rest.getInt();
+            header.length = rest.getInt();
+            header.payloadPosition = rest.getInt();
+            return header;
+        }
+    }
+}
@@ -48,6 +48,7 @@ public class InstrumentationApplication extends Application<Nd4jInstrumentationC
     @Override
     public void run(Nd4jInstrumentationConfiguration nd4jInstrumentationConfiguration, Environment environment) throws Exception {
         environment.jersey().register(new InstrumentationResource());
+        environment.jersey().register(new OpMetricsResource());
         this.env = environment;
     }
 
@@ -0,0 +1,130 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.instrumentation.server;
+
+import org.nd4j.linalg.api.instrumentation.LatencyHistogram;
+import org.nd4j.linalg.api.instrumentation.OpMetrics;
+import org.nd4j.linalg.factory.Nd4j;
+
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per op execution metrics: counts, elements, bytes allocated,
+ * time in blas or java loops and latency percentiles.
+ * Ops are recorded when the backend is initialized with
+ * {@link Nd4j#OP_METRICS} set to true.
+ *
+ * @author Adam Gibson
+ */
+@Path("/metrics")
+@Produces(MediaType.APPLICATION_JSON)
+public class OpMetricsResource {
+
+    /**
+     * The metrics of every op
+     * @param backend only ops run on this backend if set
+     * @return the metrics of each op
+     */
+    @GET
+    @Path("/ops")
+    public Response getOps(@QueryParam("backend") String backend) {
+        List<Map<String, Object>> ret = new ArrayList<>();
+        for(OpMetrics metrics : Nd4j.getOpMetrics().all())
+            if(backend == null || backend.equals(metrics.getBackend()))
+                ret.add(summary(metrics));
+        return Response.ok(ret).build();
+    }
+
+    /**
+     * The ops that took the most time in total
+     * @param limit the number of ops to return
+     * @return the metrics of the hottest ops, hottest first
+     */
+    @GET
+    @Path("/hot")
+    public Response getHot(@QueryParam("limit") @DefaultValue("10") int limit) {
+        List<OpMetrics> all = Nd4j.getOpMetrics().all();
+        final Map<OpMetrics, Long> totals = new LinkedHashMap<>();
+        for(OpMetrics metrics : all)
+            totals.put(metrics, metrics.getLatency().total());
+        Collections.sort(all, new Comparator<OpMetrics>() {
+            @Override
+            public int compare(OpMetrics o1, OpMetrics o2) {
+                return Long.compare(totals.get(o2), totals.get(o1));
+            }
+        });
+        List<Map<String, Object>> ret = new ArrayList<>();
+        for(int i = 0; i < Math.min(limit, all.size()); i++)
+            ret.add(summary(all.get(i)));
+        return Response.ok(ret).build();
+    }
+
+    /**
+     * The metrics of every op in the prometheus text format
+     * @return the metrics as text
+     */
+    @GET
+    @Path("/prometheus")
+    @Produces(PrometheusExporter.CONTENT_TYPE)
+    public Response getPrometheus() {
+        return Response.ok(PrometheusExporter.export(Nd4j.getOpMetrics().all())).build();
+    }
+
+    /**
+     * Drop all recorded metrics
+     */
+    @POST
+    @Path("/reset")
+    public Response reset() {
+        Nd4j.getOpMetrics().clear();
+        return Response.ok().build();
+    }
+
+    private static Map<String, Object> summary(OpMetrics metrics) {
+        LatencyHistogram latency = metrics.getLatency();
+        Map<String, Object> ret = new LinkedHashMap<>();
+        ret.put("op", metrics.getOp());
+        ret.put("backend", metrics.getBackend());
+        ret.put("invocations", metrics.getInvocations());
+        ret.put("elements", metrics.getElements());
+        ret.put("bytesAllocated", metrics.getBytesAllocated());
+        ret.put("blasNanos", metrics.getBlasNanos());
+        ret.put("loopNanos", metrics.getLoopNanos());
+        ret.put("meanNanos", latency.mean());
+        ret.put("p50Nanos", latency.valueAtPercentile(50));
+        ret.put("p90Nanos", latency.valueAtPercentile(90));
+        ret.put("p99Nanos", latency.valueAtPercentile(99));
+        ret.put("maxNanos", latency.max());
+        return ret;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ *
+ *  * Copyright 2015 Skymind,Inc.
+ *  *
+ *  *    Licensed under the Apache License, Version 2.0 (the "License");
+ *  *    you may not use this file except in compliance with the License.
+ *  *    You may obtain a copy of the License at
+ *  *
+ *  *        http://www.apache.org/licenses/LICENSE-2.0
+ *  *
+ *  *    Unless required by applicable law or agreed to in writing, software
+ *  *    distributed under the License is distributed on an "AS IS" BASIS,
+ *  *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  *    See the License for the specific language governing permissions and
+ *  *    limitations under the License.
+ *
+ *
+ */
+
+package org.nd4j.instrumentation.server;
+
+import org.nd4j.linalg.api.instrumentation.LatencyHistogram;
+import org.nd4j.linalg.api.instrumentation.OpMetrics;
+
+import java.util.Collection;
+
+/**
+ * Writes op metrics in the prometheus text exposition format
+ *
+ * @author Adam Gibson
+ */
+public class PrometheusExporter {
+    public final static String CONTENT_TYPE = "text/plain; version=0.0.4";
+    private final static double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private PrometheusExporter() {
+    }
+
+    /**
+     * Format the given metrics
+     * @param metrics the metrics to format
+     * @return the metrics in the prometheus text format
+     */
+    public static String export(Collection<OpMetrics> metrics) {
+        StringBuilder sb = new StringBuilder();
+        header(sb, "nd4j_op_invocations_total", "counter", "Number of times an op was run");
+        for(OpMetrics m : metrics)
+            sample(sb, "nd4j_op_invocations_total", labels(m, null), m.getInvocations());
+        header(sb, "nd4j_op_elements_total", "counter", "Number of elements processed by an op");
+        for(OpMetrics m : metrics)
+            sample(sb, "nd4j_op_elements_total", labels(m, null), m.getElements());
+        header(sb, "nd4j_op_allocated_bytes_total", "counter", "Bytes allocated while running an op");
+        for(OpMetrics m : metrics)
+            sample(sb, "nd4j_op_allocated_bytes_total", labels(m, null), m.getBytesAllocated());
+        header(sb, "nd4j_op_seconds_total", "counter", "Time spent running an op in blas or java loops");
+        for(OpMetrics m : metrics) {
+            sample(sb, "nd4j_op_seconds_total", labels(m, "path=\"blas\""), seconds(m.getBlasNanos()));
+            sample(sb, "nd4j_op_seconds_total", labels(m, "path=\"loop\""), seconds(m.getLoopNanos()));
+        }
+        header(sb, "nd4j_op_latency_seconds", "summary", "Latency of an op");
+        for(OpMetrics m : metrics) {
+            LatencyHistogram latency = m.getLatency();
+            for(double q : QUANTILES)
+                sample(sb, "nd4j_op_latency_seconds", labels(m, "quantile=\"" + q + "\""), seconds(latency.valueAtPercentile(q * 100)));
+            sample(sb, "nd4j_op_latency_seconds_sum", labels(m, null), seconds(latency.total()));
+            sample(sb, "nd4j_op_latency_seconds_count", labels(m, null), latency.count());
+        }
+        return sb.toString();
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name).append(labels).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, long value) {
+        sb.append(name).append(labels).append(' ').append(value).append('\n');
+    }
+
+    private static String labels(OpMetrics m, String extra) {
+        String ret = "{backend=\"" + escape(m.getBackend()) + "\",op=\"" + escape(m.getOp()) + "\"";
+        if(extra != null)
+            ret += "," + extra;
+        return ret + "}";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+}
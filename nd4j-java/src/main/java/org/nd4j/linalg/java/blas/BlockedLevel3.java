@@ -0,0 +1,549 @@
+package org.nd4j.linalg.java.blas;
+
+import org.nd4j.linalg.api.ops.executioner.ParallelOpExecutor;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pure java level 3 blas: gemm, syrk, symm, trmm and trsm.
+ *
+ * Matrix products are computed the way optimized blas libraries do:
+ * C is split in to tiles of {@link #MC} by {@link #NC} elements
+ * and the shared dimension in to panels of {@link #KC}.
+ * For each panel the slice of A and B a tile needs is packed
+ * in to contiguous slivers of {@link #MR} rows and {@link #NR} columns
+ * that stay in cache, and a register blocked kernel multiplies
+ * a sliver of A by a sliver of B in to an MR x NR block of C.
+ * Tiles are independent and are spread across the cores
+ * of the shared fork join pool when the product is large enough.
+ *
+ * Operands are {@link Matrix} views over double or float arrays with
+ * arbitrary row and column strides, so row major (c) and
+ * column major (fortran) layouts as well as transposes are all
+ * handled without copying. Arithmetic is done in double precision.
+ *
+ * @author Adam Gibson
+ */
+public class BlockedLevel3 {
+    /** Rows of a packed sliver of A */
+    public final static int MR = 4;
+    /** Columns of a packed sliver of B */
+    public final static int NR = 4;
+    /** Rows of a tile of C */
+    public final static int MC = 128;
+    /** Columns of a tile of C */
+    public final static int NC = 256;
+    /** Length of a panel of the shared dimension */
+    public final static int KC = 128;
+    //below this many multiply adds the product runs on the calling thread
+    private final static long PARALLEL_THRESHOLD = 1L << 21;
+    //rows solved per diagonal block in trsm
+    private final static int NB = 64;
+
+    //which part of C a product updates
+    private final static int FULL = 0, UPPER = 1, LOWER = 2;
+
+    private final static ThreadLocal<double[][]> WORKSPACE = new ThreadLocal<double[][]>() {
+        @Override
+        protected double[][] initialValue() {
+            return new double[][]{new double[MC * KC], new double[KC * NC]};
+        }
+    };
+
+    private BlockedLevel3() {
+    }
+
+    /**
+     * c := alpha * op(a) * op(b) + beta * c
+     * with blas conventions for the leading dimensions
+     *
+     * @param order 'c' for row major or 'f' for column major operands
+     * @param transA 'N' for a, 'T' or 'C' for its transpose
+     * @param transB 'N' for b, 'T' or 'C' for its transpose
+     * @param m the rows of op(a) and c
+     * @param n the columns of op(b) and c
+     * @param k the columns of op(a) and rows of op(b)
+     */
+    public static void dgemm(char order, char transA, char transB, int m, int n, int k, double alpha,
+                             double[] a, int aOffset, int lda, double[] b, int bOffset, int ldb,
+                             double beta, double[] c, int cOffset, int ldc) {
+        gemm(m, n, k, alpha,
+                Matrix.of(order, a, aOffset, lda).op(transA),
+                Matrix.of(order, b, bOffset, ldb).op(transB),
+                beta, Matrix.of(order, c, cOffset, ldc));
+    }
+
+    /**
+     * c := alpha * op(a) * op(b) + beta * c
+     * with blas conventions for the leading dimensions
+     *
+     * @param order 'c' for row major or 'f' for column major operands
+     * @param transA 'N' for a, 'T' or 'C' for its transpose
+     * @param transB 'N' for b, 'T' or 'C' for its transpose
+     * @param m the rows of op(a) and c
+     * @param n the columns of op(b) and c
+     * @param k the columns of op(a) and rows of op(b)
+     */
+    public static void sgemm(char order, char transA, char transB, int m, int n, int k, float alpha,
+                             float[] a, int aOffset, int lda, float[] b, int bOffset, int ldb,
+                             float beta, float[] c, int cOffset, int ldc) {
+        gemm(m, n, k, alpha,
+                Matrix.of(order, a, aOffset, lda).op(transA),
+                Matrix.of(order, b, bOffset, ldb).op(transB),
+                beta, Matrix.of(order, c, cOffset, ldc));
+    }
+
+    /**
+     * c := alpha * a * b + beta * c
+     * @param m the rows of a and c
+     * @param n the columns of b and c
+     * @param k the columns of a and rows of b
+     */
+    public static void gemm(int m, int n, int k, double alpha, Matrix a, Matrix b, double beta, Matrix c) {
+        gemm(m, n, k, alpha, a, b, beta, c, FULL);
+    }
+
+    /**
+     * c := alpha * op(a) * op(a)' + beta * c
+     * updating only the given triangle of c
+     * @param uplo 'U' for the upper or 'L' for the lower triangle of c
+     * @param trans 'N' if op(a) is a (n x k), otherwise a' (a is k x n)
+     * @param n the order of c
+     * @param k the columns of op(a)
+     */
+    public static void syrk(char uplo, char trans, int n, int k, double alpha, Matrix a, double beta, Matrix c) {
+        Matrix opA = a.op(trans);
+        gemm(n, n, k, alpha, opA, opA.transpose(), beta, c, isUpper(uplo) ? UPPER : LOWER);
+    }
+
+    /**
+     * c := alpha * a * b + beta * c (side 'L') or alpha * b * a + beta * c (side 'R')
+     * where a is symmetric and only its given triangle is read
+     * @param side whether a is on the left or the right
+     * @param uplo the triangle of a that is stored
+     * @param m the rows of c
+     * @param n the columns of c
+     */
+    public static void symm(char side, char uplo, int m, int n, double alpha, Matrix a, Matrix b, double beta, Matrix c) {
+        Matrix symmetric = a.structure(isUpper(uplo) ? Matrix.SYMMETRIC_UPPER : Matrix.SYMMETRIC_LOWER);
+        if(isLeft(side))
+            gemm(m, n, m, alpha, symmetric, b, beta, c);
+        else
+            gemm(m, n, n, alpha, b, symmetric, beta, c);
+    }
+
+    /**
+     * b := alpha * op(a) * b (side 'L') or alpha * b * op(a) (side 'R')
+     * where a is triangular and only its given triangle is read
+     * @param side whether op(a) is on the left or the right
+     * @param uplo the triangle of a that is stored
+     * @param transA 'N' for a, 'T' or 'C' for its transpose
+     * @param diag 'U' if the diagonal of a is all ones and not read, 'N' otherwise
+     * @param m the rows of b
+     * @param n the columns of b
+     */
+    public static void trmm(char side, char uplo, char transA, char diag, int m, int n, double alpha, Matrix a, Matrix b) {
+        int structure = isUnit(diag) ? (isUpper(uplo) ? Matrix.UNIT_UPPER : Matrix.UNIT_LOWER)
+                : (isUpper(uplo) ? Matrix.UPPER : Matrix.LOWER);
+        Matrix triangular = a.structure(structure).op(transA);
+        //b is both an operand and the result
+        Matrix product = new Matrix(new double[m * n], 0, 1, m);
+        if(isLeft(side))
+            gemm(m, n, m, alpha, triangular, b, 0, product);
+        else
+            gemm(m, n, n, alpha, b, triangular, 0, product);
+        for(int j = 0; j < n; j++)
+            for(int i = 0; i < m; i++)
+                b.set(i, j, product.get(i, j));
+    }
+
+    /**
+     * Solve op(a) * x = alpha * b (side 'L') or x * op(a) = alpha * b (side 'R')
+     * overwriting b with x, where a is triangular and only its given triangle is read
+     * @param side whether op(a) is on the left or the right
+     * @param uplo the triangle of a that is stored
+     * @param transA 'N' for a, 'T' or 'C' for its transpose
+     * @param diag 'U' if the diagonal of a is all ones and not read, 'N' otherwise
+     * @param m the rows of b
+     * @param n the columns of b
+     */
+    public static void trsm(char side, char uplo, char transA, char diag, int m, int n, double alpha, Matrix a, Matrix b) {
+        Matrix opA = a.op(transA);
+        boolean lower = !isUpper(uplo) ^ isTranspose(transA);
+        boolean unit = isUnit(diag);
+        //x * op(a) = b is op(a)' * x' = b'
+        if(!isLeft(side)) {
+            opA = opA.transpose();
+            lower = !lower;
+            b = b.transpose();
+            int tmp = m;
+            m = n;
+            n = tmp;
+        }
+        if(m <= 0 || n <= 0)
+            return;
+        if(alpha != 1)
+            scale(b, m, n, alpha, FULL);
+
+        //solve a block of rows then subtract it from the rows still to be solved
+        if(lower) {
+            for(int kb = 0; kb < m; kb += NB) {
+                int nb = Math.min(NB, m - kb);
+                solve(opA, b, kb, nb, n, unit, true);
+                if(kb + nb < m)
+                    gemm(m - kb - nb, n, nb, -1, opA.block(kb + nb, kb), b.block(kb, 0), 1, b.block(kb + nb, 0));
+            }
+        }
+        else {
+            for(int kb = ((m - 1) / NB) * NB; kb >= 0; kb -= NB) {
+                int nb = Math.min(NB, m - kb);
+                solve(opA, b, kb, nb, n, unit, false);
+                if(kb > 0)
+                    gemm(kb, n, nb, -1, opA.block(0, kb), b.block(kb, 0), 1, b);
+            }
+        }
+    }
+
+    //substitution on the rows start .. start + count of b for a diagonal block of a
+    private static void solve(Matrix a, Matrix b, int start, int count, int n, boolean unit, boolean lower) {
+        int end = start + count;
+        for(int j = 0; j < n; j++) {
+            if(lower) {
+                for(int i = start; i < end; i++) {
+                    double sum = b.get(i, j);
+                    for(int p = start; p < i; p++)
+                        sum -= a.get(i, p) * b.get(p, j);
+                    b.set(i, j, unit ? sum : sum / a.get(i, i));
+                }
+            }
+            else {
+                for(int i = end - 1; i >= start; i--) {
+                    double sum = b.get(i, j);
+                    for(int p = i + 1; p < end; p++)
+                        sum -= a.get(i, p) * b.get(p, j);
+                    b.set(i, j, unit ? sum : sum / a.get(i, i));
+                }
+            }
+        }
+    }
+
+    private static void gemm(int m, int n, int k, double alpha, Matrix a, Matrix b, double beta, Matrix c, int triangle) {
+        if(m <= 0 || n <= 0)
+            return;
+        if(beta != 1)
+            scale(c, m, n, beta, triangle);
+        if(k <= 0 || alpha == 0)
+            return;
+
+        Product product = new Product(m, n, k, alpha, a, b, c, triangle);
+        int tiles = product.tilesM * product.tilesN;
+        if(tiles == 1 || (long) m * n * k < PARALLEL_THRESHOLD) {
+            for(int t = 0; t < tiles; t++)
+                product.tile(t);
+        }
+        else
+            ParallelOpExecutor.pool().invoke(new Tiles(product, 0, tiles));
+    }
+
+    //c := beta * c over the part of c being updated
+    private static void scale(Matrix c, int m, int n, double beta, int triangle) {
+        for(int j = 0; j < n; j++)
+            for(int i = 0; i < m; i++)
+                if(inTriangle(i, j, triangle))
+                    c.set(i, j, beta == 0 ? 0 : beta * c.get(i, j));
+    }
+
+    private static boolean inTriangle(int i, int j, int triangle) {
+        return triangle == FULL || (triangle == UPPER ? i <= j : i >= j);
+    }
+
+    private static boolean isUpper(char uplo) {
+        return uplo == 'U' || uplo == 'u';
+    }
+
+    private static boolean isLeft(char side) {
+        return side == 'L' || side == 'l';
+    }
+
+    private static boolean isUnit(char diag) {
+        return diag == 'U' || diag == 'u';
+    }
+
+    private static boolean isTranspose(char trans) {
+        return trans != 'N' && trans != 'n';
+    }
+
+    //c += alpha * a * b, one tile of c at a time
+    private static class Product {
+        private final int m, n, k;
+        private final double alpha;
+        private final Matrix a, b, c;
+        private final int triangle;
+        private final int tilesM, tilesN;
+
+        Product(int m, int n, int k, double alpha, Matrix a, Matrix b, Matrix c, int triangle) {
+            this.m = m;
+            this.n = n;
+            this.k = k;
+            this.alpha = alpha;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.triangle = triangle;
+            tilesM = (m + MC - 1) / MC;
+            tilesN = (n + NC - 1) / NC;
+        }
+
+        void tile(int t) {
+            int i0 = (t % tilesM) * MC;
+            int j0 = (t / tilesM) * NC;
+            int mc = Math.min(MC, m - i0);
+            int nc = Math.min(NC, n - j0);
+            //tiles entirely outside the updated triangle
+            if(triangle == UPPER && i0 > j0 + nc - 1 || triangle == LOWER && i0 + mc - 1 < j0)
+                return;
+
+            double[][] workspace = WORKSPACE.get();
+            double[] packedA = workspace[0];
+            double[] packedB = workspace[1];
+            for(int p0 = 0; p0 < k; p0 += KC) {
+                int kc = Math.min(KC, k - p0);
+                packB(p0, j0, kc, nc, packedB);
+                packA(i0, p0, mc, kc, packedA);
+                for(int jr = 0; jr < nc; jr += NR)
+                    for(int ir = 0; ir < mc; ir += MR)
+                        kernel(kc, packedA, ir * kc, packedB, jr * kc, i0 + ir, j0 + jr, Math.min(MR, mc - ir), Math.min(NR, nc - jr));
+            }
+        }
+
+        //slivers of MR rows: element (r, p) of the sliver at ir is at ir * kc + p * MR + r
+        private void packA(int i0, int p0, int mc, int kc, double[] packed) {
+            for(int ir = 0; ir < mc; ir += MR) {
+                int rows = Math.min(MR, mc - ir);
+                int base = ir * kc;
+                for(int p = 0; p < kc; p++) {
+                    int dest = base + p * MR;
+                    for(int r = 0; r < MR; r++)
+                        packed[dest + r] = r < rows ? a.get(i0 + ir + r, p0 + p) : 0;
+                }
+            }
+        }
+
+        //slivers of NR columns: element (p, s) of the sliver at jr is at jr * kc + p * NR + s
+        private void packB(int p0, int j0, int kc, int nc, double[] packed) {
+            for(int jr = 0; jr < nc; jr += NR) {
+                int columns = Math.min(NR, nc - jr);
+                int base = jr * kc;
+                for(int p = 0; p < kc; p++) {
+                    int dest = base + p * NR;
+                    for(int s = 0; s < NR; s++)
+                        packed[dest + s] = s < columns ? b.get(p0 + p, j0 + jr + s) : 0;
+                }
+            }
+        }
+
+        //c[i0 .. i0 + rows, j0 .. j0 + columns] += alpha * sliver of a * sliver of b
+        private void kernel(int kc, double[] a, int ai, double[] b, int bi, int i0, int j0, int rows, int columns) {
+            double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+            double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+            double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+            double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+            for(int p = 0; p < kc; p++, ai += MR, bi += NR) {
+                double a0 = a[ai], a1 = a[ai + 1], a2 = a[ai + 2], a3 = a[ai + 3];
+                double b0 = b[bi];
+                c00 += a0 * b0; c10 += a1 * b0; c20 += a2 * b0; c30 += a3 * b0;
+                double b1 = b[bi + 1];
+                c01 += a0 * b1; c11 += a1 * b1; c21 += a2 * b1; c31 += a3 * b1;
+                double b2 = b[bi + 2];
+                c02 += a0 * b2; c12 += a1 * b2; c22 += a2 * b2; c32 += a3 * b2;
+                double b3 = b[bi + 3];
+                c03 += a0 * b3; c13 += a1 * b3; c23 += a2 * b3; c33 += a3 * b3;
+            }
+            update(i0, j0, rows, columns, 0, c00, c10, c20, c30);
+            if(columns > 1)
+                update(i0, j0, rows, columns, 1, c01, c11, c21, c31);
+            if(columns > 2)
+                update(i0, j0, rows, columns, 2, c02, c12, c22, c32);
+            if(columns > 3)
+                update(i0, j0, rows, columns, 3, c03, c13, c23, c33);
+        }
+
+        //add alpha times a column of the register block to c
+        private void update(int i0, int j0, int rows, int columns, int s, double r0, double r1, double r2, double r3) {
+            int j = j0 + s;
+            if(inTriangle(i0, j, triangle))
+                c.add(i0, j, alpha * r0);
+            if(rows > 1 && inTriangle(i0 + 1, j, triangle))
+                c.add(i0 + 1, j, alpha * r1);
+            if(rows > 2 && inTriangle(i0 + 2, j, triangle))
+                c.add(i0 + 2, j, alpha * r2);
+            if(rows > 3 && inTriangle(i0 + 3, j, triangle))
+                c.add(i0 + 3, j, alpha * r3);
+        }
+    }
+
+    private static class Tiles extends RecursiveAction {
+        private final Product product;
+        private final int from, to;
+
+        Tiles(Product product, int from, int to) {
+            this.product = product;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new Tiles(product, from, mid), new Tiles(product, mid, to));
+                return;
+            }
+            product.tile(from);
+        }
+    }
+
+    /**
+     * A strided view of a matrix stored in a double or float array:
+     * element (i, j) is at offset + i * rowStride + j * columnStride.
+     * A view may also read the array as a symmetric or triangular
+     * matrix of which only one triangle is stored.
+     */
+    public static class Matrix {
+        public final static int GENERAL = 0;
+        public final static int SYMMETRIC_UPPER = 1;
+        public final static int SYMMETRIC_LOWER = 2;
+        public final static int UPPER = 3;
+        public final static int LOWER = 4;
+        public final static int UNIT_UPPER = 5;
+        public final static int UNIT_LOWER = 6;
+
+        private final double[] doubles;
+        private final float[] floats;
+        private final int offset, rowStride, columnStride;
+        private final int structure;
+
+        public Matrix(double[] data, int offset, int rowStride, int columnStride) {
+            this(data, null, offset, rowStride, columnStride, GENERAL);
+        }
+
+        public Matrix(float[] data, int offset, int rowStride, int columnStride) {
+            this(null, data, offset, rowStride, columnStride, GENERAL);
+        }
+
+        private Matrix(double[] doubles, float[] floats, int offset, int rowStride, int columnStride, int structure) {
+            this.doubles = doubles;
+            this.floats = floats;
+            this.offset = offset;
+            this.rowStride = rowStride;
+            this.columnStride = columnStride;
+            this.structure = structure;
+        }
+
+        /**
+         * A view with blas conventions
+         * @param order 'c' for row major, 'f' for column major
+         * @param data the data
+         * @param offset the offset of the first element
+         * @param ld the leading dimension
+         * @return the view
+         */
+        public static Matrix of(char order, double[] data, int offset, int ld) {
+            return isRowMajor(order) ? new Matrix(data, offset, ld, 1) : new Matrix(data, offset, 1, ld);
+        }
+
+        /**
+         * A view with blas conventions
+         * @param order 'c' for row major, 'f' for column major
+         * @param data the data
+         * @param offset the offset of the first element
+         * @param ld the leading dimension
+         * @return the view
+         */
+        public static Matrix of(char order, float[] data, int offset, int ld) {
+            return isRowMajor(order) ? new Matrix(data, offset, ld, 1) : new Matrix(data, offset, 1, ld);
+        }
+
+        /**
+         * @return the transpose of this matrix, sharing its data
+         */
+        public Matrix transpose() {
+            int transposed = structure;
+            switch(structure) {
+                case SYMMETRIC_UPPER: transposed = SYMMETRIC_LOWER; break;
+                case SYMMETRIC_LOWER: transposed = SYMMETRIC_UPPER; break;
+                case UPPER: transposed = LOWER; break;
+                case LOWER: transposed = UPPER; break;
+                case UNIT_UPPER: transposed = UNIT_LOWER; break;
+                case UNIT_LOWER: transposed = UNIT_UPPER; break;
+            }
+            return new Matrix(doubles, floats, offset, columnStride, rowStride, transposed);
+        }
+
+        /**
+         * @param trans 'N' for this matrix, 'T' or 'C' for its transpose
+         * @return op(this)
+         */
+        public Matrix op(char trans) {
+            return isTranspose(trans) ? transpose() : this;
+        }
+
+        /**
+         * The general sub matrix starting at the given element
+         * @param i the first row
+         * @param j the first column
+         * @return the sub matrix
+         */
+        public Matrix block(int i, int j) {
+            return new Matrix(doubles, floats, offset + i * rowStride + j * columnStride, rowStride, columnStride, GENERAL);
+        }
+
+        Matrix structure(int structure) {
+            return new Matrix(doubles, floats, offset, rowStride, columnStride, structure);
+        }
+
+        public double get(int i, int j) {
+            switch(structure) {
+                case SYMMETRIC_UPPER:
+                    return i <= j ? raw(i, j) : raw(j, i);
+                case SYMMETRIC_LOWER:
+                    return i >= j ? raw(i, j) : raw(j, i);
+                case UPPER:
+                    return i <= j ? raw(i, j) : 0;
+                case LOWER:
+                    return i >= j ? raw(i, j) : 0;
+                case UNIT_UPPER:
+                    return i < j ? raw(i, j) : i == j ? 1 : 0;
+                case UNIT_LOWER:
+                    return i > j ? raw(i, j) : i == j ? 1 : 0;
+                default:
+                    return raw(i, j);
+            }
+        }
+
+        public void set(int i, int j, double value) {
+            int index = offset + i * rowStride + j * columnStride;
+            if(doubles != null)
+                doubles[index] = value;
+            else
+                floats[index] = (float) value;
+        }
+
+        void add(int i, int j, double value) {
+            int index = offset + i * rowStride + j * columnStride;
+            if(doubles != null)
+                doubles[index] += value;
+            else
+                floats[index] += value;
+        }
+
+        private double raw(int i, int j) {
+            int index = offset + i * rowStride + j * columnStride;
+            return doubles != null ? doubles[index] : floats[index];
+        }
+
+        private static boolean isRowMajor(char order) {
+            return order == 'c' || order == 'C';
+        }
+    }
+}
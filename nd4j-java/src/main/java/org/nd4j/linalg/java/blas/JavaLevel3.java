@@ -1,47 +1,44 @@
 package org.nd4j.linalg.java.blas;
 
-import com.github.fommil.netlib.BLAS;
 import org.nd4j.linalg.api.blas.impl.BaseLevel3;
 import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.util.Shape;
+import org.nd4j.linalg.java.blas.BlockedLevel3.Matrix;
 
 import static org.nd4j.linalg.api.blas.BlasBufferUtil.*;
 
 
 /**
+ * Level 3 blas backed by the pure java {@link BlockedLevel3}
+ *
  * @author Adam Gibson
  */
 public class JavaLevel3 extends BaseLevel3 {
     @Override
     protected void sgemm(char Order, char TransA, char TransB, int M, int N, int K, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
-        A = Shape.toOffsetZero(A);
-        B = Shape.toOffsetZero(B);
-
-        float[] cData = getFloatData(C);
-        BLAS.getInstance().sgemm(
-                String.valueOf(TransA)
-                ,String.valueOf(TransB)
-                ,M
-                ,N
-                ,K
-                ,alpha
-                ,getFloatData(A),getBlasOffset(A),lda,getFloatData(B),getBlasOffset(B),ldb,beta,cData,getBlasOffset(C),ldc);
-        setData(cData,C);
+        //views are read in place through their offset and leading dimension
+        float[] cData = getBackingFloatData(C);
+        //the gemm params are already in column major form
+        BlockedLevel3.sgemm('f', TransA, TransB, M, N, K, alpha, getBackingFloatData(A), getBlasOffset(A), lda, getBackingFloatData(B), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
+        setBackingData(cData, C);
     }
 
     @Override
     protected void ssymm(char Order, char Side, char Uplo, int M, int N, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
-        throw new UnsupportedOperationException();
-
+        float[] a = getBackingFloatData(A), b = getBackingFloatData(B), c = getBackingFloatData(C);
+        BlockedLevel3.symm(Side, Uplo, C.rows(), C.columns(), alpha, matrix(A, a), matrix(B, b), beta, matrix(C, c));
+        setBackingData(c, C);
     }
 
     @Override
     protected void ssyrk(char Order, char Uplo, char Trans, int N, int K, float alpha, INDArray A, int lda, float beta, INDArray C, int ldc) {
-        throw new UnsupportedOperationException();
-
+        float[] a = getBackingFloatData(A), c = getBackingFloatData(C);
+        //the rank of the update is the shared dimension of op(A)
+        int k = Trans == 'N' || Trans == 'n' ? A.columns() : A.rows();
+        BlockedLevel3.syrk(Uplo, Trans, C.rows(), k, alpha, matrix(A, a), beta, matrix(C, c));
+        setBackingData(c, C);
     }
 
     @Override
@@ -52,36 +49,41 @@ public class JavaLevel3 extends BaseLevel3 {
 
     @Override
     protected void strmm(char Order, char Side, char Uplo, char TransA, char Diag, int M, int N, float alpha, INDArray A, int lda, INDArray B, int ldb) {
-        throw new UnsupportedOperationException();
-
+        float[] a = getBackingFloatData(A), b = getBackingFloatData(B);
+        BlockedLevel3.trmm(Side, Uplo, TransA, Diag, B.rows(), B.columns(), alpha, matrix(A, a), matrix(B, b));
+        setBackingData(b, B);
     }
 
     @Override
     protected void strsm(char Order, char Side, char Uplo, char TransA, char Diag, int M, int N, float alpha, INDArray A, int lda, INDArray B, int ldb) {
-        throw new UnsupportedOperationException();
-
+        float[] a = getBackingFloatData(A), b = getBackingFloatData(B);
+        BlockedLevel3.trsm(Side, Uplo, TransA, Diag, B.rows(), B.columns(), alpha, matrix(A, a), matrix(B, b));
+        setBackingData(b, B);
     }
 
     @Override
     protected void dgemm(char Order, char TransA, char TransB, int M, int N, int K, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
-        A = Shape.toOffsetZero(A);
-        B = Shape.toOffsetZero(B);
-
-        double[] cData = getDoubleData(C);
-        BLAS.getInstance().dgemm(String.valueOf(TransA), String.valueOf(TransB), M, N, K, alpha, getDoubleData(A), getBlasOffset(A), lda, getDoubleData(B), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
-        setData(cData,C);
+        //views are read in place through their offset and leading dimension
+        double[] cData = getBackingDoubleData(C);
+        //the gemm params are already in column major form
+        BlockedLevel3.dgemm('f', TransA, TransB, M, N, K, alpha, getBackingDoubleData(A), getBlasOffset(A), lda, getBackingDoubleData(B), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
+        setBackingData(cData, C);
     }
 
     @Override
     protected void dsymm(char Order, char Side, char Uplo, int M, int N, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
-        throw new UnsupportedOperationException();
-
+        double[] a = getBackingDoubleData(A), b = getBackingDoubleData(B), c = getBackingDoubleData(C);
+        BlockedLevel3.symm(Side, Uplo, C.rows(), C.columns(), alpha, matrix(A, a), matrix(B, b), beta, matrix(C, c));
+        setBackingData(c, C);
     }
 
     @Override
     protected void dsyrk(char Order, char Uplo, char Trans, int N, int K, double alpha, INDArray A, int lda, double beta, INDArray C, int ldc) {
-        throw new UnsupportedOperationException();
-
+        double[] a = getBackingDoubleData(A), c = getBackingDoubleData(C);
+        //the rank of the update is the shared dimension of op(A)
+        int k = Trans == 'N' || Trans == 'n' ? A.columns() : A.rows();
+        BlockedLevel3.syrk(Uplo, Trans, C.rows(), k, alpha, matrix(A, a), beta, matrix(C, c));
+        setBackingData(c, C);
     }
 
     @Override
@@ -92,14 +94,16 @@ public class JavaLevel3 extends BaseLevel3 {
 
     @Override
     protected void dtrmm(char Order, char Side, char Uplo, char TransA, char Diag, int M, int N, double alpha, INDArray A, int lda, INDArray B, int ldb) {
-        throw new UnsupportedOperationException();
-
+        double[] a = getBackingDoubleData(A), b = getBackingDoubleData(B);
+        BlockedLevel3.trmm(Side, Uplo, TransA, Diag, B.rows(), B.columns(), alpha, matrix(A, a), matrix(B, b));
+        setBackingData(b, B);
     }
 
     @Override
     protected void dtrsm(char Order, char Side, char Uplo, char TransA, char Diag, int M, int N, double alpha, INDArray A, int lda, INDArray B, int ldb) {
-        throw new UnsupportedOperationException();
-
+        double[] a = getBackingDoubleData(A), b = getBackingDoubleData(B);
+        BlockedLevel3.trsm(Side, Uplo, TransA, Diag, B.rows(), B.columns(), alpha, matrix(A, a), matrix(B, b));
+        setBackingData(b, B);
     }
 
     @Override
@@ -209,4 +213,14 @@ public class JavaLevel3 extends BaseLevel3 {
         throw new UnsupportedOperationException();
 
     }
+
+
+    //matrices are read in place through their offset and strides
+    private static Matrix matrix(INDArray arr, double[] data) {
+        return new Matrix(data, arr.offset(), arr.stride(0), arr.stride(1));
+    }
+
+    private static Matrix matrix(INDArray arr, float[] data) {
+        return new Matrix(data, arr.offset(), arr.stride(0), arr.stride(1));
+    }
 }
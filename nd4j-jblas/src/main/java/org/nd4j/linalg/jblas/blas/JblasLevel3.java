@@ -11,6 +11,9 @@ import org.nd4j.linalg.jblas.util.JblasComplex;
 import org.nd4j.linalg.util.Shape;
 
 import static org.nd4j.linalg.api.blas.BlasBufferUtil.getBlasOffset;
+import static org.nd4j.linalg.api.blas.BlasBufferUtil.getBackingDoubleData;
+import static org.nd4j.linalg.api.blas.BlasBufferUtil.getBackingFloatData;
+import static org.nd4j.linalg.api.blas.BlasBufferUtil.setBackingData;
 import static org.nd4j.linalg.api.blas.BlasBufferUtil.setData;
 
 
@@ -25,29 +28,10 @@ import static org.nd4j.linalg.api.blas.BlasBufferUtil.setData;
 public class JblasLevel3 extends BaseLevel3 {
     @Override
     protected void sgemm(char Order, char TransA, char TransB, int M, int N, int K, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
-        DataBuffer aData = Shape.toOffsetZero(A).data();
-        DataBuffer bData = Shape.toOffsetZero(B).data();
-        float[] aDataArr = aData.asFloat();
-        float[] bDataArr = bData.asFloat();
-        float[] cData = getFloatData(C);
-        NativeBlas.sgemm(
-                TransA
-                ,TransB
-                ,M
-                ,N,
-                K,
-                alpha
-                ,aDataArr
-                ,0
-                ,lda,
-                bDataArr
-                ,0
-                ,ldb
-                ,beta
-                ,cData
-                ,0
-                ,ldc);
-        setData(cData,C);
+        //views are read in place through their offset and leading dimension
+        float[] cData = getBackingFloatData(C);
+        NativeBlas.sgemm(TransA, TransB, M, N, K, alpha, getBackingFloatData(A), getBlasOffset(A), lda, getBackingFloatData(B), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
+        setBackingData(cData, C);
     }
 
     @Override
@@ -81,32 +65,10 @@ public class JblasLevel3 extends BaseLevel3 {
 
     @Override
     protected void dgemm(char Order, char TransA, char TransB, int M, int N, int K, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
-        DataBuffer aData = Shape.toOffsetZero(A).data();
-        DataBuffer bData = Shape.toOffsetZero(B).data();
-        double[] aDataArr = aData.asDouble();
-        double[] bDataArr = bData.asDouble();
-        double[] cData = getDoubleData(C);
-        NativeBlas.dgemm(
-                TransA
-                , TransB
-                , M
-                ,
-                N,
-                K,
-                alpha,
-               aDataArr
-                ,getBlasOffset(A)
-                ,
-                lda,
-                bDataArr
-                , getBlasOffset(B)
-                , ldb
-                ,
-                beta
-                , cData
-                , getBlasOffset(C)
-                , ldc);
-        setData(cData,C);
+        //views are read in place through their offset and leading dimension
+        double[] cData = getBackingDoubleData(C);
+        NativeBlas.dgemm(TransA, TransB, M, N, K, alpha, getBackingDoubleData(A), getBlasOffset(A), lda, getBackingDoubleData(B), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
+        setBackingData(cData, C);
     }
 
     @Override
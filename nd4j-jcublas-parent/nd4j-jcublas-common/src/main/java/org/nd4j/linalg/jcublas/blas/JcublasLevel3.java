@@ -27,6 +27,12 @@ import org.nd4j.linalg.util.Shape;
  * @author Adam Gibson
  */
 public class JcublasLevel3 extends BaseLevel3 {
+    //cublas pointers copy views to the device packed
+    @Override
+    protected boolean supportsStridedViews() {
+        return false;
+    }
+
     @Override
     protected void sgemm(char Order, char TransA, char TransB, int M, int N, int K, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
         SimpleJCublas.sync();
@@ -24,6 +24,7 @@ import org.nd4j.jdbc.driverfinder.DriverFinder;
 import org.nd4j.jdbc.loader.api.JDBCNDArrayIO;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.compression.ArrayCodec;
 import org.nd4j.linalg.factory.Nd4j;
 
 import javax.sql.DataSource;
@@ -43,6 +44,7 @@ public abstract class BaseLoader implements JDBCNDArrayIO {
 
     protected String tableName, columnName, idColumnName, jdbcUrl;
     protected DataSource dataSource;
+    protected ArrayCodec codec;
 
     protected BaseLoader(DataSource dataSource, String jdbcUrl, String tableName, String idColumnName, String columnName) throws Exception {
         this.dataSource = dataSource;
@@ -77,6 +79,30 @@ public abstract class BaseLoader implements JDBCNDArrayIO {
 
     }
 
+    /**
+     * The codec arrays are compressed with when saved
+     * @return the codec or null if arrays are stored uncompressed
+     */
+    public ArrayCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Compress saved arrays with the given codec.
+     * Loading detects the codec so existing rows stay readable
+     * @param codec the codec to use or null to store arrays uncompressed
+     */
+    public void setCodec(ArrayCodec codec) {
+        this.codec = codec;
+    }
+
+    private void write(INDArray arr, DataOutputStream dos) throws IOException {
+        if (codec != null)
+            Nd4j.write(arr, dos, codec);
+        else
+            Nd4j.write(arr, dos);
+    }
+
     /**
      * Convert an ndarray to a blob
      *
@@ -109,7 +135,7 @@ public abstract class BaseLoader implements JDBCNDArrayIO {
         ByteArrayOutputStream bos = new ByteArrayOutputStream();
         DataOutputStream dos = new DataOutputStream(bos);
 
-        Nd4j.write(toConvert, dos);
+        write(toConvert, dos);
 
         byte[] bytes = bos.toByteArray();
         Connection c = dataSource.getConnection();
@@ -175,7 +201,7 @@ public abstract class BaseLoader implements JDBCNDArrayIO {
             IComplexNDArray c2 = (IComplexNDArray) save;
             Nd4j.writeComplex(c2, dos);
         } else
-            Nd4j.write(save, dos);
+            write(save, dos);
 
         byte[] bytes = bos.toByteArray();
 
@@ -6,7 +6,6 @@ import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.util.Shape;
 
 import static org.nd4j.linalg.api.blas.BlasBufferUtil.*;
 import static org.nd4j.linalg.api.blas.BlasBufferUtil.getDoubleData;
@@ -19,12 +18,10 @@ import static org.nd4j.linalg.api.blas.BlasBufferUtil.getFloatData;
 public class NetlibLevel3 extends BaseLevel3 {
     @Override
     protected void sgemm(char Order, char TransA, char TransB, int M, int N, int K, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
-        A = Shape.toOffsetZero(A);
-        B = Shape.toOffsetZero(B);
-
-        float[] cData = getFloatData(C);
-        BLAS.getInstance().sgemm(String.valueOf(TransA),String.valueOf(TransB),M,N,K,alpha,getFloatData(A),getBlasOffset(A),lda,getFloatData(B),getBlasOffset(B),ldb,beta,cData,getBlasOffset(C),ldc);
-        setData(cData,C);
+        //views are read in place through their offset and leading dimension
+        float[] cData = getBackingFloatData(C);
+        BLAS.getInstance().sgemm(String.valueOf(TransA), String.valueOf(TransB), M, N, K, alpha, getBackingFloatData(A), getBlasOffset(A), lda, getBackingFloatData(B), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
+        setBackingData(cData, C);
     }
 
     @Override
@@ -64,28 +61,10 @@ public class NetlibLevel3 extends BaseLevel3 {
 
     @Override
     protected void dgemm(char Order, char TransA, char TransB, int M, int N, int K, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
-        A = Shape.toOffsetZero(A);
-        B = Shape.toOffsetZero(B);
-
-        double[] cData = getDoubleData(C);
-        BLAS.getInstance().dgemm(
-                String.valueOf(TransA)
-                , String.valueOf(TransB)
-                , M
-                , N
-                , K
-                , alpha
-                , getDoubleData(A)
-                , getBlasOffset(A)
-                , lda
-                , getDoubleData(B)
-                , getBlasOffset(B)
-                , ldb
-                , beta
-                , cData
-                , getBlasOffset(C),
-                ldc);
-        setData(cData,C);
+        //views are read in place through their offset and leading dimension
+        double[] cData = getBackingDoubleData(C);
+        BLAS.getInstance().dgemm(String.valueOf(TransA), String.valueOf(TransB), M, N, K, alpha, getBackingDoubleData(A), getBlasOffset(A), lda, getBackingDoubleData(B), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
+        setBackingData(cData, C);
     }
 
     @Override
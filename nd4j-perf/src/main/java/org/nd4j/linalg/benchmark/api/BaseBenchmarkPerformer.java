@@ -6,8 +6,10 @@ import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 
 /**
+ * @deprecated see the jmh benchmarks in org.nd4j.linalg.benchmark.jmh
  * @author Adam Gibson
  */
+@Deprecated
 public abstract class BaseBenchmarkPerformer implements BenchMarkPerformer {
     protected int nTimes;
     protected long averageTime;
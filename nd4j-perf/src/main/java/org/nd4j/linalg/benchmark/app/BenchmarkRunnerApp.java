@@ -19,8 +19,11 @@ import java.util.concurrent.TimeUnit;
  *
  * You can specify the number of trials to run for each benchmark.
  *
+ * @deprecated times without warmup or fork isolation:
+ * use {@link org.nd4j.linalg.benchmark.jmh.JmhBenchmarkApp}
  * @author Adam Gibson
  */
+@Deprecated
 public class BenchmarkRunnerApp {
     @Option(name="--nTrials",usage="Number of trials to run",aliases = "-n")
     private int nTrials = 1000;
@@ -0,0 +1,109 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ServiceLoader;
+
+/**
+ * Common parameters of the jmh benchmarks:
+ * the backend, data type, ordering and whether
+ * the operands are views in to larger arrays or contiguous arrays.
+ *
+ * Each fork initializes its backend once per trial,
+ * so every backend runs in its own jvm.
+ * Sub classes create their operands in {@link #setUp()}
+ *
+ * @author Adam Gibson
+ */
+@State(Scope.Benchmark)
+public abstract class BaseBenchmark {
+    /**
+     * Class name of the backend to run,
+     * empty for the highest priority backend on the class path
+     */
+    @Param({""})
+    public String backend;
+    @Param({"float", "double"})
+    public String dtype;
+    @Param({"c", "f"})
+    public char ordering;
+    @Param({"false", "true"})
+    public boolean view;
+
+    @Setup(Level.Trial)
+    public void initBackend() throws Exception {
+        new Nd4j().initWithBackend(findBackend(backend));
+        Nd4j.dtype = dtype.equals("float") ? DataBuffer.Type.FLOAT : DataBuffer.Type.DOUBLE;
+        Nd4j.factory().setDType(Nd4j.dtype);
+        Nd4j.factory().setOrder(ordering);
+        setUp();
+    }
+
+    /**
+     * Create the operands of the benchmark.
+     * Called once per trial after the backend is initialized
+     */
+    protected abstract void setUp() throws Exception;
+
+    /**
+     * A random matrix: either a contiguous array or, when benchmarking views,
+     * the top left corner of an array twice as large in each dimension
+     * @param rows the number of rows
+     * @param columns the number of columns
+     * @return the matrix
+     */
+    protected INDArray matrix(int rows, int columns) {
+        if(!view)
+            return Nd4j.rand(rows, columns);
+        return Nd4j.rand(2 * rows, 2 * columns).get(NDArrayIndex.interval(0, rows), NDArrayIndex.interval(0, columns));
+    }
+
+    /**
+     * A random row vector: either a contiguous array
+     * or a row of a matrix whose elements are not adjacent when benchmarking views
+     * @param length the length of the vector
+     * @return the vector
+     */
+    protected INDArray vector(int length) {
+        if(!view)
+            return Nd4j.rand(1, length);
+        return matrix(length, 2).getColumn(0).transpose();
+    }
+
+    /**
+     * Parse a shape of the form 100x200
+     * @param shape the shape to parse
+     * @return the dimensions of the shape
+     */
+    protected static int[] shape(String shape) {
+        String[] split = shape.split("x");
+        int[] ret = new int[split.length];
+        for(int i = 0; i < split.length; i++)
+            ret[i] = Integer.parseInt(split[i].trim());
+        return ret;
+    }
+
+    /**
+     * The backend with the given class name,
+     * or the highest priority backend if the name is empty
+     * @param className the class name of the backend
+     * @return the backend
+     */
+    public static Nd4jBackend findBackend(String className) throws Exception {
+        if(className == null || className.isEmpty())
+            return Nd4jBackend.load();
+        for(Nd4jBackend backend : ServiceLoader.load(Nd4jBackend.class))
+            if(backend.getClass().getName().equals(className))
+                return backend;
+        throw new IllegalArgumentException("No backend " + className + " on the class path");
+    }
+}
@@ -0,0 +1,45 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Matrix multiply through level 3 gemm and level 2 gemv
+ * for square matrices of the given size
+ *
+ * @author Adam Gibson
+ */
+public class BlasBenchmark extends BaseBenchmark {
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    private INDArray a, b, c, x, y;
+
+    @Override
+    protected void setUp() {
+        a = matrix(size, size);
+        b = matrix(size, size);
+        c = Nd4j.create(size, size);
+        x = matrix(size, 1);
+        y = Nd4j.create(size, 1);
+    }
+
+    @Benchmark
+    public INDArray gemm() {
+        Nd4j.getBlasWrapper().level3().gemm(ordering, 'N', 'N', 1.0, a, b, 0.0, c);
+        return c;
+    }
+
+    @Benchmark
+    public INDArray gemv() {
+        Nd4j.getBlasWrapper().level2().gemv(ordering, 'N', 1.0, a, x, 0.0, y);
+        return y;
+    }
+
+    @Benchmark
+    public INDArray mmul() {
+        return a.mmul(b);
+    }
+}
@@ -0,0 +1,78 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.ops.transforms.Transforms;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Transforms, scalar ops, row vector broadcasts and linear views
+ * on a matrix of the given shape.
+ * The out of place ops write a new result so each invocation sees the same input;
+ * the in place row vector broadcast works on a copy that is restored every iteration.
+ *
+ * @author Adam Gibson
+ */
+public class ElementWiseBenchmark extends BaseBenchmark {
+    @Param({"100x100", "1000x1000", "10x100000"})
+    public String shape;
+
+    private INDArray arr, row, inPlace;
+
+    @Override
+    protected void setUp() {
+        int[] shape = shape(this.shape);
+        arr = matrix(shape[0], shape[1]);
+        row = vector(shape[1]);
+        //same layout as arr so views are benchmarked in place as well
+        inPlace = matrix(shape[0], shape[1]);
+    }
+
+    /**
+     * Restore the input of the in place benchmark.
+     * Per iteration rather than per invocation: the cost of an add does not depend
+     * on the values, and resetting around every call would dominate the small shapes
+     */
+    @Setup(Level.Iteration)
+    public void resetInPlace() {
+        inPlace.assign(arr);
+    }
+
+    @Benchmark
+    public INDArray sigmoid() {
+        return Transforms.sigmoid(arr, true);
+    }
+
+    @Benchmark
+    public INDArray exp() {
+        return Transforms.exp(arr, true);
+    }
+
+    @Benchmark
+    public INDArray scalarAdd() {
+        return arr.add(1e-3);
+    }
+
+    @Benchmark
+    public INDArray scalarMul() {
+        return arr.mul(2.0);
+    }
+
+    @Benchmark
+    public INDArray addRowVector() {
+        return arr.addRowVector(row);
+    }
+
+    @Benchmark
+    public INDArray addiRowVector() {
+        return inPlace.addiRowVector(row);
+    }
+
+    @Benchmark
+    public INDArray linearView() {
+        arr.resetLinearView();
+        return arr.linearView();
+    }
+}
@@ -0,0 +1,98 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Runs the jmh benchmarks in this package against
+ * every available backend on the class path,
+ * each in its own forked jvm with warmup,
+ * and writes the results in a machine readable format
+ * (json by default) for tracking over time.
+ *
+ * Supersedes {@link org.nd4j.linalg.benchmark.app.BenchmarkRunnerApp}.
+ *
+ * @author Adam Gibson
+ */
+public class JmhBenchmarkApp {
+    @Option(name="--include",usage="Regex of the benchmarks to run",aliases = "-i")
+    private String include = JmhBenchmarkApp.class.getPackage().getName() + ".*";
+    @Option(name="--result",usage="File to write the results to",aliases = "-r")
+    private String result = "nd4j-benchmarks.json";
+    @Option(name="--format",usage="Format of the results: json, csv, scsv, text or latex",aliases = "-rf")
+    private String format = "json";
+    @Option(name="--forks",usage="Number of forks per benchmark and backend",aliases = "-f")
+    private int forks = 2;
+    @Option(name="--warmup",usage="Number of warmup iterations",aliases = "-wi")
+    private int warmupIterations = 5;
+    @Option(name="--iterations",usage="Number of measurement iterations",aliases = "-n")
+    private int iterations = 10;
+    @Option(name="--time",usage="Seconds per iteration",aliases = "-t")
+    private int seconds = 1;
+    @Option(name="--backends",usage="Comma separated backend class names, all available backends by default",aliases = "-b")
+    private String backends;
+    @Option(name="--dtypes",usage="Comma separated data types: float,double",aliases = "-d")
+    private String dtypes;
+    @Option(name="--orderings",usage="Comma separated orderings: c,f",aliases = "-o")
+    private String orderings;
+
+    /**
+     * Do the main method
+     * @param args the arguments for the method
+     * @throws Exception if an exception is thrown
+     */
+    public void doMain(String[] args) throws Exception {
+        CmdLineParser parser = new CmdLineParser(this);
+        try {
+            parser.parseArgument(args);
+        } catch(CmdLineException e) {
+            System.err.println(e.getMessage());
+            parser.printUsage(System.err);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(include)
+                .forks(forks)
+                .warmupIterations(warmupIterations)
+                .warmupTime(TimeValue.seconds(seconds))
+                .measurementIterations(iterations)
+                .measurementTime(TimeValue.seconds(seconds))
+                .resultFormat(ResultFormatType.valueOf(format.toUpperCase()))
+                .result(result)
+                .param("backend", backends != null ? backends.split(",") : availableBackends());
+        if(dtypes != null)
+            options.param("dtype", dtypes.split(","));
+        if(orderings != null)
+            options.param("ordering", orderings.split(","));
+
+        new Runner(options.build()).run();
+    }
+
+    //the class names of the backends on the class path that can run
+    private static String[] availableBackends() {
+        List<String> ret = new ArrayList<>();
+        for(Nd4jBackend backend : ServiceLoader.load(Nd4jBackend.class))
+            if(backend.isAvailable() && backend.canRun())
+                ret.add(backend.getClass().getName());
+        if(ret.isEmpty())
+            throw new IllegalStateException("No available backends on the class path");
+        return ret.toArray(new String[ret.size()]);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new JmhBenchmarkApp().doMain(args);
+    }
+
+}
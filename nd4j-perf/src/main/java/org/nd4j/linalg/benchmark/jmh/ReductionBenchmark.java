@@ -0,0 +1,46 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Full and dimension wise reductions
+ * of a matrix of the given shape
+ *
+ * @author Adam Gibson
+ */
+public class ReductionBenchmark extends BaseBenchmark {
+    @Param({"100x100", "1000x1000", "10x100000"})
+    public String shape;
+    @Param({"0", "1"})
+    public int dimension;
+
+    private INDArray arr;
+
+    @Override
+    protected void setUp() {
+        int[] shape = shape(this.shape);
+        arr = matrix(shape[0], shape[1]);
+    }
+
+    @Benchmark
+    public Number sumNumber() {
+        return arr.sumNumber();
+    }
+
+    @Benchmark
+    public INDArray sum() {
+        return arr.sum(dimension);
+    }
+
+    @Benchmark
+    public INDArray max() {
+        return arr.max(dimension);
+    }
+
+    @Benchmark
+    public INDArray std() {
+        return arr.std(dimension);
+    }
+}
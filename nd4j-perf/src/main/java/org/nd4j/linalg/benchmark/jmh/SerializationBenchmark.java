@@ -0,0 +1,47 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Writing and reading a matrix of the given shape
+ * with the binary format of {@link Nd4j#write(INDArray, DataOutputStream)}
+ *
+ * @author Adam Gibson
+ */
+public class SerializationBenchmark extends BaseBenchmark {
+    @Param({"100x100", "1000x1000"})
+    public String shape;
+
+    private INDArray arr;
+    private byte[] serialized;
+
+    @Override
+    protected void setUp() throws IOException {
+        int[] shape = shape(this.shape);
+        arr = matrix(shape[0], shape[1]);
+        serialized = write();
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(bytes);
+        Nd4j.write(arr, dos);
+        dos.flush();
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public INDArray read() throws IOException {
+        return Nd4j.read(new DataInputStream(new ByteArrayInputStream(serialized)));
+    }
+}
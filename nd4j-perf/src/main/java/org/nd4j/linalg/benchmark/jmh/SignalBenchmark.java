@@ -0,0 +1,42 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.convolution.Convolution;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.fft.FFT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * FFT of a vector and im2col of a batch of images
+ *
+ * @author Adam Gibson
+ */
+public class SignalBenchmark extends BaseBenchmark {
+    @Param({"1024", "65536"})
+    public int fftLength;
+    //examples x channels x height x width
+    @Param({"8x3x32x32"})
+    public String images;
+    @Param({"3"})
+    public int kernel;
+
+    private INDArray signal, img;
+
+    @Override
+    protected void setUp() {
+        signal = vector(fftLength);
+        img = Nd4j.rand(shape(images));
+    }
+
+    @Benchmark
+    public IComplexNDArray fft() {
+        return FFT.fft(signal);
+    }
+
+    @Benchmark
+    public INDArray im2col() {
+        return Convolution.im2col(img, kernel, kernel, 1, 1, 0, 0, 0, false);
+    }
+}
@@ -29,6 +29,10 @@ import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
+import org.nd4j.linalg.api.ops.impl.accum.Norm1;
+import org.nd4j.linalg.api.ops.impl.accum.Norm2;
+import org.nd4j.linalg.api.ops.impl.accum.NormMax;
 import org.nd4j.linalg.api.ops.impl.transforms.VectorFFT;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
@@ -819,6 +823,69 @@ public  class ComplexNDArrayTestsC extends BaseComplexNDArrayTests  {
         assertEquals(4, n4.realComponent().doubleValue(), 1e-1);
     }
 
+    @Test
+    public void testInterleavedKernels() {
+        double[] data = new double[24];
+        double[] otherData = new double[24];
+        for(int i = 0; i < data.length; i++) {
+            data[i] = i - 7;
+            otherData[i] = 2 * i + 1;
+        }
+        IComplexNDArray x = Nd4j.createComplex(data, new int[]{3, 4});
+        IComplexNDArray y = Nd4j.createComplex(otherData, new int[]{3, 4});
+        IComplexNumber scalar = Nd4j.createDouble(2, -3);
+
+        IComplexNDArray quotient = x.dup().divi(y);
+        IComplexNDArray scaled = x.dup().muli(scalar);
+        IComplexNDArray hermitian = x.hermitian();
+        IComplexNumber sum = Nd4j.createDouble(0, 0);
+        double norm1 = 0, squares = 0, max = 0;
+        for(int i = 0; i < 3; i++) {
+            for(int j = 0; j < 4; j++) {
+                IComplexNumber element = x.getComplex(i, j);
+                sum.addi(element);
+                double abs = element.absoluteValue().doubleValue();
+                norm1 += abs;
+                squares += abs * abs;
+                max = Math.max(max, abs);
+                assertEquals(getFailureMessage(), element.div(y.getComplex(i, j)), quotient.getComplex(i, j));
+                assertEquals(getFailureMessage(), element.mul(scalar), scaled.getComplex(i, j));
+                assertEquals(getFailureMessage(), element.conj(), hermitian.getComplex(j, i));
+            }
+        }
+        assertEquals(getFailureMessage(), sum, x.sumComplex());
+
+        //norms are taken over the moduli of the elements
+        assertEquals(getFailureMessage(), norm1, x.norm1Number().doubleValue(), 1e-3);
+        assertEquals(getFailureMessage(), Math.sqrt(squares), x.norm2Number().doubleValue(), 1e-3);
+        assertEquals(getFailureMessage(), max, x.normmaxNumber().doubleValue(), 1e-3);
+        OpExecutioner opExecutioner = Nd4j.getExecutioner();
+        assertEquals(getFailureMessage(), norm1, opExecutioner.execAndReturn(new Norm1(x)).currentResultComplex().realComponent().doubleValue(), 1e-3);
+        assertEquals(getFailureMessage(), Math.sqrt(squares), opExecutioner.execAndReturn(new Norm2(x)).currentResultComplex().realComponent().doubleValue(), 1e-3);
+        assertEquals(getFailureMessage(), max, opExecutioner.execAndReturn(new NormMax(x)).currentResultComplex().realComponent().doubleValue(), 1e-3);
+
+        //the largest modulus is in a later chunk than the first
+        double[] largeData = new double[40000];
+        for(int i = 0; i < largeData.length; i++)
+            largeData[i] = i % 7 - 3;
+        largeData[30000] = 30;
+        largeData[30001] = -40;
+        IComplexNDArray large = Nd4j.createComplex(largeData, new int[]{100, 200});
+        OpExecutioner.ExecutionMode mode = opExecutioner.executionMode();
+        int threshold = Nd4j.parallelThreshold;
+        try {
+            Nd4j.parallelThreshold = 0;
+            opExecutioner.setExecutionMode(OpExecutioner.ExecutionMode.PARALLEL);
+            assertEquals(getFailureMessage(), 50, large.normmaxNumber().doubleValue(), 1e-3);
+            assertEquals(getFailureMessage(), 50, opExecutioner.execAndReturn(new NormMax(large)).currentResultComplex().realComponent().doubleValue(), 1e-3);
+            assertEquals(getFailureMessage(), norm1, opExecutioner.execAndReturn(new Norm1(x)).currentResultComplex().realComponent().doubleValue(), 1e-3);
+            assertEquals(getFailureMessage(), Math.sqrt(squares), opExecutioner.execAndReturn(new Norm2(x)).currentResultComplex().realComponent().doubleValue(), 1e-3);
+        } finally {
+            Nd4j.parallelThreshold = threshold;
+            opExecutioner.setExecutionMode(mode);
+        }
+    }
+
 
 
 
@@ -24,20 +24,26 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.IntBuffer;
 import org.nd4j.linalg.api.complex.IComplexNumber;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ndarray.LinearViewNDArray;
 import org.nd4j.linalg.api.ops.impl.scalar.ScalarAdd;
 import org.nd4j.linalg.api.ops.impl.transforms.comparison.Eps;
+import org.nd4j.linalg.compression.ArrayCodec;
+import org.nd4j.linalg.compression.ArrayCodecs;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.ops.transforms.Transforms;
+import org.nd4j.linalg.sort.Sorting;
+import org.nd4j.linalg.util.BinarySerde;
 import org.nd4j.linalg.util.Shape;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -206,8 +212,89 @@ public  class Nd4jTestsC extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testReadMapped() throws Exception {
+        INDArray write = Nd4j.linspace(1, 6, 6).reshape(2, 3);
+        File file = File.createTempFile("mapped", ".bin");
+        file.deleteOnExit();
+        Nd4j.saveBinary(write, file);
+        assertEquals(0, (file.length() - 6 * write.data().getElementSize()) % 4096);
+
+        INDArray read = Nd4j.readMapped(file);
+        assertEquals(write, read);
+        assertEquals(write.getRow(1), read.getRow(1));
+
+        //copy on write: changes are visible in the array but not written to the file
+        INDArray copyOnWrite = Nd4j.readMapped(file, FileChannel.MapMode.PRIVATE);
+        copyOnWrite.putScalar(0, 10.0);
+        assertEquals(10.0, copyOnWrite.getDouble(0), 1e-1);
+        assertEquals(1.0, Nd4j.readMapped(file).getDouble(0), 1e-1);
+    }
+
+    @Test
+    public void testReadWriteView() throws Exception {
+        INDArray matrix = Nd4j.linspace(1, 6, 6).reshape(2, 3);
+        INDArray row = matrix.getRow(1);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        Nd4j.write(row, new DataOutputStream(bos));
+        byte[] bytes = bos.toByteArray();
+        INDArray read = Nd4j.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+        assertEquals(row, read);
+
+        //flip a bit in the payload
+        bytes[bytes.length - 9] ^= 1;
+        try {
+            Nd4j.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+            fail("Corrupt payload should fail the checksum");
+        }
+        catch(IOException e) {
+        }
+    }
+
+    @Test
+    public void testCompressedReadWrite() throws Exception {
+        INDArray arr = Nd4j.linspace(1, 1000, 1000).reshape(20, 50);
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        Nd4j.write(arr, new DataOutputStream(plain));
+        ArrayCodec[] codecs = {ArrayCodecs.DEFLATE, ArrayCodecs.SHUFFLE, ArrayCodecs.XOR_DELTA};
+        for(ArrayCodec codec : codecs) {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            Nd4j.write(arr, new DataOutputStream(bos), codec);
+            assertTrue(bos.size() < plain.size());
+            INDArray read = Nd4j.read(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+            assertEquals(arr, read);
+        }
+    }
+
 
 
+    @Test
+    public void testReadWriteInt() throws Exception {
+        int[] values = {1, -2, (1 << 24) + 1, Integer.MAX_VALUE, Integer.MIN_VALUE, 0};
+        DataBuffer.AllocationMode alloc = Nd4j.alloc;
+        try {
+            for(DataBuffer.AllocationMode mode : new DataBuffer.AllocationMode[]{DataBuffer.AllocationMode.HEAP, DataBuffer.AllocationMode.DIRECT}) {
+                Nd4j.alloc = mode;
+                INDArray arr = Nd4j.create(new IntBuffer(values), new int[]{2, 3});
+                //raw payload, checksummed and compressed
+                ByteArrayOutputStream[] streams = new ByteArrayOutputStream[3];
+                for(int i = 0; i < streams.length; i++)
+                    streams[i] = new ByteArrayOutputStream();
+                BinarySerde.write(arr, streams[0], false);
+                Nd4j.write(arr, new DataOutputStream(streams[1]));
+                Nd4j.write(arr, new DataOutputStream(streams[2]), ArrayCodecs.DEFLATE);
+                for(ByteArrayOutputStream bos : streams) {
+                    INDArray read = Nd4j.read(new DataInputStream(new ByteArrayInputStream(bos.toByteArray())));
+                    assertEquals(DataBuffer.Type.INT, read.data().dataType());
+                    for(int i = 0; i < values.length; i++)
+                        assertEquals(getFailureMessage(), values[i], read.data().getInt(i));
+                }
+            }
+        } finally {
+            Nd4j.alloc = alloc;
+        }
+    }
+
     @Test
     public void testSubiRowVector() throws Exception {
         INDArray oneThroughFour = Nd4j.linspace(1, 4, 4).reshape(2, 2);
@@ -391,6 +478,38 @@ public  class Nd4jTestsC extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testArgsortAndTopK() {
+        INDArray arr = Nd4j.create(new double[][]{
+                {3, 1, 2, 1},
+                {0, 5, 4, 6}
+        });
+        INDArray before = arr.dup();
+        INDArray argsort = Nd4j.argsort(arr, 1, true);
+        assertEquals(Nd4j.create(new double[][]{{1, 3, 2, 0}, {0, 2, 1, 3}}), argsort);
+        assertEquals(before, arr);
+        assertEquals(Nd4j.create(new double[][]{{1, 0, 0, 0}, {0, 1, 1, 1}}), Nd4j.argsort(arr, 0, true));
+
+        INDArray[] top = Nd4j.topK(arr, 2, 1, true);
+        assertEquals(Nd4j.create(new double[][]{{0, 2}, {3, 1}}), top[0]);
+        assertEquals(Nd4j.create(new double[][]{{3, 2}, {6, 5}}), top[1]);
+        INDArray[] bottom = Nd4j.topK(arr, 1, 1, false);
+        assertEquals(Nd4j.create(new double[]{1, 0}, new int[]{2, 1}), bottom[0]);
+        assertEquals(Nd4j.create(new double[]{1, 0}, new int[]{2, 1}), bottom[1]);
+
+        //sorting a column view writes through its stride
+        INDArray column = arr.getColumn(2);
+        Nd4j.sort(column, 0, false);
+        assertEquals(Nd4j.create(new double[][]{{3, 1, 4, 1}, {0, 5, 2, 6}}), arr);
+
+        INDArray big = Nd4j.rand(1, 100000);
+        int[] order = Sorting.argsort(big, true);
+        double[] sorted = Nd4j.sort(big.dup(), 1, true).data().asDouble();
+        for(int i = 0; i < order.length; i++)
+            assertEquals(sorted[i], big.getDouble(order[i]), 0.0);
+        assertTrue(Arrays.equals(Arrays.copyOf(Sorting.argsort(big, false), 10), Sorting.topK(big, 10, true)));
+    }
+
     @Test
     public void testDimShuffle() {
         INDArray n = Nd4j.linspace(1, 4, 4).reshape(2, 2);
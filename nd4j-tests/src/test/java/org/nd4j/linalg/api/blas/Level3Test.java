@@ -0,0 +1,259 @@
+package org.nd4j.linalg.api.blas;
+
+import org.junit.Test;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.util.Random;
+
+/**
+ * @author Adam Gibson
+ */
+public class Level3Test extends BaseNd4jTest {
+    public Level3Test() {
+    }
+
+    public Level3Test(String name) {
+        super(name);
+    }
+
+    public Level3Test(String name, Nd4jBackend backend) {
+        super(name, backend);
+    }
+
+    public Level3Test(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testMmulLargerThanABlock() {
+        Random rng = new Random(12345);
+        int m = 150, k = 140, n = 270;
+        for(char aOrder : new char[]{'c', 'f'}) {
+            for(char bOrder : new char[]{'c', 'f'}) {
+                double[] a = new double[m * k];
+                double[] b = new double[k * n];
+                for(int i = 0; i < a.length; i++)
+                    a[i] = rng.nextDouble() - 0.5;
+                for(int i = 0; i < b.length; i++)
+                    b[i] = rng.nextDouble() - 0.5;
+                INDArray first = Nd4j.create(a, new int[]{m, k}, aOrder);
+                INDArray second = Nd4j.create(b, new int[]{k, n}, bOrder);
+                INDArray product = first.mmul(second);
+                for(int i = 0; i < m; i += 7) {
+                    for(int j = 0; j < n; j += 11) {
+                        double sum = 0;
+                        for(int p = 0; p < k; p++)
+                            sum += first.getDouble(i, p) * second.getDouble(p, j);
+                        assertEquals(getFailureMessage(), sum, product.getDouble(i, j), 1e-3);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGemmAlphaBeta() {
+        INDArray a = Nd4j.linspace(1, 6, 6).reshape(2, 3);
+        INDArray b = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+        INDArray c = Nd4j.ones(2, 4);
+        INDArray expected = a.mmul(b).muli(2).addi(3);
+        Nd4j.getBlasWrapper().level3().gemm('f', 'N', 'N', 2.0, a, b, 3.0, c);
+        assertEquals(getFailureMessage(), expected, c);
+
+        INDArray transposed = Nd4j.create(2, 4);
+        Nd4j.getBlasWrapper().level3().gemm('f', 'T', 'N', 1.0, a.transpose().dup(), b, 0.0, transposed);
+        assertEquals(getFailureMessage(), a.mmul(b), transposed);
+    }
+
+    @Test
+    public void testBatchedGemm() {
+        for(char order : new char[]{'c', 'f'}) {
+            INDArray a = Nd4j.create(Nd4j.linspace(1, 24, 24).data().asDouble(), new int[]{4, 2, 3}, order);
+            INDArray b = Nd4j.create(Nd4j.linspace(1, 36, 36).data().asDouble(), new int[]{4, 3, 3}, order);
+            INDArray c = Nd4j.create(new int[]{4, 2, 3}, order);
+            Nd4j.getBlasWrapper().level3().batchedGemm('f', 'N', 'N', 1.0, a, b, 0.0, c);
+            for(int i = 0; i < 4; i++)
+                assertEquals(getFailureMessage(), a.slice(i).dup().mmul(b.slice(i).dup()), c.slice(i).dup());
+        }
+    }
+
+    @Test
+    public void testGemmOnViews() {
+        INDArray weights = Nd4j.linspace(1, 60, 60).reshape(6, 10);
+        INDArray input = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+        INDArray block = weights.get(NDArrayIndex.interval(1, 5), NDArrayIndex.interval(3, 7));
+        INDArray expected = input.mmul(block.dup());
+        assertEquals(getFailureMessage(), expected, input.mmul(block));
+
+        //write the product in to a view of a larger result
+        INDArray result = Nd4j.zeros(5, 8);
+        INDArray target = result.get(NDArrayIndex.interval(1, 4), NDArrayIndex.interval(2, 6));
+        Nd4j.getBlasWrapper().level3().gemm('f', 'N', 'N', 1.0, input, block, 0.0, target);
+        assertEquals(getFailureMessage(), expected, target);
+        assertEquals(expected.sum(Integer.MAX_VALUE).getDouble(0), result.sum(Integer.MAX_VALUE).getDouble(0), 1e-3);
+    }
+
+    @Test
+    public void testSyrkUpdatesOnlyTheTriangle() {
+        Random rng = new Random(12345);
+        //spans several tiles of c so whole tiles outside the triangle are skipped
+        int n = 300, k = 20;
+        for(char order : new char[]{'c', 'f'}) {
+            for(char uplo : new char[]{'U', 'L'}) {
+                for(char trans : new char[]{'N', 'T'}) {
+                    INDArray a = trans == 'N' ? random(rng, n, k, order) : random(rng, k, n, order);
+                    INDArray c = random(rng, n, n, order);
+                    double[][] opA = trans == 'N' ? dense(a) : transpose(dense(a));
+                    double[][] expected = dense(c);
+                    double[][] product = multiply(opA, transpose(opA));
+                    for(int i = 0; i < n; i++)
+                        for(int j = 0; j < n; j++)
+                            if(uplo == 'U' ? i <= j : i >= j)
+                                expected[i][j] = 2 * product[i][j] + 0.5 * expected[i][j];
+                    Nd4j.getBlasWrapper().level3().syrk(order, uplo, trans, 2.0, a, 0.5, c);
+                    assertMatrixEquals(expected, dense(c));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSymmReadsOneTriangle() {
+        Random rng = new Random(12345);
+        int m = 150, n = 100;
+        for(char order : new char[]{'c', 'f'}) {
+            for(char side : new char[]{'L', 'R'}) {
+                for(char uplo : new char[]{'U', 'L'}) {
+                    int size = side == 'L' ? m : n;
+                    INDArray a = stored(rng, size, order, uplo, false);
+                    INDArray b = random(rng, m, n, order);
+                    INDArray c = random(rng, m, n, order);
+                    double[][] symmetric = dense(a);
+                    for(int i = 0; i < size; i++)
+                        for(int j = 0; j < size; j++)
+                            if(uplo == 'U' ? i > j : i < j)
+                                symmetric[i][j] = symmetric[j][i];
+                    double[][] product = side == 'L' ? multiply(symmetric, dense(b)) : multiply(dense(b), symmetric);
+                    double[][] expected = dense(c);
+                    for(int i = 0; i < m; i++)
+                        for(int j = 0; j < n; j++)
+                            expected[i][j] = 2 * product[i][j] + 0.5 * expected[i][j];
+                    Nd4j.getBlasWrapper().level3().symm(order, side, uplo, 2.0, a, b, 0.5, c);
+                    assertMatrixEquals(expected, dense(c));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTrmmAndTrsm() {
+        Random rng = new Random(12345);
+        //both sides span more than one diagonal block of trsm
+        int m = 150, n = 100;
+        for(char order : new char[]{'c', 'f'}) {
+            for(char side : new char[]{'L', 'R'}) {
+                for(char uplo : new char[]{'U', 'L'}) {
+                    for(char trans : new char[]{'N', 'T'}) {
+                        for(char diag : new char[]{'N', 'U'}) {
+                            int size = side == 'L' ? m : n;
+                            INDArray a = stored(rng, size, order, uplo, diag == 'U');
+                            double[][] opA = dense(a);
+                            for(int i = 0; i < size; i++) {
+                                for(int j = 0; j < size; j++) {
+                                    if(uplo == 'U' ? i > j : i < j)
+                                        opA[i][j] = 0;
+                                    else if(i == j && diag == 'U')
+                                        opA[i][j] = 1;
+                                }
+                            }
+                            if(trans == 'T')
+                                opA = transpose(opA);
+
+                            INDArray b = random(rng, m, n, order);
+                            double[][] product = side == 'L' ? multiply(opA, dense(b)) : multiply(dense(b), opA);
+                            Nd4j.getBlasWrapper().level3().trmm(order, side, uplo, trans, diag, 2.0, a, b, b);
+                            assertMatrixEquals(scale(product, 2), dense(b));
+
+                            INDArray x = random(rng, m, n, order);
+                            double[][] rhs = dense(x);
+                            Nd4j.getBlasWrapper().level3().trsm(order, side, uplo, trans, diag, 2.0, a, x);
+                            double[][] solved = side == 'L' ? multiply(opA, dense(x)) : multiply(dense(x), opA);
+                            assertMatrixEquals(scale(rhs, 2), solved);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void assertMatrixEquals(double[][] expected, double[][] actual) {
+        for(int i = 0; i < expected.length; i++)
+            for(int j = 0; j < expected[i].length; j++)
+                assertEquals(getFailureMessage() + " at " + i + "," + j, expected[i][j], actual[i][j], 1e-3);
+    }
+
+    private static INDArray random(Random rng, int rows, int columns, char order) {
+        double[] data = new double[rows * columns];
+        for(int i = 0; i < data.length; i++)
+            data[i] = rng.nextDouble() - 0.5;
+        return Nd4j.create(data, new int[]{rows, columns}, order);
+    }
+
+    //a well conditioned triangle with large values in the entries that must not be read
+    private static INDArray stored(Random rng, int size, char order, char uplo, boolean unit) {
+        INDArray ret = random(rng, size, size, order);
+        for(int i = 0; i < size; i++) {
+            for(int j = 0; j < size; j++) {
+                if(uplo == 'U' ? i > j : i < j)
+                    ret.putScalar(new int[]{i, j}, 1000);
+                else if(i == j)
+                    ret.putScalar(new int[]{i, j}, unit ? 1000 : 1 + rng.nextDouble());
+                else
+                    ret.putScalar(new int[]{i, j}, 2 * (rng.nextDouble() - 0.5) / size);
+            }
+        }
+        return ret;
+    }
+
+    private static double[][] dense(INDArray arr) {
+        double[][] ret = new double[arr.rows()][arr.columns()];
+        for(int i = 0; i < ret.length; i++)
+            for(int j = 0; j < ret[i].length; j++)
+                ret[i][j] = arr.getDouble(i, j);
+        return ret;
+    }
+
+    private static double[][] transpose(double[][] a) {
+        double[][] ret = new double[a[0].length][a.length];
+        for(int i = 0; i < a.length; i++)
+            for(int j = 0; j < a[i].length; j++)
+                ret[j][i] = a[i][j];
+        return ret;
+    }
+
+    private static double[][] multiply(double[][] a, double[][] b) {
+        double[][] ret = new double[a.length][b[0].length];
+        for(int i = 0; i < a.length; i++)
+            for(int p = 0; p < b.length; p++)
+                for(int j = 0; j < b[0].length; j++)
+                    ret[i][j] += a[i][p] * b[p][j];
+        return ret;
+    }
+
+    private static double[][] scale(double[][] a, double alpha) {
+        double[][] ret = new double[a.length][a[0].length];
+        for(int i = 0; i < a.length; i++)
+            for(int j = 0; j < a[i].length; j++)
+                ret[i][j] = alpha * a[i][j];
+        return ret;
+    }
+
+    @Override
+    public char ordering() {
+        return 'f';
+    }
+}
@@ -23,7 +23,12 @@ import io.netty.buffer.ByteBuf;
 import org.junit.Before;
 import org.junit.Test;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.allocation.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
+import org.nd4j.linalg.api.ops.impl.accum.Norm2;
+import org.nd4j.linalg.api.ops.impl.accum.Sum;
+import org.nd4j.linalg.api.ops.impl.scalar.ScalarAdd;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.util.SerializationUtils;
@@ -125,6 +130,131 @@ public  class DoubleDataBufferTest extends BaseNd4jTest {
         }
     }
 
+    @Test
+    public void testDirectPooledBuffer() {
+        DataBuffer.AllocationMode alloc = Nd4j.alloc;
+        Nd4j.alloc = DataBuffer.AllocationMode.DIRECT;
+        try {
+            DataBuffer d = Nd4j.createBuffer(new double[]{1, 2, 3, 4});
+            assertTrue(d.asNetty().isDirect());
+            assertArrayEquals(new double[]{1, 2, 3, 4}, d.asDouble(), 1e-1);
+            d.destroy();
+            //destroying twice must not release the pooled memory again
+            d.destroy();
+
+            //recycled memory is zeroed
+            DataBuffer zeros = Nd4j.createBuffer(4);
+            for(int i = 0; i < zeros.length(); i++)
+                assertEquals(0.0, zeros.getDouble(i), 1e-1);
+            zeros.put(3, 5.0);
+            assertEquals(5.0, zeros.getDouble(3), 1e-1);
+            zeros.destroy();
+        }
+        finally {
+            Nd4j.alloc = alloc;
+        }
+    }
+
+    @Test
+    public void testWorkspace() {
+        MemoryWorkspace workspace = new MemoryWorkspace(1024);
+        INDArray detached;
+        try(MemoryWorkspace scope = workspace.enter()) {
+            INDArray arr = Nd4j.create(new double[]{1, 2, 3, 4});
+            INDArray sum = arr.add(arr);
+            assertTrue(workspace.usedBytes() >= 64);
+            assertEquals(Nd4j.create(new double[]{2, 4, 6, 8}), sum);
+            detached = MemoryWorkspace.detach(sum);
+        }
+        assertEquals(0, workspace.usedBytes());
+        assertNull(MemoryWorkspace.getCurrent());
+
+        //the slab is reused and zeroed in the next scope
+        try(MemoryWorkspace scope = workspace.enter()) {
+            assertEquals(Nd4j.zeros(4), Nd4j.create(4));
+            //doesn't fit: allocated normally and the slab grows on close
+            Nd4j.create(256);
+            assertEquals(256 * 8, workspace.spilledBytes());
+        }
+        assertEquals(1024 + 256 * 8, workspace.capacity());
+        assertEquals(Nd4j.create(new double[]{2, 4, 6, 8}), detached);
+        workspace.destroy();
+    }
+
+    @Test
+    public void testChunkedBuffer() {
+        ChunkedDataBuffer buffer = Nd4j.createChunkedBuffer(10, 4);
+        assertEquals(3, buffer.numChunks());
+        assertEquals(2, buffer.chunk(2).length());
+        buffer.put(9L, 5.0);
+        assertEquals(5.0, buffer.getDouble(9L), 1e-1);
+        assertEquals(5.0, buffer.chunk(2).getDouble(1), 1e-1);
+
+        INDArray row = buffer.vector(4, 4);
+        row.putScalar(1, 3.0);
+        assertEquals(3.0, buffer.getDouble(5L), 1e-1);
+        try {
+            buffer.vector(3, 2);
+            fail("Range straddling two chunks should not be viewable");
+        }
+        catch(IllegalArgumentException e) {
+        }
+    }
+
+
+    @Test
+    public void testChunkedBufferExecutors() {
+        OpExecutioner opExecutioner = Nd4j.getExecutioner();
+        OpExecutioner.ExecutionMode mode = opExecutioner.executionMode();
+        int threshold = Nd4j.parallelThreshold;
+        ChunkedDataBuffer buffer = Nd4j.createChunkedBuffer(20000, 3000);
+        assertEquals(20000L, buffer.lengthLong());
+        for(long i = 0; i < buffer.lengthLong(); i++)
+            buffer.put(i, (double) (i % 7));
+        //rows of 100 straddle the chunk boundaries at multiples of 3000
+        INDArray arr = Nd4j.create(buffer, new int[]{200, 100});
+        INDArray reference = Nd4j.create(buffer.asDouble(), new int[]{200, 100});
+        INDArray straddling = buffer.vector(2990, 20);
+        assertTrue(straddling.data() == buffer);
+        for(int i = 0; i < 20; i++)
+            assertEquals(buffer.getDouble(2990L + i), straddling.getDouble(i), 1e-1);
+        try {
+            Nd4j.parallelThreshold = 0;
+            for(OpExecutioner.ExecutionMode executionMode : new OpExecutioner.ExecutionMode[]{OpExecutioner.ExecutionMode.STRIDED, OpExecutioner.ExecutionMode.PARALLEL}) {
+                opExecutioner.setExecutionMode(executionMode);
+                assertEquals(opExecutioner.execAndReturn(new Sum(reference)).currentResult().doubleValue(),
+                        opExecutioner.execAndReturn(new Sum(arr)).currentResult().doubleValue(), 1e-1);
+                assertEquals(opExecutioner.execAndReturn(new Norm2(reference)).currentResult().doubleValue(),
+                        opExecutioner.execAndReturn(new Norm2(arr)).currentResult().doubleValue(), 1e-1);
+                assertEquals(opExecutioner.execAndReturn(new Sum(reference.getColumn(3))).currentResult().doubleValue(),
+                        opExecutioner.execAndReturn(new Sum(arr.getColumn(3))).currentResult().doubleValue(), 1e-1);
+                assertEquals(reference.sum(0), arr.sum(0));
+            }
+
+            opExecutioner.setExecutionMode(OpExecutioner.ExecutionMode.STRIDED);
+            opExecutioner.exec(new ScalarAdd(arr, 1));
+            for(long i = 0; i < buffer.lengthLong(); i++)
+                assertEquals(i % 7 + 1, buffer.getDouble(i), 1e-1);
+        } finally {
+            Nd4j.parallelThreshold = threshold;
+            opExecutioner.setExecutionMode(mode);
+        }
+    }
+
+    @Test
+    public void testLongIndexedAccess() {
+        DataBuffer buffer = Nd4j.createBuffer(new double[]{1, 2, 3});
+        assertEquals(3L, buffer.lengthLong());
+        buffer.put(2L, 5.0);
+        assertEquals(5.0, buffer.getDouble(2L), 1e-1);
+        try {
+            buffer.getDouble((long) Integer.MAX_VALUE + 2);
+            fail("A long index past the end should not wrap around");
+        }
+        catch(IndexOutOfBoundsException e) {
+        }
+    }
+
 
     @Test
     public void testPut() throws Exception {
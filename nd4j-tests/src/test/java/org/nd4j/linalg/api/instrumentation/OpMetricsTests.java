@@ -0,0 +1,75 @@
+package org.nd4j.linalg.api.instrumentation;
+
+import org.junit.Test;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.executioner.InstrumentedOpExecutioner;
+import org.nd4j.linalg.api.ops.impl.transforms.Exp;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+/**
+ * @author Adam Gibson
+ */
+public class OpMetricsTests extends BaseNd4jTest {
+    public OpMetricsTests() {
+    }
+
+    public OpMetricsTests(String name) {
+        super(name);
+    }
+
+    public OpMetricsTests(String name, Nd4jBackend backend) {
+        super(name, backend);
+    }
+
+    public OpMetricsTests(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(int i = 1; i <= 1000; i++)
+            histogram.record(i * 1000);
+        assertEquals(1000, histogram.count());
+        assertEquals(1000000, histogram.max());
+        assertEquals(500500.0, histogram.mean(), 1e-6);
+        //buckets are accurate to within about 6%
+        assertEquals(500000, histogram.valueAtPercentile(50), 500000 * 0.07);
+        assertEquals(990000, histogram.valueAtPercentile(99), 990000 * 0.07);
+        assertEquals(1000000, histogram.valueAtPercentile(100));
+    }
+
+    @Test
+    public void testRecordOps() {
+        OpMetricsRegistry registry = new OpMetricsRegistry();
+        registry.setBackend("test");
+        InstrumentedOpExecutioner executioner = new InstrumentedOpExecutioner(Nd4j.getExecutioner(), registry);
+        INDArray arr = Nd4j.ones(2, 5);
+        executioner.exec(new Exp(arr));
+        assertTrue(registry.all().isEmpty());
+
+        registry.setEnabled(true);
+        for(int i = 0; i < 3; i++)
+            executioner.exec(new Exp(arr));
+        assertEquals(1, registry.all().size());
+        OpMetrics exp = registry.metrics("exp");
+        assertEquals("test", exp.getBackend());
+        assertEquals(3, exp.getInvocations());
+        assertEquals(30, exp.getElements());
+        assertEquals(3, exp.getLatency().count());
+        assertEquals(0, exp.getBlasNanos());
+        assertTrue(exp.getLoopNanos() > 0);
+
+        StripedCounter counter = new StripedCounter(4);
+        counter.add(5);
+        counter.increment();
+        assertEquals(6, counter.sum());
+    }
+
+    @Override
+    public char ordering() {
+        return 'f';
+    }
+}
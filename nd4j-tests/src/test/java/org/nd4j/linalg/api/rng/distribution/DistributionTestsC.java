@@ -1,7 +1,10 @@
 package org.nd4j.linalg.api.rng.distribution;
 
+import org.apache.commons.math3.random.MersenneTwister;
+import org.apache.commons.math3.random.RandomGenerator;
 import org.junit.Test;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.rng.DefaultRandom;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 
@@ -20,6 +23,14 @@ public class DistributionTestsC extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testBinomialTinyProbability() {
+        //the waiting time between successes is past the range of a long
+        RandomGenerator generator = new MersenneTwister(123);
+        for(int i = 0; i < 100; i++)
+            assertEquals(getFailureMessage(), 0, DefaultRandom.binomial(generator, 1000, 1e-300));
+    }
+
     @Override
     public char ordering() {
         return 'c';
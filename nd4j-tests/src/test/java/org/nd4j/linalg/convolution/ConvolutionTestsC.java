@@ -21,6 +21,8 @@ package org.nd4j.linalg.convolution;
 
 import org.junit.Test;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.buffer.IntBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
@@ -28,6 +30,8 @@ import org.nd4j.linalg.ops.transforms.Transforms;
 
 import java.util.Arrays;
 
+import static org.junit.Assert.assertArrayEquals;
+
 /**
  * Created by agibsonccc on 9/6/14.
  */
@@ -62,8 +66,132 @@ public  class ConvolutionTestsC extends BaseNd4jTest {
         System.out.println(otherConv);
     }
 
+    @Test
+    public void testIm2ColStridedPadded() {
+        INDArray img = Nd4j.linspace(1, 120, 120).reshape(2, 3, 4, 5);
+        int kh = 3, kw = 2, sy = 2, sx = 1, ph = 1, pw = 1;
+        INDArray col = Convolution.im2col(img, kh, kw, sy, sx, ph, pw, 0, false);
+        int outH = Convolution.outSize(4, kh, sy, ph, false);
+        int outW = Convolution.outSize(5, kw, sx, pw, false);
+        assertArrayEquals(new int[]{2, 3, kh, kw, outH, outW}, col.shape());
+        for(int n = 0; n < 2; n++)
+            for(int c = 0; c < 3; c++)
+                for(int i = 0; i < kh; i++)
+                    for(int j = 0; j < kw; j++)
+                        for(int y = 0; y < outH; y++)
+                            for(int x = 0; x < outW; x++) {
+                                int row = i + y * sy - ph;
+                                int column = j + x * sx - pw;
+                                double expected = row < 0 || row >= 4 || column < 0 || column >= 5 ? 0 : img.getDouble(n, c, row, column);
+                                assertEquals(expected, col.getDouble(n, c, i, j, y, x), 1e-6);
+                            }
+    }
+
+    @Test
+    public void testCol2ImInvertsIm2Col() {
+        INDArray img = Nd4j.linspace(1, 48, 48).reshape(2, 2, 3, 4);
+        INDArray col = Convolution.im2col(img, 1, 1, 1, 1, 0, 0, 0, false);
+        assertEquals(img, Convolution.col2im(col, 1, 1, 0, 0, 3, 4));
 
+        //every pixel is covered by kh * kw overlapping 2x2 windows with padding 1
+        INDArray ones = Nd4j.ones(1, 1, 3, 3);
+        INDArray summed = Convolution.col2im(Convolution.im2col(ones, 2, 2, 1, 1, 1, 1, 0, false), 1, 1, 1, 1, 3, 3);
+        assertEquals(Nd4j.valueArrayOf(new int[]{1, 1, 3, 3}, 4), summed);
+    }
+    @Test
+    public void testIm2ColCol2ImHeapAndDirect() {
+        int kh = 3, kw = 2, sy = 2, sx = 1, ph = 1, pw = 1;
+        DataBuffer.AllocationMode alloc = Nd4j.alloc;
+        INDArray[] cols = new INDArray[2];
+        INDArray[] imgs = new INDArray[2];
+        DataBuffer.AllocationMode[] modes = {DataBuffer.AllocationMode.HEAP, DataBuffer.AllocationMode.DIRECT};
+        try {
+            for(int m = 0; m < modes.length; m++) {
+                Nd4j.alloc = modes[m];
+                INDArray img = Nd4j.linspace(1, 120, 120).reshape(2, 3, 4, 5);
+                cols[m] = Convolution.im2col(img, kh, kw, sy, sx, ph, pw, 7, false);
+                imgs[m] = Convolution.col2im(cols[m], sy, sx, ph, pw, 4, 5);
+            }
+        } finally {
+            Nd4j.alloc = alloc;
+        }
+        assertEquals(cols[0], cols[1]);
+        assertEquals(imgs[0], imgs[1]);
+        //the first output row of the first kernel row lies in the padding
+        assertEquals(7, cols[0].getDouble(0, 0, 0, 0, 0, 0), 1e-6);
+
+        //col2im sums every kernel position that landed on a pixel
+        INDArray col = cols[0];
+        int outH = col.size(4), outW = col.size(5);
+        double[] expected = new double[2 * 3 * 4 * 5];
+        for(int n = 0; n < 2; n++)
+            for(int c = 0; c < 3; c++)
+                for(int i = 0; i < kh; i++)
+                    for(int j = 0; j < kw; j++)
+                        for(int y = 0; y < outH; y++)
+                            for(int x = 0; x < outW; x++) {
+                                int row = i + y * sy - ph;
+                                int column = j + x * sx - pw;
+                                if(row >= 0 && row < 4 && column >= 0 && column < 5)
+                                    expected[((n * 3 + c) * 4 + row) * 5 + column] += col.getDouble(n, c, i, j, y, x);
+                            }
+        assertEquals(Nd4j.create(expected, new int[]{2, 3, 4, 5}), imgs[0]);
+    }
+
+    @Test
+    public void testMaxPoolArgMax() {
+        INDArray img = Nd4j.linspace(1, 32, 32).reshape(2, 1, 4, 4);
+        INDArray argMax = Nd4j.create(2, 1, 2, 2);
+        INDArray pooled = Pooling.maxPool(img, 2, 2, 2, 2, 0, 0, false, argMax);
+        assertEquals(Nd4j.create(new double[]{6, 8, 14, 16, 22, 24, 30, 32}, new int[]{2, 1, 2, 2}), pooled);
+        assertEquals(Nd4j.create(new double[]{5, 7, 13, 15, 5, 7, 13, 15}, new int[]{2, 1, 2, 2}), argMax);
 
+        INDArray gradient = Pooling.maxPoolBackward(Nd4j.ones(2, 1, 2, 2), argMax, 4, 4);
+        assertEquals(8, gradient.sum(Integer.MAX_VALUE).getDouble(0), 1e-6);
+        assertEquals(1, gradient.getDouble(0, 0, 1, 1), 1e-6);
+        assertEquals(0, gradient.getDouble(0, 0, 0, 0), 1e-6);
+    }
+
+    @Test
+    public void testMaxPoolIntArgMaxHeapAndDirect() {
+        DataBuffer.AllocationMode alloc = Nd4j.alloc;
+        try {
+            for(DataBuffer.AllocationMode mode : new DataBuffer.AllocationMode[]{DataBuffer.AllocationMode.HEAP, DataBuffer.AllocationMode.DIRECT}) {
+                Nd4j.alloc = mode;
+                INDArray img = Nd4j.linspace(1, 32, 32).reshape(2, 1, 4, 4);
+                INDArray argMax = Nd4j.create(new IntBuffer(8), new int[]{2, 1, 2, 2});
+                INDArray pooled = Pooling.maxPool(img, 2, 2, 2, 2, 0, 0, false, argMax);
+                assertEquals(Nd4j.create(new double[]{6, 8, 14, 16, 22, 24, 30, 32}, new int[]{2, 1, 2, 2}), pooled);
+                int[] expected = {5, 7, 13, 15, 5, 7, 13, 15};
+                for(int i = 0; i < expected.length; i++)
+                    assertEquals(expected[i], argMax.data().getInt(i));
+
+                INDArray gradient = Pooling.maxPoolBackward(Nd4j.linspace(1, 8, 8).reshape(2, 1, 2, 2), argMax, 4, 4);
+                assertEquals(36, gradient.sum(Integer.MAX_VALUE).getDouble(0), 1e-6);
+                assertEquals(1, gradient.getDouble(0, 0, 1, 1), 1e-6);
+                assertEquals(8, gradient.getDouble(1, 0, 3, 3), 1e-6);
+                assertEquals(0, gradient.getDouble(0, 0, 0, 0), 1e-6);
+            }
+        } finally {
+            Nd4j.alloc = alloc;
+        }
+    }
+
+    @Test
+    public void testAvgPoolPadding() {
+        INDArray ones = Nd4j.ones(1, 2, 3, 3);
+        //padding is excluded from the average
+        INDArray avg = Pooling.pool(ones, Pooling.Type.AVG, 2, 2, 1, 1, 1, 1, false);
+        assertArrayEquals(new int[]{1, 2, 4, 4}, avg.shape());
+        assertEquals(Nd4j.ones(1, 2, 4, 4), avg);
+
+        INDArray sum = Pooling.pool(ones, Pooling.Type.SUM, 2, 2, 1, 1, 1, 1, false);
+        assertEquals(1, sum.getDouble(0, 0, 0, 0), 1e-6);
+        assertEquals(4, sum.getDouble(0, 1, 1, 1), 1e-6);
+
+        INDArray blocks = Transforms.sumPooling(Nd4j.ones(3, 4, 4), new int[]{2, 2});
+        assertEquals(Nd4j.valueArrayOf(new int[]{3, 2, 2}, 4), blocks);
+    }
 
     @Override
     public char ordering() {
@@ -23,6 +23,7 @@ import org.nd4j.linalg.BaseNd4jTest;
 import org.nd4j.linalg.api.ndarray.BaseNDArray;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.DefaultRandom;
+import org.nd4j.linalg.dataset.api.iterator.AsyncDataSetIterator;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.util.FeatureUtil;
@@ -134,6 +135,127 @@ public class DataSetTest extends BaseNd4jTest {
     }
 
 
+    @Test
+    public void testShuffleAndSample() {
+        int n = 30;
+        int[] outcomes = new int[n];
+        INDArray features = Nd4j.create(n, 2);
+        for(int i = 0; i < n; i++) {
+            outcomes[i] = i % 3;
+            features.putScalar(new int[]{i, 0}, i);
+            features.putScalar(new int[]{i, 1}, -i);
+        }
+        DataSet data = new DataSet(features, FeatureUtil.toOutcomeMatrix(outcomes, 3));
+        org.nd4j.linalg.api.rng.Random rng = new DefaultRandom(123);
+
+        for(boolean inPlace : new boolean[]{false, true}) {
+            DataSet shuffled = data.copy();
+            shuffled.shuffle(rng, inPlace);
+            assertExamplesIntact(shuffled, n);
+        }
+
+        DataSet sample = data.sample(10, rng, false);
+        assertEquals(10, sample.numExamples());
+        boolean[] seen = new boolean[n];
+        for(int i = 0; i < 10; i++) {
+            int example = (int) sample.getFeatures().getDouble(i, 0);
+            assertFalse(seen[example]);
+            seen[example] = true;
+        }
+
+        DataSet sorted = data.copy();
+        sorted.shuffle(rng, true);
+        sorted.sortByLabel();
+        for(int i = 0; i < n; i++)
+            assertEquals(i % 3, Nd4j.getBlasWrapper().iamax(sorted.getLabels().getRow(i)));
+        assertExamplesIntact(sorted, n);
+    }
+
+    //every example appears once and still has its own label
+    private void assertExamplesIntact(DataSet data, int n) {
+        boolean[] seen = new boolean[n];
+        for(int i = 0; i < n; i++) {
+            int example = (int) data.getFeatures().getDouble(i, 0);
+            assertEquals(-example, data.getFeatures().getDouble(i, 1), 1e-6);
+            assertEquals(example % 3, Nd4j.getBlasWrapper().iamax(data.getLabels().getRow(i)));
+            assertFalse(seen[example]);
+            seen[example] = true;
+        }
+    }
+
+    @Test
+    public void testAsyncIterator() {
+        AsyncDataSetIterator async = new AsyncDataSetIterator(new IrisDataSetIterator(10, 150), 3);
+        IrisDataSetIterator sync = new IrisDataSetIterator(10, 150);
+        for(int epoch = 0; epoch < 2; epoch++) {
+            int batches = 0;
+            while(async.hasNext()) {
+                assertEquals(getFailureMessage(), sync.next(), async.next());
+                batches++;
+            }
+            assertEquals(15, batches);
+            assertFalse(sync.hasNext());
+            async.reset();
+            sync.reset();
+        }
+        async.shutdown();
+        assertFalse(async.hasNext());
+    }
+
+    @Test
+    public void testAsyncIteratorRethrowsFetchErrors() {
+        final IllegalStateException broken = new IllegalStateException("broken");
+        AsyncDataSetIterator async = new AsyncDataSetIterator(new IrisDataSetIterator(10, 150) {
+            @Override
+            public DataSet next() {
+                if(cursor() >= 20)
+                    throw broken;
+                return super.next();
+            }
+        }, 3);
+        //the batches fetched before the error are still returned
+        for(int i = 0; i < 2; i++) {
+            assertTrue(async.hasNext());
+            async.next();
+        }
+        try {
+            async.hasNext();
+            fail("The fetch error was not rethrown");
+        } catch (RuntimeException e) {
+            assertEquals(getFailureMessage(), broken, e.getCause());
+        }
+        assertFalse(async.hasNext());
+        async.shutdown();
+    }
+
+    @Test
+    public void testAsyncIteratorShutdownReleasesConsumer() throws Exception {
+        final AsyncDataSetIterator async = new AsyncDataSetIterator(new IrisDataSetIterator(10, 150) {
+            @Override
+            public DataSet next() {
+                try {
+                    Thread.sleep(60000);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return super.next();
+            }
+        });
+        final boolean[] hasNext = {true};
+        Thread consumer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                hasNext[0] = async.hasNext();
+            }
+        });
+        consumer.start();
+        Thread.sleep(200);
+        async.shutdown();
+        consumer.join(5000);
+        assertFalse(consumer.isAlive());
+        assertFalse(hasNext[0]);
+    }
+
     @Override
     public char ordering() {
         return 'f';
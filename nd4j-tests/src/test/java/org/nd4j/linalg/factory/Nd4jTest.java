@@ -2,9 +2,11 @@ package org.nd4j.linalg.factory;
 
 import org.junit.Test;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.rng.DefaultRandom;
 import org.nd4j.linalg.api.rng.Random;
+import org.nd4j.linalg.api.rng.distribution.impl.BinomialDistribution;
 
 import static org.junit.Assert.assertEquals;
 
@@ -42,6 +44,46 @@ public class Nd4jTest extends BaseNd4jTest {
         assertEquals(ret, ret2);
     }
 
+    @Test
+    public void testRandomStreams() throws Exception {
+        final DefaultRandom random = new DefaultRandom(123);
+        //task streams only depend on the seed and the index
+        assertEquals(random.stream(3).nextDouble(), new DefaultRandom(123).stream(3).nextDouble(), 0);
+        assertTrue(random.stream(3).nextLong() != random.stream(4).nextLong());
+
+        //threads draw from their own streams
+        final long[] other = new long[1];
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                other[0] = random.nextLong();
+            }
+        });
+        thread.start();
+        thread.join();
+        assertTrue(other[0] != random.nextLong());
+    }
+
+    @Test
+    public void testFillBuffer() {
+        Random random = new DefaultRandom(123);
+        DataBuffer buffer = Nd4j.createBuffer(10000);
+        random.fill(buffer, 2, 3);
+        for (int i = 0; i < buffer.length(); i++)
+            assertTrue(buffer.getDouble(i) >= 2 && buffer.getDouble(i) < 3);
+
+        random.fillGaussian(buffer, 5, 0.5);
+        assertEquals(5, Nd4j.create(buffer, new int[]{1, buffer.length()}).meanNumber().doubleValue(), 0.05);
+
+        new BinomialDistribution(random, 10, 0.3).fill(buffer);
+        double sum = 0;
+        for (int i = 0; i < buffer.length(); i++) {
+            assertEquals(Math.rint(buffer.getDouble(i)), buffer.getDouble(i), 0);
+            sum += buffer.getDouble(i);
+        }
+        assertEquals(3, sum / buffer.length(), 0.1);
+    }
+
     @Test
     public void testCreateShape() {
         INDArray ret = Nd4j.create(new int[]{4, 2});
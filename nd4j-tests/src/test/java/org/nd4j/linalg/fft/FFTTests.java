@@ -169,6 +169,46 @@ public  class FFTTests extends BaseNd4jTest {
         }
     }
 
+    @Test
+    public void testFastFftMatchesDft() {
+        //radix 2, mixed radix and bluestein lengths
+        int[] lengths = {16, 12, 17, 134};
+        for(int n : lengths) {
+            double[] data = new double[2 * n];
+            for(int i = 0; i < n; i++) {
+                data[2 * i] = Math.sin(i);
+                data[2 * i + 1] = Math.cos(3 * i);
+            }
+
+            double[] dft = new double[2 * n];
+            for(int k = 0; k < n; k++)
+                for(int j = 0; j < n; j++) {
+                    double angle = -2 * Math.PI * ((long) j * k % n) / n;
+                    dft[2 * k] += data[2 * j] * Math.cos(angle) - data[2 * j + 1] * Math.sin(angle);
+                    dft[2 * k + 1] += data[2 * j] * Math.sin(angle) + data[2 * j + 1] * Math.cos(angle);
+                }
+
+            double[] fft = data.clone();
+            FFTEngine.fft(fft, n);
+            for(int i = 0; i < 2 * n; i++)
+                assertEquals(dft[i], fft[i], 1e-9);
+
+            FFTEngine.ifft(fft, n);
+            for(int i = 0; i < 2 * n; i++)
+                assertEquals(data[i], fft[i], 1e-9);
+        }
+    }
+
+    @Test
+    public void testRealFft() {
+        Nd4j.EPS_THRESHOLD = 1e-1;
+        INDArray real = Nd4j.linspace(1, 10, 10);
+        IComplexNDArray fromReal = FFT.fft(real, 10);
+        IComplexNDArray fromComplex = FFT.fft(Nd4j.createComplex(real), 10);
+        assertEquals(getFailureMessage(), fromComplex, fromReal);
+        assertEquals(getFailureMessage(), Nd4j.createComplex(real), FFT.ifft(fromReal, 10));
+    }
+
     @Override
     public char ordering() {
         return 'f';
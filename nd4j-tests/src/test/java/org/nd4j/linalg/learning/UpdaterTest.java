@@ -27,6 +27,8 @@ import org.nd4j.linalg.factory.Nd4jBackend;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
 
 public class UpdaterTest extends BaseNd4jTest {
@@ -131,6 +133,60 @@ public class UpdaterTest extends BaseNd4jTest {
 
 	}
 
+	@Test
+	public void testFusedUpdatesMatchReference() {
+		Adam adam = new Adam();
+		RmsPropUpdater rmsProp = new RmsPropUpdater();
+		INDArray gradients = Nd4j.rand(3, 10).subi(0.5);
+		double[] m = new double[10], v = new double[10], cache = new double[10];
+		for(int t = 0; t < 3; t++) {
+			INDArray gradient = gradients.getRow(t);
+			INDArray adamUpdate = adam.getGradient(gradient.dup(), t);
+			INDArray rmsUpdate = rmsProp.getGradient(gradient.dup(), t);
+			double lr = 1e-3 * Math.sqrt(1 - Math.pow(0.99, t + 1)) / (1 - Math.pow(0.9, t + 1));
+			double beta1 = 0.9 * Math.pow(1 - 1e-8, t);
+			for(int i = 0; i < 10; i++) {
+				double g = gradient.getDouble(i);
+				m[i] = beta1 * m[i] + (1 - beta1) * g;
+				v[i] = 0.99 * v[i] + 0.01 * g * g;
+				assertEquals(lr * m[i] / (Math.sqrt(v[i]) + Nd4j.EPS_THRESHOLD), adamUpdate.getDouble(i), 1e-5);
+				cache[i] = 0.5 * cache[i] + 0.5 * g * g;
+				assertEquals(-0.1 * g / Math.sqrt(cache[i] + Nd4j.EPS_THRESHOLD), rmsUpdate.getDouble(i), 1e-4);
+			}
+		}
+	}
+
+	@Test
+	public void testAdaptiveUpdatesMatchReference() {
+		AdaGrad adaGrad = new AdaGrad(1, 10, 0.1);
+		AdaDelta adaDelta = new AdaDelta();
+		Nesterovs nesterovs = new Nesterovs(0.9, 0.1);
+		INDArray gradients = Nd4j.rand(5, 10).subi(0.5);
+		double[] history = new double[10], msg = new double[10], msdx = new double[10], velocity = new double[10];
+		//adagrad's history starts at one rather than zero
+		Arrays.fill(history, 1.0);
+		double eps = Nd4j.EPS_THRESHOLD;
+		for(int t = 0; t < 5; t++) {
+			INDArray gradient = gradients.getRow(t);
+			INDArray adaGradUpdate = adaGrad.getGradient(gradient.dup(), t);
+			INDArray adaDeltaUpdate = adaDelta.getGradient(gradient.dup(), t);
+			INDArray nesterovsUpdate = nesterovs.getGradient(gradient.dup(), t);
+			for(int i = 0; i < 10; i++) {
+				double g = gradient.getDouble(i);
+				history[i] += g * g;
+				assertEquals(0.1 * g / (Math.sqrt(history[i]) + eps), adaGradUpdate.getDouble(i), 1e-5);
+
+				msg[i] = 0.95 * msg[i] + 0.05 * g * g;
+				double delta = Math.sqrt((msdx[i] + eps) / (msg[i] + eps)) * g;
+				msdx[i] = 0.95 * msdx[i] + 0.05 * delta * delta;
+				assertEquals(delta, adaDeltaUpdate.getDouble(i), 1e-4);
+
+				velocity[i] = 0.9 * velocity[i] - 0.1 * g;
+				assertEquals(velocity[i], nesterovsUpdate.getDouble(i), 1e-5);
+			}
+		}
+	}
+
 	@Override
 	public char ordering() {
 		return 'f';
@@ -82,16 +82,75 @@ public  class LossFunctionTests extends BaseNd4jTest {
         INDArray softmax = Nd4j.create(new double[][]{{0.6, 0.4}, {0.7, 0.3}});
         INDArray trueLabels = Nd4j.create(new double[][]{{1, 0}, {0, 1}});
         double score = LossFunctions.score(trueLabels, LossFunctions.LossFunction.NEGATIVELOGLIKELIHOOD, softmax, 0, false);
-        assertEquals(getFailureMessage(),0.5108172905023116, score, 1e-1);
+        //every example is scored: the mean over both rows
+        assertEquals(getFailureMessage(),1.7147984280919268, score, 1e-6);
 
 
         INDArray softmax2 = Nd4j.create(new double[][]{{0.33, 0.33, 0.33}, {0.33, 0.33, 0.33}});
         INDArray trueLabels2 = Nd4j.create(new double[][]{{1, 0, 0}, {1, 0, 0}});
         double score2 = LossFunctions.score(trueLabels2, LossFunctions.LossFunction.NEGATIVELOGLIKELIHOOD, softmax2, 0, false);
-        assertEquals(getFailureMessage(),0.954793727572726, score2, 1e-1);
+        assertEquals(getFailureMessage(),1.9096177577158616, score2, 1e-6);
 
     }
 
+    @Test
+    public void testFusedScoreAndGradient() {
+        INDArray labels = Nd4j.create(new double[][]{{1, 0}, {0, 1}});
+        INDArray z = Nd4j.create(new double[][]{{0.6, 0.4}, {0.7, 0.3}});
+        INDArray gradient = Nd4j.create(2, 2);
+        double score = LossCalculation.builder().labels(labels).z(z).gradient(gradient)
+                .lossFunction(LossFunctions.LossFunction.NEGATIVELOGLIKELIHOOD).build().score();
+        assertEquals(getFailureMessage(), -(2 * Math.log(0.6) + 2 * Math.log(0.3)) / 2, score, 1e-6);
+        assertEquals(getFailureMessage(), -0.5 / 0.6, gradient.getDouble(0, 0), 1e-6);
+        assertEquals(getFailureMessage(), 0.5 / 0.6, gradient.getDouble(0, 1), 1e-6);
+        assertEquals(getFailureMessage(), 0.5 / 0.3, gradient.getDouble(1, 0), 1e-6);
+        assertEquals(getFailureMessage(), -0.5 / 0.3, gradient.getDouble(1, 1), 1e-6);
+        //the output is left alone
+        assertEquals(getFailureMessage(), 0.6, z.getDouble(0, 0), 1e-6);
+
+        double mse = LossCalculation.builder().labels(labels).z(z).gradient(gradient)
+                .lossFunction(LossFunctions.LossFunction.MSE).build().score();
+        double mseDelta = LossCalculation.builder().labels(labels).delta(labels.sub(z))
+                .lossFunction(LossFunctions.LossFunction.MSE).build().score();
+        assertEquals(getFailureMessage(), 0.5 * (0.16 + 0.16 + 0.49 + 0.49), mse, 1e-6);
+        assertEquals(getFailureMessage(), mse, mseDelta, 1e-6);
+        assertEquals(getFailureMessage(), z.getDouble(1, 0) - labels.getDouble(1, 0), gradient.getDouble(1, 0), 1e-6);
+
+        //a zero output gives a finite loss
+        double clamped = LossFunctions.score(labels, LossFunctions.LossFunction.MCXENT, Nd4j.zeros(2, 2), 0, false);
+        assertFalse(Double.isInfinite(clamped) || Double.isNaN(clamped));
+    }
+
+    @Test
+    public void testCrossEntropyScoreAndGradient() {
+        INDArray labels = Nd4j.create(new double[][]{{1, 0, 1}, {0, 0, 1}});
+        INDArray z = Nd4j.create(new double[][]{{0.8, 0.3, 0.6}, {0.1, 0.55, 0.9}});
+        double expected = 0;
+        for (int i = 0; i < 2; i++)
+            for (int j = 0; j < 3; j++) {
+                double l = labels.getDouble(i, j);
+                double p = z.getDouble(i, j);
+                expected -= l * Math.log(p) + (1 - l) * Math.log(1 - p);
+            }
+
+        for (LossFunctions.LossFunction lossFunction : new LossFunctions.LossFunction[]{LossFunctions.LossFunction.XENT, LossFunctions.LossFunction.RECONSTRUCTION_CROSSENTROPY}) {
+            INDArray gradient = Nd4j.create(2, 3);
+            double score = LossCalculation.builder().labels(labels).z(z).gradient(gradient)
+                    .lossFunction(lossFunction).build().score();
+            assertEquals(getFailureMessage(), expected, score, 1e-5);
+            for (int i = 0; i < 2; i++)
+                for (int j = 0; j < 3; j++) {
+                    double l = labels.getDouble(i, j);
+                    double p = z.getDouble(i, j);
+                    assertEquals(getFailureMessage(), (p - l) / (p * (1 - p)), gradient.getDouble(i, j), 1e-5);
+                }
+        }
+
+        //xent is averaged over the examples, reconstruction is averaged twice as before
+        assertEquals(getFailureMessage(), expected / 2, LossFunctions.score(labels, LossFunctions.LossFunction.XENT, z, 0, false), 1e-5);
+        assertEquals(getFailureMessage(), expected / 4, LossFunctions.score(labels, LossFunctions.LossFunction.RECONSTRUCTION_CROSSENTROPY, z, 0, false), 1e-5);
+    }
+
     @Override
     public char ordering() {
         return 'f';
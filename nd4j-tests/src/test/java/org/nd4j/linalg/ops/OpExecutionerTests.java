@@ -27,6 +27,7 @@ import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.buffer.FloatBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.exception.IllegalOpException;
+import org.nd4j.linalg.api.ops.executioner.Loop;
 import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.api.ops.impl.accum.*;
 import org.nd4j.linalg.api.ops.impl.accum.distances.EuclideanDistance;
@@ -43,6 +44,7 @@ import org.nd4j.linalg.ops.transforms.Transforms;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Created by agibsonccc on 2/22/15.
@@ -346,6 +348,130 @@ public  class OpExecutionerTests extends BaseNd4jTest {
 
     }
 
+    @Test
+    public void testStridedExecutionMode() {
+        OpExecutioner opExecutioner = Nd4j.getExecutioner();
+        OpExecutioner.ExecutionMode mode = opExecutioner.executionMode();
+        INDArray arr = Nd4j.linspace(1, 24, 24).reshape(4, 6);
+        INDArray view = arr.transpose();
+        INDArray other = Nd4j.linspace(1, 24, 24).reshape(6, 4);
+
+        INDArray javaLog = opExecutioner.execAndReturn(new Log(view.dup()));
+        INDArray javaAdd = opExecutioner.execAndReturn(new AddOp(view.dup(), other, view.dup()));
+        double javaSum = opExecutioner.execAndReturn(new Sum(view)).currentResult().doubleValue();
+        double javaNorm2 = opExecutioner.execAndReturn(new Norm2(view)).currentResult().doubleValue();
+        try {
+            opExecutioner.setExecutionMode(OpExecutioner.ExecutionMode.STRIDED);
+            INDArray stridedLog = view.dup();
+            opExecutioner.exec(new Log(stridedLog));
+            assertEquals(getFailureMessage(), javaLog, stridedLog);
+            INDArray stridedAdd = view.dup();
+            opExecutioner.exec(new AddOp(stridedAdd, other, stridedAdd));
+            assertEquals(getFailureMessage(), javaAdd, stridedAdd);
+            assertEquals(getFailureMessage(), javaSum, opExecutioner.execAndReturn(new Sum(view)).currentResult().doubleValue(), 1e-1);
+            assertEquals(getFailureMessage(), javaNorm2, opExecutioner.execAndReturn(new Norm2(view)).currentResult().doubleValue(), 1e-1);
+        } finally {
+            opExecutioner.setExecutionMode(mode);
+        }
+    }
+
+    @Test
+    public void testParallelExecutionMode() {
+        OpExecutioner opExecutioner = Nd4j.getExecutioner();
+        OpExecutioner.ExecutionMode mode = opExecutioner.executionMode();
+        int threshold = Nd4j.parallelThreshold;
+        INDArray arr = Nd4j.rand(100, 300).transpose();
+        INDArray other = Nd4j.rand(300, 100);
+
+        INDArray javaExp = opExecutioner.execAndReturn(new Exp(arr.dup()));
+        double javaSum = opExecutioner.execAndReturn(new Sum(arr)).currentResult().doubleValue();
+        double javaDot = opExecutioner.execAndReturn(new Dot(arr, other)).currentResult().doubleValue();
+        double javaVar = opExecutioner.execAndReturn(new Variance(arr)).currentResult().doubleValue();
+        int javaMax = opExecutioner.execAndReturn(new IAMax(arr)).currentResult().intValue();
+        try {
+            Nd4j.parallelThreshold = 0;
+            opExecutioner.setExecutionMode(OpExecutioner.ExecutionMode.PARALLEL);
+            INDArray parallelExp = arr.dup();
+            opExecutioner.exec(new Exp(parallelExp));
+            assertEquals(getFailureMessage(), javaExp, parallelExp);
+            assertEquals(getFailureMessage(), javaSum, opExecutioner.execAndReturn(new Sum(arr)).currentResult().doubleValue(), 1e-1);
+            assertEquals(getFailureMessage(), javaDot, opExecutioner.execAndReturn(new Dot(arr, other)).currentResult().doubleValue(), 1e-1);
+            assertEquals(getFailureMessage(), javaVar, opExecutioner.execAndReturn(new Variance(arr)).currentResult().doubleValue(), 1e-3);
+            assertEquals(getFailureMessage(), javaMax, opExecutioner.execAndReturn(new IAMax(arr)).currentResult().intValue());
+        } finally {
+            Nd4j.parallelThreshold = threshold;
+            opExecutioner.setExecutionMode(mode);
+        }
+    }
+
+    @Test
+    public void testIAMaxAbsoluteValue() {
+        OpExecutioner opExecutioner = Nd4j.getExecutioner();
+        OpExecutioner.ExecutionMode mode = opExecutioner.executionMode();
+        int threshold = Nd4j.parallelThreshold;
+        INDArray arr = Nd4j.linspace(1, 20000, 20000);
+        arr.putScalar(10000, -50000);
+        arr.putScalar(18000, 50000);
+        assertEquals(getFailureMessage(), 10000, opExecutioner.execAndReturn(new IAMax(arr)).currentResult().intValue());
+        assertEquals(getFailureMessage(), 1, opExecutioner.execAndReturn(new IAMax(Nd4j.create(new double[]{1, -3, 2}))).currentResult().intValue());
+        try {
+            Nd4j.parallelThreshold = 0;
+            opExecutioner.setExecutionMode(OpExecutioner.ExecutionMode.PARALLEL);
+            assertEquals(getFailureMessage(), 10000, opExecutioner.execAndReturn(new IAMax(arr)).currentResult().intValue());
+        } finally {
+            Nd4j.parallelThreshold = threshold;
+            opExecutioner.setExecutionMode(mode);
+        }
+    }
+
+    @Test
+    public void testLoopRethrowsFailures() {
+        final String message = "failed at 500";
+        try {
+            Loop.withIndex(0, 1000, new Loop.Each() {
+                @Override
+                public void run(int i) {
+                    if(i == 500)
+                        throw new IllegalArgumentException(message);
+                }
+            });
+            fail("The failure of the body was not rethrown");
+        } catch (IllegalArgumentException e) {
+            assertEquals(getFailureMessage(), message, e.getMessage());
+        }
+    }
+
+    @Test
+    public void testDimensionReductionExecutor() {
+        OpExecutioner opExecutioner = Nd4j.getExecutioner();
+        OpExecutioner.ExecutionMode mode = opExecutioner.executionMode();
+        INDArray arr = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+        INDArray rowSums = Nd4j.create(1, 3);
+        INDArray columnMeans = Nd4j.create(1, 4);
+        INDArray rowMax = Nd4j.create(1, 3);
+        for(int i = 0; i < 3; i++) {
+            for(int j = 0; j < 4; j++) {
+                double val = arr.getDouble(i, j);
+                rowSums.putScalar(i, rowSums.getDouble(i) + val);
+                columnMeans.putScalar(j, columnMeans.getDouble(j) + val / 3.0);
+                if(j == 0 || val > rowMax.getDouble(i))
+                    rowMax.putScalar(i, val);
+            }
+        }
+
+        try {
+            for(OpExecutioner.ExecutionMode executionMode : new OpExecutioner.ExecutionMode[]{OpExecutioner.ExecutionMode.STRIDED, OpExecutioner.ExecutionMode.PARALLEL}) {
+                opExecutioner.setExecutionMode(executionMode);
+                assertEquals(getFailureMessage(), rowSums, arr.sum(1));
+                assertEquals(getFailureMessage(), columnMeans, arr.mean(0));
+                assertEquals(getFailureMessage(), rowMax, arr.max(1));
+                assertEquals(getFailureMessage(), rowSums, arr.transpose().sum(0));
+            }
+        } finally {
+            opExecutioner.setExecutionMode(mode);
+        }
+    }
+
 
     @Override
     public char ordering() {
@@ -97,6 +97,44 @@ public class ConcatTestsC extends BaseNd4jTest {
         assertEquals(tensor,ones);
     }
 
+    @Test
+    public void testConcatTensorsAlongEachDimension() {
+        //a strided view and a packed array of the same shape
+        INDArray first = Nd4j.linspace(1, 24, 24).reshape(4, 3, 2).permute(2, 1, 0);
+        INDArray second = Nd4j.linspace(25, 48, 24).reshape(2, 3, 4);
+        for(int dimension = 0; dimension < 3; dimension++) {
+            INDArray concat = Nd4j.concat(dimension, first, second);
+            int[] shape = first.shape().clone();
+            shape[dimension] += second.size(dimension);
+            assertTrue(Arrays.equals(shape, concat.shape()));
+            for(int i = 0; i < shape[0]; i++) {
+                for(int j = 0; j < shape[1]; j++) {
+                    for(int k = 0; k < shape[2]; k++) {
+                        int[] idx = {i, j, k};
+                        INDArray source = first;
+                        if(idx[dimension] >= first.size(dimension)) {
+                            idx[dimension] -= first.size(dimension);
+                            source = second;
+                        }
+                        assertEquals(source.getDouble(idx), concat.getDouble(i, j, k), 1e-6);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testToFlattenedKeepsLinearOrder() {
+        INDArray matrix = Nd4j.linspace(1, 6, 6).reshape(2, 3);
+        INDArray column = Nd4j.linspace(7, 9, 3).transpose();
+        INDArray flattened = Nd4j.toFlattened(Arrays.asList(matrix, column));
+        assertEquals(9, flattened.length());
+        for(int i = 0; i < matrix.length(); i++)
+            assertEquals(matrix.getDouble(i), flattened.getDouble(i), 1e-6);
+        for(int i = 0; i < column.length(); i++)
+            assertEquals(column.getDouble(i), flattened.getDouble(matrix.length() + i), 1e-6);
+    }
+
     @Override
     public char ordering() {
         return 'c';
@@ -3,7 +3,6 @@ package org.nd4j.linalg.cpu.blas;
 import com.github.fommil.netlib.BLAS;
 import org.jblas.NativeBlas;
 import org.nd4j.linalg.api.blas.impl.BaseLevel3;
-import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.complex.IComplexDouble;
 import org.nd4j.linalg.api.complex.IComplexFloat;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
@@ -12,6 +11,9 @@ import org.nd4j.linalg.cpu.util.CpuComplex;
 import org.nd4j.linalg.util.Shape;
 
 import static org.nd4j.linalg.api.blas.BlasBufferUtil.getBlasOffset;
+import static org.nd4j.linalg.api.blas.BlasBufferUtil.getBackingDoubleData;
+import static org.nd4j.linalg.api.blas.BlasBufferUtil.getBackingFloatData;
+import static org.nd4j.linalg.api.blas.BlasBufferUtil.setBackingData;
 import static org.nd4j.linalg.api.blas.BlasBufferUtil.setData;
 
 
@@ -24,15 +26,10 @@ import static org.nd4j.linalg.api.blas.BlasBufferUtil.setData;
 public class CpuLevel3 extends BaseLevel3 {
     @Override
     protected void sgemm(char Order, char TransA, char TransB, int M, int N, int K, float alpha, INDArray A, int lda, INDArray B, int ldb, float beta, INDArray C, int ldc) {
-        A = Shape.toOffsetZero(A);
-        B = Shape.toOffsetZero(B);
-
-        DataBuffer aData = A.data();
-        DataBuffer bData = B.data();
-
-        float[] cData = getFloatData(C);
-        BLAS.getInstance().sgemm(String.valueOf(TransA),String.valueOf(TransB),M,N,K,alpha,aData.asFloat(),getBlasOffset(A),lda,bData.asFloat(),getBlasOffset(B),ldb,beta,cData,getBlasOffset(C),ldc);
-        setData(cData, C);
+        //views are read in place through their offset and leading dimension
+        float[] cData = getBackingFloatData(C);
+        BLAS.getInstance().sgemm(String.valueOf(TransA), String.valueOf(TransB), M, N, K, alpha, getBackingFloatData(A), getBlasOffset(A), lda, getBackingFloatData(B), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
+        setBackingData(cData, C);
     }
 
     @Override
@@ -66,15 +63,10 @@ public class CpuLevel3 extends BaseLevel3 {
 
     @Override
     protected void dgemm(char Order, char TransA, char TransB, int M, int N, int K, double alpha, INDArray A, int lda, INDArray B, int ldb, double beta, INDArray C, int ldc) {
-        A = Shape.toOffsetZero(A);
-        B = Shape.toOffsetZero(B);
-
-        DataBuffer aData = A.data();
-        DataBuffer bData = B.data();
-
-        double[] cData = getDoubleData(C);
-        BLAS.getInstance().dgemm(String.valueOf(TransA), String.valueOf(TransB), M, N, K, alpha, aData.asDouble(), getBlasOffset(A), lda, bData.asDouble(), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
-        setData(cData, C);
+        //views are read in place through their offset and leading dimension
+        double[] cData = getBackingDoubleData(C);
+        BLAS.getInstance().dgemm(String.valueOf(TransA), String.valueOf(TransB), M, N, K, alpha, getBackingDoubleData(A), getBlasOffset(A), lda, getBackingDoubleData(B), getBlasOffset(B), ldb, beta, cData, getBlasOffset(C), ldc);
+        setBackingData(cData, C);
     }
 
     @Override